@@ -203,6 +203,9 @@ public class MathProblem
     public double computeRawFitness(final IGPProgram ind) {
       double error = 0.0f;
       Object[] noargs = new Object[0];
+      // The program is executed for many input numbers, so compile it once.
+      // --------------------------------------------------------------------
+      CompiledProgram prog = CompiledProgram.compile(ind, 0);
       // Evaluate function for input numbers 0 to 20.
       // --------------------------------------------
       for (int i = 0; i < 20; i++) {
@@ -216,7 +219,7 @@ public class MathProblem
           // As in method create(), the return type is declared as float (see
           // declaration of array "types").
           // ----------------------------------------------------------------
-          double result = ind.execute_float(0, noargs);
+          double result = prog.execute_float(noargs);
           // Sum up the error between actual and expected result to get a defect
           // rate.
           // -------------------------------------------------------------------
@@ -1118,49 +1118,38 @@ public class SymbolicRegression
       return computeRawFitness(a_subject);
     }
 
+    /**
+     * The input data in columns, one per input variable.
+     */
+    private transient double[][] m_inputs;
+
     public double computeRawFitness(final IGPProgram ind) {
       double error = 0.0f;
-      Object[] noargs = new Object[0];
-      // Evaluate function for the input numbers
-      // --------------------------------------------
-      // double[] results  =  new double[numRows];
+      // Evaluate function for all input rows at once.
+      // ---------------------------------------------
+      double[] results = new double[numRows];
+      try {
+        ind.execute_double(0, variables, getInputs(), results);
+      } catch (ArithmeticException ex) {
+        // This should not happen, some illegal operation was executed.
+        // ------------------------------------------------------------
+        System.out.println(ind);
+        throw ex;
+      }
       for (int j = 0; j < numRows; j++) {
-        // Provide the variable X with the input number.
-        // See method create(), declaration of "nodeSets" for where X is
-        // defined.
-        // -------------------------------------------------------------
+        // Sum up the error between actual and expected result to get a defect
+        // rate.
+        // -------------------------------------------------------------------
 
-        // set all the input variables
-        int variableIndex = 0;
-        for (int i = 0; i < numInputVariables + 1; i++) {
-          if (i != outputVariable) {
-            variables[variableIndex].set(data[i][j]);
-            variableIndex++;
-          }
-        }
-        try {
-          double result = ind.execute_double(0, noargs);
-          // results[j] = result;
+        // hakank: TODO: test with different metrics...
+        error += Math.abs(results[j] - data[outputVariable][j]); // original
+        // error += Math.pow(Math.abs(results[j] - data[outputVariable][j]),2);
 
-          // Sum up the error between actual and expected result to get a defect
-          // rate.
-          // -------------------------------------------------------------------
-
-          // hakank: TODO: test with different metrics...
-          error += Math.abs(result - data[outputVariable][j]); // original
-          // error += Math.pow(Math.abs(result - data[outputVariable][j]),2);
-
-          // If the error is too high, stop evaluation and return worst error
-          // possible.
-          // ----------------------------------------------------------------
-          if (Double.isInfinite(error)) {
-            return Double.MAX_VALUE;
-          }
-        } catch (ArithmeticException ex) {
-          // This should not happen, some illegal operation was executed.
-          // ------------------------------------------------------------
-          System.out.println(ind);
-          throw ex;
+        // If the error is too high, stop evaluation and return worst error
+        // possible.
+        // ----------------------------------------------------------------
+        if (Double.isInfinite(error)) {
+          return Double.MAX_VALUE;
         }
       }
       /*
@@ -1209,6 +1198,27 @@ public class SymbolicRegression
         return error;
       }
     }
+
+    /**
+     * @return the input data in columns, one per input variable, in the order
+     * of the variables
+     */
+    private double[][] getInputs() {
+      if (m_inputs == null) {
+        double[][] inputs = new double[numInputVariables][numRows];
+        int variableIndex = 0;
+        for (int i = 0; i < numInputVariables + 1; i++) {
+          if (i != outputVariable) {
+            for (int j = 0; j < numRows; j++) {
+              inputs[variableIndex][j] = data[i][j].doubleValue();
+            }
+            variableIndex++;
+          }
+        }
+        m_inputs = inputs;
+      }
+      return m_inputs;
+    }
   }
   /**
    * Outputs the best solution until now at standard output.
@@ -58,6 +58,85 @@ public abstract class BaseGeneticOperator
     return m_configuration;
   }
 
+  /**
+   * Helper for partitioned operators (see IPartitionedGeneticOperator):
+   * splits a_count units of work into a_partitions shares differing by at
+   * most one. The share of partition p starts at partitionStart(count, p, n)
+   * and ends before partitionStart(count, p + 1, n).
+   *
+   * @param a_count number of units to split, e.g. the population size
+   * @param a_partition number of the partition, 0 to a_partitions
+   * @param a_partitions number of partitions
+   * @return first unit of the given partition
+   *
+   * @author agent
+   * @since 3.7
+   */
+  protected static int partitionStart(int a_count, int a_partition,
+                                      int a_partitions) {
+    return (int) ( (long) a_count * a_partition / a_partitions);
+  }
+
+  /**
+   * Helper for operators supporting incremental fitness evaluation (see
+   * IIncrementalFitnessFunction): attaches a FitnessDelta to a child just
+   * cloned from its parent. The delta starts at the parent's fitness value if
+   * the parent has been evaluated, otherwise it continues the delta of the
+   * parent. The operator then has to record every change of the child with
+   * FitnessDelta.recordChange before performing it.
+   *
+   * @param a_parent the chromosome the child has been cloned from
+   * @param a_child the clone to be changed by the operator
+   * @return the delta attached to the child, or null if incremental
+   * evaluation is not possible, e.g. because the fitness function does not
+   * support it
+   *
+   * @author agent
+   * @since 3.7
+   */
+  protected FitnessDelta trackFitnessDelta(IChromosome a_parent,
+                                           IChromosome a_child) {
+    if (! (a_child instanceof Chromosome)) {
+      return null;
+    }
+    Chromosome child = (Chromosome) a_child;
+    FitnessDelta delta = null;
+    if (a_parent instanceof Chromosome
+        && getConfiguration().getFitnessFunction()
+        instanceof IIncrementalFitnessFunction) {
+      Chromosome parent = (Chromosome) a_parent;
+      if (parent.isFitnessEvaluated()) {
+        delta = new FitnessDelta(parent.getFitnessValueDirectly(),
+                                 parent.getFitnessState());
+      }
+      else if (parent.getFitnessDelta() != null) {
+        delta = parent.getFitnessDelta().copy();
+      }
+    }
+    child.setFitnessDelta(delta);
+    return delta;
+  }
+
+  /**
+   * Helper for operators modifying the genes of a chromosome they have just
+   * cloned: returns the gene at the given locus, ready to be modified. With
+   * copy-on-write cloning (see Configuration.setCopyOnWriteCloning) this
+   * copies a gene still shared with the original.
+   *
+   * @param a_chrom the chromosome to modify
+   * @param a_locus the locus of the gene to modify
+   * @return the gene at the given locus
+   *
+   * @author agent
+   * @since 3.7
+   */
+  protected static Gene writableGene(IChromosome a_chrom, int a_locus) {
+    if (a_chrom instanceof Chromosome) {
+      return ( (Chromosome) a_chrom).getWritableGene(a_locus);
+    }
+    return a_chrom.getGene(a_locus);
+  }
+
   /**
    * Compares this GeneticOperator against the specified object. The result is
    * true if the argument is an instance of this class and is equal with respect
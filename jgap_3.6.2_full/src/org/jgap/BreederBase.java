@@ -138,7 +138,7 @@ public abstract class BreederBase
             a_config.getGenerationNr(),
             new Object[] {operator, a_pop, a_pop.getChromosomes()});
       }
-      operator.operate(a_pop, a_pop.getChromosomes());
+      operate(a_config, operator, a_pop);
       if (monitorActive) {
         // Monitor that operator has been performed.
         // -----------------------------------------
@@ -155,6 +155,23 @@ public abstract class BreederBase
     }
   }
 
+  /**
+   * Applies a single genetic operator, adding the resulting chromosomes to
+   * the population. Override to execute operators differently, e.g.
+   * concurrently.
+   *
+   * @param a_config the configuration to use
+   * @param a_operator the operator to apply
+   * @param a_pop the population to use as input
+   *
+   * @author agent
+   * @since 3.7
+   */
+  protected void operate(Configuration a_config, GeneticOperator a_operator,
+                         Population a_pop) {
+    a_operator.operate(a_pop, a_pop.getChromosomes());
+  }
+
   /**
    * @return deep clone of this instance
    *
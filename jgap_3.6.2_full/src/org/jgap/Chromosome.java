@@ -47,6 +47,7 @@ package org.jgap;
 
 import java.lang.reflect.*;
 import java.util.*;
+import java.util.concurrent.atomic.*;
 
 /**
  * Chromosomes represent potential solutions and consist of a fixed-length
@@ -128,6 +129,42 @@ public class Chromosome
    */
   private boolean m_alwaysCalculate;
 
+  /**
+   * Partial results of the last fitness evaluation, attached by an
+   * IIncrementalFitnessFunction.
+   *
+   * @since 3.7
+   */
+  private transient Object m_fitnessState;
+
+  /**
+   * Changes relative to the last evaluated ancestor, recorded by genetic
+   * operators for an IIncrementalFitnessFunction.
+   *
+   * @since 3.7
+   */
+  private transient FitnessDelta m_fitnessDelta;
+
+  /**
+   * True: m_evaluatedFitness has been computed by the fitness function for the
+   * current genes of this chromosome.
+   *
+   * @since 3.7
+   */
+  private transient boolean m_fitnessEvaluated;
+
+  private transient double m_evaluatedFitness;
+
+  /**
+   * Genes this chromosome shares with other chromosomes because of
+   * copy-on-write cloning, see getWritableGene(int). Each gene is mapped to
+   * the number of chromosomes holding it; all of them map the gene to the
+   * same counter. Null if no gene is shared.
+   *
+   * @since 3.7
+   */
+  private transient IdentityHashMap<Gene, AtomicInteger> m_sharedGenes;
+
   /**
    * Default constructor, only provided for dynamic instantiation.<p>
    * Attention: The configuration used is the one set with the static method
@@ -342,12 +379,18 @@ public class Chromosome
           "Chromosome prior to invocation of the clone() method.");
     }
     IChromosome copy = null;
-    // Now, first see if we can pull a Chromosome from the pool and just
-    // set its gene values (alleles) appropriately.
-    // ------------------------------------------------------------
     IChromosomePool pool = getConfiguration().getChromosomePool();
-    if (pool != null) {
-      copy = pool.acquireChromosome();
+    if (getConfiguration().isCopyOnWriteCloning()
+        && getClass() == Chromosome.class && size() > 0) {
+      // Let the copy share the genes, they are copied when written.
+      // -----------------------------------------------------------
+      copy = cloneSharingGenes();
+    }
+    else if (pool != null) {
+      // See if we can pull a Chromosome from the pool and just set its gene
+      // values (alleles) appropriately.
+      // -------------------------------------------------------------------
+      copy = acquireFromPool(pool, this);
       if (copy != null) {
         Gene[] genes = copy.getGenes();
         for (int i = 0; i < size(); i++) {
@@ -366,26 +409,7 @@ public class Chromosome
         if (size > 0) {
           Gene[] copyOfGenes = new Gene[size];
           for (int i = 0; i < size; i++) {
-            copyOfGenes[i] = getGene(i).newGene();
-            Object allele = getGene(i).getAllele();
-            if (allele != null) {
-              IJGAPFactory factory = getConfiguration().getJGAPFactory();
-              if (factory != null) {
-                ICloneHandler cloner = factory.
-                    getCloneHandlerFor(allele, allele.getClass());
-                if (cloner != null) {
-                  try {
-                    allele = cloner.perform(allele, null, this);
-                  } catch (Exception ex) {
-                    throw new RuntimeException(ex);
-                  }
-                }
-                else {
-                  /**@todo once output a warning: allele should be cloneable!*/
-                }
-              }
-            }
-            copyOfGenes[i].setAllele(allele);
+            copyOfGenes[i] = copyGene(getGene(i));
           }
           // Now construct a new Chromosome with the copies of the genes and
           // return it. Also clone the IApplicationData object later on.
@@ -464,6 +488,165 @@ public class Chromosome
     return copy;
   }
 
+  /**
+   * Creates a new gene of the same type holding a copy of the allele of the
+   * given gene.
+   *
+   * @param a_gene the gene to copy
+   * @return the copy
+   *
+   * @author agent
+   * @since 3.7
+   */
+  protected Gene copyGene(Gene a_gene) {
+    Gene copy = a_gene.newGene();
+    Object allele = a_gene.getAllele();
+    if (allele != null) {
+      IJGAPFactory factory = getConfiguration().getJGAPFactory();
+      if (factory != null) {
+        ICloneHandler cloner = factory.
+            getCloneHandlerFor(allele, allele.getClass());
+        if (cloner != null) {
+          try {
+            allele = cloner.perform(allele, null, this);
+          } catch (Exception ex) {
+            throw new RuntimeException(ex);
+          }
+        }
+        else {
+          /**@todo once output a warning: allele should be cloneable!*/
+        }
+      }
+    }
+    copy.setAllele(allele);
+    return copy;
+  }
+
+  /**
+   * Creates a chromosome sharing the genes of this one. The number of
+   * chromosomes holding each gene is increased, the gene is copied on first
+   * access via getWritableGene(int) by any of them.
+   *
+   * @return the new chromosome
+   *
+   * @author agent
+   * @since 3.7
+   */
+  private synchronized Chromosome cloneSharingGenes() {
+    Gene[] genes = getGenes();
+    Gene[] copyOfGenes = new Gene[genes.length];
+    System.arraycopy(genes, 0, copyOfGenes, 0, genes.length);
+    Chromosome copy;
+    try {
+      copy = new Chromosome(getConfiguration(), copyOfGenes);
+    } catch (InvalidConfigurationException iex) {
+      throw new IllegalStateException(iex.getMessage());
+    }
+    if (m_sharedGenes == null) {
+      m_sharedGenes = new IdentityHashMap<Gene, AtomicInteger>();
+    }
+    IdentityHashMap<Gene, AtomicInteger> shared =
+        new IdentityHashMap<Gene, AtomicInteger>();
+    for (int i = 0; i < genes.length; i++) {
+      Gene gene = genes[i];
+      if (shared.containsKey(gene)) {
+        continue;
+      }
+      AtomicInteger holders = m_sharedGenes.get(gene);
+      if (holders == null) {
+        holders = new AtomicInteger(1);
+        m_sharedGenes.put(gene, holders);
+      }
+      holders.incrementAndGet();
+      shared.put(gene, holders);
+    }
+    copy.m_sharedGenes = shared;
+    return copy;
+  }
+
+  /**
+   * Returns the gene at the given locus for being modified. If the gene is
+   * shared with another chromosome because of copy-on-write cloning (see
+   * Configuration.setCopyOnWriteCloning), it is replaced with a copy first.
+   * Without copy-on-write cloning this is the same as getGene(int).
+   *
+   * @param a_locus the locus of the gene to modify
+   * @return the gene at the given locus, owned by this chromosome only
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public synchronized Gene getWritableGene(int a_locus) {
+    Gene gene = getGene(a_locus);
+    if (m_sharedGenes == null) {
+      return gene;
+    }
+    AtomicInteger holders = m_sharedGenes.remove(gene);
+    if (m_sharedGenes.isEmpty()) {
+      m_sharedGenes = null;
+    }
+    // The last chromosome holding the gene may modify it in place.
+    // ------------------------------------------------------------
+    if (holders != null && holders.decrementAndGet() > 0) {
+      gene = copyGene(gene);
+      setGene(a_locus, gene);
+    }
+    return gene;
+  }
+
+  /**
+   * @param a_locus the locus to check
+   * @return true: the gene at the given locus may be shared with another
+   * chromosome, thus must be obtained via getWritableGene(int) for being
+   * modified
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public synchronized boolean isGeneShared(int a_locus) {
+    if (m_sharedGenes == null) {
+      return false;
+    }
+    // Looked up by identity, genes may have been rearranged since cloning.
+    // --------------------------------------------------------------------
+    AtomicInteger holders = m_sharedGenes.get(getGene(a_locus));
+    return holders != null && holders.get() > 1;
+  }
+
+  /**
+   * Gives up the sharing of genes with other chromosomes, the others may then
+   * modify them in place.
+   *
+   * @return for each locus, true if the gene is still held by another
+   * chromosome; null if no gene is
+   *
+   * @author agent
+   * @since 3.7
+   */
+  private synchronized boolean[] releaseSharedGenes() {
+    if (m_sharedGenes == null) {
+      return null;
+    }
+    boolean[] result = null;
+    int size = size();
+    for (int i = 0; i < size; i++) {
+      AtomicInteger holders = m_sharedGenes.remove(getGene(i));
+      if (holders != null && holders.decrementAndGet() > 0) {
+        if (result == null) {
+          result = new boolean[size];
+        }
+        result[i] = true;
+      }
+    }
+    // Genes replaced since cloning are no longer held either.
+    // -------------------------------------------------------
+    for (AtomicInteger holders : m_sharedGenes.values()) {
+      holders.decrementAndGet();
+    }
+    m_sharedGenes = null;
+    return result;
+  }
+
   /**
    * Clones an object by using clone handlers. If no deep cloning possible, then
    * return the reference.
@@ -684,7 +867,8 @@ public class Chromosome
     // -------------------------------------------------------------
     IChromosomePool pool = a_configuration.getChromosomePool();
     if (pool != null) {
-      IChromosome randomChromosome = pool.acquireChromosome();
+      IChromosome randomChromosome = acquireFromPool(pool,
+          a_configuration.getSampleChromosome());
       if (randomChromosome != null) {
         Gene[] genes = randomChromosome.getGenes();
         RandomGenerator generator = a_configuration.getRandomGenerator();
@@ -736,6 +920,33 @@ public class Chromosome
       return new Chromosome(a_configuration, newGenes);
   }
 
+  /**
+   * Acquires a chromosome from the given pool that is able to take the genes
+   * of the given chromosome, i.e. it is of the same class and size. Other
+   * chromosomes acquired are handed back via
+   * IChromosomePool.rejectChromosome(IChromosome).
+   *
+   * @param a_pool the pool to acquire the chromosome from
+   * @param a_template the chromosome to be matched
+   * @return a chromosome from the pool, or null if none available
+   *
+   * @author agent
+   * @since 3.7
+   */
+  protected static IChromosome acquireFromPool(IChromosomePool a_pool,
+      IChromosome a_template) {
+    IChromosome result = a_pool.acquireChromosome();
+    if (result != null && (result.getClass() != a_template.getClass()
+                           || result.size() != a_template.size())) {
+      a_pool.rejectChromosome(result);
+      return null;
+    }
+    if (result instanceof Chromosome) {
+      ( (Chromosome) result).resetFitnessTracking();
+    }
+    return result;
+  }
+
   /**
    * Compares this Chromosome against the specified object. The result is
    * true if and the argument is an instance of the Chromosome class
@@ -822,7 +1033,6 @@ public class Chromosome
     }
     int size = size();
     IChromosome otherChromosome = (IChromosome) other;
-    Gene[] otherGenes = otherChromosome.getGenes();
     // If the other Chromosome doesn't have the same number of genes,
     // then whichever has more is the "greater" Chromosome.
     // --------------------------------------------------------------
@@ -833,11 +1043,9 @@ public class Chromosome
     // one of the genes is not equal, then we return the result of its
     // comparison.
     // ---------------------------------------------------------------
-    for (int i = 0; i < size; i++) {
-      int comparison = getGene(i).compareTo(otherGenes[i]);
-      if (comparison != 0) {
-        return comparison;
-      }
+    int comparison = compareAlleles(otherChromosome);
+    if (comparison != 0) {
+      return comparison;
     }
     // Compare current fitness value.
     // ------------------------------
@@ -890,6 +1098,29 @@ public class Chromosome
     return 0;
   }
 
+  /**
+   * Compares the genes of this Chromosome with the genes of the given
+   * Chromosome of the same size, locus by locus.
+   *
+   * @param a_other the Chromosome to compare the genes with
+   * @return result of the first gene comparison not being zero, or zero if
+   * all genes are equal
+   *
+   * @author agent
+   * @since 3.7
+   */
+  protected int compareAlleles(IChromosome a_other) {
+    Gene[] otherGenes = a_other.getGenes();
+    int size = size();
+    for (int i = 0; i < size; i++) {
+      int comparison = getGene(i).compareTo(otherGenes[i]);
+      if (comparison != 0) {
+        return comparison;
+      }
+    }
+    return 0;
+  }
+
   /**
    * Sets whether this Chromosome has been selected by the natural selector
    * to continue to the next generation or manually (e.g. via an add-method).
@@ -936,6 +1167,7 @@ public class Chromosome
     m_fitnessValue = getConfiguration().getFitnessFunction().
         NO_FITNESS_VALUE;
     m_isSelectedForNextGeneration = false;
+    resetFitnessTracking();
     // Next we want to try to release this Chromosome to a ChromosomePool
     // if one has been setup so that we can save a little time and memory
     // next time a Chromosome is needed.
@@ -944,7 +1176,18 @@ public class Chromosome
     // and, if the pool exists, release this Chromosome to it.
     // -----------------------------------------------------------------
     IChromosomePool pool = getConfiguration().getChromosomePool();
-    if (pool != null) {
+    boolean[] stillShared = releaseSharedGenes();
+    if (stillShared != null) {
+      // Genes still held by other chromosomes must neither be cleaned up nor
+      // be recycled by the pool.
+      // --------------------------------------------------------------------
+      for (int i = 0; i < size(); i++) {
+        if (!stillShared[i]) {
+          getGene(i).cleanup();
+        }
+      }
+    }
+    else if (pool != null) {
       // Note that the pool will take care of any gene cleanup for us,
       // so we don't need to worry about it here.
       // -------------------------------------------------------------
@@ -1006,6 +1249,7 @@ public class Chromosome
   public void setGenes(Gene[] a_genes)
       throws InvalidConfigurationException {
     super.setGenes(a_genes);
+    m_fitnessEvaluated = false;
     verify(getConstraintChecker());
   }
 
@@ -1121,4 +1365,93 @@ public class Chromosome
   public List getMultiObjectives() {
     return m_multiObjective;
   }
+
+  /**
+   * Attaches partial results of the fitness evaluation to this chromosome.
+   * To be called by an IIncrementalFitnessFunction while evaluating this
+   * chromosome. The state is passed to the fitness function when evaluating
+   * descendants via FitnessDelta.getParentState(), so it must not be
+   * modified afterwards.
+   *
+   * @param a_state the state to attach, may be null
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public void setFitnessState(Object a_state) {
+    m_fitnessState = a_state;
+  }
+
+  /**
+   * @return partial results of the last fitness evaluation, or null
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public Object getFitnessState() {
+    return m_fitnessState;
+  }
+
+  /**
+   * @param a_delta the changes of this chromosome relative to its last
+   * evaluated ancestor, null if unknown
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public void setFitnessDelta(FitnessDelta a_delta) {
+    m_fitnessDelta = a_delta;
+  }
+
+  /**
+   * @return the changes of this chromosome relative to its last evaluated
+   * ancestor, or null if unknown or this chromosome has been evaluated since
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public FitnessDelta getFitnessDelta() {
+    return m_fitnessDelta;
+  }
+
+  /**
+   * @return true: the current fitness value has been computed by the fitness
+   * function for the current genes, so it may serve as the starting point of
+   * an incremental evaluation. False e.g. for clones and fitness values set
+   * from outside
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public boolean isFitnessEvaluated() {
+    return m_fitnessEvaluated && m_evaluatedFitness == m_fitnessValue;
+  }
+
+  /**
+   * Called by the fitness function after this chromosome has been
+   * evaluated.
+   *
+   * @param a_fitnessValue the computed fitness value
+   *
+   * @author agent
+   * @since 3.7
+   */
+  void fitnessEvaluated(double a_fitnessValue) {
+    m_evaluatedFitness = a_fitnessValue;
+    m_fitnessEvaluated = true;
+    m_fitnessDelta = null;
+  }
+
+  /**
+   * Forgets the partial results and changes recorded for incremental fitness
+   * evaluation. To be called whenever the fitness value is reset.
+   *
+   * @author agent
+   * @since 3.7
+   */
+  protected void resetFitnessTracking() {
+    m_fitnessState = null;
+    m_fitnessDelta = null;
+    m_fitnessEvaluated = false;
+  }
 }
@@ -11,6 +11,7 @@ package org.jgap;
 
 import java.io.*;
 import java.util.*;
+import java.util.concurrent.*;
 
 import org.apache.commons.lang.builder.*;
 import org.jgap.audit.*;
@@ -312,6 +313,15 @@ public class Configuration
    */
   private boolean m_alwaysCalculateFitness;
 
+  /**
+   * True: clones of chromosomes share the genes of the original until they
+   * are modified, see Chromosome.getWritableGene(int).
+   *
+   * @author agent
+   * @since 3.7
+   */
+  private boolean m_copyOnWriteCloning;
+
   private transient String threadKey;
 
   /**
@@ -339,6 +349,51 @@ public class Configuration
    */
   private IEvolutionMonitor m_monitor;
 
+  /**
+   * Executor used for evaluating the fitness of chromosomes concurrently.
+   * Null means sequential evaluation.
+   *
+   * @author agent
+   * @since 3.7
+   */
+  private transient ExecutorService m_fitnessExecutor;
+
+  /**
+   * Number of tasks the fitness evaluation is split into when running
+   * concurrently. Zero or below: number of available processors.
+   *
+   * @author agent
+   * @since 3.7
+   */
+  private int m_fitnessParallelism;
+
+  /**
+   * Executor used for applying genetic operators concurrently. Null means
+   * sequential execution.
+   *
+   * @author agent
+   * @since 3.7
+   */
+  private transient ExecutorService m_operatorExecutor;
+
+  /**
+   * Number of partitions each genetic operator is split into when running
+   * concurrently. Zero or below: number of available processors.
+   *
+   * @author agent
+   * @since 3.7
+   */
+  private int m_operatorParallelism;
+
+  /**
+   * Determines the chromosomes removed when the population exceeds the
+   * population size.
+   *
+   * @author agent
+   * @since 3.7
+   */
+  private IPopulationTrimmer m_populationTrimmer;
+
   public Configuration() {
     this("", null);
   }
@@ -1046,6 +1101,105 @@ public class Configuration
     return m_chromosomePool;
   }
 
+  /**
+   * Sets the executor to use for evaluating the fitness of chromosomes
+   * concurrently. Only fitness functions implementing
+   * IConcurrentFitnessFunction are evaluated concurrently, all others are
+   * still evaluated sequentially.<p>
+   * Any ExecutorService may be used, e.g. a fixed thread pool (see
+   * ParallelFitnessEvaluation.createDefaultExecutor), a fork-join pool or an
+   * executor creating virtual threads where the JVM supports these. The
+   * executor is not shut down by JGAP.
+   *
+   * @param a_executor the executor to use, null for sequential evaluation
+   * @param a_parallelism number of tasks to split the evaluation into, zero
+   * or below for the number of available processors
+   * @throws InvalidConfigurationException if this object is locked
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public void setFitnessExecutor(ExecutorService a_executor,
+                                 int a_parallelism)
+      throws InvalidConfigurationException {
+    verifyChangesAllowed();
+    m_fitnessExecutor = a_executor;
+    m_fitnessParallelism = a_parallelism;
+  }
+
+  /**
+   * @return the executor for concurrent fitness evaluation, or null if
+   * fitness values are computed sequentially
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public ExecutorService getFitnessExecutor() {
+    return m_fitnessExecutor;
+  }
+
+  /**
+   * @return number of tasks the fitness evaluation is split into, zero or
+   * below for the number of available processors
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public int getFitnessParallelism() {
+    return m_fitnessParallelism;
+  }
+
+  /**
+   * Sets the executor to use for applying genetic operators concurrently.
+   * Only operators implementing IPartitionedGeneticOperator are split into
+   * partitions, each with a random generator and candidate list of its own;
+   * all others are still applied sequentially. The results of the partitions
+   * are appended in the order of the partitions, so they do not depend on
+   * scheduling.<p>
+   * Genes and rate calculators may still draw from the random generator of
+   * this configuration, which then must be thread-safe (e.g.
+   * StockRandomGenerator or SplittableRandomGenerator.perThread()). The same
+   * holds for a genetic operator constraint. The executor is not shut down by
+   * JGAP.
+   *
+   * @param a_executor the executor to use, null for sequential execution
+   * @param a_parallelism number of partitions to split each operator into,
+   * zero or below for the number of available processors
+   * @throws InvalidConfigurationException if this object is locked
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public void setOperatorExecutor(ExecutorService a_executor,
+                                  int a_parallelism)
+      throws InvalidConfigurationException {
+    verifyChangesAllowed();
+    m_operatorExecutor = a_executor;
+    m_operatorParallelism = a_parallelism;
+  }
+
+  /**
+   * @return the executor for applying genetic operators concurrently, or null
+   * if they are applied sequentially
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public ExecutorService getOperatorExecutor() {
+    return m_operatorExecutor;
+  }
+
+  /**
+   * @return number of partitions each genetic operator is split into, zero or
+   * below for the number of available processors
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public int getOperatorParallelism() {
+    return m_operatorParallelism;
+  }
+
   /**
    * Locks all of the settings in this configuration object. Once
    * this method is successfully invoked, none of the settings may
@@ -1593,6 +1747,37 @@ public class Configuration
 //    return m_popConstantSelector;
 //  }
 
+  /**
+   * If population size should be kept constant then the trimmer determines
+   * which chromosomes are removed from a population grown too big.
+   *
+   * @param a_trimmer the trimmer to use, e.g. OldestChromosomesTrimmer,
+   * WeakestChromosomesTrimmer or RandomChromosomesTrimmer
+   * @throws InvalidConfigurationException if this object is locked
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public void setPopulationTrimmer(IPopulationTrimmer a_trimmer)
+      throws InvalidConfigurationException {
+    verifyChangesAllowed();
+    m_populationTrimmer = a_trimmer;
+  }
+
+  /**
+   * @return the trimmer set or new OldestChromosomesTrimmer instance in case
+   * no trimmer was set before
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public IPopulationTrimmer getPopulationTrimmer() {
+    if (m_populationTrimmer == null) {
+      m_populationTrimmer = new OldestChromosomesTrimmer();
+    }
+    return m_populationTrimmer;
+  }
+
   /**
    * @param a_alwaysCalculate true: Chromosome.getFitnessValue() will always
    * (re-)calculate the fitness value. This may be necessary in case of
@@ -1617,6 +1802,41 @@ public class Configuration
     return m_alwaysCalculateFitness;
   }
 
+  /**
+   * Enables copy-on-write cloning of chromosomes: Chromosome.clone() does not
+   * copy the genes but lets the clone share them with the original. A gene
+   * is copied as soon as it is obtained for modification via
+   * Chromosome.getWritableGene(int), by the original or by the clone. This
+   * saves copying genes that are never modified, e.g. most of the genes of
+   * long chromosomes cloned by mutation or crossover.
+   * <p>
+   * Attention: With copy-on-write cloning enabled, genes obtained via
+   * getGene(int) or getGenes() must not be modified, as this would affect all
+   * chromosomes sharing them. The genetic operators of package org.jgap.impl
+   * comply with this. Custom operators, fitness functions or other code
+   * changing alleles in place have to use getWritableGene(int).
+   * Only applies to instances of class Chromosome itself, not to subclasses.
+   *
+   * @param a_copyOnWrite true: enable copy-on-write cloning
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public void setCopyOnWriteCloning(boolean a_copyOnWrite) {
+    m_copyOnWriteCloning = a_copyOnWrite;
+  }
+
+  /**
+   * @return true: clones of chromosomes share the genes of the original until
+   * they are modified
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public boolean isCopyOnWriteCloning() {
+    return m_copyOnWriteCloning;
+  }
+
 
   protected String makeThreadKey() {
     Thread current = Thread.currentThread();
@@ -1757,6 +1977,12 @@ public class Configuration
         result.m_sampleChromosome = (IChromosome) m_sampleChromosome.clone();
       }
       result.m_alwaysCalculateFitness = m_alwaysCalculateFitness;
+      result.m_copyOnWriteCloning = m_copyOnWriteCloning;
+      result.m_fitnessExecutor = m_fitnessExecutor;
+      result.m_fitnessParallelism = m_fitnessParallelism;
+      result.m_operatorExecutor = m_operatorExecutor;
+      result.m_operatorParallelism = m_operatorParallelism;
+      result.m_populationTrimmer = m_populationTrimmer;
       result.m_settingsLocked = m_settingsLocked;
 //      result.m_propertyBag = (Map)doClone(m_propertyBag);
       // Configurable data.
@@ -1850,6 +2076,7 @@ public class Configuration
             .append(m_keepPopulationSizeConstant,
                     other.m_keepPopulationSizeConstant)
             .append(m_alwaysCalculateFitness, other.m_alwaysCalculateFitness)
+            .append(m_copyOnWriteCloning, other.m_copyOnWriteCloning)
             .append(m_minPercentageSizePopulation,
                     other.m_minPercentageSizePopulation)
             .append(m_selectFromPrevGen,other.m_selectFromPrevGen)
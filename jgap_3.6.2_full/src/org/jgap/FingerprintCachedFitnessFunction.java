@@ -0,0 +1,95 @@
+/*
+ * This file is part of JGAP.
+ *
+ * JGAP offers a dual license model containing the LGPL as well as the MPL.
+ *
+ * For licensing information please see the file license.txt included with JGAP
+ * or have a look at the top of class org.jgap.Chromosome which representatively
+ * includes the JGAP license policy applicable for any file delivered with JGAP.
+ */
+package org.jgap;
+
+import org.jgap.util.*;
+
+/**
+ * Alternative to CachedFitnessFunction for chromosomes with many genes.
+ * Instead of a string representation, the key of the cache is a 128 bit
+ * fingerprint of the alleles (see FingerprintKit), computed without creating
+ * objects. The cache is bounded and thread-safe, so one instance may be
+ * shared by fitness functions evaluating concurrently.
+ * <p>
+ * As chromosomes are not compared, two chromosomes with the same fingerprint
+ * would be given the same fitness value. The two halves of the fingerprint
+ * are computed from independent representations of the alleles, so that
+ * alleles with equal hash codes do not collide in both. With 128 bits, the
+ * probability of a collision is negligible.
+ *
+ * @author agent
+ * @since 3.7
+ */
+public abstract class FingerprintCachedFitnessFunction
+    extends FitnessFunction {
+  /** String containing the CVS revision. Read out via reflection!*/
+  private final static String CVS_REVISION = "$Revision: 1.1 $";
+
+  private FingerprintFitnessCache m_cache;
+
+  /**
+   * Constructs the fitness function with a cache holding up to
+   * FingerprintFitnessCache.DEFAULT_MAX_SIZE entries.
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public FingerprintCachedFitnessFunction() {
+    this(new FingerprintFitnessCache());
+  }
+
+  /**
+   * @param a_cache the cache to use, may be shared with other fitness
+   * functions of the same kind
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public FingerprintCachedFitnessFunction(FingerprintFitnessCache a_cache) {
+    if (a_cache == null) {
+      throw new IllegalArgumentException("Cache must not be null!");
+    }
+    m_cache = a_cache;
+  }
+
+  /**
+   * Cached fitness value function.
+   *
+   * @param a_subject the chromosome to evaluate
+   * @return fitness value, from cache if available
+   *
+   * @author agent
+   * @since 3.7
+   */
+  @Override
+  public final double getFitnessValue(final IChromosome a_subject) {
+    long fingerprint = FingerprintKit.fingerprint(a_subject);
+    long check = FingerprintKit.secondFingerprint(a_subject);
+    double fitnessValue = m_cache.get(fingerprint, check, NO_FITNESS_VALUE);
+    if (fitnessValue != NO_FITNESS_VALUE) {
+      return fitnessValue;
+    }
+    // Compute fitness value for the first time.
+    // -----------------------------------------
+    fitnessValue = super.getFitnessValue(a_subject);
+    m_cache.put(fingerprint, check, fitnessValue);
+    return fitnessValue;
+  }
+
+  /**
+   * @return the cache used
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public FingerprintFitnessCache getCache() {
+    return m_cache;
+  }
+}
@@ -0,0 +1,179 @@
+/*
+ * This file is part of JGAP.
+ *
+ * JGAP offers a dual license model containing the LGPL as well as the MPL.
+ *
+ * For licensing information please see the file license.txt included with JGAP
+ * or have a look at the top of class org.jgap.Chromosome which representatively
+ * includes the JGAP license policy applicable for any file delivered with JGAP.
+ */
+package org.jgap;
+
+import java.io.*;
+
+/**
+ * Records the changes of a chromosome relative to its last evaluated
+ * ancestor, i.e. the loci whose alleles have been changed together with the
+ * previous alleles, as well as the fitness value and the fitness state of
+ * that ancestor. Created by genetic operators (see BaseGeneticOperator.
+ * trackFitnessDelta) and consumed by implementations of
+ * IIncrementalFitnessFunction.
+ * <p>
+ * If a locus is changed several times, e.g. by a mutation following a
+ * mutation within the same generation, only the first (i.e. the ancestor's)
+ * allele is kept.
+ *
+ * @author agent
+ * @since 3.7
+ */
+public class FitnessDelta
+    implements Serializable {
+  /** String containing the CVS revision. Read out via reflection!*/
+  private final static String CVS_REVISION = "$Revision: 1.1 $";
+
+  private final double m_parentFitness;
+
+  private final Object m_parentState;
+
+  private int[] m_loci;
+
+  private Object[] m_oldAlleles;
+
+  private int m_size;
+
+  /**
+   * @param a_parentFitness the fitness value of the evaluated ancestor
+   * @param a_parentState the fitness state of the evaluated ancestor, see
+   * Chromosome.getFitnessState(), may be null
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public FitnessDelta(double a_parentFitness, Object a_parentState) {
+    m_parentFitness = a_parentFitness;
+    m_parentState = a_parentState;
+    m_loci = new int[4];
+    m_oldAlleles = new Object[4];
+  }
+
+  /**
+   * Records that the allele at the given locus is about to change. Has no
+   * effect if the locus has already been recorded.
+   *
+   * @param a_locus the locus to be changed
+   * @param a_oldAllele the allele at the locus before the change
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public void recordChange(int a_locus, Object a_oldAllele) {
+    if (isChanged(a_locus)) {
+      return;
+    }
+    if (m_size == m_loci.length) {
+      int[] loci = new int[m_size * 2];
+      System.arraycopy(m_loci, 0, loci, 0, m_size);
+      m_loci = loci;
+      Object[] alleles = new Object[m_size * 2];
+      System.arraycopy(m_oldAlleles, 0, alleles, 0, m_size);
+      m_oldAlleles = alleles;
+    }
+    m_loci[m_size] = a_locus;
+    m_oldAlleles[m_size] = a_oldAllele;
+    m_size++;
+  }
+
+  /**
+   * @param a_locus the locus to check
+   * @return true: the locus has been recorded as changed
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public boolean isChanged(int a_locus) {
+    for (int i = 0; i < m_size; i++) {
+      if (m_loci[i] == a_locus) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * @return number of changed loci
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public int size() {
+    return m_size;
+  }
+
+  /**
+   * @param a_index index of the change, from 0 to size() - 1, in the order
+   * of recording
+   * @return the changed locus
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public int getLocus(int a_index) {
+    checkIndex(a_index);
+    return m_loci[a_index];
+  }
+
+  /**
+   * @param a_index index of the change, from 0 to size() - 1, in the order
+   * of recording
+   * @return the allele of the changed locus within the evaluated ancestor
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public Object getOldAllele(int a_index) {
+    checkIndex(a_index);
+    return m_oldAlleles[a_index];
+  }
+
+  /**
+   * @return the fitness value of the evaluated ancestor
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public double getParentFitness() {
+    return m_parentFitness;
+  }
+
+  /**
+   * @return the fitness state of the evaluated ancestor, or null
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public Object getParentState() {
+    return m_parentState;
+  }
+
+  /**
+   * @return independent copy of this delta, to be extended by further changes
+   * of a descendant
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public FitnessDelta copy() {
+    FitnessDelta result = new FitnessDelta(m_parentFitness, m_parentState);
+    result.m_loci = (int[]) m_loci.clone();
+    result.m_oldAlleles = (Object[]) m_oldAlleles.clone();
+    result.m_size = m_size;
+    return result;
+  }
+
+  private void checkIndex(int a_index) {
+    if (a_index < 0 || a_index >= m_size) {
+      throw new IndexOutOfBoundsException("Index " + a_index
+                                          + ", size " + m_size);
+    }
+  }
+}
@@ -63,12 +63,30 @@ public abstract class FitnessFunction
     // fitness value. If the returned value is less than one,
     // then we throw a runtime exception.
     // ---------------------------------------------------------
-    double fitnessValue = evaluate(a_subject);
+    double fitnessValue = NO_FITNESS_VALUE;
+    Chromosome chrom = null;
+    if (a_subject instanceof Chromosome) {
+      chrom = (Chromosome) a_subject;
+      FitnessDelta delta = chrom.getFitnessDelta();
+      chrom.setFitnessState(null);
+      if (delta != null && this instanceof IIncrementalFitnessFunction) {
+        // Update the fitness value of the ancestor by the changes recorded.
+        // -----------------------------------------------------------------
+        fitnessValue = ( (IIncrementalFitnessFunction)this).
+            evaluateIncrementally(a_subject, delta);
+      }
+    }
+    if (fitnessValue < 0.00000000d) {
+      fitnessValue = evaluate(a_subject);
+    }
     if (fitnessValue < 0.00000000d) {
       throw new RuntimeException(
           "Fitness values must be positive! Received value: "
           + fitnessValue);
     }
+    if (chrom != null) {
+      chrom.fitnessEvaluated(fitnessValue);
+    }
     m_lastComputedFitnessValue = fitnessValue;
     return fitnessValue;
   }
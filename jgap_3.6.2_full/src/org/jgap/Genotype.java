@@ -202,7 +202,9 @@ public class Genotype
 
   /**
    * Retrieves the top n Chromsomes in the population (the ones with the best
-   * fitness values).
+   * fitness values), fittest first. Unless all chromosomes are requested,
+   * the population is not sorted for this, see
+   * Population.determineFittestChromosomes(int).
    *
    * @param a_numberOfChromosomes the number of chromosomes desired
    * @return the list of Chromosomes with the highest fitness values, or null
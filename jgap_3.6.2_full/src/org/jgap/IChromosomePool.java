@@ -42,4 +42,18 @@ public interface IChromosomePool {
    * @since 2.6 (since 1.0 in ChromosomePool)
    */
   void releaseChromosome(IChromosome a_chromosome);
+
+  /**
+   * Hands back a chromosome just acquired from this pool which the caller
+   * could not use, e.g. because it is of another class or size. The
+   * acquisition must not be counted as a successful one. The pool may keep
+   * the chromosome for later acquisitions or drop it, but should not return
+   * it with the very next acquisition again.
+   *
+   * @param a_chromosome the chromosome acquired from this pool
+   *
+   * @author agent
+   * @since 3.7
+   */
+  void rejectChromosome(IChromosome a_chromosome);
 }
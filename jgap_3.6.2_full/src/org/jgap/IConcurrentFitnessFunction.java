@@ -0,0 +1,45 @@
+/*
+ * This file is part of JGAP.
+ *
+ * JGAP offers a dual license model containing the LGPL as well as the MPL.
+ *
+ * For licensing information please see the file license.txt included with JGAP
+ * or have a look at the top of class org.jgap.Chromosome which representatively
+ * includes the JGAP license policy applicable for any file delivered with JGAP.
+ */
+package org.jgap;
+
+/**
+ * Interface for fitness functions that may be evaluated by several threads
+ * at once, e.g. by the parallel fitness evaluation stage of GABreeder.
+ * Fitness functions not implementing this interface are always evaluated
+ * sequentially within the calling thread.
+ *
+ * @author agent
+ * @since 3.7
+ */
+public interface IConcurrentFitnessFunction {
+  /** String containing the CVS revision. Read out via reflection!*/
+  final static String CVS_REVISION = "$Revision: 1.1 $";
+
+  /**
+   * @return true: one instance may be used by all worker threads at the same
+   * time. false: each worker thread needs an instance of its own, obtained
+   * via newWorkerInstance()
+   *
+   * @author agent
+   * @since 3.7
+   */
+  boolean isThreadSafe();
+
+  /**
+   * Creates an instance of the fitness function for exclusive use by a single
+   * worker thread. Only called if isThreadSafe() returns false.
+   *
+   * @return new instance of the same fitness function type
+   *
+   * @author agent
+   * @since 3.7
+   */
+  Object newWorkerInstance();
+}
@@ -0,0 +1,50 @@
+/*
+ * This file is part of JGAP.
+ *
+ * JGAP offers a dual license model containing the LGPL as well as the MPL.
+ *
+ * For licensing information please see the file license.txt included with JGAP
+ * or have a look at the top of class org.jgap.Chromosome which representatively
+ * includes the JGAP license policy applicable for any file delivered with JGAP.
+ */
+package org.jgap;
+
+/**
+ * Interface for fitness functions able to update the fitness value of a
+ * chromosome from the fitness value of its last evaluated ancestor and the
+ * loci changed since, instead of evaluating the whole chromosome. To be
+ * implemented by subclasses of FitnessFunction.
+ * <p>
+ * Genetic operators supporting this record the changes with a FitnessDelta
+ * attached to the resulting chromosome, e.g. MutationOperator and
+ * SwappingMutationOperator. All other chromosomes are evaluated as usual.
+ * <p>
+ * If the fitness function needs more than the ancestor's fitness value, it
+ * may attach partial results to a chromosome during evaluate() or
+ * evaluateIncrementally() via Chromosome.setFitnessState(Object). The state
+ * of the ancestor is then available via FitnessDelta.getParentState(). A
+ * state must not be modified after it has been attached, as it is shared
+ * between all descendants.
+ *
+ * @author agent
+ * @since 3.7
+ */
+public interface IIncrementalFitnessFunction {
+  /** String containing the CVS revision. Read out via reflection!*/
+  final static String CVS_REVISION = "$Revision: 1.1 $";
+
+  /**
+   * Computes the fitness value of the given chromosome from the given delta.
+   * The result must equal the result of a full evaluation (apart from
+   * rounding errors).
+   *
+   * @param a_subject the chromosome to evaluate, holding the changed alleles
+   * @param a_delta the changes relative to the last evaluated ancestor
+   * @return the fitness value, or FitnessFunction.NO_FITNESS_VALUE to request
+   * a full evaluation, e.g. if too many loci have been changed
+   *
+   * @author agent
+   * @since 3.7
+   */
+  double evaluateIncrementally(IChromosome a_subject, FitnessDelta a_delta);
+}
@@ -0,0 +1,53 @@
+/*
+ * This file is part of JGAP.
+ *
+ * JGAP offers a dual license model containing the LGPL as well as the MPL.
+ *
+ * For licensing information please see the file license.txt included with JGAP
+ * or have a look at the top of class org.jgap.Chromosome which representatively
+ * includes the JGAP license policy applicable for any file delivered with JGAP.
+ */
+package org.jgap;
+
+import java.util.*;
+
+/**
+ * Interface for genetic operators whose work can be split into partitions
+ * executed by several threads at once, e.g. by the parallel operator phase
+ * of GABreeder. Operators not implementing this interface are always
+ * executed sequentially within the calling thread.
+ * <p>
+ * Calling the partitioned operate method for all partitions 0 .. n-1 must
+ * have the same effect as operate(Population, List), apart from the random
+ * numbers drawn. With a single partition and the random generator of the
+ * configuration, it must behave exactly like operate(Population, List).
+ *
+ * @author agent
+ * @since 3.7
+ */
+public interface IPartitionedGeneticOperator
+    extends GeneticOperator {
+  /** String containing the CVS revision. Read out via reflection!*/
+  final static String CVS_REVISION = "$Revision: 1.1 $";
+
+  /**
+   * Performs the share of the operation given by the partition, e.g.
+   * mutating the chromosomes within an index range of the population. The
+   * population must not be modified. May be called by several threads at
+   * once for different partitions.
+   *
+   * @param a_population the population of chromosomes to operate on
+   * @param a_partition number of the partition to perform, from 0 to
+   * a_partitions - 1
+   * @param a_partitions number of partitions the operation is split into
+   * @param a_generator the generator to draw random numbers from, used by
+   * this partition only
+   * @param a_candidateChromosomes the list to add the resulting chromosomes
+   * to, used by this partition only
+   *
+   * @author agent
+   * @since 3.7
+   */
+  void operate(Population a_population, int a_partition, int a_partitions,
+               RandomGenerator a_generator, List a_candidateChromosomes);
+}
@@ -0,0 +1,41 @@
+/*
+ * This file is part of JGAP.
+ *
+ * JGAP offers a dual license model containing the LGPL as well as the MPL.
+ *
+ * For licensing information please see the file license.txt included with JGAP
+ * or have a look at the top of class org.jgap.Chromosome which representatively
+ * includes the JGAP license policy applicable for any file delivered with JGAP.
+ */
+package org.jgap;
+
+import java.io.*;
+
+/**
+ * Determines which chromosomes are removed from a population exceeding the
+ * configured population size (see Population.keepPopSizeConstant).
+ * Implementations only select the chromosomes, the removal itself is done by
+ * the population in a single pass.
+ *
+ * @author agent
+ * @since 3.7
+ */
+public interface IPopulationTrimmer
+    extends Serializable {
+  /** String containing the CVS revision. Read out via reflection!*/
+  final static String CVS_REVISION = "$Revision: 1.1 $";
+
+  /**
+   * Selects the chromosomes to remove. The population must not be modified.
+   *
+   * @param a_pop the population to trim
+   * @param a_count number of chromosomes to remove, greater than zero and
+   * less than the size of the population
+   * @return indices of the chromosomes to remove, in ascending order and
+   * without duplicates
+   *
+   * @author agent
+   * @since 3.7
+   */
+  int[] selectForRemoval(Population a_pop, int a_count);
+}
@@ -49,6 +49,26 @@ public class Population
    */
   private boolean m_sorted;
 
+  /**
+   * The fittest chromosomes determined by determineFittestChromosomes,
+   * fittest first. Null if not known.
+   */
+  private transient List<IChromosome> m_elite;
+
+  /**
+   * Number of leading chromosomes of the population m_elite has been
+   * determined from. Chromosomes appended later are merged into the elite on
+   * demand.
+   */
+  private transient int m_eliteCovered;
+
+  /**
+   * The first m_eliteCovered chromosomes of the population when m_elite was
+   * determined. The elite is only reused while they are unchanged, because
+   * the list returned by getChromosomes() may be modified directly.
+   */
+  private transient IChromosome[] m_eliteSource;
+
   private Configuration m_config;
 
   public final static String CHROM_DELIMITER = "~";
@@ -167,7 +187,7 @@ public class Population
       synchronized (m_chromosomes) {
         m_chromosomes.add(a_toAdd);
       }
-      setChanged(true);
+      setAppended();
     }
   }
 
@@ -185,6 +205,7 @@ public class Population
       synchronized (m_chromosomes) {
         m_chromosomes.addAll(a_population.getChromosomes());
       }
+      setAppended();
       // The following would do the same:
 //      if (a_population.getChromosomes() != null) {
 //        int size = a_population.getChromosomes().size();
@@ -193,7 +214,6 @@ public class Population
 //          m_chromosomes.add(chrom);
 //        }
 //      }
-      setChanged(true);
     }
   }
 
@@ -371,6 +391,22 @@ public class Population
   protected void setChanged(final boolean a_changed) {
     m_changed = a_changed;
     setSorted(false);
+    if (a_changed) {
+      m_elite = null;
+    }
+  }
+
+  /**
+   * Marks the population as changed by appending chromosomes only. In
+   * contrast to setChanged(true), the fittest chromosomes determined before
+   * are kept, the appended ones are merged into them on demand.
+   *
+   * @author agent
+   * @since 3.7
+   */
+  private void setAppended() {
+    m_changed = true;
+    setSorted(false);
   }
 
   /**
@@ -426,9 +462,50 @@ public class Population
     return (IChromosome) m_chromosomes.remove(a_index);
   }
 
+  /**
+   * Removes the chromosomes at the given indices in a single pass. The order
+   * of the remaining chromosomes is preserved. Method has package visibility
+   * to signal that this is a method not to be used outside the JGAP kernel
+   * under normal circumstances.
+   *
+   * @param a_indices indices of the chromosomes to remove, in ascending order
+   * and without duplicates
+   *
+   * @author agent
+   * @since 3.7
+   */
+  void removeChromosomes(final int[] a_indices) {
+    if (a_indices.length == 0) {
+      return;
+    }
+    int size = size();
+    if (a_indices[0] < 0 || a_indices[a_indices.length - 1] >= size) {
+      throw new IllegalArgumentException("Index must be within bounds!");
+    }
+    // Shift the survivors to the front, then cut off the tail.
+    // --------------------------------------------------------
+    int next = 0;
+    int target = a_indices[0];
+    for (int i = a_indices[0]; i < size; i++) {
+      if (next < a_indices.length && a_indices[next] == i) {
+        next++;
+      }
+      else {
+        m_chromosomes.set(target++, m_chromosomes.get(i));
+      }
+    }
+    m_chromosomes.subList(target, size).clear();
+    setChanged(true);
+  }
+
   /**
    * Cares that the population size does not exceed the maximum size given in
-   * the configuration.
+   * the configuration. The chromosomes to remove are determined by the
+   * population trimmer of the configuration and removed in a single pass.
+   * <p>
+   * If a monitor is active, an event MONITOR_EVENT_REMOVE_CHROMOSOME is fired
+   * for each chromosome before any of them is removed. The index contained in
+   * the event refers to the population as it was before trimming.
    *
    * @throws InvalidConfigurationException
    *
@@ -436,37 +513,45 @@ public class Population
    * @since 3.2
    */
   public void keepPopSizeConstant() throws InvalidConfigurationException {
-    int popSize = size();
     // See request  1213752.
     // ---------------------
-    int maxSize = getConfiguration().getPopulationSize();
-//    INaturalSelector selector = getConfiguration().getKeepPopConstantSelector();
-//    if (popSize > maxSize) {
-//      Population newPop = new Population(getConfiguration(), maxSize);
-//      selector.select(maxSize, this, newPop);
-//      m_chromosomes = newPop.getChromosomes();
-//      setChanged(true);
-//    }
+    int surplus = size() - getConfiguration().getPopulationSize();
+    if (surplus <= 0) {
+      return;
+    }
+    int[] indices;
+    if (surplus == size()) {
+      indices = PartialSelectionKit.identity(surplus);
+    }
+    else {
+      indices = getConfiguration().getPopulationTrimmer().selectForRemoval(
+          this, surplus);
+    }
     IEvolutionMonitor monitor = getConfiguration().getMonitor();
-    boolean monitorActive = monitor != null;
-    while (popSize > maxSize) {
-      if (monitorActive) {
-        // Fire monitor with population and index of chromosome to be removed.
-        // -------------------------------------------------------------------
+    if (monitor != null) {
+      // Fire monitor with population and index of each chromosome to be
+      // removed.
+      // ----------------------------------------------------------------
+      int genNr = getConfiguration().getGenerationNr();
+      for (int i = 0; i < indices.length; i++) {
         monitor.event(IEvolutionMonitor.MONITOR_EVENT_REMOVE_CHROMOSOME,
-            getConfiguration().getGenerationNr(),
-            new Object[] {this, new Integer(0)});
+                      genNr, new Object[] {this, new Integer(indices[i])});
       }
-      // Remove a chromosome.
-      // --------------------
-      /**@todo use dedicated selector for that*/
-      removeChromosome(0);
-      popSize--;
-    }
     }
+    removeChromosomes(indices);
+  }
+
   /**
-   * Sorts the Chromosome list and returns the fittest n Chromosomes in
-   * the population.
+   * Returns the fittest n Chromosomes in the population, fittest first.
+   * <p>
+   * If all chromosomes are requested, the population is sorted by fitness.
+   * Otherwise only the fittest n are determined by partial selection, leaving
+   * the order of the population untouched. They are memorized as elite:
+   * further calls for at most n chromosomes are answered from it as long as
+   * the population is not changed, and chromosomes added to the population
+   * afterwards are merged into it instead of selecting anew from all
+   * chromosomes. Removing or replacing chromosomes discards the elite, also
+   * when done directly on the list returned by getChromosomes().
    *
    * @param a_numberOfChromosomes number of top performer chromosomes to be
    * returned
@@ -474,21 +559,90 @@ public class Population
    * x Chromosomes with x = number of chromosomes in case n > x.
    *
    * @author Charles Kevin Hill
+   * @author agent
    * @since 2.4
    */
   public List determineFittestChromosomes(final int a_numberOfChromosomes) {
-    int numberOfChromosomes = Math.min(a_numberOfChromosomes,
-                                       getChromosomes().size());
+    int size = getChromosomes().size();
+    int numberOfChromosomes = Math.min(a_numberOfChromosomes, size);
     if (numberOfChromosomes <= 0) {
       return null;
     }
     if (!m_changed && m_sorted) {
       return getChromosomes().subList(0, numberOfChromosomes);
     }
-    // Sort the list of chromosomes using the fitness comparator
-    sortByFitness();
-    // Return the top n chromosomes
-    return getChromosomes().subList(0, numberOfChromosomes);
+    if (numberOfChromosomes == size) {
+      // Sort the list of chromosomes using the fitness comparator
+      sortByFitness();
+      // Return the top n chromosomes
+      return getChromosomes().subList(0, numberOfChromosomes);
+    }
+    if (m_elite == null || m_eliteCovered > size
+        || m_elite.size() < numberOfChromosomes || !isEliteSourceUnchanged()) {
+      m_elite = determineFittest(getChromosomes(), numberOfChromosomes);
+    }
+    else if (m_eliteCovered < size) {
+      // Merge the chromosomes appended since into the elite.
+      // ----------------------------------------------------
+      List<IChromosome> candidates = new ArrayList<IChromosome>(m_elite);
+      candidates.addAll(getChromosomes().subList(m_eliteCovered, size));
+      m_elite = determineFittest(candidates, m_elite.size());
+    }
+    m_eliteCovered = size;
+    if (m_eliteSource == null || m_eliteSource.length < size) {
+      m_eliteSource = new IChromosome[size];
+    }
+    for (int i = 0; i < size; i++) {
+      m_eliteSource[i] = getChromosomes().get(i);
+    }
+    m_fittestChromosome = m_elite.get(0);
+    m_changed = false;
+    return new ArrayList<IChromosome>(m_elite.subList(0, numberOfChromosomes));
+  }
+
+  /**
+   * @return true if the chromosomes the elite was determined from are still
+   * the leading ones of the population, false if any of them was removed or
+   * replaced
+   *
+   * @author agent
+   * @since 3.7
+   */
+  private boolean isEliteSourceUnchanged() {
+    List<IChromosome> chromosomes = getChromosomes();
+    for (int i = 0; i < m_eliteCovered; i++) {
+      if (chromosomes.get(i) != m_eliteSource[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * @param a_candidates the chromosomes to select from
+   * @param a_count number of chromosomes to select, less than the number of
+   * candidates
+   * @return the fittest chromosomes of the candidates, fittest first
+   *
+   * @author agent
+   * @since 3.7
+   */
+  private List<IChromosome> determineFittest(List<IChromosome> a_candidates,
+      int a_count) {
+    int size = a_candidates.size();
+    double[] fitness = new double[size];
+    for (int i = 0; i < size; i++) {
+      fitness[i] = a_candidates.get(i).getFitnessValue();
+    }
+    FitnessEvaluator evaluator = getConfiguration().getFitnessEvaluator();
+    int[] indices = PartialSelectionKit.identity(size);
+    PartialSelectionKit.selectFittest(fitness, indices, a_count, evaluator);
+    List<IChromosome> result = new ArrayList<IChromosome>(a_count);
+    for (int i = 0; i < a_count; i++) {
+      result.add(a_candidates.get(indices[i]));
+    }
+    Collections.sort(result, new ChromosomeFitnessComparator(evaluator));
+    return result;
   }
 
   /**
@@ -520,6 +674,9 @@ public class Population
    */
   protected void sort(Comparator a_comparator) {
     Collections.sort(getChromosomes(), a_comparator);
+    // The elite relies on the order of the chromosomes.
+    // -------------------------------------------------
+    m_elite = null;
   }
 
   /**
@@ -688,6 +845,8 @@ public class Population
     m_changed = true;
     m_sorted = true;
     m_fittestChromosome = null;
+    m_elite = null;
+    m_eliteSource = null;
   }
 
   /**
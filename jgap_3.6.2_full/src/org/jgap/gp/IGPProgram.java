@@ -11,6 +11,7 @@ package org.jgap.gp;
 
 import java.io.*;
 import org.jgap.gp.impl.*;
+import org.jgap.gp.terminal.*;
 import org.jgap.util.*;
 
 /**
@@ -61,6 +62,23 @@ public interface IGPProgram
    */
   double execute_double(int a_chromosomeNum, Object[] a_args);
 
+  /**
+   * Executes the given chromosome as a double function for many fitness cases
+   * at once. Row i of the inputs provides the values of the variables for
+   * fitness case i.
+   *
+   * @param a_chromosomeNum the index of the chromosome to execute
+   * @param a_variables the variables to provide values for
+   * @param a_inputs one column of values per variable, each at least as long
+   * as a_results
+   * @param a_results receives the double return value for each fitness case
+   *
+   * @author agent
+   * @since 3.7
+   */
+  void execute_double(int a_chromosomeNum, Variable[] a_variables,
+                      double[][] a_inputs, double[] a_results);
+
   /**
    * Executes the given chromosome as a boolean function.
    *
@@ -121,6 +139,15 @@ public interface IGPProgram
    */
   double getFitnessValue();
 
+  /**
+   * @return fitness value of this program without computing it, negative if
+   * it has not been computed yet
+   *
+   * @author agent
+   * @since 3.7
+   */
+  double getFitnessValueDirectly();
+
   /**
    * Builds a string that represents the normalized output of the GP program.
    *
@@ -0,0 +1,920 @@
+/*
+ * This file is part of JGAP.
+ *
+ * JGAP offers a dual license model containing the LGPL as well as the MPL.
+ *
+ * For licensing information please see the file license.txt included with JGAP
+ * or have a look at the top of class org.jgap.Chromosome which representatively
+ * includes the JGAP license policy applicable for any file delivered with JGAP.
+ */
+package org.jgap.gp.impl;
+
+import java.io.*;
+import java.util.*;
+import org.jgap.gp.*;
+import org.jgap.gp.function.*;
+import org.jgap.gp.terminal.*;
+
+/**
+ * A GP program chromosome compiled into a flat sequence of operations in
+ * postfix order, evaluated on a stack of doubles. Evaluating a compiled
+ * program neither creates objects nor dispatches via CommandGene, which pays
+ * off when the same program is executed for many fitness cases.
+ * <p>
+ * The standard mathematical functions of package org.jgap.gp.function as
+ * well as Constant, Terminal and Variable are compiled. Any other command,
+ * together with its subtree, is executed by the interpreter when its turn
+ * comes. Programs returning float are evaluated with the rounding of float
+ * arithmetic, giving the same results as the interpreter. Programs returning
+ * int or long are not compiled but executed by the interpreter as a whole,
+ * as double arithmetic would give different results; other return types
+ * are rejected.
+ * <p>
+ * Operations on constants only are computed while compiling, and binary
+ * operations read a constant or variable second operand directly, saving a
+ * stack operation.
+ * <p>
+ * A compiled program is a snapshot: After the chromosome has been changed
+ * it has to be compiled again, see isUpToDate(). Values of variables are
+ * read at execution time. Instances are not thread-safe.
+ *
+ * @author agent
+ * @since 3.7
+ */
+public class CompiledProgram
+    implements Serializable {
+  /** String containing the CVS revision. Read out via reflection!*/
+  private final static String CVS_REVISION = "$Revision: 1.1 $";
+
+  private final static int OP_CONSTANT = 0;
+
+  private final static int OP_VARIABLE = 1;
+
+  private final static int OP_INTERPRET = 2;
+
+  private final static int OP_ADD = 3;
+
+  private final static int OP_SUBTRACT = 4;
+
+  private final static int OP_MULTIPLY = 5;
+
+  private final static int OP_DIVIDE = 6;
+
+  private final static int OP_MODULO = 7;
+
+  private final static int OP_POW = 8;
+
+  private final static int OP_MAX = 9;
+
+  private final static int OP_MIN = 10;
+
+  private final static int OP_SINE = 11;
+
+  private final static int OP_COSINE = 12;
+
+  private final static int OP_TANGENT = 13;
+
+  private final static int OP_ARCSINE = 14;
+
+  private final static int OP_ARCCOSINE = 15;
+
+  private final static int OP_ARCTANGENT = 16;
+
+  private final static int OP_EXP = 17;
+
+  private final static int OP_LOG = 18;
+
+  private final static int OP_ABS = 19;
+
+  private final static int OP_CEIL = 20;
+
+  private final static int OP_FLOOR = 21;
+
+  private final static int OP_ROUND = 22;
+
+  private final static int OP_MASK = 0xFF;
+
+  /**
+   * Flag of a binary operation taking its second operand from the constant
+   * value of the operation instead of from the stack.
+   */
+  private final static int OPERAND_CONSTANT = 0x100;
+
+  /**
+   * Flag of a binary operation taking its second operand from the variable
+   * referenced by the operation instead of from the stack.
+   */
+  private final static int OPERAND_VARIABLE = 0x200;
+
+  /**
+   * Operation for each compiled command class. Commands with more than two
+   * children are compiled to a chain of binary operations.
+   */
+  private final static Map<Class, Integer> OPERATIONS =
+      new HashMap<Class, Integer>();
+
+  static {
+    OPERATIONS.put(Add.class, new Integer(OP_ADD));
+    OPERATIONS.put(Add3.class, new Integer(OP_ADD));
+    OPERATIONS.put(Add4.class, new Integer(OP_ADD));
+    OPERATIONS.put(Subtract.class, new Integer(OP_SUBTRACT));
+    OPERATIONS.put(Multiply.class, new Integer(OP_MULTIPLY));
+    OPERATIONS.put(Multiply3.class, new Integer(OP_MULTIPLY));
+    OPERATIONS.put(Divide.class, new Integer(OP_DIVIDE));
+    OPERATIONS.put(Modulo.class, new Integer(OP_MODULO));
+    OPERATIONS.put(Pow.class, new Integer(OP_POW));
+    OPERATIONS.put(Max.class, new Integer(OP_MAX));
+    OPERATIONS.put(Min.class, new Integer(OP_MIN));
+    OPERATIONS.put(Sine.class, new Integer(OP_SINE));
+    OPERATIONS.put(Cosine.class, new Integer(OP_COSINE));
+    OPERATIONS.put(Tangent.class, new Integer(OP_TANGENT));
+    OPERATIONS.put(ArcSine.class, new Integer(OP_ARCSINE));
+    OPERATIONS.put(ArcCosine.class, new Integer(OP_ARCCOSINE));
+    OPERATIONS.put(ArcTangent.class, new Integer(OP_ARCTANGENT));
+    OPERATIONS.put(Exp.class, new Integer(OP_EXP));
+    OPERATIONS.put(Log.class, new Integer(OP_LOG));
+    OPERATIONS.put(Abs.class, new Integer(OP_ABS));
+    OPERATIONS.put(Ceil.class, new Integer(OP_CEIL));
+    OPERATIONS.put(Floor.class, new Integer(OP_FLOOR));
+    OPERATIONS.put(Round.class, new Integer(OP_ROUND));
+  }
+
+  private final static Object[] NO_ARGS = new Object[0];
+
+  private ProgramChromosome m_chrom;
+
+  /**
+   * True: float program, round the result of each operation to float.
+   */
+  private boolean m_float;
+
+  /**
+   * Return type of the program: double, float, int or long.
+   */
+  private Class m_returnType;
+
+  private int[] m_code;
+
+  /**
+   * Operand of each operation: index of the variable or of the node to
+   * interpret.
+   */
+  private int[] m_operands;
+
+  /**
+   * Value of each constant operation.
+   */
+  private double[] m_values;
+
+  private Variable[] m_variables;
+
+  private double[] m_stack;
+
+  private boolean m_interpreting;
+
+  /**
+   * Nodes of the chromosome at compile time, see isUpToDate().
+   */
+  private CommandGene[] m_nodes;
+
+  /**
+   * Indices of the nodes folded into constants and their values at compile
+   * time. Terminals may be mutated in place.
+   */
+  private int[] m_constantNodes;
+
+  private double[] m_constantValues;
+
+  /**
+   * Stack of columns for batch execution, reused between calls.
+   */
+  private transient double[][] m_columns;
+
+  /**
+   * Compiles a chromosome of a GP program.
+   *
+   * @param a_ind the GP program
+   * @param a_chromosomeNum the index of the chromosome to compile
+   * @return the compiled chromosome
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public static CompiledProgram compile(IGPProgram a_ind,
+                                        int a_chromosomeNum) {
+    ProgramChromosome chrom = a_ind.getChromosome(a_chromosomeNum);
+    chrom.setIndividual(a_ind);
+    return new CompiledProgram(chrom);
+  }
+
+  /**
+   * Compiles a chromosome. The individual of the chromosome must be set.
+   *
+   * @param a_chrom the chromosome to compile
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public CompiledProgram(ProgramChromosome a_chrom) {
+    m_chrom = a_chrom;
+    m_returnType = a_chrom.getGene(0).getReturnType();
+    m_float = m_returnType == CommandGene.FloatClass;
+    Compilation comp = new Compilation(m_float);
+    if (m_returnType == CommandGene.DoubleClass || m_float) {
+      compile(comp, 0);
+    }
+    else if (m_returnType == CommandGene.IntegerClass
+             || m_returnType == CommandGene.LongClass) {
+      // Integer division and overflow differ from double arithmetic.
+      // ------------------------------------------------------------
+      m_interpreting = true;
+      comp.add(OP_INTERPRET, 0, 0);
+    }
+    else {
+      throw new IllegalArgumentException("Programs returning "
+                                         + m_returnType
+                                         + " cannot be compiled!");
+    }
+    int size = comp.m_code.size();
+    m_code = new int[size];
+    m_operands = new int[size];
+    m_values = new double[size];
+    int stackSize = 0;
+    int maxStack = 0;
+    for (int i = 0; i < size; i++) {
+      m_code[i] = comp.m_code.get(i).intValue();
+      m_operands[i] = comp.m_operands.get(i).intValue();
+      m_values[i] = comp.m_values.get(i).doubleValue();
+      if (m_code[i] <= OP_INTERPRET) {
+        stackSize++;
+        maxStack = Math.max(maxStack, stackSize);
+      }
+      else if (m_code[i] < OP_SINE) {
+        // Binary operation with both operands on the stack.
+        // -------------------------------------------------
+        stackSize--;
+      }
+    }
+    m_variables = comp.m_variables.toArray(new Variable[0]);
+    m_stack = new double[maxStack];
+    m_nodes = (CommandGene[]) a_chrom.getFunctions().clone();
+    size = comp.m_constantNodes.size();
+    m_constantNodes = new int[size];
+    m_constantValues = new double[size];
+    for (int i = 0; i < size; i++) {
+      m_constantNodes[i] = comp.m_constantNodes.get(i).intValue();
+      m_constantValues[i] = comp.m_constantValues.get(i).doubleValue();
+    }
+  }
+
+  /**
+   * Appends the operations for the subtree starting at the given node.
+   *
+   * @param a_comp state of the compilation
+   * @param a_index index of the node to compile
+   *
+   * @author agent
+   * @since 3.7
+   */
+  protected void compile(Compilation a_comp, int a_index) {
+    CommandGene node = m_chrom.getNode(a_index);
+    Class clazz = node.getClass();
+    Integer operation = OPERATIONS.get(clazz);
+    if (operation != null) {
+      int arity = node.getArity(m_chrom.getIndividual());
+      compile(a_comp, child(a_index, 0));
+      for (int i = 1; i < arity; i++) {
+        compile(a_comp, child(a_index, i));
+        a_comp.addOperation(operation.intValue(), 2);
+      }
+      if (arity == 1) {
+        a_comp.addOperation(operation.intValue(), 1);
+      }
+    }
+    else if (clazz == Variable.class) {
+      a_comp.m_variables.add( (Variable) node);
+      a_comp.add(OP_VARIABLE, a_comp.m_variables.size() - 1, 0);
+    }
+    else if (clazz == Constant.class || clazz == Terminal.class) {
+      // The value does not change until the chromosome is mutated.
+      // ----------------------------------------------------------
+      double value = constantValue(a_index);
+      a_comp.m_constantNodes.add(new Integer(a_index));
+      a_comp.m_constantValues.add(new Double(value));
+      a_comp.add(OP_CONSTANT, 0, value);
+    }
+    else {
+      m_interpreting = true;
+      a_comp.add(OP_INTERPRET, a_index, 0);
+    }
+  }
+
+  private double constantValue(int a_index) {
+    CommandGene node = m_chrom.getNode(a_index);
+    if (m_float) {
+      return node.execute_float(m_chrom, a_index, null);
+    }
+    return node.execute_double(m_chrom, a_index, null);
+  }
+
+  /**
+   * Checks whether the chromosome still matches this compiled program. Nodes
+   * replaced in the chromosome as well as terminals whose value was mutated
+   * in place are detected. Needs time linear in the size of the chromosome.
+   *
+   * @return true: the compiled program may still be executed
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public boolean isUpToDate() {
+    CommandGene[] nodes = m_chrom.getFunctions();
+    if (nodes.length != m_nodes.length) {
+      return false;
+    }
+    for (int i = 0; i < nodes.length; i++) {
+      if (nodes[i] != m_nodes[i]) {
+        return false;
+      }
+    }
+    for (int i = 0; i < m_constantNodes.length; i++) {
+      double value = constantValue(m_constantNodes[i]);
+      if (Double.doubleToLongBits(value)
+          != Double.doubleToLongBits(m_constantValues[i])) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private int child(int a_index, int a_child) {
+    int child = m_chrom.getChild(a_index, a_child);
+    if (child < 0) {
+      throw new IllegalStateException("Child " + a_child
+                                      + " of node with index "
+                                      + a_index + " not found!");
+    }
+    return child;
+  }
+
+  /**
+   * Executes the compiled program.
+   *
+   * @param a_args the arguments for execution
+   * @return the double return value
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public double execute_double(Object[] a_args) {
+    int[] code = m_code;
+    int[] operands = m_operands;
+    double[] values = m_values;
+    double[] stack = m_stack;
+    boolean isFloat = m_float;
+    int sp = 0;
+    int len = code.length;
+    for (int pc = 0; pc < len; pc++) {
+      int instr = code[pc];
+      int op = instr & OP_MASK;
+      if (op == OP_CONSTANT) {
+        stack[sp++] = values[pc];
+      }
+      else if (op == OP_VARIABLE) {
+        stack[sp++] = getVariable(operands[pc], isFloat);
+      }
+      else if (op == OP_INTERPRET) {
+        stack[sp++] = interpret(operands[pc], a_args);
+      }
+      else if (op < OP_SINE) {
+        double y;
+        if (instr == op) {
+          y = stack[--sp];
+        }
+        else if ( (instr & OPERAND_CONSTANT) != 0) {
+          y = values[pc];
+        }
+        else {
+          y = getVariable(operands[pc], isFloat);
+        }
+        double x = stack[sp - 1];
+        double value;
+        // The basic arithmetic operations are inlined.
+        // --------------------------------------------
+        switch (op) {
+          case OP_ADD:
+            value = x + y;
+            break;
+          case OP_SUBTRACT:
+            value = x - y;
+            break;
+          case OP_MULTIPLY:
+            value = x * y;
+            break;
+          case OP_DIVIDE:
+            value = x / y;
+            break;
+          default:
+            stack[sp - 1] = apply(op, x, y, isFloat);
+            continue;
+        }
+        if (isFloat) {
+          value = (float) value;
+        }
+        stack[sp - 1] = value;
+      }
+      else {
+        stack[sp - 1] = apply(op, stack[sp - 1], 0, isFloat);
+      }
+    }
+    if (m_interpreting) {
+      m_chrom.cleanup();
+    }
+    return stack[0];
+  }
+
+  private double getVariable(int a_index, boolean a_float) {
+    Number value = (Number) m_variables[a_index].getValue();
+    if (a_float) {
+      return value.floatValue();
+    }
+    return value.doubleValue();
+  }
+
+  /**
+   * Computes the result of a mathematical operation the same way as the
+   * corresponding command.
+   *
+   * @param a_op the operation
+   * @param a_x the first or only operand
+   * @param a_y the second operand of binary operations
+   * @param a_float true: round to float like float commands do
+   * @return the result
+   *
+   * @author agent
+   * @since 3.7
+   */
+  protected static double apply(int a_op, double a_x, double a_y,
+                                boolean a_float) {
+    double value;
+    switch (a_op) {
+      case OP_ADD:
+        value = a_x + a_y;
+        break;
+      case OP_SUBTRACT:
+        value = a_x - a_y;
+        break;
+      case OP_MULTIPLY:
+        value = a_x * a_y;
+        break;
+      case OP_DIVIDE:
+        value = a_x / a_y;
+        break;
+      case OP_MODULO:
+        if (Math.abs(a_y) < CommandGene.DELTA) {
+          value = 0;
+        }
+        else {
+          value = a_x % a_y;
+        }
+        break;
+      case OP_POW:
+        value = Math.pow(Math.max( -10000.0, Math.min(a_x, 20.0)),
+                         Math.max( -10000.0, Math.min(a_y, 20.0)));
+        break;
+      case OP_MAX:
+        value = Math.max(a_x, a_y);
+        break;
+      case OP_MIN:
+        value = Math.min(a_x, a_y);
+        break;
+      case OP_SINE:
+        value = Math.sin(Math.max( -10000.0, Math.min(a_x, 10000.0)));
+        break;
+      case OP_COSINE:
+        value = Math.cos(Math.max( -10000.0, Math.min(a_x, 10000.0)));
+        break;
+      case OP_TANGENT:
+        value = Math.tan(a_x);
+        break;
+      case OP_ARCSINE:
+        value = Math.asin(a_x);
+        break;
+      case OP_ARCCOSINE:
+        value = Math.acos(a_x);
+        break;
+      case OP_ARCTANGENT:
+        value = Math.atan(a_x);
+        break;
+      case OP_EXP:
+        value = Math.exp(Math.max( -10000.0, Math.min(a_x, 20.0)));
+        break;
+      case OP_LOG:
+        value = Math.log(a_x);
+        break;
+      case OP_ABS:
+        value = Math.abs(a_x);
+        break;
+      case OP_CEIL:
+        value = Math.ceil(a_x);
+        break;
+      case OP_FLOOR:
+        value = Math.floor(a_x);
+        break;
+      case OP_ROUND:
+        if (a_float) {
+          value = Math.round( (float) a_x);
+        }
+        else {
+          value = Math.round(a_x);
+        }
+        break;
+      default:
+        throw new IllegalStateException("Unknown operation " + a_op);
+    }
+    if (a_float) {
+      return (float) value;
+    }
+    return value;
+  }
+
+  /**
+   * Executes the compiled program for many fitness cases at once. Each
+   * operation is applied to a whole column of values before the next one,
+   * allowing the JIT compiler to vectorize the loops.
+   * <p>
+   * Commands executed by the interpreter are executed row by row, with the
+   * variables set to the values of the row. Afterwards, the variables are
+   * restored.
+   *
+   * @param a_variables the variables to provide values for
+   * @param a_inputs one column of values per variable, each at least as long
+   * as a_results
+   * @param a_results receives the result for each row
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public void execute_double(Variable[] a_variables, double[][] a_inputs,
+                             double[] a_results) {
+    if (a_variables.length != a_inputs.length) {
+      throw new IllegalArgumentException("Number of variables and input"
+                                         + " columns must be equal!");
+    }
+    int rows = a_results.length;
+    for (int i = 0; i < a_inputs.length; i++) {
+      if (a_inputs[i].length < rows) {
+        throw new IllegalArgumentException("Input column " + i
+                                           + " has less than " + rows
+                                           + " rows!");
+      }
+    }
+    // Determine the column of each variable used in the program. Variables
+    // without a column keep their current value.
+    // --------------------------------------------------------------------
+    double[][] varColumns = new double[m_variables.length][];
+    for (int i = 0; i < m_variables.length; i++) {
+      for (int j = 0; j < a_variables.length; j++) {
+        if (a_variables[j] == m_variables[i]) {
+          varColumns[i] = a_inputs[j];
+          break;
+        }
+      }
+    }
+    double[][] stack = getColumns(rows);
+    int[] code = m_code;
+    boolean isFloat = m_float;
+    int sp = 0;
+    for (int pc = 0; pc < code.length; pc++) {
+      int instr = code[pc];
+      int op = instr & OP_MASK;
+      if (op == OP_CONSTANT) {
+        Arrays.fill(stack[sp++], 0, rows, m_values[pc]);
+      }
+      else if (op == OP_VARIABLE) {
+        loadVariable(varColumns, m_operands[pc], stack[sp++], rows);
+      }
+      else if (op == OP_INTERPRET) {
+        interpret(m_operands[pc], a_variables, a_inputs, stack[sp++], rows);
+      }
+      else if (op < OP_SINE) {
+        double[] y;
+        if (instr == op) {
+          y = stack[--sp];
+        }
+        else if ( (instr & OPERAND_CONSTANT) != 0) {
+          y = null;
+        }
+        else {
+          y = varColumns[m_operands[pc]];
+          if (y == null || isFloat) {
+            // Load into the free column above the operand.
+            // --------------------------------------------
+            y = stack[sp];
+            loadVariable(varColumns, m_operands[pc], y, rows);
+          }
+        }
+        double[] x = stack[sp - 1];
+        if (y == null) {
+          applyConstant(op, x, m_values[pc], rows, isFloat);
+        }
+        else {
+          apply(op, x, y, rows, isFloat);
+        }
+      }
+      else {
+        double[] x = stack[sp - 1];
+        for (int i = 0; i < rows; i++) {
+          x[i] = apply(op, x[i], 0, isFloat);
+        }
+      }
+      if (isFloat && op > OP_INTERPRET) {
+        double[] x = stack[sp - 1];
+        for (int i = 0; i < rows; i++) {
+          x[i] = (float) x[i];
+        }
+      }
+    }
+    System.arraycopy(stack[0], 0, a_results, 0, rows);
+    if (m_interpreting) {
+      m_chrom.cleanup();
+    }
+  }
+
+  private double[][] getColumns(int a_rows) {
+    // One more column than the stack depth for loading operands.
+    // ----------------------------------------------------------
+    int depth = m_stack.length + 1;
+    if (m_columns == null || m_columns.length < depth
+        || (depth > 0 && m_columns[0].length < a_rows)) {
+      m_columns = new double[depth][a_rows];
+    }
+    return m_columns;
+  }
+
+  private void loadVariable(double[][] a_varColumns, int a_index,
+                            double[] a_target, int a_rows) {
+    double[] column = a_varColumns[a_index];
+    if (column == null) {
+      Arrays.fill(a_target, 0, a_rows, getVariable(a_index, m_float));
+    }
+    else if (m_float) {
+      for (int i = 0; i < a_rows; i++) {
+        a_target[i] = (float) column[i];
+      }
+    }
+    else {
+      System.arraycopy(column, 0, a_target, 0, a_rows);
+    }
+  }
+
+  /**
+   * Applies a binary operation to two columns, storing the result in the
+   * first one.
+   */
+  private static void apply(int a_op, double[] a_x, double[] a_y,
+                            int a_rows, boolean a_float) {
+    switch (a_op) {
+      case OP_ADD:
+        for (int i = 0; i < a_rows; i++) {
+          a_x[i] += a_y[i];
+        }
+        break;
+      case OP_SUBTRACT:
+        for (int i = 0; i < a_rows; i++) {
+          a_x[i] -= a_y[i];
+        }
+        break;
+      case OP_MULTIPLY:
+        for (int i = 0; i < a_rows; i++) {
+          a_x[i] *= a_y[i];
+        }
+        break;
+      case OP_DIVIDE:
+        for (int i = 0; i < a_rows; i++) {
+          a_x[i] /= a_y[i];
+        }
+        break;
+      default:
+        for (int i = 0; i < a_rows; i++) {
+          a_x[i] = apply(a_op, a_x[i], a_y[i], a_float);
+        }
+    }
+  }
+
+  /**
+   * Applies a binary operation to a column and a constant, storing the
+   * result in the column.
+   */
+  private static void applyConstant(int a_op, double[] a_x, double a_y,
+                                    int a_rows, boolean a_float) {
+    switch (a_op) {
+      case OP_ADD:
+        for (int i = 0; i < a_rows; i++) {
+          a_x[i] += a_y;
+        }
+        break;
+      case OP_SUBTRACT:
+        for (int i = 0; i < a_rows; i++) {
+          a_x[i] -= a_y;
+        }
+        break;
+      case OP_MULTIPLY:
+        for (int i = 0; i < a_rows; i++) {
+          a_x[i] *= a_y;
+        }
+        break;
+      case OP_DIVIDE:
+        for (int i = 0; i < a_rows; i++) {
+          a_x[i] /= a_y;
+        }
+        break;
+      default:
+        for (int i = 0; i < a_rows; i++) {
+          a_x[i] = apply(a_op, a_x[i], a_y, a_float);
+        }
+    }
+  }
+
+  private void interpret(int a_index, Variable[] a_variables,
+                         double[][] a_inputs, double[] a_target,
+                         int a_rows) {
+    Object[] saved = new Object[a_variables.length];
+    for (int j = 0; j < a_variables.length; j++) {
+      saved[j] = a_variables[j].getValue();
+    }
+    try {
+      for (int i = 0; i < a_rows; i++) {
+        for (int j = 0; j < a_variables.length; j++) {
+          a_variables[j].set(box(a_variables[j].getReturnType(),
+                                 a_inputs[j][i]));
+        }
+        a_target[i] = interpret(a_index, NO_ARGS);
+      }
+    } finally {
+      for (int j = 0; j < a_variables.length; j++) {
+        a_variables[j].set(saved[j]);
+      }
+    }
+  }
+
+  /**
+   * Executes the compiled program.
+   *
+   * @param a_args the arguments for execution
+   * @return the float return value
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public float execute_float(Object[] a_args) {
+    return (float) execute_double(a_args);
+  }
+
+  /**
+   * Executes a node not compiled, including its subtree.
+   *
+   * @param a_index index of the node
+   * @param a_args the arguments for execution
+   * @return the result of the node
+   *
+   * @author agent
+   * @since 3.7
+   */
+  protected double interpret(int a_index, Object[] a_args) {
+    CommandGene node = m_chrom.getNode(a_index);
+    if (m_float) {
+      return node.execute_float(m_chrom, a_index, a_args);
+    }
+    if (m_returnType == CommandGene.IntegerClass) {
+      return node.execute_int(m_chrom, a_index, a_args);
+    }
+    if (m_returnType == CommandGene.LongClass) {
+      return node.execute_long(m_chrom, a_index, a_args);
+    }
+    return node.execute_double(m_chrom, a_index, a_args);
+  }
+
+  /**
+   * @param a_type the return type of a variable
+   * @param a_value the value of the fitness case
+   * @return the value as an object of the type of the variable
+   *
+   * @author agent
+   * @since 3.7
+   */
+  private static Object box(Class a_type, double a_value) {
+    if (a_type == CommandGene.FloatClass) {
+      return new Float( (float) a_value);
+    }
+    if (a_type == CommandGene.IntegerClass) {
+      return new Integer( (int) a_value);
+    }
+    if (a_type == CommandGene.LongClass) {
+      return new Long( (long) a_value);
+    }
+    return new Double(a_value);
+  }
+
+  /**
+   * @return number of operations
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public int size() {
+    return m_code.length;
+  }
+
+  /**
+   * @return true: at least one command is executed by the interpreter
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public boolean isInterpreting() {
+    return m_interpreting;
+  }
+
+  /**
+   * @return the compiled chromosome
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public ProgramChromosome getChromosome() {
+    return m_chrom;
+  }
+
+  /**
+   * State of a compilation. Operations on constants only are computed while
+   * compiling.
+   *
+   * @author agent
+   * @since 3.7
+   */
+  protected static class Compilation {
+    List<Integer> m_code = new ArrayList<Integer>();
+
+    List<Integer> m_operands = new ArrayList<Integer>();
+
+    List<Double> m_values = new ArrayList<Double>();
+
+    List<Variable> m_variables = new ArrayList<Variable>();
+
+    List<Integer> m_constantNodes = new ArrayList<Integer>();
+
+    List<Double> m_constantValues = new ArrayList<Double>();
+
+    private boolean m_float;
+
+    Compilation(boolean a_float) {
+      m_float = a_float;
+    }
+
+    void add(int a_operation, int a_operand, double a_value) {
+      m_code.add(new Integer(a_operation));
+      m_operands.add(new Integer(a_operand));
+      m_values.add(new Double(a_value));
+    }
+
+    void addOperation(int a_operation, int a_inputs) {
+      int size = m_code.size();
+      for (int i = size - a_inputs; i < size; i++) {
+        if (m_code.get(i).intValue() != OP_CONSTANT) {
+          addNotConstant(a_operation, a_inputs);
+          return;
+        }
+      }
+      double x = m_values.get(size - a_inputs).doubleValue();
+      double y = m_values.get(size - 1).doubleValue();
+      for (int i = 0; i < a_inputs; i++) {
+        m_code.remove(m_code.size() - 1);
+        m_operands.remove(m_operands.size() - 1);
+        m_values.remove(m_values.size() - 1);
+      }
+      add(OP_CONSTANT, 0, apply(a_operation, x, y, m_float));
+    }
+
+    private void addNotConstant(int a_operation, int a_inputs) {
+      int last = m_code.size() - 1;
+      int lastOp = m_code.get(last).intValue();
+      if (a_inputs == 2
+          && (lastOp == OP_CONSTANT || lastOp == OP_VARIABLE)) {
+        // Let the operation read the second operand itself.
+        // -------------------------------------------------
+        int flag;
+        if (lastOp == OP_CONSTANT) {
+          flag = OPERAND_CONSTANT;
+        }
+        else {
+          flag = OPERAND_VARIABLE;
+        }
+        m_code.set(last, new Integer(a_operation | flag));
+      }
+      else {
+        add(a_operation, 0, 0);
+      }
+    }
+  }
+}
@@ -40,16 +40,15 @@ public class GPConfiguration
   private GPFitnessFunction m_objectiveFunction;
 
   /**
-   * Internal stack, see PushCommand for example.
+   * Stack, memory and matrices used by threads without an execution context
+   * of their own, see PushCommand or StoreTerminalCommand for example.
    */
-  private /*transient*/ Stack m_stack = new Stack();
+  private transient GPExecutionContext m_context;
 
   /**
-   * Internal memory, see StoreTerminalCommand for example.
+   * Execution contexts bound to single threads.
    */
-  private transient Culture m_memory = new Culture(50);
-
-  private transient Hashtable<String, char[][]> m_matrices;
+  private transient ThreadLocal<GPExecutionContext> m_threadContext;
 
   /**
    * The probability that a crossover operation is chosen during evolution. Must
@@ -268,7 +267,8 @@ public class GPConfiguration
       throw new IllegalStateException("JGAPFactory not registered!");
     }
     m_programCache = new HashMap(50);
-    m_matrices = new Hashtable();
+    m_context = new GPExecutionContext();
+    m_threadContext = new ThreadLocal<GPExecutionContext>();
     if (a_fullInit) {
       m_variables = new Hashtable();
       m_crossMethod = new BranchTypingCross(this);
@@ -463,24 +463,70 @@ public class GPConfiguration
     m_minInitDepth = a_minDepth;
   }
 
+  /**
+   * @return the execution context bound to the current thread, or the default
+   * context of this configuration if the thread has none
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public GPExecutionContext getExecutionContext() {
+    GPExecutionContext context = m_threadContext.get();
+    if (context == null) {
+      return m_context;
+    }
+    return context;
+  }
+
+  /**
+   * Binds an execution context to the current thread. Until unbound, all GP
+   * programs executed by the thread with this configuration use the stack,
+   * memory and matrices of the given context.
+   *
+   * @param a_context the context to bind, null or the default context to
+   * unbind the context of the current thread
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public void setExecutionContext(GPExecutionContext a_context) {
+    if (a_context == null || a_context == m_context) {
+      m_threadContext.remove();
+    }
+    else {
+      m_threadContext.set(a_context);
+    }
+  }
+
+  /**
+   * @return new execution context with copies of the matrices of the default
+   * context, to be bound to another thread
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public GPExecutionContext newExecutionContext() {
+    return m_context.newInstance();
+  }
+
   public void pushToStack(Object a_value) {
-    m_stack.push(a_value);
+    getExecutionContext().pushToStack(a_value);
   }
 
   public Object popFromStack() {
-    return m_stack.pop();
+    return getExecutionContext().popFromStack();
   }
 
   public Object peekStack() {
-    return m_stack.peek();
+    return getExecutionContext().peekStack();
   }
 
   public int stackSize() {
-    return m_stack.size();
+    return getExecutionContext().stackSize();
   }
 
   public void clearStack() {
-    m_stack.clear();
+    getExecutionContext().clearStack();
   }
 
   /**
@@ -493,7 +539,7 @@ public class GPConfiguration
    * @since 3.0
    */
   public void storeInMemory(String a_name, Object a_value) {
-    m_memory.set(a_name, a_value, -1);
+    getExecutionContext().storeInMemory(a_name, a_value);
   }
 
   /**
@@ -507,15 +553,7 @@ public class GPConfiguration
    * @since 3.4.3
    */
   public void createMatrix(String a_name, int a_cols, int a_rows) {
-    if (a_name == null || a_name.length() < 1) {
-      throw new IllegalArgumentException("Matrix name must not be empty!");
-    }
-    if (a_cols < 1 || a_rows < 1) {
-      throw new IllegalArgumentException(
-          "Number of colums and rows must be greater than zero!");
-    }
-    char[][] m_matrix = new char[a_cols][a_rows];
-    m_matrices.put(a_name, m_matrix);
+    getExecutionContext().createMatrix(a_name, a_cols, a_rows);
   }
 
   /**
@@ -530,12 +568,7 @@ public class GPConfiguration
    * @since 3.4.3
    */
   public void setMatrix(String a_name, int a_col, int a_row, char a_value) {
-    char[][] m_matrix = m_matrices.get(a_name);
-    if (m_matrix == null) {
-      throw new IllegalArgumentException("Matrix with name " + a_name +
-          " not found!");
-    }
-    m_matrix[a_col][a_row] = a_value;
+    getExecutionContext().setMatrix(a_name, a_col, a_row, a_value);
   }
 
   /**
@@ -550,12 +583,7 @@ public class GPConfiguration
    * @since 3.6
    */
   public void setMatrix(String a_name, int a_col, int a_row, int a_value) {
-    char[][] m_matrix = m_matrices.get(a_name);
-    if (m_matrix == null) {
-      throw new IllegalArgumentException("Matrix with name " + a_name +
-          " not found!");
-    }
-    m_matrix[a_col][a_row] = (char)a_value;
+    getExecutionContext().setMatrix(a_name, a_col, a_row, (char) a_value);
   }
 
   /**
@@ -568,16 +596,7 @@ public class GPConfiguration
    * @since 3.4.3
    */
   public void resetMatrix(String a_name, char a_filler) {
-    char[][] m_matrix = m_matrices.get(a_name);
-    if (m_matrix == null) {
-      throw new IllegalArgumentException("Matrix with name " + a_name +
-          " not found!");
-    }
-    for (int col = 0; col < m_matrix.length; col++) {
-      for (int row = 0; row < m_matrix[col].length; row++) {
-        m_matrix[col][row] = a_filler;
-      }
-    }
+    getExecutionContext().resetMatrix(a_name, a_filler);
   }
 
   /**
@@ -592,12 +611,7 @@ public class GPConfiguration
    * @since 3.4.3
    */
   public char readMatrix(String a_name, int a_col, int a_row) {
-    char[][] m_matrix = m_matrices.get(a_name);
-    if (m_matrix == null) {
-      throw new IllegalArgumentException("Matrix with name " + a_name +
-          " not found!");
-    }
-    return m_matrix[a_col][a_row];
+    return getExecutionContext().readMatrix(a_name, a_col, a_row);
   }
 
   /**
@@ -610,8 +624,7 @@ public class GPConfiguration
    * @since 3.4.3
    */
   public char[][] getMatrix(String a_name) {
-    char[][] m_matrix = m_matrices.get(a_name);
-    return m_matrix;
+    return getExecutionContext().getMatrix(a_name);
   }
 
   /**
@@ -626,7 +639,7 @@ public class GPConfiguration
    * @since 3.2
    */
   public CultureMemoryCell storeMatrixMemory(int a_x, int a_y, Object a_value) {
-    return m_memory.setMatrix(a_x, a_y, a_value);
+    return getExecutionContext().storeMatrixMemory(a_x, a_y, a_value);
   }
 
   /**
@@ -640,7 +653,7 @@ public class GPConfiguration
    * @since 3.2
    */
   public Object readMatrixMemory(int a_x, int a_y) {
-    return m_memory.getMatrix(a_x, a_y).getCurrentValue();
+    return getExecutionContext().readMatrixMemory(a_x, a_y);
   }
 
   /**
@@ -653,7 +666,7 @@ public class GPConfiguration
    * @since 3.0
    */
   public Object readFromMemory(String a_name) {
-    return m_memory.get(a_name).getCurrentValue();
+    return getExecutionContext().readFromMemory(a_name);
   }
 
   /**
@@ -664,18 +677,7 @@ public class GPConfiguration
    * @since 3.2
    */
   public Object readFromMemoryIfExists(String a_name) {
-    CultureMemoryCell cell = null;
-    try {
-      cell = m_memory.get(a_name);
-    } catch (IllegalArgumentException iex) {
-      // Memory name not found: OK.
-      // --------------------------
-      ;
-    }
-    if (cell == null) {
-      return null;
-    }
-    return cell.getCurrentValue();
+    return getExecutionContext().readFromMemoryIfExists(a_name);
   }
 
   /**
@@ -689,7 +691,7 @@ public class GPConfiguration
    * @since 3.2
    */
   public CultureMemoryCell storeIndexedMemory(int a_index, Object a_value) {
-    return m_memory.set(a_index, a_value, -1, "noname");
+    return getExecutionContext().storeIndexedMemory(a_index, a_value);
   }
 
   /**
@@ -702,13 +704,7 @@ public class GPConfiguration
    * @since 3.2
    */
   public Object readIndexedMemory(int a_index) {
-    CultureMemoryCell cell = m_memory.get(a_index);
-    if (cell == null) {
-      return null;
-    }
-    else {
-      return cell.getCurrentValue();
-    }
+    return getExecutionContext().readIndexedMemory(a_index);
   }
 
   /**
@@ -718,7 +714,7 @@ public class GPConfiguration
    * @since 3.0
    */
   public void clearMemory() {
-    m_memory.clear();
+    getExecutionContext().clearMemory();
   }
 
   public GPFitnessFunction getGPFitnessFunction() {
@@ -985,7 +981,7 @@ public class GPConfiguration
    * @since 3.2
    */
   public int getMemorySize() {
-    return m_memory.size();
+    return getExecutionContext().getMemorySize();
   }
 
   public GPProgramInfo readProgramCache(GPProgram a_prog) {
@@ -1092,6 +1088,8 @@ public class GPConfiguration
       result.m_useProgramCache = m_useProgramCache;
       result.m_verify = m_verify;
       result.m_variables = m_variables;
+      result.setFitnessExecutor(getFitnessExecutor(),
+                                getFitnessParallelism());
       // Configurable data.
       // ------------------
 //      result.m_config = new ConfigurationConfigurable();
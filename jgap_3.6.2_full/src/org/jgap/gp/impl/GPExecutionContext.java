@@ -0,0 +1,338 @@
+/*
+ * This file is part of JGAP.
+ *
+ * JGAP offers a dual license model containing the LGPL as well as the MPL.
+ *
+ * For licensing information please see the file license.txt included with JGAP
+ * or have a look at the top of class org.jgap.Chromosome which representatively
+ * includes the JGAP license policy applicable for any file delivered with JGAP.
+ */
+package org.jgap.gp.impl;
+
+import java.io.*;
+import java.util.*;
+import org.jgap.distr.*;
+
+/**
+ * Holds the state GP programs work on while being executed: the stack (see
+ * Push and Pop), the memory (see StoreTerminal and ReadTerminal) and the
+ * named matrices (see WriteToMatrix and ReadFromMatrix).
+ * <p>
+ * Commands access the state via the GPConfiguration, which forwards to the
+ * context bound to the executing thread (see
+ * GPConfiguration.setExecutionContext). Threads without a bound context share
+ * the default context of the configuration. Binding a context of its own to
+ * each thread allows to execute several GP programs concurrently.
+ * <p>
+ * A context must only be used by one thread at a time.
+ *
+ * @author agent
+ * @since 3.7
+ */
+public class GPExecutionContext
+    implements Serializable {
+  /** String containing the CVS revision. Read out via reflection!*/
+  private final static String CVS_REVISION = "$Revision: 1.1 $";
+
+  /**
+   * Default number of memory cells.
+   */
+  public final static int DEFAULT_MEMORY_SIZE = 50;
+
+  private Stack m_stack;
+
+  private Culture m_memory;
+
+  private Hashtable<String, char[][]> m_matrices;
+
+  /**
+   * Constructs an empty context with DEFAULT_MEMORY_SIZE memory cells.
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public GPExecutionContext() {
+    this(DEFAULT_MEMORY_SIZE);
+  }
+
+  /**
+   * @param a_memorySize number of memory cells
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public GPExecutionContext(int a_memorySize) {
+    m_stack = new Stack();
+    m_memory = new Culture(a_memorySize);
+    m_matrices = new Hashtable<String, char[][]>();
+  }
+
+  /**
+   * Creates an empty context with the same memory size and copies of the
+   * matrices of this context. Use it to create a context for another thread
+   * when the matrices have been created during setup.
+   *
+   * @return the new context
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public GPExecutionContext newInstance() {
+    GPExecutionContext result = new GPExecutionContext(m_memory.size());
+    Iterator<Map.Entry<String, char[][]>> it = m_matrices.entrySet().iterator();
+    while (it.hasNext()) {
+      Map.Entry<String, char[][]> entry = it.next();
+      char[][] matrix = entry.getValue();
+      char[][] copy = new char[matrix.length][];
+      for (int col = 0; col < matrix.length; col++) {
+        copy[col] = (char[]) matrix[col].clone();
+      }
+      result.m_matrices.put(entry.getKey(), copy);
+    }
+    return result;
+  }
+
+  public void pushToStack(Object a_value) {
+    m_stack.push(a_value);
+  }
+
+  public Object popFromStack() {
+    return m_stack.pop();
+  }
+
+  public Object peekStack() {
+    return m_stack.peek();
+  }
+
+  public int stackSize() {
+    return m_stack.size();
+  }
+
+  public void clearStack() {
+    m_stack.clear();
+  }
+
+  /**
+   * Stores a value in the memory.
+   *
+   * @param a_name named index of the memory cell
+   * @param a_value the value to store
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public void storeInMemory(String a_name, Object a_value) {
+    m_memory.set(a_name, a_value, -1);
+  }
+
+  /**
+   * Reads a value from the memory.
+   *
+   * @param a_name named index of the memory cell to read out
+   * @return read value
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public Object readFromMemory(String a_name) {
+    return m_memory.get(a_name).getCurrentValue();
+  }
+
+  /**
+   * @param a_name the name of the cell to evaluate
+   * @return the value of a memory cell, if it exists. Otherwise returns null.
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public Object readFromMemoryIfExists(String a_name) {
+    CultureMemoryCell cell = null;
+    try {
+      cell = m_memory.get(a_name);
+    } catch (IllegalArgumentException iex) {
+      // Memory name not found: OK.
+      // --------------------------
+      ;
+    }
+    if (cell == null) {
+      return null;
+    }
+    return cell.getCurrentValue();
+  }
+
+  /**
+   * Stores a value in the indexed memory.
+   *
+   * @param a_index index of the cell
+   * @param a_value the value to store
+   * @return created or used memory cell
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public CultureMemoryCell storeIndexedMemory(int a_index, Object a_value) {
+    return m_memory.set(a_index, a_value, -1, "noname");
+  }
+
+  /**
+   * Reads a value from the indexed memory.
+   *
+   * @param a_index index of the cell
+   * @return read value (maybe null)
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public Object readIndexedMemory(int a_index) {
+    CultureMemoryCell cell = m_memory.get(a_index);
+    if (cell == null) {
+      return null;
+    }
+    else {
+      return cell.getCurrentValue();
+    }
+  }
+
+  /**
+   * Stores a value in the matrix memory.
+   *
+   * @param a_x the first coordinate of the matrix (width)
+   * @param a_y the second coordinate of the matrix (height)
+   * @param a_value the value to store
+   * @return created or used memory cell
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public CultureMemoryCell storeMatrixMemory(int a_x, int a_y, Object a_value) {
+    return m_memory.setMatrix(a_x, a_y, a_value);
+  }
+
+  /**
+   * Reads a value from the matrix memory.
+   *
+   * @param a_x the first coordinate of the matrix (width)
+   * @param a_y the second coordinate of the matrix (height)
+   * @return read value
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public Object readMatrixMemory(int a_x, int a_y) {
+    return m_memory.getMatrix(a_x, a_y).getCurrentValue();
+  }
+
+  public void clearMemory() {
+    m_memory.clear();
+  }
+
+  /**
+   * @return capacity of the memory in cells
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public int getMemorySize() {
+    return m_memory.size();
+  }
+
+  /**
+   * Creates an instance of a matrix with a unique name.
+   *
+   * @param a_name the name of the matrix
+   * @param a_cols number of columns the matrix should have
+   * @param a_rows number of rows the matrix should have
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public void createMatrix(String a_name, int a_cols, int a_rows) {
+    if (a_name == null || a_name.length() < 1) {
+      throw new IllegalArgumentException("Matrix name must not be empty!");
+    }
+    if (a_cols < 1 || a_rows < 1) {
+      throw new IllegalArgumentException(
+          "Number of colums and rows must be greater than zero!");
+    }
+    m_matrices.put(a_name, new char[a_cols][a_rows]);
+  }
+
+  /**
+   * Sets a matrix field with a value.
+   *
+   * @param a_name the name of the matrix
+   * @param a_col column in the matrix
+   * @param a_row row in the matrix
+   * @param a_value the value to set in the matrix at given column and row
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public void setMatrix(String a_name, int a_col, int a_row, char a_value) {
+    getExistingMatrix(a_name)[a_col][a_row] = a_value;
+  }
+
+  /**
+   * Resets the matrix by filling it with a given character.
+   *
+   * @param a_name the name of the matrix
+   * @param a_filler the character to fill the whole matrix with
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public void resetMatrix(String a_name, char a_filler) {
+    char[][] matrix = getExistingMatrix(a_name);
+    for (int col = 0; col < matrix.length; col++) {
+      Arrays.fill(matrix[col], a_filler);
+    }
+  }
+
+  /**
+   * Reads a matrix cell and returns the value.
+   *
+   * @param a_name the name of the matrix
+   * @param a_col the column to read
+   * @param a_row the row to read
+   * @return the value in the matrix
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public char readMatrix(String a_name, int a_col, int a_row) {
+    return getExistingMatrix(a_name)[a_col][a_row];
+  }
+
+  /**
+   * Retrieves a named matrix.
+   *
+   * @param a_name the name of the matrix
+   * @return the matrix itself, or null if there is no such matrix
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public char[][] getMatrix(String a_name) {
+    return m_matrices.get(a_name);
+  }
+
+  private char[][] getExistingMatrix(String a_name) {
+    char[][] matrix = m_matrices.get(a_name);
+    if (matrix == null) {
+      throw new IllegalArgumentException("Matrix with name " + a_name +
+          " not found!");
+    }
+    return matrix;
+  }
+
+  /**
+   * Clears the stack and the memory. The matrices are kept.
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public void clear() {
+    m_stack.clear();
+    m_memory.clear();
+  }
+}
@@ -11,6 +11,7 @@ package org.jgap.gp.impl;
 
 import java.io.*;
 import java.util.*;
+import java.util.concurrent.*;
 
 import org.apache.log4j.*;
 import org.jgap.*;
@@ -550,6 +551,10 @@ public class GPGenotype
   /**
    * Calculates the fitness value of all programs, of the best solution as well
    * as the total fitness (sum of all fitness values).
+   * <p>
+   * If a fitness executor is registered with the configuration and the fitness
+   * function implements IConcurrentFitnessFunction, the programs are
+   * evaluated concurrently first, see ParallelGPFitnessEvaluation.
    *
    * @author Klaus Meffert
    * @since 3.0
@@ -557,6 +562,12 @@ public class GPGenotype
   public void calcFitness() {
     double totalFitness = 0.0d;
     GPPopulation pop = getGPPopulation();
+    GPConfiguration conf = getGPConfiguration();
+    ExecutorService executor = conf.getFitnessExecutor();
+    if (executor != null) {
+      new ParallelGPFitnessEvaluation(executor, conf.getFitnessParallelism()).
+          evaluate(conf, pop);
+    }
     IGPProgram best = null;
     IGPFitnessEvaluator evaluator = getGPConfiguration().getGPFitnessEvaluator();
     m_bestFitness = FitnessFunction.NO_FITNESS_VALUE;
@@ -16,6 +16,7 @@ import org.jgap.gp.*;
 import org.jgap.gp.function.*;
 import org.jgap.util.*;
 import org.jgap.gp.terminal.Argument;
+import org.jgap.gp.terminal.Variable;
 
 /**
  * A GP program contains 1..n ProgramChromosome's.
@@ -421,6 +422,25 @@ public class GPProgram
     return m_chromosomes[a_chromosomeNum].execute_double(a_args);
   }
 
+  /**
+   * Executes the given chromosome as a double function for many fitness cases
+   * at once.
+   *
+   * @param a_chromosomeNum the index of the chromosome to execute
+   * @param a_variables the variables to provide values for
+   * @param a_inputs one column of values per variable
+   * @param a_results receives the double return value for each fitness case
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public void execute_double(int a_chromosomeNum, Variable[] a_variables,
+                             double[][] a_inputs, double[] a_results) {
+    m_chromosomes[a_chromosomeNum].setIndividual(this);
+    m_chromosomes[a_chromosomeNum].execute_double(a_variables, a_inputs,
+        a_results);
+  }
+
   /**
    * Executes the given chromosome as a boolean function.
    *
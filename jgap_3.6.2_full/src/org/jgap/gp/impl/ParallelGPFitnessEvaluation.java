@@ -0,0 +1,232 @@
+/*
+ * This file is part of JGAP.
+ *
+ * JGAP offers a dual license model containing the LGPL as well as the MPL.
+ *
+ * For licensing information please see the file license.txt included with JGAP
+ * or have a look at the top of class org.jgap.Chromosome which representatively
+ * includes the JGAP license policy applicable for any file delivered with JGAP.
+ */
+package org.jgap.gp.impl;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+import org.jgap.*;
+import org.jgap.gp.*;
+
+/**
+ * Computes the fitness values of the programs of a GPPopulation concurrently
+ * by using an ExecutorService. Only programs without a fitness value are
+ * evaluated.
+ * <p>
+ * As GP programs differ a lot in size, the programs are not split into fixed
+ * ranges. Instead, each task repeatedly takes the next small chunk of
+ * programs not evaluated yet, so that idle workers take over the work left.
+ * Each task binds an execution context of its own to its thread (see
+ * GPExecutionContext), so stack, memory and matrices are not shared.
+ * <p>
+ * The fitness values are assigned to the programs within the calling thread
+ * after all tasks have finished, in the order of the population. Thus the
+ * result does not depend on the scheduling of the worker threads, as long as
+ * the fitness function computes the same value for the same program.
+ * <p>
+ * The fitness function must implement IConcurrentFitnessFunction, otherwise
+ * nothing is evaluated here and the caller has to fall back to sequential
+ * evaluation. Note that a fitness function setting a Variable shared by all
+ * programs is not thread-safe; it has to create its worker instances with
+ * Variables of their own, or stay sequential.
+ *
+ * @author agent
+ * @since 3.7
+ */
+public class ParallelGPFitnessEvaluation {
+  /** String containing the CVS revision. Read out via reflection!*/
+  private final static String CVS_REVISION = "$Revision: 1.1 $";
+
+  /**
+   * Number of chunks per task the programs are split into.
+   */
+  private final static int CHUNKS_PER_TASK = 8;
+
+  private ExecutorService m_executor;
+
+  private int m_parallelism;
+
+  /**
+   * @param a_executor the executor to run the evaluation tasks with, e.g. a
+   * thread pool or a work-stealing fork-join pool
+   * @param a_parallelism number of tasks to run at once. Zero or below: use
+   * the number of available processors
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public ParallelGPFitnessEvaluation(ExecutorService a_executor,
+                                     int a_parallelism) {
+    if (a_executor == null) {
+      throw new IllegalArgumentException("Executor must not be null!");
+    }
+    m_executor = a_executor;
+    if (a_parallelism <= 0) {
+      m_parallelism = Runtime.getRuntime().availableProcessors();
+    }
+    else {
+      m_parallelism = a_parallelism;
+    }
+  }
+
+  /**
+   * Evaluates all programs of the given population which have no fitness
+   * value yet.
+   *
+   * @param a_conf the configuration holding the fitness function
+   * @param a_pop the population to evaluate
+   * @return number of programs evaluated concurrently. Zero if the fitness
+   * function does not support concurrent evaluation
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public int evaluate(GPConfiguration a_conf, GPPopulation a_pop) {
+    GPFitnessFunction func = a_conf.getGPFitnessFunction();
+    if (! (func instanceof IConcurrentFitnessFunction)) {
+      return 0;
+    }
+    // Collect the programs that need an evaluation.
+    // ---------------------------------------------
+    List<IGPProgram> todo = new ArrayList<IGPProgram>(a_pop.size());
+    for (int i = 0; i < a_pop.size(); i++) {
+      IGPProgram program = a_pop.getGPProgram(i);
+      if (program == null) {
+        break;
+      }
+      if (program.getFitnessValueDirectly() < 0.000d) {
+        todo.add(program);
+      }
+    }
+    int count = todo.size();
+    if (count < 2) {
+      // Not worth the overhead.
+      // -----------------------
+      return 0;
+    }
+    IConcurrentFitnessFunction concFunc = (IConcurrentFitnessFunction) func;
+    boolean shared = concFunc.isThreadSafe();
+    int tasks = Math.min(m_parallelism, count);
+    int chunk = Math.max(1, count / (tasks * CHUNKS_PER_TASK));
+    double[] results = new double[count];
+    AtomicInteger next = new AtomicInteger();
+    List<Future<?>> futures = new ArrayList<Future<?>>(tasks);
+    for (int t = 0; t < tasks; t++) {
+      GPFitnessFunction taskFunc;
+      if (shared) {
+        taskFunc = func;
+      }
+      else {
+        taskFunc = (GPFitnessFunction) concFunc.newWorkerInstance();
+      }
+      futures.add(m_executor.submit(new EvaluationTask(a_conf, taskFunc, todo,
+          results, next, chunk)));
+    }
+    waitFor(futures);
+    // Assign the results within the calling thread.
+    // ---------------------------------------------
+    for (int i = 0; i < count; i++) {
+      todo.get(i).setFitnessValue(results[i]);
+    }
+    return count;
+  }
+
+  /**
+   * Waits for all given tasks to finish. The first failure of a task is
+   * rethrown as a RuntimeException.
+   *
+   * @param a_futures the tasks to wait for
+   *
+   * @author agent
+   * @since 3.7
+   */
+  protected void waitFor(List<Future<?>> a_futures) {
+    RuntimeException failure = null;
+    for (Future<?> future : a_futures) {
+      try {
+        future.get();
+      } catch (InterruptedException iex) {
+        Thread.currentThread().interrupt();
+        throw new RuntimeException("Fitness evaluation interrupted", iex);
+      } catch (ExecutionException eex) {
+        if (failure == null) {
+          Throwable cause = eex.getCause();
+          if (cause instanceof RuntimeException) {
+            failure = (RuntimeException) cause;
+          }
+          else {
+            failure = new RuntimeException(cause);
+          }
+        }
+      }
+    }
+    if (failure != null) {
+      throw failure;
+    }
+  }
+
+  public int getParallelism() {
+    return m_parallelism;
+  }
+
+  public ExecutorService getExecutor() {
+    return m_executor;
+  }
+
+  /**
+   * Evaluates chunks of programs with one fitness function instance until
+   * no programs are left.
+   *
+   * @author agent
+   * @since 3.7
+   */
+  private static class EvaluationTask
+      implements Runnable {
+    private GPConfiguration m_conf;
+
+    private GPFitnessFunction m_func;
+
+    private List<IGPProgram> m_programs;
+
+    private double[] m_results;
+
+    private AtomicInteger m_next;
+
+    private int m_chunk;
+
+    EvaluationTask(GPConfiguration a_conf, GPFitnessFunction a_func,
+                   List<IGPProgram> a_programs, double[] a_results,
+                   AtomicInteger a_next, int a_chunk) {
+      m_conf = a_conf;
+      m_func = a_func;
+      m_programs = a_programs;
+      m_results = a_results;
+      m_next = a_next;
+      m_chunk = a_chunk;
+    }
+
+    public void run() {
+      int count = m_programs.size();
+      GPExecutionContext previous = m_conf.getExecutionContext();
+      m_conf.setExecutionContext(m_conf.newExecutionContext());
+      try {
+        int from;
+        while ( (from = m_next.getAndAdd(m_chunk)) < count) {
+          int to = Math.min(from + m_chunk, count);
+          for (int i = from; i < to; i++) {
+            m_results[i] = m_func.getFitnessValue(m_programs.get(i));
+          }
+        }
+      } finally {
+        m_conf.setExecutionContext(previous);
+      }
+    }
+  }
+}
@@ -49,6 +49,21 @@ public class ProgramChromosome
    */
   private int[] m_depth;
 
+  /**
+   * Index of the children of each node, built from m_depth on demand. For
+   * node n, the indices of its children are stored at positions
+   * m_children[n] to m_children[n + 1] - 1. A zero-length array means the
+   * index could not be built because the depths are inconsistent.
+   */
+  private transient volatile int[] m_children;
+
+  /**
+   * Compiled form of this chromosome for execution on many fitness cases,
+   * built on demand. Reset together with m_children, checked against
+   * terminals mutated in place before each use.
+   */
+  private transient CompiledProgram m_compiled;
+
   /**
    * Array to hold the types of the arguments to this Chromosome.
    */
@@ -660,6 +675,8 @@ public class ProgramChromosome
     // Generate the new node.
     // ----------------------
     m_depth[m_index] = m_maxDepth - a_depth;
+    m_children = null;
+    m_compiled = null;
     // Optional dynamize the arity for commands with a flexible number
     // of children. Normally, dynamizeArity does nothing, see declaration
     // of method in CommandGene, which can be overridden in sub classes.
@@ -728,6 +745,8 @@ public class ProgramChromosome
   public void redepth() {
     m_depth[0] = 0;
     redepth(0);
+    m_children = buildChildIndex();
+    m_compiled = null;
   }
 
   /**
@@ -775,6 +794,8 @@ public class ProgramChromosome
    * Gets the a_child'th child of the a_index'th node in this chromosome. This
    * is the same as the a_child'th node whose depth is one more than the depth
    * of the a_index'th node.
+   * The child is looked up in an index built when the program is created or
+   * redepth() is called, thus execution of a program takes linear time.
    *
    * @param a_index the node number of the parent
    * @param a_child the child number (starting from 0) of the parent
@@ -784,21 +805,21 @@ public class ProgramChromosome
    * @since 3.01
    */
   public int getChild(int a_index, int a_child) {
-    int len = getFunctions().length;
-    for (int i = a_index + 1; i < len; i++) {
-      if (m_depth[i] <= m_depth[a_index]) {
-        return -1;
-      }
-      if (m_depth[i] == m_depth[a_index] + 1) {
-        if (--a_child < 0) {
-          return i;
-        }
+    int[] children = m_children;
+    if (children == null) {
+      children = buildChildIndex();
+      m_children = children;
+    }
+    if (children.length > 0 && a_index < m_genes.length
+        && m_genes[a_index] != null) {
+      int pos = children[a_index] + a_child;
+      if (a_child >= 0 && pos < children[a_index + 1]) {
+        return children[pos];
       }
     }
-    throw new RuntimeException("Bad child "
-                               + a_child
-                               + " of node with index = "
-                               + a_index);
+    // Not covered by the index, determine the result the slow way.
+    // ------------------------------------------------------------
+    return findChild(a_index, a_child);
   }
 
   public int getChild(CommandGene a_node, int a_child) {
@@ -813,18 +834,88 @@ public class ProgramChromosome
     if (index == -1) {
       return -2;
     }
-    for (int i = index + 1; i < len; i++) {
-      if (m_depth[i] <= m_depth[index]) {
+    return getChild(index, a_child);
+  }
+
+  /**
+   * Searches the a_child'th child of the a_index'th node by scanning the
+   * depths of the following nodes.
+   *
+   * @param a_index the node number of the parent
+   * @param a_child the child number (starting from 0) of the parent
+   * @return the node number of the child, or -1 if not found
+   *
+   * @author agent
+   * @since 3.7
+   */
+  protected int findChild(int a_index, int a_child) {
+    int len = getFunctions().length;
+    for (int i = a_index + 1; i < len; i++) {
+      if (m_depth[i] <= m_depth[a_index]) {
         return -1;
       }
-      if (m_depth[i] == m_depth[index] + 1) {
+      if (m_depth[i] == m_depth[a_index] + 1) {
         if (--a_child < 0) {
           return i;
         }
       }
     }
-    throw new RuntimeException("Bad child " + a_child +
-                               " of node with index = " + index);
+    throw new RuntimeException("Bad child "
+                               + a_child
+                               + " of node with index = "
+                               + a_index);
+  }
+
+  /**
+   * Builds the index of the children of all nodes from the depths of the
+   * nodes, in linear time. As the nodes are stored in prefix order, the
+   * parent of a node is the last node before it having a depth one less.
+   *
+   * @return the child index, see m_children
+   *
+   * @author agent
+   * @since 3.7
+   */
+  protected int[] buildChildIndex() {
+    int size = 0;
+    while (size < m_genes.length && size < m_depth.length
+           && m_genes[size] != null) {
+      size++;
+    }
+    if (size == 0 || m_depth[0] != 0) {
+      return new int[0];
+    }
+    int[] parent = new int[size];
+    int[] count = new int[size];
+    // Last node seen per depth.
+    // -------------------------
+    int[] lastAtDepth = new int[size];
+    lastAtDepth[0] = 0;
+    parent[0] = -1;
+    for (int i = 1; i < size; i++) {
+      int depth = m_depth[i];
+      if (depth < 1 || depth > m_depth[i - 1] + 1) {
+        return new int[0];
+      }
+      parent[i] = lastAtDepth[depth - 1];
+      lastAtDepth[depth] = i;
+      count[parent[i]]++;
+    }
+    // Children are stored after the size + 1 start positions.
+    // -------------------------------------------------------
+    int[] result = new int[size + 1 + size - 1];
+    int pos = size + 1;
+    for (int i = 0; i < size; i++) {
+      result[i] = pos;
+      pos += count[i];
+    }
+    result[size] = pos;
+    int[] fill = new int[size];
+    for (int i = 1; i < size; i++) {
+      int p = parent[i];
+      result[result[p] + fill[p]++] = i;
+    }
+    return result;
   }
 
   public CommandGene[] getFunctionSet() {
@@ -842,6 +933,8 @@ public class ProgramChromosome
   public void setFunctions(CommandGene[] a_functions)
       throws InvalidConfigurationException {
     m_genes = a_functions;
+    m_children = null;
+    m_compiled = null;
   }
 
   /**
@@ -1103,6 +1196,28 @@ public class ProgramChromosome
     return rtn;
   }
 
+  /**
+   * Executes this chromosome as a double function for many fitness cases at
+   * once, see CompiledProgram.execute_double(Variable[], double[][], double[]).
+   * The compiled program is kept until this chromosome changes.
+   *
+   * @param a_variables the variables to provide values for
+   * @param a_inputs one column of values per variable
+   * @param a_results receives the result for each row
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public void execute_double(Variable[] a_variables, double[][] a_inputs,
+                             double[] a_results) {
+    CompiledProgram compiled = m_compiled;
+    if (compiled == null || !compiled.isUpToDate()) {
+      compiled = new CompiledProgram(this);
+      m_compiled = compiled;
+    }
+    compiled.execute_double(a_variables, a_inputs, a_results);
+  }
+
   public double execute_double(int n, int child, Object[] args) {
     if (child == 0) {
       return m_genes[n + 1].execute_double(this, n + 1, args);
@@ -1159,6 +1274,8 @@ public class ProgramChromosome
       throw new IllegalArgumentException("Gene must not be null!");
     }
     m_genes[index] = a_gene;
+    m_children = null;
+    m_compiled = null;
   }
 
   public Class[] getArgTypes() {
@@ -1415,6 +1532,8 @@ public class ProgramChromosome
           genes.add(gene);
         }
         m_genes = (CommandGene[]) genes.toArray(new CommandGene[0]);
+        m_children = null;
+        m_compiled = null;
       } catch (Exception ex) {
         throw new UnsupportedRepresentationException(ex.toString());
       }
@@ -199,7 +199,6 @@ public class AveragingCrossoverOperator
         secondMate.setUniqueIDTemplate(origChrom2.getUniqueID(), 2);
       }
       Gene[] firstGenes = firstMate.getGenes();
-      Gene[] secondGenes = secondMate.getGenes();
       int locus = getLocus(m_crossoverGenerator, i, firstGenes.length);
       // Swap the genes.
       // ---------------
@@ -207,25 +206,27 @@ public class AveragingCrossoverOperator
       Gene gene2;
       Object firstAllele;
       for (int j = locus; j < firstGenes.length; j++) {
+        Gene first = writableGene(firstMate, j);
+        Gene second = writableGene(secondMate, j);
         // Make a distinction to ICompositeGene for the first gene.
         // --------------------------------------------------------
-        if (firstGenes[j] instanceof ICompositeGene) {
+        if (first instanceof ICompositeGene) {
           // Randomly determine gene to be considered
-          index1 = generator.nextInt(firstGenes[j].size());
-          gene1 = ( (ICompositeGene) firstGenes[j]).geneAt(index1);
+          index1 = generator.nextInt(first.size());
+          gene1 = ( (ICompositeGene) first).geneAt(index1);
         }
         else {
-          gene1 = firstGenes[j];
+          gene1 = first;
         }
         // Make a distinction to ICompositeGene for the second gene.
         // ---------------------------------------------------------
-        if (secondGenes[j] instanceof CompositeGene) {
+        if (second instanceof CompositeGene) {
           // Randomly determine gene to be considered
-          index2 = generator.nextInt(secondGenes[j].size());
-          gene2 = ( (ICompositeGene) secondGenes[j]).geneAt(index2);
+          index2 = generator.nextInt(second.size());
+          gene2 = ( (ICompositeGene) second).geneAt(index2);
         }
         else {
-          gene2 = secondGenes[j];
+          gene2 = second;
         }
         firstAllele = gene1.getAllele();
         gene1.setAllele(gene2.getAllele());
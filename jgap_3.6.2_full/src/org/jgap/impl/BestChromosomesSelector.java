@@ -36,6 +36,12 @@ public class BestChromosomesSelector
    */
   private boolean m_needsSorting;
 
+  /**
+   * Number of leading chromosomes of the list of added chromosomes that are
+   * in sorted order
+   */
+  private int m_sortedCount;
+
   /**
    * Comparator that is concerned about both age and fitness values
    */
@@ -159,11 +165,17 @@ public class BestChromosomesSelector
       }
     }
     // Sort the collection of chromosomes previously added for evaluation.
-    // Only do this if necessary.
+    // Only do this if necessary and only for the chromosomes to be selected,
+    // including those to be cloned for filling up.
     // -------------------------------------------------------------------
-    if (m_needsSorting) {
-      Collections.sort(m_chromosomes.getChromosomes(),
-                       m_fitnessValueComparator);
+    int toSort = canBeSelected;
+    if (getDoubletteChromosomesAllowed()) {
+      toSort = Math.min(neededSize, chromsSize);
+    }
+    if (m_needsSorting || m_sortedCount < toSort) {
+      PartialSelectionKit.sortFirst(m_chromosomes.getChromosomes(), toSort,
+                                    m_fitnessValueComparator);
+      m_sortedCount = toSort;
       m_needsSorting = false;
     }
     // To select a chromosome, we just go thru the sorted list.
@@ -218,6 +230,7 @@ public class BestChromosomesSelector
     // -----------------------------
     m_chromosomes.getChromosomes().clear();
     m_needsSorting = false;
+    m_sortedCount = 0;
   }
 
   /**
@@ -31,6 +31,11 @@ public class CauchyRandomGenerator
 
   private Random m_rn;
 
+  /**
+   * Source of uniformly distributed numbers to use instead of m_rn, or null
+   */
+  private RandomGenerator m_source;
+
   /**
    * Defaults to location = 0.0 and scale = 1.0.
    *
@@ -54,6 +59,27 @@ public class CauchyRandomGenerator
     m_rn = new Random();
   }
 
+  /**
+   * Constructor for drawing from a given source of uniformly distributed
+   * numbers, e.g. a SplittableRandomGenerator, so that the sequence is
+   * reproducible if the source is.
+   *
+   * @param a_location cauchy parameter, 0 is standard
+   * @param a_scale cauchy parameter, 1 is standard
+   * @param a_source the generator to draw uniformly distributed numbers from
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public CauchyRandomGenerator(final double a_location, final double a_scale,
+                               final RandomGenerator a_source) {
+    this(a_location, a_scale);
+    if (a_source == null) {
+      throw new IllegalArgumentException("Source generator must not be null!");
+    }
+    m_source = a_source;
+  }
+
   public int nextInt() {
     return Math.min(Integer.MAX_VALUE - 1,
                     (int) Math.round(nextCauchy() * Integer.MAX_VALUE));
@@ -91,8 +117,15 @@ public class CauchyRandomGenerator
    * @since 1.1
    */
   public double nextCauchy() {
+    double uniform;
+    if (m_source == null) {
+      uniform = m_rn.nextDouble();
+    }
+    else {
+      uniform = m_source.nextDouble();
+    }
     return 0.5
-        + Math.atan( (m_rn.nextDouble() - m_location) / m_scale) / Math.PI;
+        + Math.atan( (uniform - m_location) / m_scale) / Math.PI;
   }
 
   /**
@@ -83,4 +83,21 @@ public class ChromosomePool
     // -----------------------
     m_chromosomePool.releaseObject(a_chromosome);
   }
+
+  /**
+   * Drops a chromosome just acquired which the caller could not use. As the
+   * pool is a stack, putting it back would return it with the next
+   * acquisition again. The pool keeps no statistics.
+   *
+   * @param a_chromosome the chromosome acquired from this pool
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public void rejectChromosome(final IChromosome a_chromosome) {
+    if (a_chromosome == null) {
+      throw new IllegalArgumentException(
+          "Chromosome instance must not be null!");
+    }
+  }
 }
@@ -37,7 +37,8 @@ import org.jgap.*;
  * @since 1.0
  */
 public class CrossoverOperator
-    extends BaseGeneticOperator implements Comparable {
+    extends BaseGeneticOperator implements Comparable,
+    IPartitionedGeneticOperator {
   /** String containing the CVS revision. Read out via reflection!*/
   private final static String CVS_REVISION = "$Revision: 1.48 $";
 
@@ -322,6 +323,27 @@ public class CrossoverOperator
    */
   public void operate(final Population a_population,
                       final List a_candidateChromosomes) {
+    operate(a_population, 0, 1, getConfiguration().getRandomGenerator(),
+            a_candidateChromosomes);
+  }
+
+  /**
+   * Does the share of the crossovers given by the partition. The mates are
+   * chosen from the whole population.
+   *
+   * @param a_population the population of chromosomes to operate on
+   * @param a_partition number of the partition to perform
+   * @param a_partitions number of partitions the operation is split into
+   * @param a_generator the generator to draw random numbers from
+   * @param a_candidateChromosomes the list to add crossed over chromosomes to
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public void operate(final Population a_population, final int a_partition,
+                      final int a_partitions,
+                      final RandomGenerator a_generator,
+                      final List a_candidateChromosomes) {
     // Work out the number of crossovers that should be performed.
     // -----------------------------------------------------------
     int size = Math.min(getConfiguration().getPopulationSize(),
@@ -336,7 +358,7 @@ public class CrossoverOperator
     else {
       numCrossovers = (int) (size * m_crossoverRatePercent);
     }
-    RandomGenerator generator = getConfiguration().getRandomGenerator();
+    RandomGenerator generator = a_generator;
     IGeneticOperatorConstraint constraint = getConfiguration().
         getJGAPFactory().getGeneticOperatorConstraint();
     // For each crossover, grab two random chromosomes, pick a random
@@ -345,8 +367,9 @@ public class CrossoverOperator
     // the two chromosomes.
     // --------------------------------------------------------------
     int index1, index2;
-    //
-    for (int i = 0; i < numCrossovers; i++) {
+    int end = partitionStart(numCrossovers, a_partition + 1, a_partitions);
+    for (int i = partitionStart(numCrossovers, a_partition, a_partitions);
+         i < end; i++) {
       index1 = generator.nextInt(size);
       index2 = generator.nextInt(size);
       IChromosome chrom1 = a_population.getChromosome(index1);
@@ -391,7 +414,6 @@ public class CrossoverOperator
                            List a_candidateChromosomes,
                            RandomGenerator generator) {
     Gene[] firstGenes = firstMate.getGenes();
-    Gene[] secondGenes = secondMate.getGenes();
     int locus = generator.nextInt(firstGenes.length);
     // Swap the genes.
     // ---------------
@@ -399,25 +421,27 @@ public class CrossoverOperator
     Gene gene2;
     Object firstAllele;
     for (int j = locus; j < firstGenes.length; j++) {
+      Gene first = writableGene(firstMate, j);
+      Gene second = writableGene(secondMate, j);
       // Make a distinction for ICompositeGene for the first gene.
       // ---------------------------------------------------------
       int index = 0;
-      if (firstGenes[j] instanceof ICompositeGene) {
+      if (first instanceof ICompositeGene) {
         // Randomly determine gene to be considered.
         // -----------------------------------------
-        index = generator.nextInt(firstGenes[j].size());
-        gene1 = ( (ICompositeGene) firstGenes[j]).geneAt(index);
+        index = generator.nextInt(first.size());
+        gene1 = ( (ICompositeGene) first).geneAt(index);
       }
       else {
-        gene1 = firstGenes[j];
+        gene1 = first;
       }
       // Make a distinction for the second gene if CompositeGene.
       // --------------------------------------------------------
-      if (secondGenes[j] instanceof ICompositeGene) {
-        gene2 = ( (ICompositeGene) secondGenes[j]).geneAt(index);
+      if (second instanceof ICompositeGene) {
+        gene2 = ( (ICompositeGene) second).geneAt(index);
       }
       else {
-        gene2 = secondGenes[j];
+        gene2 = second;
       }
       if (m_monitorActive) {
         gene1.setUniqueIDTemplate(gene2.getUniqueID(), 1);
@@ -0,0 +1,221 @@
+/*
+ * This file is part of JGAP.
+ *
+ * JGAP offers a dual license model containing the LGPL as well as the MPL.
+ *
+ * For licensing information please see the file license.txt included with JGAP
+ * or have a look at the top of class org.jgap.Chromosome which representatively
+ * includes the JGAP license policy applicable for any file delivered with JGAP.
+ */
+package org.jgap.impl;
+
+import java.io.*;
+import java.util.*;
+import org.jgap.*;
+import org.jgap.util.*;
+
+/**
+ * Remembers chromosomes that have already been evaluated, e.g. by a bulk
+ * fitness function. Lookups are done via the fingerprint of the chromosome
+ * (see FingerprintKit) and are confirmed by equals(), so a fingerprint
+ * collision never leads to a wrong answer.
+ * <p>
+ * The store is bounded: Entries are evicted in the order they were added,
+ * either when the maximum size is exceeded or when they are older than the
+ * maximum age in generations.
+ *
+ * @author agent
+ * @since 3.7
+ */
+public class EvaluatedChromosomeStore
+    implements Serializable {
+  /** String containing the CVS revision. Read out via reflection!*/
+  private final static String CVS_REVISION = "$Revision: 1.1 $";
+
+  /**
+   * Default maximum number of entries.
+   */
+  public final static int DEFAULT_MAX_SIZE = 50000;
+
+  private int m_maxSize;
+
+  private int m_maxAge;
+
+  private LinkedHashMap<Long, Entry> m_entries;
+
+  private long m_hits;
+
+  private long m_misses;
+
+  private long m_evictions;
+
+  /**
+   * Constructs a store with DEFAULT_MAX_SIZE entries and no age limit.
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public EvaluatedChromosomeStore() {
+    this(DEFAULT_MAX_SIZE, 0);
+  }
+
+  /**
+   * @param a_maxSize maximum number of chromosomes to remember, zero or below
+   * for no limit
+   * @param a_maxAge number of generations a chromosome is remembered, zero or
+   * below for no limit
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public EvaluatedChromosomeStore(int a_maxSize, int a_maxAge) {
+    m_maxSize = a_maxSize;
+    m_maxAge = a_maxAge;
+    m_entries = new LinkedHashMap<Long, Entry>();
+  }
+
+  /**
+   * @param a_chrom the chromosome to look up
+   * @return true: an equal chromosome has been added before and was not
+   * evicted yet
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public boolean contains(IChromosome a_chrom) {
+    Long key = new Long(FingerprintKit.fingerprint(a_chrom));
+    Entry entry = m_entries.get(key);
+    if (entry != null && entry.m_chrom.equals(a_chrom)) {
+      m_hits++;
+      return true;
+    }
+    m_misses++;
+    return false;
+  }
+
+  /**
+   * Adds a chromosome. The caller should hand in a copy not modified
+   * afterwards. An existing entry with the same fingerprint is replaced.
+   *
+   * @param a_chrom the chromosome to remember
+   * @param a_generationNr number of the generation the chromosome was
+   * evaluated in
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public void add(IChromosome a_chrom, int a_generationNr) {
+    Long key = new Long(FingerprintKit.fingerprint(a_chrom));
+    // Remove first so that the entry moves to the end of the eviction order.
+    // ----------------------------------------------------------------------
+    m_entries.remove(key);
+    m_entries.put(key, new Entry(a_chrom, a_generationNr));
+    if (m_maxSize > 0) {
+      Iterator<Entry> it = m_entries.values().iterator();
+      while (m_entries.size() > m_maxSize) {
+        it.next();
+        it.remove();
+        m_evictions++;
+      }
+    }
+  }
+
+  /**
+   * Removes all entries older than the maximum age.
+   *
+   * @param a_currentGenerationNr number of the current generation
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public void evictOld(int a_currentGenerationNr) {
+    if (m_maxAge <= 0) {
+      return;
+    }
+    Iterator<Entry> it = m_entries.values().iterator();
+    while (it.hasNext()) {
+      Entry entry = it.next();
+      if (a_currentGenerationNr - entry.m_generationNr <= m_maxAge) {
+        // All following entries are younger.
+        // ----------------------------------
+        break;
+      }
+      it.remove();
+      m_evictions++;
+    }
+  }
+
+  public int size() {
+    return m_entries.size();
+  }
+
+  public boolean isEmpty() {
+    return m_entries.isEmpty();
+  }
+
+  /**
+   * Removes all entries. The counters are not reset.
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public void clear() {
+    m_entries.clear();
+  }
+
+  /**
+   * @return number of calls to contains() that found a chromosome
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public long getHits() {
+    return m_hits;
+  }
+
+  /**
+   * @return number of calls to contains() that did not find a chromosome
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public long getMisses() {
+    return m_misses;
+  }
+
+  /**
+   * @return number of entries removed because of size or age limits
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public long getEvictions() {
+    return m_evictions;
+  }
+
+  public void resetCounters() {
+    m_hits = 0;
+    m_misses = 0;
+    m_evictions = 0;
+  }
+
+  public int getMaxSize() {
+    return m_maxSize;
+  }
+
+  public int getMaxAge() {
+    return m_maxAge;
+  }
+
+  private static class Entry
+      implements Serializable {
+    private IChromosome m_chrom;
+
+    private int m_generationNr;
+
+    Entry(IChromosome a_chrom, int a_generationNr) {
+      m_chrom = a_chrom;
+      m_generationNr = a_generationNr;
+    }
+  }
+}
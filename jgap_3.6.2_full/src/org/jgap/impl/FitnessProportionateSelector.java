@@ -0,0 +1,419 @@
+/*
+ * This file is part of JGAP.
+ *
+ * JGAP offers a dual license model containing the LGPL as well as the MPL.
+ *
+ * For licensing information please see the file license.txt included with JGAP
+ * or have a look at the top of class org.jgap.Chromosome which representatively
+ * includes the JGAP license policy applicable for any file delivered with JGAP.
+ */
+package org.jgap.impl;
+
+import java.util.*;
+import org.jgap.*;
+
+/**
+ * Roulette wheel selection like WeightedRouletteSelector: each Chromosome is
+ * selected with a probability proportional to its fitness value. Chromosomes
+ * added more than once get a slot for each time they have been added.
+ * <p>
+ * In contrast to WeightedRouletteSelector, the wheel is built only once per
+ * selection as a table for Walker's alias method (in linear time, without
+ * BigDecimal arithmetic), after which each spin takes constant time.
+ * <p>
+ * By default, doublette chromosomes are allowed (see
+ * setDoubletteChromosomesAllowed(boolean)) and chromosomes are selected with
+ * replacement. A Chromosome selected more than once within one selection is
+ * cloned. Otherwise chromosomes are selected without replacement: each one
+ * at most once, with its slots taken from the wheel when selected. If fewer
+ * chromosomes have been added than requested, all of them are selected.
+ * <p>
+ * The table returned by getWheel() is immutable, so that several threads may
+ * spin it at once, each with a random generator of its own.
+ *
+ * @author agent
+ * @since 3.7
+ */
+public class FitnessProportionateSelector
+    extends NaturalSelectorExt {
+  /** String containing the CVS revision. Read out via reflection!*/
+  private final static String CVS_REVISION = "$Revision: 1.1 $";
+
+  private List<IChromosome> m_chromosomes;
+
+  /**
+   * Fitness values of the chromosomes added, at the time they were added.
+   */
+  private double[] m_weights;
+
+  /**
+   * Built on demand, reset when chromosomes are added.
+   */
+  private AliasTable m_wheel;
+
+  /**
+   * Default constructor.<p>
+   * Attention: The configuration used is the one set with the static method
+   * Genotype.setConfiguration.
+   *
+   * @throws InvalidConfigurationException
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public FitnessProportionateSelector()
+      throws InvalidConfigurationException {
+    this(Genotype.getStaticConfiguration());
+  }
+
+  /**
+   * @param a_config the configuration to use
+   * @throws InvalidConfigurationException
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public FitnessProportionateSelector(Configuration a_config)
+      throws InvalidConfigurationException {
+    super(a_config);
+    m_chromosomes = new ArrayList<IChromosome>();
+    m_weights = new double[16];
+    setDoubletteChromosomesAllowed(true);
+  }
+
+  /**
+   * @param a_chromosomeToAdd the chromosome to add a slot for
+   *
+   * @author agent
+   * @since 3.7
+   */
+  protected synchronized void add(final IChromosome a_chromosomeToAdd) {
+    int index = m_chromosomes.size();
+    if (index == m_weights.length) {
+      double[] weights = new double[index * 2];
+      System.arraycopy(m_weights, 0, weights, 0, index);
+      m_weights = weights;
+    }
+    a_chromosomeToAdd.setIsSelectedForNextGeneration(false);
+    m_chromosomes.add(a_chromosomeToAdd);
+    m_weights[index] = a_chromosomeToAdd.getFitnessValue();
+    m_wheel = null;
+  }
+
+  /**
+   * Selects the given number of Chromosomes by spinning the wheel.
+   *
+   * @param a_howManyToSelect the number of Chromosomes to select
+   * @param a_to_pop the population the Chromosomes will be added to
+   *
+   * @author agent
+   * @since 3.7
+   */
+  protected synchronized void selectChromosomes(int a_howManyToSelect,
+      Population a_to_pop) {
+    int size = m_chromosomes.size();
+    if (size == 0) {
+      return;
+    }
+    RandomGenerator generator = getConfiguration().getRandomGenerator();
+    if (!getDoubletteChromosomesAllowed()) {
+      selectDistinct(a_howManyToSelect, a_to_pop, generator);
+      return;
+    }
+    AliasTable wheel = getWheel();
+    boolean[] selected = new boolean[size];
+    for (int i = 0; i < a_howManyToSelect; i++) {
+      int index = wheel.spin(generator);
+      IChromosome chrom = m_chromosomes.get(index);
+      chrom.setIsSelectedForNextGeneration(true);
+      if (selected[index]) {
+        // Already selected: add a copy.
+        // -----------------------------
+        ICloneHandler cloner = getConfiguration().getJGAPFactory().
+            getCloneHandlerFor(chrom, null);
+        if (cloner != null) {
+          try {
+            IChromosome cloned = (IChromosome) cloner.perform(chrom, null,
+                null);
+            if (m_monitorActive) {
+              cloned.setUniqueIDTemplate(chrom.getUniqueID(), 1);
+            }
+            chrom = cloned;
+          } catch (Exception ex) {
+            ex.printStackTrace();
+          }
+        }
+      }
+      else {
+        selected[index] = true;
+      }
+      a_to_pop.addChromosome(chrom);
+    }
+  }
+
+  /**
+   * Selects each chromosome at most once (sampling without replacement). The
+   * slots of a chromosome added more than once are merged. A spin landing on
+   * a chromosome already selected is repeated; to keep this rare, the wheel
+   * is rebuilt without the selected chromosomes as soon as these make up
+   * half of its weight.
+   *
+   * @param a_howManyToSelect the number of Chromosomes to select
+   * @param a_to_pop the population the Chromosomes will be added to
+   * @param a_generator the random generator to use
+   *
+   * @author agent
+   * @since 3.7
+   */
+  private void selectDistinct(int a_howManyToSelect, Population a_to_pop,
+                              RandomGenerator a_generator) {
+    int size = m_chromosomes.size();
+    double[] merged = new double[size];
+    // Duplicates are marked as selected from the start.
+    // -------------------------------------------------
+    boolean[] selected = new boolean[size];
+    Map<IChromosome, Integer> first = new IdentityHashMap<IChromosome,
+        Integer>();
+    for (int i = 0; i < size; i++) {
+      Integer index = first.get(m_chromosomes.get(i));
+      if (index == null) {
+        first.put(m_chromosomes.get(i), new Integer(i));
+        merged[i] = Math.max(m_weights[i], 0.0d);
+      }
+      else {
+        merged[index.intValue()] += Math.max(m_weights[i], 0.0d);
+        selected[i] = true;
+      }
+    }
+    int count = Math.min(a_howManyToSelect, first.size());
+    double[] weights = new double[size];
+    double total = remainingWeights(merged, selected, weights);
+    AliasTable wheel = new AliasTable(weights, size);
+    double drawn = 0.0d;
+    int done = 0;
+    while (done < count) {
+      int index = wheel.spin(a_generator);
+      if (selected[index]) {
+        continue;
+      }
+      selected[index] = true;
+      drawn += weights[index];
+      IChromosome chrom = m_chromosomes.get(index);
+      chrom.setIsSelectedForNextGeneration(true);
+      a_to_pop.addChromosome(chrom);
+      done++;
+      if (drawn * 2 > total && done < count) {
+        total = remainingWeights(merged, selected, weights);
+        wheel = new AliasTable(weights, size);
+        drawn = 0.0d;
+      }
+    }
+  }
+
+  /**
+   * @param a_merged the weights of the chromosomes, not negative
+   * @param a_selected the chromosomes not to be drawn anymore
+   * @param a_weights receives the weights of the chromosomes still to be
+   * drawn, zero for the others. If none of them has a positive weight, all of
+   * them get the same weight, as with AliasTable
+   * @return sum of a_weights
+   *
+   * @author agent
+   * @since 3.7
+   */
+  private static double remainingWeights(double[] a_merged,
+                                         boolean[] a_selected,
+                                         double[] a_weights) {
+    double total = 0.0d;
+    for (int i = 0; i < a_weights.length; i++) {
+      if (a_selected[i]) {
+        a_weights[i] = 0.0d;
+      }
+      else {
+        a_weights[i] = a_merged[i];
+        total += a_merged[i];
+      }
+    }
+    if (! (total > 0.0d) || Double.isInfinite(total)) {
+      total = 0.0d;
+      for (int i = 0; i < a_weights.length; i++) {
+        if (a_selected[i]) {
+          a_weights[i] = 0.0d;
+        }
+        else {
+          a_weights[i] = 1.0d;
+          total += 1.0d;
+        }
+      }
+    }
+    return total;
+  }
+
+  /**
+   * @return the wheel for the chromosomes added so far. Spinning it returns
+   * the index of a chromosome in the order of addition
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public synchronized AliasTable getWheel() {
+    if (m_wheel == null) {
+      m_wheel = new AliasTable(m_weights, m_chromosomes.size());
+    }
+    return m_wheel;
+  }
+
+  /**
+   * @param a_index index of a chromosome in the order of addition
+   * @return the chromosome
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public synchronized IChromosome getChromosome(int a_index) {
+    return m_chromosomes.get(a_index);
+  }
+
+  public synchronized void empty() {
+    m_chromosomes.clear();
+    m_wheel = null;
+  }
+
+  /**
+   * @return false if doublette chromosomes are allowed, as the same
+   * Chromosome may be selected multiple times then
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public boolean returnsUniqueChromosomes() {
+    return !getDoubletteChromosomesAllowed();
+  }
+
+  /**
+   * Table for drawing an index with a probability proportional to its weight
+   * in constant time, see Walker's alias method (Vose's variant): each index
+   * owns a column of height 1, filled up to its probability by the index
+   * itself and above by its alias.
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public static class AliasTable {
+    private double[] m_probability;
+
+    private int[] m_alias;
+
+    /**
+     * @param a_weights weights, negative ones are taken as zero. If all are
+     * zero, all indices are equally likely
+     * @param a_count number of weights to use
+     *
+     * @author agent
+     * @since 3.7
+     */
+    public AliasTable(double[] a_weights, int a_count) {
+      if (a_count < 1) {
+        throw new IllegalArgumentException("At least one weight needed!");
+      }
+      m_probability = new double[a_count];
+      m_alias = new int[a_count];
+      double total = 0.0d;
+      for (int i = 0; i < a_count; i++) {
+        if (a_weights[i] > 0.0d) {
+          total += a_weights[i];
+        }
+      }
+      if (! (total > 0.0d) || Double.isInfinite(total)) {
+        Arrays.fill(m_probability, 1.0d);
+        for (int i = 0; i < a_count; i++) {
+          m_alias[i] = i;
+        }
+        return;
+      }
+      // Scale the weights to an average of 1 and split the indices into
+      // those below and those above the average.
+      // ----------------------------------------------------------------
+      double[] scaled = new double[a_count];
+      int[] small = new int[a_count];
+      int[] large = new int[a_count];
+      int smallCount = 0;
+      int largeCount = 0;
+      for (int i = a_count - 1; i >= 0; i--) {
+        if (a_weights[i] > 0.0d) {
+          scaled[i] = a_weights[i] * a_count / total;
+        }
+        if (scaled[i] < 1.0d) {
+          small[smallCount++] = i;
+        }
+        else {
+          large[largeCount++] = i;
+        }
+      }
+      // Fill up each small column with a large one.
+      // -------------------------------------------
+      while (smallCount > 0 && largeCount > 0) {
+        int less = small[--smallCount];
+        int more = large[--largeCount];
+        m_probability[less] = scaled[less];
+        m_alias[less] = more;
+        scaled[more] = scaled[more] + scaled[less] - 1.0d;
+        if (scaled[more] < 1.0d) {
+          small[smallCount++] = more;
+        }
+        else {
+          large[largeCount++] = more;
+        }
+      }
+      // Remaining columns are full (up to rounding errors).
+      // ---------------------------------------------------
+      while (largeCount > 0) {
+        int more = large[--largeCount];
+        m_probability[more] = 1.0d;
+        m_alias[more] = more;
+      }
+      while (smallCount > 0) {
+        int less = small[--smallCount];
+        m_probability[less] = 1.0d;
+        m_alias[less] = less;
+      }
+    }
+
+    /**
+     * @param a_generator the random generator to use
+     * @return the index drawn
+     *
+     * @author agent
+     * @since 3.7
+     */
+    public int spin(RandomGenerator a_generator) {
+      int column = a_generator.nextInt(m_probability.length);
+      if (a_generator.nextDouble() < m_probability[column]) {
+        return column;
+      }
+      return m_alias[column];
+    }
+
+    /**
+     * @param a_index an index
+     * @return probability of the index being drawn
+     *
+     * @author agent
+     * @since 3.7
+     */
+    public double getProbability(int a_index) {
+      int size = m_probability.length;
+      double result = m_probability[a_index];
+      for (int i = 0; i < size; i++) {
+        if (m_alias[i] == a_index && i != a_index) {
+          result += 1.0d - m_probability[i];
+        }
+      }
+      return result / size;
+    }
+
+    public int size() {
+      return m_probability.length;
+    }
+  }
+}
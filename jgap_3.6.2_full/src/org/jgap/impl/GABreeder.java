@@ -10,6 +10,7 @@
 package org.jgap.impl;
 
 import java.util.*;
+import java.util.concurrent.*;
 import org.jgap.*;
 import org.jgap.audit.*;
 import org.jgap.event.*;
@@ -32,11 +33,39 @@ public class GABreeder
 
   //It contains clones of the chromosomes with the fitness value removed
   //We will use it to remove the duplicates
-  List<IChromosome> m_allChromosomesSoFar;
+  EvaluatedChromosomeStore m_allChromosomesSoFar;
 
   public GABreeder() {
+    this(EvaluatedChromosomeStore.DEFAULT_MAX_SIZE, 0);
+  }
+
+  /**
+   * Constructor allowing to bound the memory of chromosomes already evaluated
+   * by a bulk fitness function.
+   *
+   * @param a_maxEvaluatedSize maximum number of evaluated chromosomes to
+   * remember, zero or below for no limit
+   * @param a_maxEvaluatedAge number of generations an evaluated chromosome is
+   * remembered, zero or below for no limit
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public GABreeder(int a_maxEvaluatedSize, int a_maxEvaluatedAge) {
     super();
-    m_allChromosomesSoFar = new ArrayList<IChromosome> ();
+    m_allChromosomesSoFar = new EvaluatedChromosomeStore(a_maxEvaluatedSize,
+        a_maxEvaluatedAge);
+  }
+
+  /**
+   * @return the store of chromosomes already evaluated by a bulk fitness
+   * function, e.g. to read out its hit and miss counters
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public EvaluatedChromosomeStore getEvaluatedChromosomeStore() {
+    return m_allChromosomesSoFar;
   }
 
   /**
@@ -270,7 +299,8 @@ public class GABreeder
    * @since 3.2
    */
   public Object clone() {
-    return new GABreeder();
+    return new GABreeder(m_allChromosomesSoFar.getMaxSize(),
+                         m_allChromosomesSoFar.getMaxAge());
   }
 
   /**
@@ -309,6 +339,15 @@ public class GABreeder
     BulkFitnessFunction bulkFunction = a_conf.getBulkFitnessFunction();
     boolean bulkFitFunc = (bulkFunction != null);
     if (!bulkFitFunc) {
+      // Compute missing fitness values concurrently, if configured.
+      // Chromosomes not handled there are evaluated in the loop below.
+      // --------------------------------------------------------------
+      ExecutorService executor = a_conf.getFitnessExecutor();
+      if (executor != null && !a_conf.isAlwaysCalculateFitness()) {
+        new ParallelFitnessEvaluation(executor,
+                                      a_conf.getFitnessParallelism()).
+            evaluate(a_conf, a_pop.getChromosomes());
+      }
       for (int i = 0; i < currentPopSize; i++) {
         IChromosome chrom = a_pop.getChromosome(i);
         chrom.getFitnessValue();
@@ -316,6 +355,32 @@ public class GABreeder
     }
   }
 
+  /**
+   * Applies a single genetic operator. If an executor for genetic operators
+   * is configured, the work of the operator is split up between several
+   * tasks (see ParallelGeneticOperation). The operators themselves are still
+   * applied one after another, each seeing the results of the previous ones.
+   *
+   * @param a_conf the configuration to use
+   * @param a_operator the operator to apply
+   * @param a_pop the population to use as input
+   *
+   * @author agent
+   * @since 3.7
+   */
+  protected void operate(Configuration a_conf, GeneticOperator a_operator,
+                         Population a_pop) {
+    ExecutorService executor = a_conf.getOperatorExecutor();
+    if (executor != null) {
+      new ParallelGeneticOperation(executor,
+                                   a_conf.getOperatorParallelism()).
+          operate(a_conf, a_operator, a_pop, a_pop.getChromosomes());
+    }
+    else {
+      super.operate(a_conf, a_operator, a_pop);
+    }
+  }
+
   private Population removeEvaluatedChromosomes(Population a_from_pop,
       Configuration a_config)
       throws InvalidConfigurationException {
@@ -360,6 +425,7 @@ public class GABreeder
       }
       //remove chromosomes which have been already evaluated
       Population popForBulkFunction = removeEvaluatedChromosomes(a_pop, a_conf);
+      m_allChromosomesSoFar.evictOld(a_conf.getGenerationNr());
       if (!m_allChromosomesSoFar.isEmpty()) {
         Iterator it = popForBulkFunction.getChromosomes().iterator();
         //remove dublicates
@@ -379,15 +445,16 @@ public class GABreeder
         a_bulkFunction.evaluate(popForBulkFunction);
       }
       //Remove the fitness value and add evaluated elements to
-      //the List with NO_FITNESS_VALUE
+      //the store with NO_FITNESS_VALUE
       //and add the NEW elements to pop
+      Set<IChromosome> inPop = new HashSet<IChromosome>(a_pop.getChromosomes());
       Iterator it2 = popForBulkFunction.getChromosomes().iterator();
       while (it2.hasNext()) {
         Chromosome chrom0 = (Chromosome) it2.next();
         Chromosome chrom = (Chromosome) chrom0.clone();
         chrom.setFitnessValueDirectly(FitnessFunction.NO_FITNESS_VALUE);
-        m_allChromosomesSoFar.add(chrom);
-        if (!a_pop.getChromosomes().contains( (IChromosome) chrom0)) {
+        m_allChromosomesSoFar.add(chrom, a_conf.getGenerationNr());
+        if (inPop.add(chrom0)) {
           a_pop.addChromosome( (Chromosome) chrom0);
         }
       }
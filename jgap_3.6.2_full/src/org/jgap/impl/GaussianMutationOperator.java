@@ -20,7 +20,7 @@ import org.jgap.*;
  * @since 2.0
  */
 public class GaussianMutationOperator
-    extends BaseGeneticOperator {
+    extends BaseGeneticOperator implements IPartitionedGeneticOperator {
   /** String containing the CVS revision. Read out via reflection!*/
   private static final String CVS_REVISION = "$Revision: 1.25 $";
 
@@ -86,20 +86,50 @@ public class GaussianMutationOperator
    */
   public void operate(final Population a_population,
                       final List a_candidateChromosomes) {
-    int size = Math.min(getConfiguration().getPopulationSize(),
-                        a_population.size());
     if (m_rg == null) {
       RandomGenerator rn = getConfiguration().getRandomGenerator();
       m_rg = rn;
     }
-    for (int i = 0; i < size; i++) {
+    operate(a_population, 0, 1, m_rg, a_candidateChromosomes);
+  }
+
+  /**
+   * Mutates the chromosomes within the index range of the population given
+   * by the partition. If the random generator of the configuration is a
+   * GaussianRandomGenerator, a Gaussian generator with the same deviation is
+   * layered on top of the given generator.
+   *
+   * @param a_population the population of chromosomes to operate on
+   * @param a_partition number of the partition to perform
+   * @param a_partitions number of partitions the operation is split into
+   * @param a_generator the generator to draw random numbers from
+   * @param a_candidateChromosomes the list to add mutated chromosomes to
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public void operate(final Population a_population, final int a_partition,
+                      final int a_partitions,
+                      final RandomGenerator a_generator,
+                      final List a_candidateChromosomes) {
+    int size = Math.min(getConfiguration().getPopulationSize(),
+                        a_population.size());
+    RandomGenerator rg = a_generator;
+    RandomGenerator configured = getConfiguration().getRandomGenerator();
+    if (rg != m_rg && configured instanceof GaussianRandomGenerator) {
+      rg = new GaussianRandomGenerator( ( (GaussianRandomGenerator)
+          configured).getGaussianStdDeviation(), a_generator);
+    }
+    int end = partitionStart(size, a_partition + 1, a_partitions);
+    for (int i = partitionStart(size, a_partition, a_partitions);
+         i < end; i++) {
       Gene[] genes = a_population.getChromosome(i).getGenes();
       IChromosome originalChrom = a_population.getChromosome(i);
       IChromosome copyOfChromosome = null;
       // For each Chromosome in the population...
       // ----------------------------------------
       for (int j = 0; j < genes.length; j++) {
-        double nextGaussian = m_rg.nextDouble();
+        double nextGaussian = rg.nextDouble();
         double diff = nextGaussian * m_deviation;
         // ...take a copy of it...
         // -----------------------
@@ -108,8 +138,6 @@ public class GaussianMutationOperator
           // ...add it to the candidate pool...
           // ----------------------------------
           a_candidateChromosomes.add(copyOfChromosome);
-          // ...then Gaussian mutate all its genes
-          genes = copyOfChromosome.getGenes();
           // In case monitoring is active, support it.
           // -----------------------------------------
           if (m_monitorActive) {
@@ -120,8 +148,9 @@ public class GaussianMutationOperator
         // would be the length of the string, for an IntegerGene, it is
         // always one element.
         // --------------------------------------------------------------
-        if (genes[j] instanceof CompositeGene) {
-          CompositeGene compositeGene = (CompositeGene) genes[j];
+        Gene gene = writableGene(copyOfChromosome, j);
+        if (gene instanceof CompositeGene) {
+          CompositeGene compositeGene = (CompositeGene) gene;
           if (m_monitorActive) {
             compositeGene.setUniqueIDTemplate(originalChrom.getGene(j).
                 getUniqueID(), 1);
@@ -136,9 +165,9 @@ public class GaussianMutationOperator
           }
         }
         else {
-          mutateGene(genes[j], diff);
+          mutateGene(gene, diff);
           if (m_monitorActive) {
-            genes[j].setUniqueIDTemplate(originalChrom.getGene(j).getUniqueID(),
+            gene.setUniqueIDTemplate(originalChrom.getGene(j).getUniqueID(),
                 1);
           }
         }
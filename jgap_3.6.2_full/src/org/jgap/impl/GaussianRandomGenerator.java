@@ -29,6 +29,18 @@ public class GaussianRandomGenerator
 
   private Random m_rn;
 
+  /**
+   * Source of uniformly distributed numbers to use instead of m_rn, or null
+   */
+  private RandomGenerator m_source;
+
+  /**
+   * Second value of the last pair computed from m_source
+   */
+  private double m_nextGaussian;
+
+  private boolean m_haveNextGaussian;
+
   /**
    * Standard deviation of the gaussian deviation
    */
@@ -49,6 +61,26 @@ public class GaussianRandomGenerator
     setGaussianStdDeviation(a_standardDeviation);
   }
 
+  /**
+   * Constructor for drawing the gaussian deviation from a given source of
+   * uniformly distributed numbers, e.g. a SplittableRandomGenerator, so that
+   * the sequence is reproducible if the source is.
+   *
+   * @param a_standardDeviation the standard deviation to use
+   * @param a_source the generator to draw uniformly distributed numbers from
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public GaussianRandomGenerator(final double a_standardDeviation,
+                                 final RandomGenerator a_source) {
+    this(a_standardDeviation);
+    if (a_source == null) {
+      throw new IllegalArgumentException("Source generator must not be null!");
+    }
+    m_source = a_source;
+  }
+
   /**
    * Initializations on construction.
    */
@@ -113,10 +145,44 @@ public class GaussianRandomGenerator
    */
   private double nextGaussian() {
     //scale to [0..1[
-    double r = (m_rn.nextGaussian() + 5.8d) / (5.8d * 2.0d);
+    double gaussian;
+    if (m_source == null) {
+      gaussian = m_rn.nextGaussian();
+    }
+    else {
+      gaussian = nextSourceGaussian();
+    }
+    double r = (gaussian + 5.8d) / (5.8d * 2.0d);
     return r;
   }
 
+  /**
+   * Marsaglia's polar method as used by java.util.Random, but drawing from
+   * the source generator.
+   *
+   * @return the next normally distributed value with mean 0 and standard
+   * deviation 1
+   *
+   * @author agent
+   * @since 3.7
+   */
+  private double nextSourceGaussian() {
+    if (m_haveNextGaussian) {
+      m_haveNextGaussian = false;
+      return m_nextGaussian;
+    }
+    double v1, v2, s;
+    do {
+      v1 = 2 * m_source.nextDouble() - 1;
+      v2 = 2 * m_source.nextDouble() - 1;
+      s = v1 * v1 + v2 * v2;
+    } while (s >= 1 || s == 0);
+    double multiplier = Math.sqrt( -2 * Math.log(s) / s);
+    m_nextGaussian = v2 * multiplier;
+    m_haveNextGaussian = true;
+    return v1 * multiplier;
+  }
+
   /**
    * When deserializing, initialize the seed because otherwise we could get
    * duplicate evolution results when doing distributed computing!
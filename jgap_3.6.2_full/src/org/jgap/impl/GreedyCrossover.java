@@ -53,7 +53,7 @@ import org.jgap.*;
  * @since 2.0
  */
 public class GreedyCrossover
-    extends BaseGeneticOperator {
+    extends BaseGeneticOperator implements IPartitionedGeneticOperator {
   /** String containing the CVS revision. Read out via reflection!*/
   private static final String CVS_REVISION = "$Revision: 1.30 $";
 
@@ -110,14 +110,38 @@ public class GreedyCrossover
 
   public void operate(final Population a_population,
                       final List a_candidateChromosomes) {
+    operate(a_population, 0, 1, getConfiguration().getRandomGenerator(),
+            a_candidateChromosomes);
+  }
+
+  /**
+   * Does the share of the crossovers given by the partition. The mates are
+   * chosen from the whole population. If the partitions are executed
+   * concurrently, distance(Object, Object) must be thread-safe.
+   *
+   * @param a_population the population of chromosomes to operate on
+   * @param a_partition number of the partition to perform
+   * @param a_partitions number of partitions the operation is split into
+   * @param a_generator the generator to draw random numbers from
+   * @param a_candidateChromosomes the list to add crossed over chromosomes to
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public void operate(final Population a_population, final int a_partition,
+                      final int a_partitions,
+                      final RandomGenerator a_generator,
+                      final List a_candidateChromosomes) {
     int size = Math.min(getConfiguration().getPopulationSize(),
                         a_population.size());
     int numCrossovers = size / 2;
-    RandomGenerator generator = getConfiguration().getRandomGenerator();
+    RandomGenerator generator = a_generator;
     // For each crossover, grab two random chromosomes and do what
     // Grefenstette et al say.
     // --------------------------------------------------------------
-    for (int i = 0; i < numCrossovers; i++) {
+    int end = partitionStart(numCrossovers, a_partition + 1, a_partitions);
+    for (int i = partitionStart(numCrossovers, a_partition, a_partitions);
+         i < end; i++) {
       IChromosome origChrom1 = a_population.getChromosome(generator.
                                      nextInt(size));
       IChromosome firstMate = (IChromosome)origChrom1.clone();
@@ -31,7 +31,8 @@ import org.jgap.data.config.*;
  * @since 1.0
  */
 public class MutationOperator
-    extends BaseGeneticOperator implements Configurable {
+    extends BaseGeneticOperator implements Configurable,
+    IPartitionedGeneticOperator {
   /** String containing the CVS revision. Read out via reflection!*/
   private final static String CVS_REVISION = "$Revision: 1.49 $";
 
@@ -135,6 +136,27 @@ public class MutationOperator
    */
   public void operate(final Population a_population,
                       final List a_candidateChromosomes) {
+    operate(a_population, 0, 1, getConfiguration().getRandomGenerator(),
+            a_candidateChromosomes);
+  }
+
+  /**
+   * Mutates the chromosomes within the index range of the population given
+   * by the partition.
+   *
+   * @param a_population the population of chromosomes to operate on
+   * @param a_partition number of the partition to perform
+   * @param a_partitions number of partitions the operation is split into
+   * @param a_generator the generator to draw random numbers from
+   * @param a_candidateChromosomes the list to add mutated chromosomes to
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public void operate(final Population a_population, final int a_partition,
+                      final int a_partitions,
+                      final RandomGenerator a_generator,
+                      final List a_candidateChromosomes) {
     if (a_population == null || a_candidateChromosomes == null) {
       // Population or candidate chromosomes list empty:
       // nothing to do.
@@ -152,7 +174,7 @@ public class MutationOperator
     // Otherwise, go with the mutation rate set upon construction.
     // -------------------------------------------------------------
     boolean mutate = false;
-    RandomGenerator generator = getConfiguration().getRandomGenerator();
+    RandomGenerator generator = a_generator;
     // It would be inefficient to create copies of each Chromosome just
     // to decide whether to mutate them. Instead, we only make a copy
     // once we've positively decided to perform a mutation.
@@ -161,12 +183,13 @@ public class MutationOperator
                         a_population.size());
     IGeneticOperatorConstraint constraint = getConfiguration().
         getJGAPFactory().getGeneticOperatorConstraint();
-    //
-    for (int i = 0; i < size; i++) {
+    int end = partitionStart(size, a_partition + 1, a_partitions);
+    for (int i = partitionStart(size, a_partition, a_partitions);
+         i < end; i++) {
       IChromosome chrom = a_population.getChromosome(i);
       Gene[] genes1 = chrom.getGenes();
       IChromosome copyOfChromosome = null;
-      Gene[] genes = null;
+      FitnessDelta delta = null;
       // For each Chromosome in the population...
       // ----------------------------------------
       for (int j = 0; j < genes1.length; j++) {
@@ -208,21 +231,25 @@ public class MutationOperator
             // ...add it to the candidate pool...
             // ----------------------------------
             a_candidateChromosomes.add(copyOfChromosome);
-            // ...then mutate all its genes...
-            // -------------------------------
-            genes = copyOfChromosome.getGenes();
             // In case monitoring is active, support it.
             // -----------------------------------------
             if (m_monitorActive) {
               copyOfChromosome.setUniqueIDTemplate(chrom.getUniqueID(), 1);
             }
+            // Support incremental fitness evaluation.
+            // ---------------------------------------
+            delta = trackFitnessDelta(chrom, copyOfChromosome);
+          }
+          if (delta != null) {
+            delta.recordChange(j, chrom.getGene(j).getAllele());
           }
           // Process all atomic elements in the gene. For a StringGene this
           // would be as many elements as the string is long , for an
           // IntegerGene, it is always one element.
           // --------------------------------------------------------------
-          if (genes[j] instanceof ICompositeGene) {
-            ICompositeGene compositeGene = (ICompositeGene) genes[j];
+          Gene gene = writableGene(copyOfChromosome, j);
+          if (gene instanceof ICompositeGene) {
+            ICompositeGene compositeGene = (ICompositeGene) gene;
             if (m_monitorActive) {
               compositeGene.setUniqueIDTemplate(chrom.getGene(j).getUniqueID(), 1);
             }
@@ -236,9 +263,9 @@ public class MutationOperator
             }
           }
           else {
-            mutateGene(genes[j], generator);
+            mutateGene(gene, generator);
             if (m_monitorActive) {
-              genes[j].setUniqueIDTemplate(chrom.getGene(j).getUniqueID(), 1);
+              gene.setUniqueIDTemplate(chrom.getGene(j).getUniqueID(), 1);
             }
           }
         }
@@ -56,18 +56,18 @@ public abstract class NumberGene
     if (otherGene == null) {
       return 1;
     }
-    else if (otherGene.m_value == null) {
+    else if (otherGene.getInternalValue() == null) {
       // Check if type corresponds (because we could have a type not inherited
       // from NumberGene).
       // ---------------------------------------------------------------------
-      if (!otherGene.getClass().equals(getClass())) {
+      if (otherGene.getGeneClass() != getGeneClass()) {
         throw new ClassCastException(
             "Comparison not possible: different types!");
       }
       // If our value is also null, then we're the same. Otherwise,
       // this is the greater gene.
       // ----------------------------------------------------------
-      if (m_value == null) {
+      if (getInternalValue() == null) {
         if (isCompareApplicationData()) {
           return compareApplicationData(getApplicationData(),
                                         otherGene.getApplicationData());
@@ -82,14 +82,15 @@ public abstract class NumberGene
     }
     else {
       try {
-        if (!otherGene.getClass().equals(getClass())) {
+        if (otherGene.getGeneClass() != getGeneClass()) {
           throw new ClassCastException(
               "Comparison not possible: different types!");
         }
-        if (m_value == null) {
+        if (getInternalValue() == null) {
           return -1;
         }
-        int res = compareToNative(m_value, otherGene.m_value);
+        int res = compareToNative(getInternalValue(),
+                                  otherGene.getInternalValue());
         if (res == 0) {
           if (isCompareApplicationData()) {
             return compareApplicationData(getApplicationData(),
@@ -109,6 +110,20 @@ public abstract class NumberGene
     }
   }
 
+  /**
+   * Only genes of the same gene class are comparable. Subclasses that just
+   * provide another storage for the allele of an existing gene type (e.g.
+   * the views of a NumericChromosome) return the class of that type.
+   *
+   * @return the class of this gene, by default
+   *
+   * @author agent
+   * @since 3.7
+   */
+  protected Class getGeneClass() {
+    return getClass();
+  }
+
   /**
    * Compares to objects by first casting them into their expected type
    * (e.g. Integer for IntegerGene) and then calling the compareTo-method
@@ -0,0 +1,788 @@
+/*
+ * This file is part of JGAP.
+ *
+ * JGAP offers a dual license model containing the LGPL as well as the MPL.
+ *
+ * For licensing information please see the file license.txt included with JGAP
+ * or have a look at the top of class org.jgap.Chromosome which representatively
+ * includes the JGAP license policy applicable for any file delivered with JGAP.
+ */
+package org.jgap.impl;
+
+import org.jgap.*;
+
+/**
+ * Chromosome for purely numeric problems holding all of its alleles in a
+ * primitive double array instead of one Gene object per locus. Each locus has
+ * a lower and an upper bound and is either a floating point or an integer
+ * locus. Integer loci behave like an IntegerGene, the others like a
+ * DoubleGene, including the mapping of values out of bounds and the effect of
+ * mutation. The bounds are shared between all copies of a chromosome.
+ * <p>
+ * Fitness functions and operators aware of this class should use the
+ * primitive accessors (getDouble, setDouble, mutate etc.) which neither box
+ * values nor create objects. For all other code, getGenes() returns views:
+ * DoubleGene resp. IntegerGene instances reading and writing the allele array
+ * of this chromosome. They are created lazily on first access only.
+ * <p>
+ * A sample chromosome of this class creates random chromosomes of this class
+ * via the IInitializer mechanism. The static method
+ * Chromosome.randomInitialChromosome always creates a Chromosome instance with
+ * detached genes.
+ *
+ * @author agent
+ * @since 3.7
+ */
+public class NumericChromosome
+    extends Chromosome {
+  /** String containing the CVS revision. Read out via reflection!*/
+  private final static String CVS_REVISION = "$Revision: 1.1 $";
+
+  /**
+   * The alleles, one per locus. Null for subclasses storing the alleles
+   * elsewhere.
+   */
+  private double[] m_values;
+
+  /**
+   * Lower bounds of the loci, shared between copies.
+   */
+  private double[] m_lowerBounds;
+
+  /**
+   * Upper bounds of the loci, shared between copies.
+   */
+  private double[] m_upperBounds;
+
+  /**
+   * true for integer loci, shared between copies.
+   */
+  private boolean[] m_integer;
+
+  /**
+   * Gene views on the alleles, created on demand.
+   */
+  private transient Gene[] m_views;
+
+  /**
+   * Constructor. All alleles are initialized with the lower bound of their
+   * locus.
+   *
+   * @param a_configuration the configuration to use
+   * @param a_lowerBounds lower bound of each locus
+   * @param a_upperBounds upper bound of each locus
+   * @param a_integer true for each integer locus, null if all loci are
+   * floating point loci
+   * @throws InvalidConfigurationException
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public NumericChromosome(final Configuration a_configuration,
+                           double[] a_lowerBounds, double[] a_upperBounds,
+                           boolean[] a_integer)
+      throws InvalidConfigurationException {
+    super(a_configuration);
+    if (a_lowerBounds == null || a_upperBounds == null) {
+      throw new IllegalArgumentException("Bounds must not be null!");
+    }
+    int size = a_lowerBounds.length;
+    if (size == 0) {
+      throw new IllegalArgumentException(
+          "Chromosome size must be greater than zero");
+    }
+    if (a_upperBounds.length != size
+        || a_integer != null && a_integer.length != size) {
+      throw new IllegalArgumentException(
+          "Bounds and integer flags must have the same length!");
+    }
+    m_lowerBounds = (double[]) a_lowerBounds.clone();
+    m_upperBounds = (double[]) a_upperBounds.clone();
+    if (a_integer == null) {
+      m_integer = new boolean[size];
+    }
+    else {
+      m_integer = (boolean[]) a_integer.clone();
+    }
+    for (int i = 0; i < size; i++) {
+      if (m_lowerBounds[i] > m_upperBounds[i]) {
+        throw new IllegalArgumentException("Lower bound of locus " + i
+            + " is greater than its upper bound!");
+      }
+      if (m_integer[i] && (m_lowerBounds[i] != (int) m_lowerBounds[i]
+                           || m_upperBounds[i] != (int) m_upperBounds[i])) {
+        throw new IllegalArgumentException("Bounds of integer locus " + i
+            + " must be integer values!");
+      }
+    }
+    m_values = (double[]) m_lowerBounds.clone();
+  }
+
+  /**
+   * Constructor taking the bounds, types and alleles from the given genes.
+   * This allows to switch an existing setup to this class.
+   *
+   * @param a_configuration the configuration to use
+   * @param a_sampleGenes DoubleGene or IntegerGene instances
+   * @throws InvalidConfigurationException
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public NumericChromosome(final Configuration a_configuration,
+                           Gene[] a_sampleGenes)
+      throws InvalidConfigurationException {
+    this(a_configuration, lowerBounds(a_sampleGenes),
+         upperBounds(a_sampleGenes), integerFlags(a_sampleGenes));
+    for (int i = 0; i < a_sampleGenes.length; i++) {
+      Object allele = a_sampleGenes[i].getAllele();
+      if (allele != null) {
+        setDouble(i, ( (Number) allele).doubleValue());
+      }
+    }
+  }
+
+  /**
+   * Constructor for copies: shares the bounds and copies the alleles.
+   *
+   * @param a_template the chromosome to copy
+   * @throws InvalidConfigurationException
+   *
+   * @author agent
+   * @since 3.7
+   */
+  protected NumericChromosome(NumericChromosome a_template)
+      throws InvalidConfigurationException {
+    this(a_template, new double[a_template.size()]);
+    for (int i = 0; i < m_values.length; i++) {
+      m_values[i] = a_template.getDouble(i);
+    }
+  }
+
+  /**
+   * Constructor for subclasses: shares the bounds of the given chromosome.
+   *
+   * @param a_layout the chromosome to take the bounds from
+   * @param a_values array to hold the alleles, or null if the subclass
+   * overrides getDouble and store
+   * @throws InvalidConfigurationException
+   *
+   * @author agent
+   * @since 3.7
+   */
+  protected NumericChromosome(NumericChromosome a_layout, double[] a_values)
+      throws InvalidConfigurationException {
+    super(a_layout.getConfiguration());
+    m_lowerBounds = a_layout.m_lowerBounds;
+    m_upperBounds = a_layout.m_upperBounds;
+    m_integer = a_layout.m_integer;
+    m_values = a_values;
+  }
+
+  private static double[] lowerBounds(Gene[] a_genes) {
+    checkSampleGenes(a_genes);
+    double[] result = new double[a_genes.length];
+    for (int i = 0; i < a_genes.length; i++) {
+      if (a_genes[i] instanceof IntegerGene) {
+        result[i] = ( (IntegerGene) a_genes[i]).getLowerBounds();
+      }
+      else {
+        result[i] = ( (DoubleGene) a_genes[i]).getLowerBound();
+      }
+    }
+    return result;
+  }
+
+  private static double[] upperBounds(Gene[] a_genes) {
+    double[] result = new double[a_genes.length];
+    for (int i = 0; i < a_genes.length; i++) {
+      if (a_genes[i] instanceof IntegerGene) {
+        result[i] = ( (IntegerGene) a_genes[i]).getUpperBounds();
+      }
+      else {
+        result[i] = ( (DoubleGene) a_genes[i]).getUpperBound();
+      }
+    }
+    return result;
+  }
+
+  private static boolean[] integerFlags(Gene[] a_genes) {
+    boolean[] result = new boolean[a_genes.length];
+    for (int i = 0; i < a_genes.length; i++) {
+      result[i] = a_genes[i] instanceof IntegerGene;
+    }
+    return result;
+  }
+
+  private static void checkSampleGenes(Gene[] a_genes) {
+    if (a_genes == null) {
+      throw new IllegalArgumentException("Sample genes must not be null!");
+    }
+    for (int i = 0; i < a_genes.length; i++) {
+      if (! (a_genes[i] instanceof DoubleGene)
+          && ! (a_genes[i] instanceof IntegerGene)) {
+        throw new IllegalArgumentException("The gene at index " + i
+            + " is neither a DoubleGene nor an IntegerGene!");
+      }
+    }
+  }
+
+  /**
+   * @return number of loci
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public int size() {
+    return m_lowerBounds.length;
+  }
+
+  /**
+   * @param a_locus index of the locus
+   * @return the allele at the given locus
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public double getDouble(int a_locus) {
+    return m_values[a_locus];
+  }
+
+  /**
+   * Stores the given allele without any checks. All other methods write
+   * alleles via this method.
+   *
+   * @param a_locus index of the locus
+   * @param a_value the new allele
+   *
+   * @author agent
+   * @since 3.7
+   */
+  protected void store(int a_locus, double a_value) {
+    m_values[a_locus] = a_value;
+  }
+
+  /**
+   * @param a_locus index of the locus
+   * @return the allele at the given locus, cut to an int
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public int getInt(int a_locus) {
+    return (int) getDouble(a_locus);
+  }
+
+  /**
+   * Sets the allele at the given locus. Values of integer loci are rounded.
+   * A value out of bounds is mapped to a random value within the bounds, like
+   * DoubleGene resp. IntegerGene do.
+   *
+   * @param a_locus index of the locus
+   * @param a_value the new allele
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public void setDouble(int a_locus, double a_value) {
+    if (m_integer[a_locus]) {
+      setInt(a_locus, (int) Math.round(a_value));
+    }
+    else if (a_value > m_upperBounds[a_locus]
+             || a_value < m_lowerBounds[a_locus]) {
+      double lower = m_lowerBounds[a_locus];
+      store(a_locus, getConfiguration().getRandomGenerator().nextDouble()
+            * (m_upperBounds[a_locus] - lower) + lower);
+    }
+    else {
+      store(a_locus, a_value);
+    }
+  }
+
+  /**
+   * Sets the allele at the given locus. A value out of bounds is mapped to a
+   * random value within the bounds, like IntegerGene does.
+   *
+   * @param a_locus index of the locus
+   * @param a_value the new allele
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public void setInt(int a_locus, int a_value) {
+    if (a_value > m_upperBounds[a_locus] || a_value < m_lowerBounds[a_locus]) {
+      if (m_upperBounds[a_locus] == m_lowerBounds[a_locus]) {
+        store(a_locus, m_lowerBounds[a_locus]);
+      }
+      else {
+        setToRandomValue(a_locus, getConfiguration().getRandomGenerator());
+      }
+    }
+    else {
+      store(a_locus, a_value);
+    }
+  }
+
+  /**
+   * Sets the allele at the given locus to a random value within its bounds.
+   * For integer loci, each integer within the bounds is equally likely.
+   *
+   * @param a_locus index of the locus
+   * @param a_numberGenerator the random number generator to use
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public void setToRandomValue(int a_locus, RandomGenerator a_numberGenerator) {
+    double lower = m_lowerBounds[a_locus];
+    if (m_integer[a_locus]) {
+      // Rounding would give the bounds half the probability of the others.
+      // ------------------------------------------------------------------
+      long range = (long) m_upperBounds[a_locus] - (long) lower + 1;
+      if (range <= Integer.MAX_VALUE) {
+        store(a_locus, lower + a_numberGenerator.nextInt( (int) range));
+      }
+      else {
+        store(a_locus,
+              lower + Math.floor(range * a_numberGenerator.nextDouble()));
+      }
+    }
+    else {
+      store(a_locus, (m_upperBounds[a_locus] - lower)
+            * a_numberGenerator.nextDouble() + lower);
+    }
+  }
+
+  /**
+   * Sets all alleles to random values within their bounds.
+   *
+   * @param a_numberGenerator the random number generator to use
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public void randomize(RandomGenerator a_numberGenerator) {
+    int size = size();
+    for (int i = 0; i < size; i++) {
+      setToRandomValue(i, a_numberGenerator);
+    }
+  }
+
+  /**
+   * Mutates the allele at the given locus by the given percentage of the
+   * range of the locus, see DoubleGene.applyMutation resp.
+   * IntegerGene.applyMutation.
+   *
+   * @param a_locus index of the locus
+   * @param a_percentage percentage of mutation (greater than -1 and smaller
+   * than 1)
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public void mutate(int a_locus, double a_percentage) {
+    double range = (m_upperBounds[a_locus] - m_lowerBounds[a_locus])
+        * a_percentage;
+    if (m_integer[a_locus]) {
+      setInt(a_locus, (int) Math.round(getDouble(a_locus) + range));
+    }
+    else {
+      setDouble(a_locus, getDouble(a_locus) + range);
+    }
+  }
+
+  /**
+   * Exchanges the alleles of the given range of loci with the given
+   * chromosome, which must have the same layout.
+   *
+   * @param a_other the chromosome to exchange alleles with
+   * @param a_from first locus to exchange
+   * @param a_to locus after the last one to exchange
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public void crossover(NumericChromosome a_other, int a_from, int a_to) {
+    for (int i = a_from; i < a_to; i++) {
+      double value = getDouble(i);
+      store(i, a_other.getDouble(i));
+      a_other.store(i, value);
+    }
+  }
+
+  /**
+   * @return the alleles, null if they are not stored in an array of this
+   * instance. The array is not copied, changes are not checked against the
+   * bounds!
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public double[] getValues() {
+    return m_values;
+  }
+
+  /**
+   * @param a_locus index of the locus
+   * @return the lowest value allowed at the locus
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public double getLowerBound(int a_locus) {
+    return m_lowerBounds[a_locus];
+  }
+
+  /**
+   * @param a_locus index of the locus
+   * @return the highest value allowed at the locus
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public double getUpperBound(int a_locus) {
+    return m_upperBounds[a_locus];
+  }
+
+  /**
+   * @param a_locus index of the locus
+   * @return true: the locus holds integer values, viewed as IntegerGene
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public boolean isInteger(int a_locus) {
+    return m_integer[a_locus];
+  }
+
+  /**
+   * @return views on the alleles of this chromosome. Changing a view changes
+   * this chromosome
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public synchronized Gene[] getGenes() {
+    if (m_views == null) {
+      Gene[] views = new Gene[size()];
+      try {
+        for (int i = 0; i < views.length; i++) {
+          if (m_integer[i]) {
+            views[i] = new IntegerView(this, i);
+          }
+          else {
+            views[i] = new DoubleView(this, i);
+          }
+        }
+      } catch (InvalidConfigurationException iex) {
+        throw new IllegalStateException(iex.getMessage());
+      }
+      m_views = views;
+    }
+    return m_views;
+  }
+
+  public Gene getGene(int a_desiredLocus) {
+    return getGenes()[a_desiredLocus];
+  }
+
+  /**
+   * Takes over the allele of the given gene.
+   *
+   * @param a_index index of the locus
+   * @param a_gene gene holding a Number as allele
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public void setGene(int a_index, Gene a_gene) {
+    if (m_views == null || m_views[a_index] != a_gene) {
+      setDouble(a_index, ( (Number) a_gene.getAllele()).doubleValue());
+    }
+  }
+
+  /**
+   * Takes over the alleles of the given genes.
+   *
+   * @param a_genes genes holding Numbers as alleles, one per locus
+   * @throws InvalidConfigurationException in case constraint checker is
+   * provided
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public void setGenes(Gene[] a_genes)
+      throws InvalidConfigurationException {
+    if (a_genes == null || a_genes.length != size()) {
+      throw new IllegalArgumentException("Number of genes must equal the"
+          + " size of the chromosome!");
+    }
+    for (int i = 0; i < a_genes.length; i++) {
+      setGene(i, a_genes[i]);
+    }
+    verify(getConstraintChecker());
+  }
+
+  /**
+   * @return copy of this chromosome sharing the bounds. Uses a chromosome of
+   * the ChromosomePool, if available
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public synchronized Object clone() {
+    NumericChromosome copy;
+    try {
+      copy = newInstance();
+      int size = size();
+      for (int i = 0; i < size; i++) {
+        copy.store(i, getDouble(i));
+      }
+      copy.setFitnessValue(getFitnessValueDirectly());
+      copy.setConstraintChecker(getConstraintChecker());
+    } catch (InvalidConfigurationException iex) {
+      throw new IllegalStateException(iex.getMessage());
+    }
+    try {
+      copy.setApplicationData(cloneObject(getApplicationData()));
+    } catch (Exception ex) {
+      throw new IllegalStateException(ex.getMessage());
+    }
+    return copy;
+  }
+
+  /**
+   * @return a chromosome with the layout of this one, taken from the
+   * ChromosomePool if possible. Its alleles are undefined
+   * @throws InvalidConfigurationException
+   *
+   * @author agent
+   * @since 3.7
+   */
+  protected NumericChromosome newInstance()
+      throws InvalidConfigurationException {
+    if (getConfiguration() == null) {
+      throw new IllegalStateException(
+          "The active Configuration object must be set on this " +
+          "Chromosome prior to invocation of the clone() method.");
+    }
+    IChromosomePool pool = getConfiguration().getChromosomePool();
+    if (pool != null) {
+      NumericChromosome result = (NumericChromosome) acquireFromPool(pool,
+          this);
+      if (result != null) {
+        if (result.m_lowerBounds == m_lowerBounds) {
+          result.setFitnessValueDirectly(FitnessFunction.NO_FITNESS_VALUE);
+          result.resetFitnessTracking();
+          return result;
+        }
+        // Same size, but other bounds.
+        // ----------------------------
+        pool.rejectChromosome(result);
+      }
+    }
+    return new NumericChromosome(this);
+  }
+
+  /**
+   * Invoked when this chromosome is no longer needed. Releases it to the
+   * active ChromosomePool, if any. The views need no cleanup.
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public void cleanup() {
+    if (getConfiguration() == null) {
+      throw new IllegalStateException(
+          "The active Configuration object must be set on this " +
+          "Chromosome prior to invocation of the cleanup() method.");
+    }
+    m_fitnessValue = FitnessFunction.NO_FITNESS_VALUE;
+    setIsSelectedForNextGeneration(false);
+    resetFitnessTracking();
+    IChromosomePool pool = getConfiguration().getChromosomePool();
+    if (pool != null) {
+      pool.releaseChromosome(this);
+    }
+  }
+
+  /**
+   * Compares the alleles directly if the other chromosome is a
+   * NumericChromosome, too.
+   *
+   * @param a_other the chromosome to compare the alleles with
+   * @return result of the first allele comparison not being zero, or zero
+   *
+   * @author agent
+   * @since 3.7
+   */
+  protected int compareAlleles(IChromosome a_other) {
+    if (! (a_other instanceof NumericChromosome)) {
+      return super.compareAlleles(a_other);
+    }
+    NumericChromosome other = (NumericChromosome) a_other;
+    int size = size();
+    for (int i = 0; i < size; i++) {
+      int comparison = Double.compare(getDouble(i), other.getDouble(i));
+      if (comparison != 0) {
+        return comparison;
+      }
+    }
+    return 0;
+  }
+
+  /**
+   * @return the same hash code as a Chromosome with equal DoubleGene and
+   * IntegerGene instances
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public int hashCode() {
+    int hashCode = 1;
+    int size = size();
+    for (int i = 0; i < size; i++) {
+      int geneHashcode;
+      if (m_integer[i]) {
+        geneHashcode = (int) getDouble(i);
+      }
+      else {
+        long bits = Double.doubleToLongBits(getDouble(i));
+        geneHashcode = (int) (bits ^ (bits >>> 32));
+      }
+      hashCode = 31 * hashCode + geneHashcode;
+    }
+    return hashCode;
+  }
+
+  /**{@inheritDoc}*/
+  public boolean isHandlerFor(Object a_obj, Class a_class) {
+    return a_class == NumericChromosome.class;
+  }
+
+  /**
+   * Creates a chromosome with the layout of this one and random alleles.
+   *
+   * @param a_obj ignored
+   * @param a_class ignored
+   * @param a_params ignored
+   * @return the new chromosome
+   * @throws Exception
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public Object perform(Object a_obj, Class a_class, Object a_params)
+      throws Exception {
+    getConfiguration().lockSettings();
+    NumericChromosome result = newInstance();
+    result.randomize(getConfiguration().getRandomGenerator());
+    return result;
+  }
+
+  /**
+   * View on a floating point locus of a NumericChromosome.
+   *
+   * @author agent
+   * @since 3.7
+   */
+  static class DoubleView
+      extends DoubleGene {
+    private NumericChromosome m_owner;
+
+    private int m_locus;
+
+    DoubleView(NumericChromosome a_owner, int a_locus)
+        throws InvalidConfigurationException {
+      super(a_owner.getConfiguration(), a_owner.m_lowerBounds[a_locus],
+            a_owner.m_upperBounds[a_locus]);
+      m_owner = a_owner;
+      m_locus = a_locus;
+    }
+
+    protected Object getInternalValue() {
+      return new Double(m_owner.getDouble(m_locus));
+    }
+
+    public void setAllele(Object a_newValue) {
+      if (a_newValue == null) {
+        throw new IllegalArgumentException("Allele must not be null!");
+      }
+      if (getConstraintChecker() != null) {
+        if (!getConstraintChecker().verify(this, a_newValue, null, -1)) {
+          return;
+        }
+      }
+      m_owner.setDouble(m_locus, ( (Number) a_newValue).doubleValue());
+    }
+
+    public double doubleValue() {
+      return m_owner.getDouble(m_locus);
+    }
+
+    public void setToRandomValue(RandomGenerator a_numberGenerator) {
+      m_owner.setToRandomValue(m_locus, a_numberGenerator);
+    }
+
+    public void applyMutation(int index, double a_percentage) {
+      m_owner.mutate(m_locus, a_percentage);
+    }
+
+    protected Class getGeneClass() {
+      return DoubleGene.class;
+    }
+  }
+
+  /**
+   * View on an integer locus of a NumericChromosome.
+   *
+   * @author agent
+   * @since 3.7
+   */
+  static class IntegerView
+      extends IntegerGene {
+    private NumericChromosome m_owner;
+
+    private int m_locus;
+
+    IntegerView(NumericChromosome a_owner, int a_locus)
+        throws InvalidConfigurationException {
+      super(a_owner.getConfiguration(), (int) a_owner.m_lowerBounds[a_locus],
+            (int) a_owner.m_upperBounds[a_locus]);
+      m_owner = a_owner;
+      m_locus = a_locus;
+    }
+
+    protected Object getInternalValue() {
+      return new Integer( (int) m_owner.getDouble(m_locus));
+    }
+
+    public void setAllele(Object a_newValue) {
+      if (a_newValue == null) {
+        throw new IllegalArgumentException("Allele must not be null!");
+      }
+      if (getConstraintChecker() != null) {
+        if (!getConstraintChecker().verify(this, a_newValue, null, -1)) {
+          return;
+        }
+      }
+      m_owner.setDouble(m_locus, ( (Number) a_newValue).doubleValue());
+    }
+
+    public int intValue() {
+      return (int) m_owner.getDouble(m_locus);
+    }
+
+    public void setToRandomValue(RandomGenerator a_numberGenerator) {
+      m_owner.setToRandomValue(m_locus, a_numberGenerator);
+    }
+
+    public void applyMutation(int a_index, double a_percentage) {
+      m_owner.mutate(m_locus, a_percentage);
+    }
+
+    protected Class getGeneClass() {
+      return IntegerGene.class;
+    }
+  }
+}
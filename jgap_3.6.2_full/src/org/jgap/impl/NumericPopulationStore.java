@@ -0,0 +1,543 @@
+/*
+ * This file is part of JGAP.
+ *
+ * JGAP offers a dual license model containing the LGPL as well as the MPL.
+ *
+ * For licensing information please see the file license.txt included with JGAP
+ * or have a look at the top of class org.jgap.Chromosome which representatively
+ * includes the JGAP license policy applicable for any file delivered with JGAP.
+ */
+package org.jgap.impl;
+
+import java.nio.*;
+import org.jgap.*;
+
+/**
+ * Stores a population of fixed-length numeric chromosomes column-wise instead
+ * of as a list of chromosome objects: the alleles of all chromosomes are held
+ * in one contiguous matrix (one row per chromosome), the fitness values, ages
+ * and operated-on counters in parallel arrays. The matrix is either a heap
+ * buffer or a direct buffer outside the Java heap. Code aware of this class
+ * scans the rows linearly without touching any chromosome object.
+ * <p>
+ * All rows share the layout (bounds and integer loci) of a sample
+ * NumericChromosome. For existing natural selectors and genetic operators,
+ * getChromosome returns a NumericChromosome view on a row and toPopulation a
+ * Population of such views. Copies of views (e.g. created by operators) are
+ * detached NumericChromosomes which can be added to the store again.
+ * <p>
+ * A view belongs to a row index, not to an individual: removing a row moves
+ * the last row into its place. Views of rows beyond the size are invalid.
+ * This class is not thread-safe.
+ *
+ * @author agent
+ * @since 3.7
+ */
+public class NumericPopulationStore {
+  /** String containing the CVS revision. Read out via reflection!*/
+  private final static String CVS_REVISION = "$Revision: 1.1 $";
+
+  private Configuration m_config;
+
+  private NumericChromosome m_layout;
+
+  private boolean m_offHeap;
+
+  /**
+   * Number of loci per chromosome.
+   */
+  private int m_length;
+
+  /**
+   * Number of chromosomes stored.
+   */
+  private int m_size;
+
+  /**
+   * The alleles, row by row.
+   */
+  private DoubleBuffer m_alleles;
+
+  private double[] m_fitness;
+
+  private int[] m_age;
+
+  private int[] m_operatedOn;
+
+  /**
+   * Views on the rows, created on demand.
+   */
+  private Row[] m_rows;
+
+  /**
+   * @param a_layout sample chromosome defining length, bounds and integer loci
+   * @param a_capacity number of chromosomes to reserve space for
+   * @param a_offHeap true: hold the alleles in a direct buffer outside the
+   * Java heap
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public NumericPopulationStore(NumericChromosome a_layout, int a_capacity,
+                                boolean a_offHeap) {
+    if (a_layout == null) {
+      throw new IllegalArgumentException("Layout must not be null!");
+    }
+    if (a_capacity < 1) {
+      throw new IllegalArgumentException("Capacity must be positive!");
+    }
+    m_layout = a_layout;
+    m_config = a_layout.getConfiguration();
+    m_offHeap = a_offHeap;
+    m_length = a_layout.size();
+    m_alleles = allocate(a_capacity * m_length);
+    m_fitness = new double[a_capacity];
+    m_age = new int[a_capacity];
+    m_operatedOn = new int[a_capacity];
+    m_rows = new Row[a_capacity];
+  }
+
+  private DoubleBuffer allocate(int a_count) {
+    if (m_offHeap) {
+      return ByteBuffer.allocateDirect(a_count * 8).order(ByteOrder.
+          nativeOrder()).asDoubleBuffer();
+    }
+    else {
+      return DoubleBuffer.allocate(a_count);
+    }
+  }
+
+  /**
+   * Makes sure the given number of chromosomes fits into the store.
+   *
+   * @param a_capacity number of chromosomes
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public void ensureCapacity(int a_capacity) {
+    int capacity = getCapacity();
+    if (a_capacity <= capacity) {
+      return;
+    }
+    capacity = Math.max(a_capacity, capacity * 2);
+    DoubleBuffer alleles = allocate(capacity * m_length);
+    DoubleBuffer used = m_alleles.duplicate();
+    used.position(0);
+    used.limit(m_size * m_length);
+    alleles.put(used);
+    alleles.clear();
+    m_alleles = alleles;
+    double[] fitness = new double[capacity];
+    System.arraycopy(m_fitness, 0, fitness, 0, m_size);
+    m_fitness = fitness;
+    int[] age = new int[capacity];
+    System.arraycopy(m_age, 0, age, 0, m_size);
+    m_age = age;
+    int[] operatedOn = new int[capacity];
+    System.arraycopy(m_operatedOn, 0, operatedOn, 0, m_size);
+    m_operatedOn = operatedOn;
+    Row[] rows = new Row[capacity];
+    System.arraycopy(m_rows, 0, rows, 0, m_rows.length);
+    m_rows = rows;
+  }
+
+  /**
+   * Appends a copy of the given chromosome.
+   *
+   * @param a_chrom chromosome with the length of the layout and numeric
+   * alleles
+   * @return row of the new chromosome
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public int add(IChromosome a_chrom) {
+    ensureCapacity(m_size + 1);
+    int row = m_size++;
+    set(row, a_chrom);
+    return row;
+  }
+
+  /**
+   * Appends all chromosomes of the given population.
+   *
+   * @param a_pop the population to copy
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public void addAll(Population a_pop) {
+    ensureCapacity(m_size + a_pop.size());
+    for (int i = 0; i < a_pop.size(); i++) {
+      add(a_pop.getChromosome(i));
+    }
+  }
+
+  /**
+   * Overwrites the given row with a copy of the given chromosome, including
+   * fitness value, age and operated-on counter. The alleles are taken over
+   * as they are, without mapping them to the bounds.
+   *
+   * @param a_row the row to overwrite
+   * @param a_chrom chromosome with the length of the layout and numeric
+   * alleles
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public void set(int a_row, IChromosome a_chrom) {
+    checkRow(a_row);
+    if (a_chrom.size() != m_length) {
+      throw new IllegalArgumentException("Chromosome must have "
+          + m_length + " genes!");
+    }
+    int base = a_row * m_length;
+    if (a_chrom instanceof NumericChromosome) {
+      NumericChromosome chrom = (NumericChromosome) a_chrom;
+      for (int i = 0; i < m_length; i++) {
+        m_alleles.put(base + i, chrom.getDouble(i));
+      }
+    }
+    else {
+      for (int i = 0; i < m_length; i++) {
+        Number allele = (Number) a_chrom.getGene(i).getAllele();
+        m_alleles.put(base + i, allele.doubleValue());
+      }
+    }
+    m_fitness[a_row] = a_chrom.getFitnessValueDirectly();
+    m_age[a_row] = a_chrom.getAge();
+    m_operatedOn[a_row] = a_chrom.operatedOn();
+  }
+
+  /**
+   * Copies a row to another row.
+   *
+   * @param a_from the row to copy
+   * @param a_to the row to overwrite
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public void copy(int a_from, int a_to) {
+    checkRow(a_from);
+    checkRow(a_to);
+    int from = a_from * m_length;
+    int to = a_to * m_length;
+    for (int i = 0; i < m_length; i++) {
+      m_alleles.put(to + i, m_alleles.get(from + i));
+    }
+    m_fitness[a_to] = m_fitness[a_from];
+    m_age[a_to] = m_age[a_from];
+    m_operatedOn[a_to] = m_operatedOn[a_from];
+  }
+
+  /**
+   * Removes the given row by moving the last row into its place.
+   *
+   * @param a_row the row to remove
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public void remove(int a_row) {
+    checkRow(a_row);
+    int last = m_size - 1;
+    if (a_row != last) {
+      copy(last, a_row);
+    }
+    m_size = last;
+  }
+
+  /**
+   * Removes all rows from the given size on.
+   *
+   * @param a_size the new size, not greater than the current size
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public void truncate(int a_size) {
+    if (a_size < 0 || a_size > m_size) {
+      throw new IllegalArgumentException("Size must be between 0 and "
+          + m_size + "!");
+    }
+    m_size = a_size;
+  }
+
+  public void clear() {
+    m_size = 0;
+  }
+
+  public double getAllele(int a_row, int a_locus) {
+    return m_alleles.get(a_row * m_length + a_locus);
+  }
+
+  /**
+   * Sets an allele without mapping it to the bounds of the locus.
+   *
+   * @param a_row the row of the chromosome
+   * @param a_locus index of the locus
+   * @param a_value the new allele
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public void setAllele(int a_row, int a_locus, double a_value) {
+    m_alleles.put(a_row * m_length + a_locus, a_value);
+  }
+
+  public double getFitnessValue(int a_row) {
+    return m_fitness[a_row];
+  }
+
+  public void setFitnessValue(int a_row, double a_fitness) {
+    m_fitness[a_row] = a_fitness;
+  }
+
+  public int getAge(int a_row) {
+    return m_age[a_row];
+  }
+
+  public void setAge(int a_row, int a_age) {
+    m_age[a_row] = a_age;
+  }
+
+  /**
+   * Increases the age of all chromosomes.
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public void increaseAge() {
+    for (int i = 0; i < m_size; i++) {
+      m_age[i]++;
+    }
+  }
+
+  public int getOperatedOn(int a_row) {
+    return m_operatedOn[a_row];
+  }
+
+  public void setOperatedOn(int a_row, int a_operatedOn) {
+    m_operatedOn[a_row] = a_operatedOn;
+  }
+
+  /**
+   * Computes the fitness value of all rows without one, using the fitness
+   * function of the configuration.
+   *
+   * @return number of rows evaluated
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public int evaluate() {
+    FitnessFunction func = m_config.getFitnessFunction();
+    int count = 0;
+    for (int i = 0; i < m_size; i++) {
+      if (m_fitness[i] < 0.000d) {
+        m_fitness[i] = func.getFitnessValue(getChromosome(i));
+        count++;
+      }
+    }
+    return count;
+  }
+
+  /**
+   * @return row of the fittest chromosome according to the fitness evaluator
+   * of the configuration, -1 if no row has a fitness value
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public int getFittest() {
+    FitnessEvaluator evaluator = m_config.getFitnessEvaluator();
+    int best = -1;
+    for (int i = 0; i < m_size; i++) {
+      if (m_fitness[i] >= 0.000d
+          && (best < 0 || evaluator.isFitter(m_fitness[i], m_fitness[best]))) {
+        best = i;
+      }
+    }
+    return best;
+  }
+
+  /**
+   * @param a_row the row of the chromosome
+   * @return view on the given row
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public NumericChromosome getChromosome(int a_row) {
+    checkRow(a_row);
+    Row row = m_rows[a_row];
+    if (row == null) {
+      try {
+        row = new Row(this, a_row);
+      } catch (InvalidConfigurationException iex) {
+        throw new IllegalStateException(iex.getMessage());
+      }
+      m_rows[a_row] = row;
+    }
+    return row;
+  }
+
+  /**
+   * @return population holding views on all rows
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public Population toPopulation() {
+    try {
+      Population pop = new Population(m_config, m_size);
+      for (int i = 0; i < m_size; i++) {
+        pop.addChromosome(getChromosome(i));
+      }
+      return pop;
+    } catch (InvalidConfigurationException iex) {
+      throw new IllegalStateException(iex.getMessage());
+    }
+  }
+
+  private void checkRow(int a_row) {
+    if (a_row < 0 || a_row >= m_size) {
+      throw new IndexOutOfBoundsException("Row " + a_row + ", size "
+          + m_size);
+    }
+  }
+
+  public int size() {
+    return m_size;
+  }
+
+  public int getCapacity() {
+    return m_fitness.length;
+  }
+
+  public int getChromosomeLength() {
+    return m_length;
+  }
+
+  public boolean isOffHeap() {
+    return m_offHeap;
+  }
+
+  public NumericChromosome getLayout() {
+    return m_layout;
+  }
+
+  public Configuration getConfiguration() {
+    return m_config;
+  }
+
+  /**
+   * View on a row of a NumericPopulationStore. Alleles, fitness value, age
+   * and operated-on counter are read from and written to the store.
+   *
+   * @author agent
+   * @since 3.7
+   */
+  static class Row
+      extends NumericChromosome {
+    private NumericPopulationStore m_store;
+
+    private int m_row;
+
+    private int m_base;
+
+    Row(NumericPopulationStore a_store, int a_row)
+        throws InvalidConfigurationException {
+      super(a_store.m_layout, null);
+      m_store = a_store;
+      m_row = a_row;
+      m_base = a_row * a_store.m_length;
+    }
+
+    public double getDouble(int a_locus) {
+      return m_store.m_alleles.get(m_base + a_locus);
+    }
+
+    protected void store(int a_locus, double a_value) {
+      m_store.m_alleles.put(m_base + a_locus, a_value);
+    }
+
+    /**
+     * Takes over the fitness value of the store, which may have been changed
+     * directly.
+     */
+    private void sync() {
+      m_fitnessValue = m_store.m_fitness[m_row];
+    }
+
+    public double getFitnessValue() {
+      sync();
+      double fitness = super.getFitnessValue();
+      m_store.m_fitness[m_row] = m_fitnessValue;
+      return fitness;
+    }
+
+    public double getFitnessValueDirectly() {
+      return m_store.m_fitness[m_row];
+    }
+
+    public void setFitnessValue(double a_newFitnessValue) {
+      sync();
+      super.setFitnessValue(a_newFitnessValue);
+      m_store.m_fitness[m_row] = m_fitnessValue;
+    }
+
+    public void setFitnessValueDirectly(double a_newFitnessValue) {
+      m_fitnessValue = a_newFitnessValue;
+      m_store.m_fitness[m_row] = a_newFitnessValue;
+    }
+
+    public int compareTo(Object other) {
+      sync();
+      return super.compareTo(other);
+    }
+
+    public String toString() {
+      sync();
+      return super.toString();
+    }
+
+    public void increaseAge() {
+      m_store.m_age[m_row]++;
+    }
+
+    public void resetAge() {
+      m_store.m_age[m_row] = 0;
+    }
+
+    public void setAge(int a_age) {
+      m_store.m_age[m_row] = a_age;
+    }
+
+    public int getAge() {
+      return m_store.m_age[m_row];
+    }
+
+    public void increaseOperatedOn() {
+      m_store.m_operatedOn[m_row]++;
+    }
+
+    public void resetOperatedOn() {
+      m_store.m_operatedOn[m_row] = 0;
+    }
+
+    public int operatedOn() {
+      return m_store.m_operatedOn[m_row];
+    }
+
+    /**
+     * Rows are never released to a pool.
+     */
+    public void cleanup() {
+      setFitnessValueDirectly(FitnessFunction.NO_FITNESS_VALUE);
+      setIsSelectedForNextGeneration(false);
+    }
+  }
+}
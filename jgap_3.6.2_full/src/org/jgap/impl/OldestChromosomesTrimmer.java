@@ -0,0 +1,32 @@
+/*
+ * This file is part of JGAP.
+ *
+ * JGAP offers a dual license model containing the LGPL as well as the MPL.
+ *
+ * For licensing information please see the file license.txt included with JGAP
+ * or have a look at the top of class org.jgap.Chromosome which representatively
+ * includes the JGAP license policy applicable for any file delivered with JGAP.
+ */
+package org.jgap.impl;
+
+import org.jgap.*;
+import org.jgap.util.*;
+
+/**
+ * Removes the chromosomes added to the population first. As new chromosomes
+ * are appended to the population, these usually are the oldest ones. This is
+ * the behaviour of JGAP before trimmers were introduced and therefore the
+ * default.
+ *
+ * @author agent
+ * @since 3.7
+ */
+public class OldestChromosomesTrimmer
+    implements IPopulationTrimmer {
+  /** String containing the CVS revision. Read out via reflection!*/
+  private final static String CVS_REVISION = "$Revision: 1.1 $";
+
+  public int[] selectForRemoval(Population a_pop, int a_count) {
+    return PartialSelectionKit.identity(a_count);
+  }
+}
@@ -0,0 +1,227 @@
+/*
+ * This file is part of JGAP.
+ *
+ * JGAP offers a dual license model containing the LGPL as well as the MPL.
+ *
+ * For licensing information please see the file license.txt included with JGAP
+ * or have a look at the top of class org.jgap.Chromosome which representatively
+ * includes the JGAP license policy applicable for any file delivered with JGAP.
+ */
+package org.jgap.impl;
+
+import java.util.*;
+import java.util.concurrent.*;
+import org.jgap.*;
+
+/**
+ * Computes the fitness values of a list of chromosomes concurrently by using
+ * an ExecutorService. Only chromosomes without a fitness value are evaluated.
+ * <p>
+ * The chromosomes are split into consecutive index ranges, one per task. Each
+ * task writes into its own slice of a result array. The fitness values are
+ * assigned to the chromosomes within the calling thread after all tasks have
+ * finished, in the order of the list. Thus the result does not depend on the
+ * scheduling of the worker threads.
+ * <p>
+ * The fitness function must implement IConcurrentFitnessFunction, otherwise
+ * nothing is evaluated here and the caller has to fall back to sequential
+ * evaluation.
+ *
+ * @author agent
+ * @since 3.7
+ */
+public class ParallelFitnessEvaluation {
+  /** String containing the CVS revision. Read out via reflection!*/
+  private final static String CVS_REVISION = "$Revision: 1.1 $";
+
+  private ExecutorService m_executor;
+
+  private int m_parallelism;
+
+  /**
+   * @param a_executor the executor to run the evaluation tasks with, e.g. a
+   * thread pool, a fork-join pool or an executor creating virtual threads
+   * @param a_parallelism number of tasks to split the evaluation into. Zero
+   * or below: use the number of available processors
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public ParallelFitnessEvaluation(ExecutorService a_executor,
+                                   int a_parallelism) {
+    if (a_executor == null) {
+      throw new IllegalArgumentException("Executor must not be null!");
+    }
+    m_executor = a_executor;
+    if (a_parallelism <= 0) {
+      m_parallelism = Runtime.getRuntime().availableProcessors();
+    }
+    else {
+      m_parallelism = a_parallelism;
+    }
+  }
+
+  /**
+   * Creates a fixed-size thread pool with daemon threads. Daemon threads do
+   * not prevent the JVM from exiting if the pool is never shut down.
+   *
+   * @param a_threads number of worker threads. Zero or below: use the number
+   * of available processors
+   * @return newly created executor
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public static ExecutorService createDefaultExecutor(int a_threads) {
+    int threads = a_threads;
+    if (threads <= 0) {
+      threads = Runtime.getRuntime().availableProcessors();
+    }
+    return Executors.newFixedThreadPool(threads, new ThreadFactory() {
+      private int m_count;
+
+      public synchronized Thread newThread(Runnable a_task) {
+        Thread t = new Thread(a_task, "jgap-fitness-" + m_count++);
+        t.setDaemon(true);
+        return t;
+      }
+    });
+  }
+
+  /**
+   * Evaluates all chromosomes of the given list which have no fitness value
+   * yet.
+   *
+   * @param a_conf the configuration holding the fitness function
+   * @param a_chromosomes the chromosomes to evaluate
+   * @return number of chromosomes evaluated concurrently. Zero if the fitness
+   * function does not support concurrent evaluation
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public int evaluate(Configuration a_conf, List<IChromosome> a_chromosomes) {
+    FitnessFunction func = a_conf.getFitnessFunction();
+    if (! (func instanceof IConcurrentFitnessFunction)) {
+      return 0;
+    }
+    // Collect the chromosomes that need an evaluation.
+    // ------------------------------------------------
+    List<IChromosome> todo = new ArrayList<IChromosome>(a_chromosomes.size());
+    int size = a_chromosomes.size();
+    for (int i = 0; i < size; i++) {
+      IChromosome chrom = a_chromosomes.get(i);
+      if (chrom.getFitnessValueDirectly() < 0.000d) {
+        todo.add(chrom);
+      }
+    }
+    int count = todo.size();
+    if (count < 2) {
+      // Not worth the overhead.
+      // -----------------------
+      return 0;
+    }
+    IConcurrentFitnessFunction concFunc = (IConcurrentFitnessFunction) func;
+    boolean shared = concFunc.isThreadSafe();
+    int tasks = Math.min(m_parallelism, count);
+    double[] results = new double[count];
+    List<Future<?>> futures = new ArrayList<Future<?>>(tasks);
+    for (int t = 0; t < tasks; t++) {
+      FitnessFunction taskFunc;
+      if (shared) {
+        taskFunc = func;
+      }
+      else {
+        taskFunc = (FitnessFunction) concFunc.newWorkerInstance();
+      }
+      int from = (int) ( (long) count * t / tasks);
+      int to = (int) ( (long) count * (t + 1) / tasks);
+      futures.add(m_executor.submit(new EvaluationTask(taskFunc, todo,
+          results, from, to)));
+    }
+    waitFor(futures);
+    // Assign the results within the calling thread.
+    // ---------------------------------------------
+    for (int i = 0; i < count; i++) {
+      todo.get(i).setFitnessValueDirectly(results[i]);
+    }
+    return count;
+  }
+
+  /**
+   * Waits for all given tasks to finish. The first failure of a task is
+   * rethrown as a RuntimeException.
+   *
+   * @param a_futures the tasks to wait for
+   *
+   * @author agent
+   * @since 3.7
+   */
+  protected void waitFor(List<Future<?>> a_futures) {
+    RuntimeException failure = null;
+    for (Future<?> future : a_futures) {
+      try {
+        future.get();
+      } catch (InterruptedException iex) {
+        Thread.currentThread().interrupt();
+        throw new RuntimeException("Fitness evaluation interrupted", iex);
+      } catch (ExecutionException eex) {
+        if (failure == null) {
+          Throwable cause = eex.getCause();
+          if (cause instanceof RuntimeException) {
+            failure = (RuntimeException) cause;
+          }
+          else {
+            failure = new RuntimeException(cause);
+          }
+        }
+      }
+    }
+    if (failure != null) {
+      throw failure;
+    }
+  }
+
+  public int getParallelism() {
+    return m_parallelism;
+  }
+
+  public ExecutorService getExecutor() {
+    return m_executor;
+  }
+
+  /**
+   * Evaluates a consecutive range of chromosomes with one fitness function
+   * instance.
+   *
+   * @author agent
+   * @since 3.7
+   */
+  private static class EvaluationTask
+      implements Runnable {
+    private FitnessFunction m_func;
+
+    private List<IChromosome> m_chroms;
+
+    private double[] m_results;
+
+    private int m_from;
+
+    private int m_to;
+
+    EvaluationTask(FitnessFunction a_func, List<IChromosome> a_chroms,
+                   double[] a_results, int a_from, int a_to) {
+      m_func = a_func;
+      m_chroms = a_chroms;
+      m_results = a_results;
+      m_from = a_from;
+      m_to = a_to;
+    }
+
+    public void run() {
+      for (int i = m_from; i < m_to; i++) {
+        m_results[i] = m_func.getFitnessValue(m_chroms.get(i));
+      }
+    }
+  }
+}
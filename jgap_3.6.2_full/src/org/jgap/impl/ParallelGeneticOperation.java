@@ -0,0 +1,223 @@
+/*
+ * This file is part of JGAP.
+ *
+ * JGAP offers a dual license model containing the LGPL as well as the MPL.
+ *
+ * For licensing information please see the file license.txt included with JGAP
+ * or have a look at the top of class org.jgap.Chromosome which representatively
+ * includes the JGAP license policy applicable for any file delivered with JGAP.
+ */
+package org.jgap.impl;
+
+import java.lang.reflect.*;
+import java.util.*;
+import java.util.concurrent.*;
+import org.jgap.*;
+
+/**
+ * Applies a genetic operator concurrently by using an ExecutorService.
+ * <p>
+ * The work of the operator is split into partitions, one per task, e.g.
+ * consecutive index ranges of the population for mutation. Each task draws
+ * from a random stream of its own and adds its results to a list of its own.
+ * The streams are derived from the random generator of the configuration
+ * (see SplittableRandomGenerator.stream(long)). The lists are appended to the
+ * candidate chromosomes within the calling thread after all tasks have
+ * finished, in the order of the partitions. Thus the result does not depend
+ * on the scheduling of the worker threads, and runs with a seeded generator
+ * are reproducible for a given number of partitions.
+ * <p>
+ * The operator must implement IPartitionedGeneticOperator, otherwise it is
+ * applied sequentially. The same holds for subclasses of partitioned
+ * operators only overriding operate(Population, List).
+ *
+ * @author agent
+ * @since 3.7
+ */
+public class ParallelGeneticOperation {
+  /** String containing the CVS revision. Read out via reflection!*/
+  private final static String CVS_REVISION = "$Revision: 1.1 $";
+
+  private ExecutorService m_executor;
+
+  private int m_parallelism;
+
+  /**
+   * @param a_executor the executor to run the partitions with, e.g. a thread
+   * pool (see ParallelFitnessEvaluation.createDefaultExecutor)
+   * @param a_parallelism number of partitions to split each operator into.
+   * Zero or below: use the number of available processors
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public ParallelGeneticOperation(ExecutorService a_executor,
+                                  int a_parallelism) {
+    if (a_executor == null) {
+      throw new IllegalArgumentException("Executor must not be null!");
+    }
+    m_executor = a_executor;
+    if (a_parallelism <= 0) {
+      m_parallelism = Runtime.getRuntime().availableProcessors();
+    }
+    else {
+      m_parallelism = a_parallelism;
+    }
+  }
+
+  /**
+   * Applies the given operator to the population.
+   *
+   * @param a_conf the configuration holding the random generator
+   * @param a_operator the operator to apply
+   * @param a_population the population to operate on
+   * @param a_candidateChromosomes the list to add the resulting chromosomes
+   * to, may be the list of chromosomes of the population
+   * @return number of partitions the operator has been split into, 1 if it
+   * has been applied sequentially
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public int operate(Configuration a_conf, GeneticOperator a_operator,
+                     Population a_population, List a_candidateChromosomes) {
+    int partitions = Math.min(m_parallelism, a_population.size());
+    if (partitions < 2 || !isPartitioned(a_operator)) {
+      a_operator.operate(a_population, a_candidateChromosomes);
+      return 1;
+    }
+    IPartitionedGeneticOperator operator =
+        (IPartitionedGeneticOperator) a_operator;
+    // Derive the random streams within the calling thread.
+    // ----------------------------------------------------
+    RandomGenerator rn = a_conf.getRandomGenerator();
+    SplittableRandomGenerator streams;
+    if (rn instanceof SplittableRandomGenerator) {
+      streams = ( (SplittableRandomGenerator) rn).split();
+    }
+    else {
+      streams = new SplittableRandomGenerator(rn.nextLong());
+    }
+    List[] results = new List[partitions];
+    List<Future<?>> futures = new ArrayList<Future<?>>(partitions);
+    for (int p = 0; p < partitions; p++) {
+      results[p] = new ArrayList();
+      futures.add(m_executor.submit(new PartitionTask(operator, a_population,
+          p, partitions, streams.stream(p), results[p])));
+    }
+    waitFor(futures);
+    // Merge the results within the calling thread.
+    // --------------------------------------------
+    for (int p = 0; p < partitions; p++) {
+      a_candidateChromosomes.addAll(results[p]);
+    }
+    return partitions;
+  }
+
+  /**
+   * @param a_operator the operator to check
+   * @return true: the operator can be split into partitions, i.e. it
+   * implements IPartitionedGeneticOperator and operate(Population, List) is
+   * not overridden below the class implementing the partitioned method
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public static boolean isPartitioned(GeneticOperator a_operator) {
+    if (! (a_operator instanceof IPartitionedGeneticOperator)) {
+      return false;
+    }
+    Class cl = a_operator.getClass();
+    try {
+      Method sequential = cl.getMethod("operate", new Class[] {
+          Population.class, List.class});
+      Method partitioned = cl.getMethod("operate", new Class[] {
+          Population.class, Integer.TYPE, Integer.TYPE,
+          RandomGenerator.class, List.class});
+      return sequential.getDeclaringClass().isAssignableFrom(
+          partitioned.getDeclaringClass());
+    } catch (NoSuchMethodException nex) {
+      return false;
+    }
+  }
+
+  /**
+   * Waits for all tasks to finish. The first exception thrown by a task is
+   * rethrown after all tasks have finished.
+   *
+   * @param a_futures the tasks to wait for
+   *
+   * @author agent
+   * @since 3.7
+   */
+  protected void waitFor(List<Future<?>> a_futures) {
+    RuntimeException failure = null;
+    for (Future<?> future : a_futures) {
+      try {
+        future.get();
+      } catch (InterruptedException iex) {
+        Thread.currentThread().interrupt();
+        throw new RuntimeException("Genetic operation interrupted", iex);
+      } catch (ExecutionException eex) {
+        if (failure == null) {
+          Throwable cause = eex.getCause();
+          if (cause instanceof RuntimeException) {
+            failure = (RuntimeException) cause;
+          }
+          else {
+            failure = new RuntimeException(cause);
+          }
+        }
+      }
+    }
+    if (failure != null) {
+      throw failure;
+    }
+  }
+
+  public int getParallelism() {
+    return m_parallelism;
+  }
+
+  public ExecutorService getExecutor() {
+    return m_executor;
+  }
+
+  /**
+   * Performs one partition of a genetic operator.
+   *
+   * @author agent
+   * @since 3.7
+   */
+  private static class PartitionTask
+      implements Runnable {
+    private IPartitionedGeneticOperator m_operator;
+
+    private Population m_population;
+
+    private int m_partition;
+
+    private int m_partitions;
+
+    private RandomGenerator m_generator;
+
+    private List m_results;
+
+    PartitionTask(IPartitionedGeneticOperator a_operator,
+                  Population a_population, int a_partition,
+                  int a_partitions, RandomGenerator a_generator,
+                  List a_results) {
+      m_operator = a_operator;
+      m_population = a_population;
+      m_partition = a_partition;
+      m_partitions = a_partitions;
+      m_generator = a_generator;
+      m_results = a_results;
+    }
+
+    public void run() {
+      m_operator.operate(m_population, m_partition, m_partitions, m_generator,
+                         m_results);
+    }
+  }
+}
@@ -0,0 +1,45 @@
+/*
+ * This file is part of JGAP.
+ *
+ * JGAP offers a dual license model containing the LGPL as well as the MPL.
+ *
+ * For licensing information please see the file license.txt included with JGAP
+ * or have a look at the top of class org.jgap.Chromosome which representatively
+ * includes the JGAP license policy applicable for any file delivered with JGAP.
+ */
+package org.jgap.impl;
+
+import java.util.*;
+import org.jgap.*;
+import org.jgap.util.*;
+
+/**
+ * Removes randomly chosen chromosomes, using the random generator of the
+ * configuration.
+ *
+ * @author agent
+ * @since 3.7
+ */
+public class RandomChromosomesTrimmer
+    implements IPopulationTrimmer {
+  /** String containing the CVS revision. Read out via reflection!*/
+  private final static String CVS_REVISION = "$Revision: 1.1 $";
+
+  public int[] selectForRemoval(Population a_pop, int a_count) {
+    RandomGenerator generator = a_pop.getConfiguration().getRandomGenerator();
+    int size = a_pop.size();
+    int[] indices = PartialSelectionKit.identity(size);
+    // Partial Fisher-Yates shuffle: only the last a_count positions.
+    // --------------------------------------------------------------
+    for (int i = size - 1; i >= size - a_count; i--) {
+      int j = generator.nextInt(i + 1);
+      int tmp = indices[i];
+      indices[i] = indices[j];
+      indices[j] = tmp;
+    }
+    int[] result = new int[a_count];
+    System.arraycopy(indices, size - a_count, result, 0, a_count);
+    Arrays.sort(result);
+    return result;
+  }
+}
@@ -0,0 +1,297 @@
+/*
+ * This file is part of JGAP.
+ *
+ * JGAP offers a dual license model containing the LGPL as well as the MPL.
+ *
+ * For licensing information please see the file license.txt included with JGAP
+ * or have a look at the top of class org.jgap.Chromosome which representatively
+ * includes the JGAP license policy applicable for any file delivered with JGAP.
+ */
+package org.jgap.impl;
+
+import java.io.*;
+import java.util.concurrent.atomic.*;
+import org.jgap.*;
+import org.jgap.util.*;
+
+/**
+ * Fast random generator (xoroshiro128++, seeded via SplitMix64) able to
+ * derive independent child generators from one master seed. In contrast to
+ * StockRandomGenerator, no state is shared via an AtomicLong, so there is no
+ * contention between threads using generators of their own.
+ * <p>
+ * A single instance is not thread-safe. For use by several threads, either
+ * <ul>
+ * <li>give each task a stream of its own with stream(index): the stream only
+ * depends on the master seed and the index, so results are reproducible
+ * regardless of which thread executes which task, or</li>
+ * <li>use the generator returned by perThread(), which transparently gives
+ * each thread a stream of its own. The streams are numbered in the order of
+ * the threads first using the generator, so results are reproducible only if
+ * this order is.</li>
+ * </ul>
+ * GaussianRandomGenerator and CauchyRandomGenerator can be constructed on top
+ * of any of these generators.
+ * <p>
+ * In contrast to StockRandomGenerator, deserialization keeps the state, so
+ * that a deserialized generator continues the sequence of the original one.
+ *
+ * @author agent
+ * @since 3.7
+ */
+public class SplittableRandomGenerator
+    implements RandomGenerator, ICloneable, Comparable {
+  /** String containing the CVS revision. Read out via reflection!*/
+  private final static String CVS_REVISION = "$Revision: 1.1 $";
+
+  /**
+   * Odd constant derived from the golden ratio, used by SplitMix64.
+   */
+  private final static long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+  private final long m_seed;
+
+  private long m_state0;
+
+  private long m_state1;
+
+  /**
+   * Constructor using a seed derived from the current time.
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public SplittableRandomGenerator() {
+    this(mix64(System.currentTimeMillis()) ^ mix64(System.nanoTime()));
+  }
+
+  /**
+   * @param a_seed the master seed. Equal seeds give equal sequences
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public SplittableRandomGenerator(long a_seed) {
+    m_seed = a_seed;
+    // Both states cannot become zero at once as mix64 is a bijection.
+    // ----------------------------------------------------------------
+    m_state0 = mix64(a_seed + GOLDEN_GAMMA);
+    m_state1 = mix64(a_seed + 2 * GOLDEN_GAMMA);
+  }
+
+  /**
+   * @return the seed this generator has been constructed with
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public long getSeed() {
+    return m_seed;
+  }
+
+  /**
+   * Returns the child generator with the given index. The child only depends
+   * on the seed of this generator and the index, not on the numbers drawn
+   * from this generator so far. Children with different indices give
+   * statistically independent sequences.
+   *
+   * @param a_index index of the stream, e.g. number of a task or worker
+   * @return new generator for the stream
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public SplittableRandomGenerator stream(long a_index) {
+    return new SplittableRandomGenerator(mix64(m_seed ^ mix64( (a_index + 1)
+        * GOLDEN_GAMMA)));
+  }
+
+  /**
+   * Returns a new generator seeded from the sequence of this generator (and
+   * thus advancing it). Splitting the same generator repeatedly in the same
+   * order gives the same children.
+   *
+   * @return new, statistically independent generator
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public SplittableRandomGenerator split() {
+    return new SplittableRandomGenerator(mix64(nextLong()));
+  }
+
+  /**
+   * @return thread-safe generator giving each thread a child stream of this
+   * generator, see stream(long)
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public RandomGenerator perThread() {
+    return new PerThread(this);
+  }
+
+  public long nextLong() {
+    long s0 = m_state0;
+    long s1 = m_state1;
+    long result = Long.rotateLeft(s0 + s1, 17) + s0;
+    s1 ^= s0;
+    m_state0 = Long.rotateLeft(s0, 49) ^ s1 ^ (s1 << 21);
+    m_state1 = Long.rotateLeft(s1, 28);
+    return result;
+  }
+
+  public int nextInt() {
+    return (int) (nextLong() >>> 32);
+  }
+
+  /**
+   * @param a_ceiling the upper boundary excluded, must be positive
+   * @return uniformly distributed integer value between 0 and the given
+   * ceiling - 1, inclusive
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public int nextInt(int a_ceiling) {
+    if (a_ceiling <= 0) {
+      throw new IllegalArgumentException("Ceiling must be positive!");
+    }
+    int bits = nextInt() >>> 1;
+    int mask = a_ceiling - 1;
+    if ( (a_ceiling & mask) == 0) {
+      // Power of two.
+      // -------------
+      return (int) ( (a_ceiling * (long) bits) >> 31);
+    }
+    // Reject values from the incomplete last interval to avoid bias.
+    // --------------------------------------------------------------
+    int result = bits % a_ceiling;
+    while (bits - result + mask < 0) {
+      bits = nextInt() >>> 1;
+      result = bits % a_ceiling;
+    }
+    return result;
+  }
+
+  public double nextDouble() {
+    return (nextLong() >>> 11) * 0x1.0p-53;
+  }
+
+  public float nextFloat() {
+    return (nextInt() >>> 8) * 0x1.0p-24f;
+  }
+
+  public boolean nextBoolean() {
+    return nextLong() < 0;
+  }
+
+  /**
+   * @return copy of this generator continuing with the same sequence. Use
+   * split() or stream(long) to obtain an independent generator
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public Object clone() {
+    SplittableRandomGenerator result = new SplittableRandomGenerator(m_seed);
+    result.m_state0 = m_state0;
+    result.m_state1 = m_state1;
+    return result;
+  }
+
+  /**
+   * @param a_other sic
+   * @return as always
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public int compareTo(Object a_other) {
+    if (a_other.getClass().equals(getClass())) {
+      return 0;
+    }
+    else {
+      return getClass().getName().compareTo(a_other.getClass().getName());
+    }
+  }
+
+  /**
+   * SplitMix64 finalizer, a bijection scrambling the bits of the given value.
+   *
+   * @param a_value the value to scramble
+   * @return scrambled value
+   */
+  private static long mix64(long a_value) {
+    long z = a_value;
+    z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+    z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+    return z ^ (z >>> 31);
+  }
+
+  /**
+   * Generator delegating to a child stream per thread.
+   *
+   * @author agent
+   * @since 3.7
+   */
+  private static class PerThread
+      implements RandomGenerator {
+    private final SplittableRandomGenerator m_master;
+
+    /**
+     * Index of the stream for the next thread.
+     */
+    private final AtomicLong m_nextIndex;
+
+    private transient ThreadLocal<SplittableRandomGenerator> m_streams;
+
+    PerThread(SplittableRandomGenerator a_master) {
+      m_master = a_master;
+      m_nextIndex = new AtomicLong();
+      init();
+    }
+
+    private void init() {
+      m_streams = new ThreadLocal<SplittableRandomGenerator>() {
+        protected SplittableRandomGenerator initialValue() {
+          return m_master.stream(m_nextIndex.getAndIncrement());
+        }
+      };
+    }
+
+    private void readObject(ObjectInputStream a_inputStream)
+        throws IOException, ClassNotFoundException {
+      a_inputStream.defaultReadObject();
+      init();
+    }
+
+    private SplittableRandomGenerator current() {
+      return m_streams.get();
+    }
+
+    public int nextInt() {
+      return current().nextInt();
+    }
+
+    public int nextInt(int a_ceiling) {
+      return current().nextInt(a_ceiling);
+    }
+
+    public long nextLong() {
+      return current().nextLong();
+    }
+
+    public double nextDouble() {
+      return current().nextDouble();
+    }
+
+    public float nextFloat() {
+      return current().nextFloat();
+    }
+
+    public boolean nextBoolean() {
+      return current().nextBoolean();
+    }
+  }
+}
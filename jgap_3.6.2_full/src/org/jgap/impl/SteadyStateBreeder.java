@@ -0,0 +1,618 @@
+/*
+ * This file is part of JGAP.
+ *
+ * JGAP offers a dual license model containing the LGPL as well as the MPL.
+ *
+ * For licensing information please see the file license.txt included with JGAP
+ * or have a look at the top of class org.jgap.Chromosome which representatively
+ * includes the JGAP license policy applicable for any file delivered with JGAP.
+ */
+package org.jgap.impl;
+
+import java.util.*;
+import java.util.concurrent.*;
+import org.jgap.*;
+import org.jgap.audit.*;
+import org.jgap.event.*;
+
+/**
+ * Breeder running an asynchronous steady-state evolution. A fixed number of
+ * fitness evaluations is kept in flight on an ExecutorService. Each time an
+ * evaluation finishes, the evaluated chromosome replaces a member of the
+ * population and a new candidate is bred and submitted immediately. Thus
+ * slow evaluations do not hold back the others, as there is no barrier at
+ * the end of a generation.
+ * <p>
+ * A call to evolve(Population, Configuration) counts as one generation and
+ * returns after as many evaluations have been inserted as the configured
+ * population size. Evaluations still in flight at that point keep running
+ * and are inserted during the next call. The population size stays
+ * constant.
+ * <p>
+ * The member to be replaced is either the least fit member of the population
+ * (replace-worst) or the least fit member of a tournament of randomly chosen
+ * members. With replace-worst, a candidate less fit than the least fit
+ * member is discarded. If the fittest individual is to be preserved (see
+ * Configuration.isPreserveFittestIndividual()), it is never replaced.
+ * Replaced members and discarded candidates are cleaned up, returning them
+ * to the chromosome pool if one is configured. The members are kept in a
+ * heap ordered by fitness, so an insertion takes logarithmic time.
+ * <p>
+ * An active monitor (see Configuration.getMonitor()) receives the events
+ * GABreeder fires. Each replacement is reported by an event
+ * MONITOR_EVENT_REMOVE_CHROMOSOME for the replaced member followed by an
+ * event MONITOR_EVENT_BEFORE_ADD_CHROMOSOME for the candidate.
+ * <p>
+ * New candidates are created by applying the configured genetic operators
+ * to a mating pool chosen by binary tournaments from the current population.
+ * The offspring is queued and submitted one by one, a new mating pool is
+ * chosen as soon as the queue runs empty. Configured natural selectors are
+ * not used.
+ * <p>
+ * Evaluations are only run concurrently if the fitness function implements
+ * IConcurrentFitnessFunction, otherwise they are performed one after another
+ * within the calling thread. Bulk fitness functions are not supported.
+ *
+ * @author agent
+ * @since 3.7
+ */
+public class SteadyStateBreeder
+    extends BreederBase {
+  /** String containing the CVS revision. Read out via reflection!*/
+  private final static String CVS_REVISION = "$Revision: 1.1 $";
+
+  private transient ExecutorService m_executor;
+
+  private int m_evaluations;
+
+  private int m_replacementTournamentSize;
+
+  private int m_matingPoolSize;
+
+  private transient Configuration m_lastConf;
+
+  private transient Population m_lastPop;
+
+  private transient CompletionService<EvaluationTask> m_completion;
+
+  private transient int m_pending;
+
+  private transient LinkedList<IChromosome> m_offspring;
+
+  /**
+   * Population the members of which are ordered by m_leastFit and
+   * m_fittest.
+   */
+  private transient Population m_rankedPop;
+
+  /**
+   * Indices of the members of m_rankedPop, least fit first. Only used for
+   * replace-worst.
+   */
+  private transient PriorityQueue<Integer> m_leastFit;
+
+  /**
+   * Index of the fittest member of m_rankedPop.
+   */
+  private transient int m_fittest;
+
+  /**
+   * Keeps one evaluation per available processor in flight on a newly
+   * created thread pool and replaces the least fit member of the population.
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public SteadyStateBreeder() {
+    this(null, 0, 0, 0);
+  }
+
+  /**
+   * @param a_executor the executor to run the evaluations with, null: create
+   * a pool of daemon threads when needed, see ParallelFitnessEvaluation.
+   * createDefaultExecutor(int)
+   * @param a_evaluations number of evaluations to keep in flight. Zero or
+   * below: use the number of available processors
+   * @param a_replacementTournamentSize number of members competing for being
+   * replaced. Below two: replace the least fit member of the population
+   * @param a_matingPoolSize number of parents to apply the genetic operators
+   * to at once. Zero or below: use the configured population size, which
+   * keeps the rates of the operators meaningful
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public SteadyStateBreeder(ExecutorService a_executor, int a_evaluations,
+                            int a_replacementTournamentSize,
+                            int a_matingPoolSize) {
+    super();
+    m_executor = a_executor;
+    if (a_evaluations <= 0) {
+      m_evaluations = Runtime.getRuntime().availableProcessors();
+    }
+    else {
+      m_evaluations = a_evaluations;
+    }
+    m_replacementTournamentSize = a_replacementTournamentSize;
+    m_matingPoolSize = a_matingPoolSize;
+  }
+
+  /**
+   * Evolves the population by inserting as many evaluated candidates as the
+   * configured population size.
+   *
+   * @param a_pop the population to evolve
+   * @param a_conf the configuration to use for evolution
+   *
+   * @return evolved population
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public Population evolve(Population a_pop, Configuration a_conf) {
+    if (a_conf.getBulkFitnessFunction() != null) {
+      throw new IllegalStateException("Bulk fitness functions are not"
+                                      + " supported by SteadyStateBreeder");
+    }
+    if (a_conf != m_lastConf) {
+      // Evaluations started with another configuration are dropped.
+      // -----------------------------------------------------------
+      reset();
+    }
+    m_lastConf = a_conf;
+    Population pop = a_pop;
+    boolean monitorActive = a_conf.getMonitor() != null;
+    // If first generation: Set age to one to allow genetic operations,
+    // see CrossoverOperator for an illustration.
+    // ----------------------------------------------------------------
+    if (a_conf.getGenerationNr() == 0) {
+      int size = pop.size();
+      for (int i = 0; i < size; i++) {
+        pop.getChromosome(i).increaseAge();
+      }
+    }
+    // Ensure fitness value of all chromosomes is udpated.
+    // ---------------------------------------------------
+    if (monitorActive) {
+      a_conf.getMonitor().event(
+          IEvolutionMonitor.MONITOR_EVENT_BEFORE_UPDATE_CHROMOSOMES1,
+          a_conf.getGenerationNr(), new Object[] {pop});
+    }
+    updateChromosomes(pop, a_conf);
+    if (monitorActive) {
+      a_conf.getMonitor().event(
+          IEvolutionMonitor.MONITOR_EVENT_AFTER_UPDATE_CHROMOSOMES1,
+          a_conf.getGenerationNr(), new Object[] {pop});
+    }
+    // Breed and evaluate candidates, one batch per generation.
+    // --------------------------------------------------------
+    if (monitorActive) {
+      a_conf.getMonitor().event(
+          IEvolutionMonitor.MONITOR_EVENT_BEFORE_UPDATE_CHROMOSOMES2,
+          a_conf.getGenerationNr(), new Object[] {pop});
+    }
+    // Members may have been changed since the last generation.
+    // --------------------------------------------------------
+    m_rankedPop = null;
+    int batch = a_conf.getPopulationSize();
+    if (a_conf.getFitnessFunction() instanceof IConcurrentFitnessFunction
+        && m_evaluations > 1) {
+      evaluateConcurrently(pop, a_conf, batch);
+    }
+    else {
+      for (int i = 0; i < batch; i++) {
+        IChromosome candidate = breed(pop, a_conf);
+        candidate.getFitnessValue();
+        insert(pop, a_conf, candidate);
+      }
+    }
+    // Survivors and newborns may take part in crossing over from now on.
+    // ------------------------------------------------------------------
+    int size = pop.size();
+    for (int i = 0; i < size; i++) {
+      pop.getChromosome(i).increaseAge();
+    }
+    if (monitorActive) {
+      a_conf.getMonitor().event(
+          IEvolutionMonitor.MONITOR_EVENT_AFTER_UPDATE_CHROMOSOMES2,
+          a_conf.getGenerationNr(), new Object[] {pop});
+    }
+    // Increase number of generations.
+    // -------------------------------
+    a_conf.incrementGenerationNr();
+    // Fire an event to indicate we've performed an evolution.
+    // -------------------------------------------------------
+    m_lastPop = pop;
+    a_conf.getEventManager().fireGeneticEvent(
+        new GeneticEvent(GeneticEvent.GENOTYPE_EVOLVED_EVENT, this));
+    return pop;
+  }
+
+  /**
+   * Keeps the configured number of evaluations in flight until the given
+   * number of them has finished and has been inserted into the population.
+   *
+   * @param a_pop the population to insert into
+   * @param a_conf the configuration to use
+   * @param a_batch number of evaluations to insert
+   *
+   * @author agent
+   * @since 3.7
+   */
+  protected void evaluateConcurrently(Population a_pop, Configuration a_conf,
+                                      int a_batch) {
+    if (m_completion == null) {
+      if (m_executor == null) {
+        m_executor = ParallelFitnessEvaluation.createDefaultExecutor(
+            m_evaluations);
+      }
+      m_completion = new ExecutorCompletionService<EvaluationTask>(m_executor);
+    }
+    IConcurrentFitnessFunction func = (IConcurrentFitnessFunction) a_conf.
+        getFitnessFunction();
+    // Each evaluation slot owns a fitness function instance, which is handed
+    // on to the next evaluation started in that slot.
+    // ----------------------------------------------------------------------
+    while (m_pending < m_evaluations) {
+      FitnessFunction slotFunc;
+      if (func.isThreadSafe()) {
+        slotFunc = (FitnessFunction) func;
+      }
+      else {
+        slotFunc = (FitnessFunction) func.newWorkerInstance();
+      }
+      submit(new EvaluationTask(slotFunc, breed(a_pop, a_conf)));
+    }
+    for (int i = 0; i < a_batch; i++) {
+      EvaluationTask task;
+      try {
+        task = m_completion.take().get();
+      } catch (InterruptedException iex) {
+        reset();
+        Thread.currentThread().interrupt();
+        throw new RuntimeException("Fitness evaluation interrupted", iex);
+      } catch (ExecutionException eex) {
+        reset();
+        Throwable cause = eex.getCause();
+        if (cause instanceof RuntimeException) {
+          throw (RuntimeException) cause;
+        }
+        throw new RuntimeException(cause);
+      }
+      m_pending--;
+      task.m_chrom.setFitnessValueDirectly(task.m_result);
+      insert(a_pop, a_conf, task.m_chrom);
+      submit(new EvaluationTask(task.m_func, breed(a_pop, a_conf)));
+    }
+  }
+
+  private void submit(EvaluationTask a_task) {
+    m_completion.submit(a_task);
+    m_pending++;
+  }
+
+  /**
+   * Forgets about evaluations in flight and queued offspring. Evaluations
+   * already started run to their end, their results are ignored.
+   *
+   * @author agent
+   * @since 3.7
+   */
+  protected void reset() {
+    m_completion = null;
+    m_pending = 0;
+    m_offspring = null;
+    m_rankedPop = null;
+  }
+
+  /**
+   * Takes the next candidate from the queue of offspring. If the queue is
+   * empty, the genetic operators are applied to a new mating pool first.
+   *
+   * @param a_pop the population to choose parents from
+   * @param a_conf the configuration to use
+   * @return new chromosome without fitness value
+   *
+   * @author agent
+   * @since 3.7
+   */
+  protected IChromosome breed(Population a_pop, Configuration a_conf) {
+    if (m_offspring == null) {
+      m_offspring = new LinkedList<IChromosome>();
+    }
+    if (m_offspring.isEmpty()) {
+      int poolSize = m_matingPoolSize;
+      if (poolSize <= 0) {
+        poolSize = a_conf.getPopulationSize();
+      }
+      Population pool;
+      try {
+        pool = new Population(a_conf, poolSize);
+      } catch (InvalidConfigurationException iex) {
+        throw new RuntimeException(iex);
+      }
+      for (int i = 0; i < poolSize; i++) {
+        pool.addChromosome(selectParent(a_pop, a_conf));
+      }
+      applyGeneticOperators(a_conf, pool);
+      int size = pool.size();
+      for (int i = poolSize; i < size; i++) {
+        m_offspring.add(pool.getChromosome(i));
+      }
+      if (m_offspring.isEmpty()) {
+        // The operators did not produce anything: continue with a random
+        // chromosome to keep the evaluations going.
+        // --------------------------------------------------------------
+        m_offspring.add(createRandomChromosome(a_conf));
+      }
+    }
+    IChromosome candidate = m_offspring.removeFirst();
+    candidate.setFitnessValueDirectly(FitnessFunction.NO_FITNESS_VALUE);
+    // Mark chromosome as new-born.
+    // ----------------------------
+    candidate.resetAge();
+    candidate.increaseOperatedOn();
+    return candidate;
+  }
+
+  /**
+   * Chooses the fitter one of two randomly chosen members of the population.
+   *
+   * @param a_pop the population to choose from
+   * @param a_conf the configuration to use
+   * @return the chosen parent
+   *
+   * @author agent
+   * @since 3.7
+   */
+  protected IChromosome selectParent(Population a_pop, Configuration a_conf) {
+    RandomGenerator generator = a_conf.getRandomGenerator();
+    IChromosome chrom1 = a_pop.getChromosome(generator.nextInt(a_pop.size()));
+    IChromosome chrom2 = a_pop.getChromosome(generator.nextInt(a_pop.size()));
+    if (a_conf.getFitnessEvaluator().isFitter(chrom2, chrom1)) {
+      return chrom2;
+    }
+    return chrom1;
+  }
+
+  /**
+   * Replaces a member of the population with the given evaluated candidate,
+   * unless the candidate is less fit than the least fit member
+   * (replace-worst) or would replace the preserved fittest individual.
+   *
+   * @param a_pop the population to insert into
+   * @param a_conf the configuration to use
+   * @param a_candidate the evaluated candidate
+   *
+   * @author agent
+   * @since 3.7
+   */
+  protected void insert(Population a_pop, Configuration a_conf,
+                        IChromosome a_candidate) {
+    FitnessEvaluator evaluator = a_conf.getFitnessEvaluator();
+    rank(a_pop, evaluator);
+    int size = a_pop.size();
+    int target;
+    if (m_leastFit != null) {
+      target = m_leastFit.peek().intValue();
+      if (evaluator.isFitter(a_pop.getChromosome(target), a_candidate)) {
+        a_candidate.cleanup();
+        return;
+      }
+      m_leastFit.poll();
+    }
+    else {
+      RandomGenerator generator = a_conf.getRandomGenerator();
+      target = generator.nextInt(size);
+      for (int i = 1; i < m_replacementTournamentSize; i++) {
+        int index = generator.nextInt(size);
+        if (evaluator.isFitter(a_pop.getChromosome(target),
+                               a_pop.getChromosome(index))) {
+          target = index;
+        }
+      }
+      // Members as fit as the fittest one are preserved, too.
+      // -----------------------------------------------------
+      if (a_conf.isPreserveFittestIndividual()
+          && !evaluator.isFitter(a_pop.getChromosome(m_fittest),
+                                 a_pop.getChromosome(target))) {
+        a_candidate.cleanup();
+        return;
+      }
+    }
+    IChromosome replaced = a_pop.getChromosome(target);
+    IEvolutionMonitor monitor = a_conf.getMonitor();
+    if (monitor != null) {
+      int genNr = a_conf.getGenerationNr();
+      monitor.event(IEvolutionMonitor.MONITOR_EVENT_REMOVE_CHROMOSOME,
+                    genNr, new Object[] {a_pop, new Integer(target)});
+      monitor.event(IEvolutionMonitor.MONITOR_EVENT_BEFORE_ADD_CHROMOSOME,
+                    genNr, new Object[] {a_pop, a_candidate});
+    }
+    a_pop.setChromosome(target, a_candidate);
+    if (m_leastFit != null) {
+      m_leastFit.add(new Integer(target));
+    }
+    if (target == m_fittest && m_leastFit == null) {
+      // The fittest member has been replaced by a tournament, the new
+      // fittest one is unknown.
+      // -------------------------------------------------------------
+      m_rankedPop = null;
+    }
+    else if (evaluator.isFitter(a_candidate,
+                                a_pop.getChromosome(m_fittest))) {
+      m_fittest = target;
+    }
+    replaced.cleanup();
+  }
+
+  /**
+   * Orders the members of the given population by fitness, unless they
+   * already are. The order is kept up to date by insert(Population,
+   * Configuration, IChromosome), so the population must not be changed
+   * otherwise in between.
+   *
+   * @param a_pop the population to order
+   * @param a_evaluator the evaluator to compare the members with
+   *
+   * @author agent
+   * @since 3.7
+   */
+  protected void rank(Population a_pop, FitnessEvaluator a_evaluator) {
+    int size = a_pop.size();
+    if (a_pop == m_rankedPop
+        && (m_leastFit == null || m_leastFit.size() == size)) {
+      return;
+    }
+    m_fittest = 0;
+    for (int i = 1; i < size; i++) {
+      if (a_evaluator.isFitter(a_pop.getChromosome(i),
+                               a_pop.getChromosome(m_fittest))) {
+        m_fittest = i;
+      }
+    }
+    if (m_replacementTournamentSize < 2) {
+      m_leastFit = new PriorityQueue<Integer>(Math.max(size, 1),
+          new LeastFitFirst(a_pop, a_evaluator));
+      for (int i = 0; i < size; i++) {
+        m_leastFit.add(new Integer(i));
+      }
+    }
+    else {
+      m_leastFit = null;
+    }
+    m_rankedPop = a_pop;
+  }
+
+  private IChromosome createRandomChromosome(Configuration a_conf) {
+    IChromosome sampleChrom = a_conf.getSampleChromosome();
+    Class sampleChromClass = sampleChrom.getClass();
+    try {
+      IInitializer chromIniter = a_conf.getJGAPFactory().
+          getInitializerFor(sampleChrom, sampleChromClass);
+      return (IChromosome) chromIniter.perform(sampleChrom, sampleChromClass,
+          null);
+    } catch (Exception ex) {
+      throw new RuntimeException(ex);
+    }
+  }
+
+  protected void updateChromosomes(Population a_pop, Configuration a_conf) {
+    ExecutorService executor = a_conf.getFitnessExecutor();
+    if (executor != null && !a_conf.isAlwaysCalculateFitness()) {
+      new ParallelFitnessEvaluation(executor,
+                                    a_conf.getFitnessParallelism()).
+          evaluate(a_conf, a_pop.getChromosomes());
+    }
+    int size = a_pop.size();
+    for (int i = 0; i < size; i++) {
+      a_pop.getChromosome(i).getFitnessValue();
+    }
+  }
+
+  public Configuration getLastConfiguration() {
+    return m_lastConf;
+  }
+
+  public Population getLastPopulation() {
+    return m_lastPop;
+  }
+
+  /**
+   * @return number of evaluations kept in flight
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public int getEvaluations() {
+    return m_evaluations;
+  }
+
+  /**
+   * @return number of evaluations currently in flight
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public int getPendingEvaluations() {
+    return m_pending;
+  }
+
+  public int getReplacementTournamentSize() {
+    return m_replacementTournamentSize;
+  }
+
+  public int getMatingPoolSize() {
+    return m_matingPoolSize;
+  }
+
+  /**
+   * @return deep clone of this instance, sharing the executor but not the
+   * evaluations in flight
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public Object clone() {
+    return new SteadyStateBreeder(m_executor, m_evaluations,
+                                  m_replacementTournamentSize,
+                                  m_matingPoolSize);
+  }
+
+  /**
+   * Orders indices of population members by the fitness of the members,
+   * least fit first.
+   *
+   * @author agent
+   * @since 3.7
+   */
+  private static class LeastFitFirst
+      implements Comparator<Integer> {
+    private Population m_pop;
+
+    private FitnessEvaluator m_evaluator;
+
+    LeastFitFirst(Population a_pop, FitnessEvaluator a_evaluator) {
+      m_pop = a_pop;
+      m_evaluator = a_evaluator;
+    }
+
+    public int compare(Integer a_first, Integer a_second) {
+      IChromosome chrom1 = m_pop.getChromosome(a_first.intValue());
+      IChromosome chrom2 = m_pop.getChromosome(a_second.intValue());
+      if (m_evaluator.isFitter(chrom1, chrom2)) {
+        return 1;
+      }
+      if (m_evaluator.isFitter(chrom2, chrom1)) {
+        return -1;
+      }
+      return 0;
+    }
+  }
+
+  /**
+   * Evaluates a single chromosome with a fitness function owned by the
+   * task's evaluation slot.
+   *
+   * @author agent
+   * @since 3.7
+   */
+  private static class EvaluationTask
+      implements Callable<EvaluationTask> {
+    private FitnessFunction m_func;
+
+    private IChromosome m_chrom;
+
+    private double m_result;
+
+    EvaluationTask(FitnessFunction a_func, IChromosome a_chrom) {
+      m_func = a_func;
+      m_chrom = a_chrom;
+    }
+
+    public EvaluationTask call() {
+      m_result = m_func.getFitnessValue(m_chrom);
+      return this;
+    }
+  }
+}
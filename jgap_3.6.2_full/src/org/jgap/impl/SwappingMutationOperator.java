@@ -116,6 +116,27 @@ public class SwappingMutationOperator
    */
   public void operate(final Population a_population,
                       List a_candidateChromosomes) {
+    operate(a_population, 0, 1, getConfiguration().getRandomGenerator(),
+            a_candidateChromosomes);
+  }
+
+  /**
+   * Mutates the chromosomes within the index range of the population given
+   * by the partition.
+   *
+   * @param a_population the population of chromosomes to operate on
+   * @param a_partition number of the partition to perform
+   * @param a_partitions number of partitions the operation is split into
+   * @param a_generator the generator to draw random numbers from
+   * @param a_candidateChromosomes the list to add mutated chromosomes to
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public void operate(final Population a_population, final int a_partition,
+                      final int a_partitions,
+                      final RandomGenerator a_generator,
+                      final List a_candidateChromosomes) {
     // this was a private variable, now it is local reference.
     final IUniversalRateCalculator m_mutationRateCalc = getMutationRateCalc();
     // If the mutation rate is set to zero and dynamic mutation rate is
@@ -135,13 +156,15 @@ public class SwappingMutationOperator
     else {
       currentRate = getMutationRate();
     }
-    RandomGenerator generator = getConfiguration().getRandomGenerator();
+    RandomGenerator generator = a_generator;
     // It would be inefficient to create copies of each Chromosome just
     // to decide whether to mutate them. Instead, we only make a copy
     // once we've positively decided to perform a mutation.
     // ----------------------------------------------------------------
     int size = a_population.size();
-    for (int i = 0; i < size; i++) {
+    int end = partitionStart(size, a_partition + 1, a_partitions);
+    for (int i = partitionStart(size, a_partition, a_partitions);
+         i < end; i++) {
       IChromosome x = a_population.getChromosome(i);
       // This returns null if not mutated:
       IChromosome xm = operate(x, currentRate, generator);
@@ -165,6 +188,7 @@ public class SwappingMutationOperator
   protected IChromosome operate(final IChromosome a_chrom, final int a_rate,
                                 final RandomGenerator a_generator) {
     IChromosome chromosome = null;
+    FitnessDelta delta = null;
     // ----------------------------------------
     for (int j = m_startOffset; j < a_chrom.size(); j++) {
       // Ensure probability of 1/currentRate for applying mutation.
@@ -177,9 +201,19 @@ public class SwappingMutationOperator
           if (m_monitorActive) {
             chromosome.setUniqueIDTemplate(a_chrom.getUniqueID(), 1);
           }
+          // Support incremental fitness evaluation.
+          // ---------------------------------------
+          delta = trackFitnessDelta(a_chrom, chromosome);
         }
         Gene[] genes = chromosome.getGenes();
+        Gene target = genes[j];
         Gene[] mutated = operate(a_generator, j, genes);
+        if (delta != null && !recordSwap(delta, j, target, mutated)) {
+          // Not a plain swap, e.g. by a subclass: evaluate from scratch.
+          // ------------------------------------------------------------
+          delta = null;
+          ( (Chromosome) chromosome).setFitnessDelta(null);
+        }
         // setGenes is not required for this operator, but it may
         // be needed for the derived operators.
         // ------------------------------------------------------
@@ -194,10 +228,47 @@ public class SwappingMutationOperator
     return chromosome;
   }
 
+  /**
+   * Records a swap of genes for incremental fitness evaluation. The partner
+   * of the swap is the locus the target gene has been moved to.
+   *
+   * @param a_delta the delta to record the changes with
+   * @param a_target_gene index of the gene swapped
+   * @param a_target the gene at the target index before swapping
+   * @param a_genes the genes after swapping
+   * @return false: the genes have not been swapped as expected, so the
+   * changes could not be recorded
+   *
+   * @author agent
+   * @since 3.7
+   */
+  private boolean recordSwap(FitnessDelta a_delta, int a_target_gene,
+                             Gene a_target, Gene[] a_genes) {
+    Gene partner = a_genes[a_target_gene];
+    if (partner == a_target) {
+      // Swapped with itself.
+      // --------------------
+      return true;
+    }
+    for (int i = 0; i < a_genes.length; i++) {
+      if (a_genes[i] == a_target) {
+        // The alleles moved with the genes, so the old allele of each locus
+        // is the one of the gene now at the other locus.
+        // -----------------------------------------------------------------
+        a_delta.recordChange(a_target_gene, a_target.getAllele());
+        a_delta.recordChange(i, partner.getAllele());
+        return true;
+      }
+    }
+    return false;
+  }
+
   /**
    * Operate on the given array of genes. This method is only called
    * when it is already clear that the mutation must occur under the given
-   * mutation rate.
+   * mutation rate. Overriding methods should only rearrange the genes,
+   * otherwise incremental fitness evaluation (see IIncrementalFitnessFunction)
+   * is not reliable.
    *
    * @param a_generator a random number generator that may be needed to
    * perform a mutation
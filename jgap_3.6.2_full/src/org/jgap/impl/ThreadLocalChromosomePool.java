@@ -0,0 +1,420 @@
+/*
+ * This file is part of JGAP.
+ *
+ * JGAP offers a dual license model containing the LGPL as well as the MPL.
+ *
+ * For licensing information please see the file license.txt included with JGAP
+ * or have a look at the top of class org.jgap.Chromosome which representatively
+ * includes the JGAP license policy applicable for any file delivered with JGAP.
+ */
+package org.jgap.impl;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+import org.jgap.*;
+
+/**
+ * Chromosome pool for chromosomes cloned and released by several threads
+ * (e.g. with concurrent fitness evaluation or island runs). In contrast to
+ * ChromosomePool, no method is synchronized: each thread has a small cache
+ * of its own, chromosomes not fitting into it go to a lock-free queue shared
+ * by all threads. A thread with an empty cache takes chromosomes from the
+ * shared queue.
+ * <p>
+ * The capacity of both the caches and the shared queue is bounded.
+ * Chromosomes released to a full pool are dropped and left to the garbage
+ * collector.
+ * <p>
+ * The pool counts acquisitions, hits, releases and drops per thread. The
+ * counters of terminated threads are added up as soon as another thread
+ * starts using the pool. The sums returned by the getters are not
+ * synchronized with running threads and are therefore only approximate
+ * while the pool is in use. Chromosomes acquired but not usable by the
+ * caller (e.g. of another size) should be handed back via
+ * rejectChromosome(IChromosome), so that they are not counted as hits.
+ *
+ * @author agent
+ * @since 3.7
+ */
+public class ThreadLocalChromosomePool
+    implements IChromosomePool {
+  /** String containing the CVS revision. Read out via reflection!*/
+  private final static String CVS_REVISION = "$Revision: 1.1 $";
+
+  /**
+   * Default number of chromosomes cached per thread.
+   */
+  public final static int DEFAULT_LOCAL_CAPACITY = 64;
+
+  /**
+   * Default number of chromosomes in the shared queue.
+   */
+  public final static int DEFAULT_SHARED_CAPACITY = 4096;
+
+  private int m_localCapacity;
+
+  private int m_sharedCapacity;
+
+  private ThreadLocal<LocalCache> m_local;
+
+  private ConcurrentLinkedQueue<IChromosome> m_shared;
+
+  /**
+   * Number of chromosomes in the shared queue (the size() method of the
+   * queue is not constant time).
+   */
+  private AtomicInteger m_sharedSize;
+
+  /**
+   * Counters of the threads having used the pool, except for terminated
+   * threads already folded into m_finished.
+   */
+  private ConcurrentLinkedQueue<Counters> m_counters;
+
+  /**
+   * Sums of the counters of terminated threads. Written while synchronized
+   * on it.
+   */
+  private Counters m_finished;
+
+  /**
+   * Constructor using the default capacities.
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public ThreadLocalChromosomePool() {
+    this(DEFAULT_LOCAL_CAPACITY, DEFAULT_SHARED_CAPACITY);
+  }
+
+  /**
+   * @param a_localCapacity number of chromosomes cached per thread
+   * @param a_sharedCapacity number of chromosomes in the queue shared by all
+   * threads
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public ThreadLocalChromosomePool(int a_localCapacity, int a_sharedCapacity) {
+    if (a_localCapacity < 0 || a_sharedCapacity < 0) {
+      throw new IllegalArgumentException("Capacities must not be negative!");
+    }
+    m_localCapacity = a_localCapacity;
+    m_sharedCapacity = a_sharedCapacity;
+    m_shared = new ConcurrentLinkedQueue<IChromosome>();
+    m_sharedSize = new AtomicInteger();
+    m_counters = new ConcurrentLinkedQueue<Counters>();
+    m_finished = new Counters();
+    m_local = new ThreadLocal<LocalCache>() {
+      protected LocalCache initialValue() {
+        foldFinishedThreads();
+        LocalCache cache = new LocalCache(m_localCapacity);
+        m_counters.add(cache.m_counters);
+        return cache;
+      }
+    };
+  }
+
+  /**
+   * Adds the counters of terminated threads to the sums and forgets them,
+   * so that short-lived threads do not let the list of counters grow. Called
+   * whenever a thread uses the pool for the first time.
+   *
+   * @author agent
+   * @since 3.7
+   */
+  private void foldFinishedThreads() {
+    Iterator<Counters> it = m_counters.iterator();
+    while (it.hasNext()) {
+      Counters counters = it.next();
+      // A terminated thread does not change its counters anymore. Only the
+      // thread succeeding in removing them adds them to the sums.
+      // ------------------------------------------------------------------
+      if (!counters.m_thread.isAlive() && m_counters.remove(counters)) {
+        synchronized (m_finished) {
+          m_finished.m_acquired += counters.m_acquired;
+          m_finished.m_hits += counters.m_hits;
+          m_finished.m_released += counters.m_released;
+          m_finished.m_dropped += counters.m_dropped;
+        }
+      }
+    }
+  }
+
+  /**
+   * Attempts to acquire a Chromosome instance from the pool, first from the
+   * cache of the current thread, then from the shared queue. Nothing is
+   * guaranteed about the value of the Chromosome's genes.
+   *
+   * @return a Chromosome instance from the pool or null if no Chromosome
+   * instances are available in the pool
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public IChromosome acquireChromosome() {
+    LocalCache cache = m_local.get();
+    cache.m_counters.m_acquired++;
+    IChromosome result = cache.pop();
+    if (result == null) {
+      result = m_shared.poll();
+      if (result != null) {
+        m_sharedSize.decrementAndGet();
+      }
+    }
+    if (result != null) {
+      cache.m_counters.m_hits++;
+    }
+    return result;
+  }
+
+  /**
+   * Releases a Chromosome to the pool after cleaning up its genes and
+   * resetting its age. It's not required that the Chromosome originated from
+   * the pool.
+   *
+   * @param a_chromosome the Chromosome instance to be released into the pool
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public void releaseChromosome(final IChromosome a_chromosome) {
+    if (a_chromosome == null) {
+      throw new IllegalArgumentException(
+          "Chromosome instance must not be null!");
+    }
+    LocalCache cache = m_local.get();
+    cache.m_counters.m_released++;
+    Gene[] genes = a_chromosome.getGenes();
+    int size = a_chromosome.size();
+    for (int i = 0; i < size; i++) {
+      genes[i].cleanup();
+    }
+    a_chromosome.resetAge();
+    a_chromosome.resetOperatedOn();
+    if (cache.push(a_chromosome)) {
+      return;
+    }
+    // Cache full: hand over to the other threads if there is room.
+    // ------------------------------------------------------------
+    if (m_sharedSize.incrementAndGet() <= m_sharedCapacity) {
+      m_shared.offer(a_chromosome);
+    }
+    else {
+      m_sharedSize.decrementAndGet();
+      cache.m_counters.m_dropped++;
+    }
+  }
+
+  /**
+   * Hands back a chromosome just acquired by the current thread which the
+   * caller could not use. The acquisition is no longer counted as a hit. The
+   * chromosome is appended to the shared queue, not to the cache of the
+   * current thread, so that the next acquisition does not return it again.
+   * If the shared queue is full, it is dropped.
+   *
+   * @param a_chromosome the chromosome acquired from this pool
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public void rejectChromosome(final IChromosome a_chromosome) {
+    if (a_chromosome == null) {
+      throw new IllegalArgumentException(
+          "Chromosome instance must not be null!");
+    }
+    LocalCache cache = m_local.get();
+    cache.m_counters.m_hits--;
+    if (m_sharedSize.incrementAndGet() <= m_sharedCapacity) {
+      m_shared.offer(a_chromosome);
+    }
+    else {
+      m_sharedSize.decrementAndGet();
+      cache.m_counters.m_dropped++;
+    }
+  }
+
+  /**
+   * Removes all chromosomes from the shared queue and the cache of the
+   * current thread. The caches of other threads are not affected.
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public void clear() {
+    m_local.get().clear();
+    while (m_shared.poll() != null) {
+      m_sharedSize.decrementAndGet();
+    }
+  }
+
+  /**
+   * @return number of calls to acquireChromosome
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public long getAcquireCount() {
+    long result = m_finished.m_acquired;
+    for (Counters counters : m_counters) {
+      result += counters.m_acquired;
+    }
+    return result;
+  }
+
+  /**
+   * @return number of calls to acquireChromosome returning a chromosome
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public long getHitCount() {
+    long result = m_finished.m_hits;
+    for (Counters counters : m_counters) {
+      result += counters.m_hits;
+    }
+    return result;
+  }
+
+  /**
+   * @return number of calls to releaseChromosome
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public long getReleaseCount() {
+    long result = m_finished.m_released;
+    for (Counters counters : m_counters) {
+      result += counters.m_released;
+    }
+    return result;
+  }
+
+  /**
+   * @return number of released chromosomes dropped because the pool was full
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public long getDropCount() {
+    long result = m_finished.m_dropped;
+    for (Counters counters : m_counters) {
+      result += counters.m_dropped;
+    }
+    return result;
+  }
+
+  /**
+   * @return share of acquisitions served by the pool, between 0 and 1. Zero
+   * if nothing has been acquired yet
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public double getReuseRate() {
+    long acquired = getAcquireCount();
+    if (acquired == 0) {
+      return 0.0d;
+    }
+    return (double) getHitCount() / acquired;
+  }
+
+  /**
+   * @return number of chromosomes in the shared queue
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public int getSharedSize() {
+    return m_sharedSize.get();
+  }
+
+  /**
+   * @return number of chromosomes cached per thread
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public int getLocalCapacity() {
+    return m_localCapacity;
+  }
+
+  /**
+   * @return number of chromosomes the queue shared by all threads holds at
+   * most
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public int getSharedCapacity() {
+    return m_sharedCapacity;
+  }
+
+  /**
+   * Statistics of one thread. Only written by that thread.
+   */
+  private static class Counters {
+    /**
+     * The thread owning the counters, null for the sums of terminated
+     * threads.
+     */
+    Thread m_thread;
+
+    volatile long m_acquired;
+
+    volatile long m_hits;
+
+    volatile long m_released;
+
+    volatile long m_dropped;
+
+    Counters() {
+    }
+
+    Counters(Thread a_thread) {
+      m_thread = a_thread;
+    }
+  }
+
+  /**
+   * Chromosomes cached by one thread, used as a stack.
+   */
+  private static class LocalCache {
+    private IChromosome[] m_chromosomes;
+
+    private int m_count;
+
+    /**
+     * Held separately so that the statistics of a terminated thread do not
+     * keep its chromosomes alive.
+     */
+    Counters m_counters = new Counters(Thread.currentThread());
+
+    LocalCache(int a_capacity) {
+      m_chromosomes = new IChromosome[a_capacity];
+    }
+
+    IChromosome pop() {
+      if (m_count == 0) {
+        return null;
+      }
+      IChromosome result = m_chromosomes[--m_count];
+      m_chromosomes[m_count] = null;
+      return result;
+    }
+
+    boolean push(IChromosome a_chromosome) {
+      if (m_count == m_chromosomes.length) {
+        return false;
+      }
+      m_chromosomes[m_count++] = a_chromosome;
+      return true;
+    }
+
+    void clear() {
+      Arrays.fill(m_chromosomes, 0, m_count, null);
+      m_count = 0;
+    }
+  }
+}
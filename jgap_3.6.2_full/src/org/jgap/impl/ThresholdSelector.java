@@ -11,6 +11,7 @@ package org.jgap.impl;
 
 import java.util.*;
 import org.jgap.*;
+import org.jgap.util.*;
 
 /**
  * Implementation of a NaturalSelector that ensures a certain threshold of the
@@ -34,6 +35,12 @@ public class ThresholdSelector
    */
   private boolean m_needsSorting;
 
+  /**
+   * Number of leading chromosomes of the list of added chromosomes that are
+   * in sorted order
+   */
+  private int m_sortedCount;
+
   /**
    * Comparator that is only concerned about fitness values
    */
@@ -103,28 +110,37 @@ public class ThresholdSelector
     else {
       canBeSelected = a_howManyToSelect;
     }
-    // Sort the collection of chromosomes previously added for evaluation.
-    // Only do this if necessary.
-    // -------------------------------------------------------------------
-    if (m_needsSorting) {
-      Collections.sort(m_chromosomes, m_fitnessValueComparator);
-      m_needsSorting = false;
-    }
     // Select the best chromosomes for granted
     int bestToBeSelected = (int) Math.round(canBeSelected
         * m_config.m_bestChroms_Percentage);
+    int missing = a_howManyToSelect - bestToBeSelected;
+    // Sort the collection of chromosomes previously added for evaluation.
+    // Only do this if necessary, and only for the best ones: the others are
+    // drawn at random, regardless of their order.
+    // ---------------------------------------------------------------------
+    int toSort = bestToBeSelected;
+    if (m_needsSorting || m_sortedCount < toSort) {
+      PartialSelectionKit.sortFirst(m_chromosomes, toSort,
+                                    m_fitnessValueComparator);
+      m_sortedCount = toSort;
+      m_needsSorting = false;
+    }
     for (int i = 0; i < bestToBeSelected; i++) {
       a_to_pop.addChromosome( (IChromosome) m_chromosomes.get(i));
     }
-    // Fill up the rest by randomly selecting chromosomes.
-    // ---------------------------------------------------
+    // Fill up the rest by randomly selecting chromosomes from the unsorted
+    // part, or from all if the best ones are all there are.
+    // ---------------------------------------------------------------------
     /**@todo replace this step by adding newly to create chromosomes*/
-    int missing = a_howManyToSelect - bestToBeSelected;
     RandomGenerator rn = getConfiguration().getRandomGenerator();
     int index;
     int size = m_chromosomes.size();
+    int first = bestToBeSelected;
+    if (first >= size) {
+      first = 0;
+    }
     for (int i = 0; i < missing; i++) {
-      index = rn.nextInt(size);
+      index = first + rn.nextInt(size - first);
       IChromosome chrom = (IChromosome) m_chromosomes.get(index);
       a_to_pop.addChromosome(chrom);
     }
@@ -143,6 +159,7 @@ public class ThresholdSelector
   public void empty() {
     m_chromosomes.clear();
     m_needsSorting = false;
+    m_sortedCount = 0;
   }
 
   /**
@@ -228,9 +228,6 @@ public class TwoWayMutationOperator
           // ...add it to the candidate pool...
           // ----------------------------------
           a_candidateChromosomes.add(copyOfChromosome);
-          // ...then mutate all its genes...
-          // -------------------------------
-          genes = copyOfChromosome.getGenes();
           // In case monitoring is active, support it.
           // -----------------------------------------
           if (m_monitorActive) {
@@ -241,8 +238,9 @@ public class TwoWayMutationOperator
         // would be the length of the string, for an IntegerGene, it is
         // always one element.
         // --------------------------------------------------------------
-        if (genes[geneIndex] instanceof ICompositeGene) {
-          ICompositeGene compositeGene = (ICompositeGene) genes[geneIndex];
+        Gene gene = writableGene(copyOfChromosome, geneIndex);
+        if (gene instanceof ICompositeGene) {
+          ICompositeGene compositeGene = (ICompositeGene) gene;
           if (m_monitorActive) {
             compositeGene.setUniqueIDTemplate(chrom.getGene(geneIndex).
                 getUniqueID(), 1);
@@ -258,9 +256,9 @@ public class TwoWayMutationOperator
           }
         }
         else {
-          mutateGene(genes[geneIndex], generator);
+          mutateGene(gene, generator);
           if (m_monitorActive) {
-            genes[geneIndex].setUniqueIDTemplate(chrom.getGene(geneIndex).
+            gene.setUniqueIDTemplate(chrom.getGene(geneIndex).
                 getUniqueID(), 1);
           }
         }
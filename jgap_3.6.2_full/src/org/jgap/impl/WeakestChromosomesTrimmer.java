@@ -0,0 +1,46 @@
+/*
+ * This file is part of JGAP.
+ *
+ * JGAP offers a dual license model containing the LGPL as well as the MPL.
+ *
+ * For licensing information please see the file license.txt included with JGAP
+ * or have a look at the top of class org.jgap.Chromosome which representatively
+ * includes the JGAP license policy applicable for any file delivered with JGAP.
+ */
+package org.jgap.impl;
+
+import java.util.*;
+import org.jgap.*;
+import org.jgap.util.*;
+
+/**
+ * Removes the chromosomes with the worst fitness values, as judged by the
+ * configured fitness evaluator. The worst chromosomes are determined by
+ * partial selection in expected linear time, the population is not sorted.
+ *
+ * @author agent
+ * @since 3.7
+ */
+public class WeakestChromosomesTrimmer
+    implements IPopulationTrimmer {
+  /** String containing the CVS revision. Read out via reflection!*/
+  private final static String CVS_REVISION = "$Revision: 1.1 $";
+
+  public int[] selectForRemoval(Population a_pop, int a_count) {
+    List<IChromosome> chroms = a_pop.getChromosomes();
+    int size = chroms.size();
+    double[] fitness = new double[size];
+    for (int i = 0; i < size; i++) {
+      fitness[i] = chroms.get(i).getFitnessValue();
+    }
+    // Move the survivors to the front, the rest is to be removed.
+    // -----------------------------------------------------------
+    int[] indices = PartialSelectionKit.identity(size);
+    PartialSelectionKit.selectFittest(fitness, indices, size - a_count,
+        a_pop.getConfiguration().getFitnessEvaluator());
+    int[] result = new int[a_count];
+    System.arraycopy(indices, size - a_count, result, 0, a_count);
+    Arrays.sort(result);
+    return result;
+  }
+}
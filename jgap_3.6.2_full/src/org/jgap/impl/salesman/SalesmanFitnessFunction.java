@@ -15,12 +15,15 @@ import org.jgap.*;
  * The fitness function to solve the Travelling Salesman problem. The function
  * returned by this method calls {@link org.jgap.impl.salesman.Salesman#distance
  * distance(Object from, Object to) }
+ * <p>
+ * Tours changed by a few swaps (see SwappingMutationOperator) are evaluated
+ * incrementally, only considering the edges adjacent to the changed cities.
  *
  * @author Audrius Meskauskas
  * @since 2.0
  */
 public class SalesmanFitnessFunction
-    extends FitnessFunction {
+    extends FitnessFunction implements IIncrementalFitnessFunction {
   /** String containing the CVS revision. Read out via reflection!*/
   private final static String CVS_REVISION = "$Revision: 1.10 $";
 
@@ -51,4 +54,75 @@ public class SalesmanFitnessFunction
     s += m_salesman.distance(genes[genes.length - 1], genes[0]);
     return Integer.MAX_VALUE / 2 - s;
   }
+
+  /**
+   * Updates the distance of the parent's journey by the edges adjacent to
+   * the changed cities.
+   *
+   * @param a_subject chromosome representing cities
+   * @param a_delta the cities changed since the parent
+   * @return distance of the journey thru the cities represented in the
+   * given chromosome, or NO_FITNESS_VALUE if evaluating the whole journey is
+   * cheaper
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public double evaluateIncrementally(final IChromosome a_subject,
+                                      final FitnessDelta a_delta) {
+    Gene[] genes = a_subject.getGenes();
+    int n = genes.length;
+    int changes = a_delta.size();
+    // Each changed city affects two edges, each computed twice.
+    // ---------------------------------------------------------
+    if (4 * changes >= n) {
+      return NO_FITNESS_VALUE;
+    }
+    // Restore the parent's cities at the changed loci.
+    // ------------------------------------------------
+    Gene[] oldGenes = new Gene[changes];
+    for (int i = 0; i < changes; i++) {
+      oldGenes[i] = genes[a_delta.getLocus(i)].newGene();
+      oldGenes[i].setAllele(a_delta.getOldAllele(i));
+    }
+    // Edge e leads from city e to city e + 1 (or back to the first one).
+    // ------------------------------------------------------------------
+    int[] edges = new int[2 * changes];
+    int edgeCount = 0;
+    for (int i = 0; i < changes; i++) {
+      int locus = a_delta.getLocus(i);
+      edgeCount = addEdge(edges, edgeCount, (locus + n - 1) % n);
+      edgeCount = addEdge(edges, edgeCount, locus);
+    }
+    double s = Integer.MAX_VALUE / 2 - a_delta.getParentFitness();
+    for (int i = 0; i < edgeCount; i++) {
+      int from = edges[i];
+      int to = (from + 1) % n;
+      s -= m_salesman.distance(oldGene(genes, oldGenes, a_delta, from),
+                               oldGene(genes, oldGenes, a_delta, to));
+      s += m_salesman.distance(genes[from], genes[to]);
+    }
+    return Integer.MAX_VALUE / 2 - s;
+  }
+
+  private int addEdge(final int[] a_edges, final int a_count,
+                      final int a_edge) {
+    for (int i = 0; i < a_count; i++) {
+      if (a_edges[i] == a_edge) {
+        return a_count;
+      }
+    }
+    a_edges[a_count] = a_edge;
+    return a_count + 1;
+  }
+
+  private Gene oldGene(final Gene[] a_genes, final Gene[] a_oldGenes,
+                       final FitnessDelta a_delta, final int a_locus) {
+    for (int i = 0; i < a_oldGenes.length; i++) {
+      if (a_delta.getLocus(i) == a_locus) {
+        return a_oldGenes[i];
+      }
+    }
+    return a_genes[a_locus];
+  }
 }
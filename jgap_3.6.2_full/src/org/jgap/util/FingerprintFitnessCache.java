@@ -0,0 +1,303 @@
+/*
+ * This file is part of JGAP.
+ *
+ * JGAP offers a dual license model containing the LGPL as well as the MPL.
+ *
+ * For licensing information please see the file license.txt included with JGAP
+ * or have a look at the top of class org.jgap.Chromosome which representatively
+ * includes the JGAP license policy applicable for any file delivered with JGAP.
+ */
+package org.jgap.util;
+
+import java.io.*;
+import java.util.*;
+
+/**
+ * Bounded cache mapping 128 bit fingerprints (see FingerprintKit) to fitness
+ * values. Entries are held in primitive arrays using open addressing, so
+ * neither lookups nor insertions create objects.
+ * <p>
+ * The number of entries never exceeds the capacity. When all slots an entry
+ * may be placed in are taken, the slot written longest ago is overwritten.
+ * <p>
+ * The cache is thread-safe. It is divided into segments with separate locks,
+ * so that concurrent fitness evaluators sharing an instance seldom block each
+ * other.
+ *
+ * @author agent
+ * @since 3.7
+ */
+public class FingerprintFitnessCache
+    implements Serializable {
+  /** String containing the CVS revision. Read out via reflection!*/
+  private final static String CVS_REVISION = "$Revision: 1.1 $";
+
+  /**
+   * Default maximum number of entries.
+   */
+  public final static int DEFAULT_MAX_SIZE = 1 << 16;
+
+  /**
+   * Number of consecutive slots an entry may be placed in.
+   */
+  private final static int PROBES = 8;
+
+  private final static int MAX_SEGMENTS = 16;
+
+  private Segment[] m_segments;
+
+  private int m_segmentShift;
+
+  /**
+   * Constructs a cache holding up to DEFAULT_MAX_SIZE entries.
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public FingerprintFitnessCache() {
+    this(DEFAULT_MAX_SIZE);
+  }
+
+  /**
+   * @param a_maxSize maximum number of entries, rounded up to the next power
+   * of two
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public FingerprintFitnessCache(int a_maxSize) {
+    if (a_maxSize < 1) {
+      throw new IllegalArgumentException("Size must be positive!");
+    }
+    int capacity = PROBES;
+    while (capacity < a_maxSize) {
+      capacity <<= 1;
+    }
+    int segments = 1;
+    while (segments < MAX_SEGMENTS && capacity / (segments * 2) >= PROBES) {
+      segments <<= 1;
+    }
+    m_segmentShift = 64 - Integer.numberOfTrailingZeros(segments);
+    m_segments = new Segment[segments];
+    for (int i = 0; i < segments; i++) {
+      m_segments[i] = new Segment(capacity / segments);
+    }
+  }
+
+  /**
+   * @param a_fingerprint first half of the fingerprint
+   * @param a_check second half of the fingerprint
+   * @param a_default value to return if no entry exists
+   * @return the cached fitness value, or a_default
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public double get(long a_fingerprint, long a_check, double a_default) {
+    return segmentFor(a_fingerprint).get(nonZero(a_fingerprint), a_check,
+        a_default);
+  }
+
+  /**
+   * Stores a fitness value, replacing any value stored for the same
+   * fingerprint.
+   *
+   * @param a_fingerprint first half of the fingerprint
+   * @param a_check second half of the fingerprint
+   * @param a_value the fitness value
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public void put(long a_fingerprint, long a_check, double a_value) {
+    segmentFor(a_fingerprint).put(nonZero(a_fingerprint), a_check, a_value);
+  }
+
+  /**
+   * @return number of entries currently held
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public int size() {
+    int result = 0;
+    for (int i = 0; i < m_segments.length; i++) {
+      synchronized (m_segments[i]) {
+        result += m_segments[i].m_size;
+      }
+    }
+    return result;
+  }
+
+  /**
+   * @return maximum number of entries
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public int getCapacity() {
+    return m_segments.length * m_segments[0].m_keys.length;
+  }
+
+  /**
+   * Removes all entries. The counters are not reset.
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public void clear() {
+    for (int i = 0; i < m_segments.length; i++) {
+      m_segments[i].clear();
+    }
+  }
+
+  /**
+   * @return number of lookups that found an entry
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public long getHits() {
+    long result = 0;
+    for (int i = 0; i < m_segments.length; i++) {
+      synchronized (m_segments[i]) {
+        result += m_segments[i].m_hits;
+      }
+    }
+    return result;
+  }
+
+  /**
+   * @return number of lookups that did not find an entry
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public long getMisses() {
+    long result = 0;
+    for (int i = 0; i < m_segments.length; i++) {
+      synchronized (m_segments[i]) {
+        result += m_segments[i].m_misses;
+      }
+    }
+    return result;
+  }
+
+  /**
+   * @return number of entries overwritten to make room for new ones
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public long getEvictions() {
+    long result = 0;
+    for (int i = 0; i < m_segments.length; i++) {
+      synchronized (m_segments[i]) {
+        result += m_segments[i].m_evictions;
+      }
+    }
+    return result;
+  }
+
+  private Segment segmentFor(long a_fingerprint) {
+    if (m_segments.length == 1) {
+      return m_segments[0];
+    }
+    return m_segments[ (int) (a_fingerprint >>> m_segmentShift)];
+  }
+
+  /**
+   * Zero marks an empty slot, so this key is mapped to another one.
+   */
+  private static long nonZero(long a_fingerprint) {
+    return a_fingerprint == 0 ? 1 : a_fingerprint;
+  }
+
+  private static class Segment
+      implements Serializable {
+    private long[] m_keys;
+
+    private long[] m_checks;
+
+    private double[] m_values;
+
+    /**
+     * Sequence number of the write of each slot, used for eviction.
+     */
+    private long[] m_written;
+
+    private int m_mask;
+
+    private int m_size;
+
+    private long m_writes;
+
+    private long m_hits;
+
+    private long m_misses;
+
+    private long m_evictions;
+
+    Segment(int a_capacity) {
+      m_keys = new long[a_capacity];
+      m_checks = new long[a_capacity];
+      m_values = new double[a_capacity];
+      m_written = new long[a_capacity];
+      m_mask = a_capacity - 1;
+    }
+
+    synchronized double get(long a_key, long a_check, double a_default) {
+      int slot = (int) a_key & m_mask;
+      for (int i = 0; i < PROBES; i++) {
+        long key = m_keys[slot];
+        if (key == 0) {
+          // Slots are never emptied individually, hence no entry follows.
+          // -------------------------------------------------------------
+          break;
+        }
+        if (key == a_key && m_checks[slot] == a_check) {
+          m_hits++;
+          return m_values[slot];
+        }
+        slot = (slot + 1) & m_mask;
+      }
+      m_misses++;
+      return a_default;
+    }
+
+    synchronized void put(long a_key, long a_check, double a_value) {
+      int slot = (int) a_key & m_mask;
+      int oldest = slot;
+      for (int i = 0; i < PROBES; i++) {
+        long key = m_keys[slot];
+        if (key == 0) {
+          m_size++;
+          store(slot, a_key, a_check, a_value);
+          return;
+        }
+        if (key == a_key && m_checks[slot] == a_check) {
+          store(slot, a_key, a_check, a_value);
+          return;
+        }
+        if (m_written[slot] < m_written[oldest]) {
+          oldest = slot;
+        }
+        slot = (slot + 1) & m_mask;
+      }
+      m_evictions++;
+      store(oldest, a_key, a_check, a_value);
+    }
+
+    synchronized void clear() {
+      Arrays.fill(m_keys, 0L);
+      m_size = 0;
+    }
+
+    private void store(int a_slot, long a_key, long a_check, double a_value) {
+      m_keys[a_slot] = a_key;
+      m_checks[a_slot] = a_check;
+      m_values[a_slot] = a_value;
+      m_written[a_slot] = ++m_writes;
+    }
+  }
+}
@@ -0,0 +1,249 @@
+/*
+ * This file is part of JGAP.
+ *
+ * JGAP offers a dual license model containing the LGPL as well as the MPL.
+ *
+ * For licensing information please see the file license.txt included with JGAP
+ * or have a look at the top of class org.jgap.Chromosome which representatively
+ * includes the JGAP license policy applicable for any file delivered with JGAP.
+ */
+package org.jgap.util;
+
+import java.util.*;
+import org.jgap.*;
+
+/**
+ * Utility routines for computing 64 bit fingerprints of chromosomes. A
+ * fingerprint is derived from the alleles only, not from fitness value, age
+ * or application data. Equal chromosomes always have equal fingerprints,
+ * different ones only with very low probability.
+ *
+ * @author agent
+ * @since 3.7
+ */
+public class FingerprintKit {
+  /** String containing the CVS revision. Read out via reflection!*/
+  private final static String CVS_REVISION = "$Revision: 1.1 $";
+
+  private final static long SEED = 0x9E3779B97F4A7C15L;
+
+  private final static long SECOND_SEED = 0xBB67AE8584CAA73BL;
+
+  private final static long NULL_ALLELE = 0x6A09E667F3BCC909L;
+
+  /**
+   * Computes the fingerprint of the alleles of a chromosome. Numeric and
+   * boolean alleles are hashed from their primitive values without creating
+   * objects.
+   *
+   * @param a_chrom the chromosome to compute the fingerprint for
+   * @return 64 bit fingerprint
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public static long fingerprint(IChromosome a_chrom) {
+    return fingerprint(a_chrom, SEED, false);
+  }
+
+  /**
+   * Computes a second fingerprint, independent of the one returned by
+   * fingerprint(IChromosome). Both together form a 128 bit fingerprint, for
+   * uses where a collision cannot be detected by comparing the chromosomes.
+   * <p>
+   * The alleles are converted with independentBits(Object, long) instead of
+   * alleleBits(Object), so that alleles with equal hash codes, which
+   * collide in the first fingerprint, differ here.
+   *
+   * @param a_chrom the chromosome to compute the fingerprint for
+   * @return 64 bit fingerprint
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public static long secondFingerprint(IChromosome a_chrom) {
+    return fingerprint(a_chrom, SECOND_SEED, true);
+  }
+
+  /**
+   * @param a_chrom the chromosome to compute the fingerprint for
+   * @param a_seed the start value of the hash
+   * @param a_independent true: convert the alleles with
+   * independentBits(Object, long), seeded with a_seed, false: with
+   * alleleBits(Object)
+   * @return 64 bit fingerprint
+   *
+   * @author agent
+   * @since 3.7
+   */
+  private static long fingerprint(IChromosome a_chrom, long a_seed,
+                                  boolean a_independent) {
+    Gene[] genes = a_chrom.getGenes();
+    long hash = a_seed + genes.length;
+    for (int i = 0; i < genes.length; i++) {
+      Gene gene = genes[i];
+      long value;
+      if (gene == null) {
+        value = NULL_ALLELE;
+      }
+      else if (a_independent) {
+        value = independentBits(gene.getAllele(), a_seed);
+      }
+      else {
+        value = alleleBits(gene.getAllele());
+      }
+      hash = mix64(hash ^ mix64(value + i));
+    }
+    return hash;
+  }
+
+  /**
+   * Like alleleBits(Object), but never derived from hashCode() and seeded
+   * wherever alleleBits(Object) may lose information. Double, Integer, Long,
+   * Float and Boolean alleles are represented exactly by both methods, as
+   * are Short, Byte and Character alleles here.
+   * Arrays, character sequences and lists (e.g. the alleles of a
+   * CompositeGene) are hashed element by element with a_seed, without
+   * creating objects. Only alleles of other types are hashed from the
+   * characters of their string representation.
+   *
+   * @param a_allele the allele to convert, may be null
+   * @param a_seed seed for alleles not represented exactly
+   * @return 64 bits representing the value of the allele
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public static long independentBits(Object a_allele, long a_seed) {
+    if (a_allele == null || a_allele instanceof Double
+        || a_allele instanceof Integer || a_allele instanceof Long
+        || a_allele instanceof Float || a_allele instanceof Boolean) {
+      return alleleBits(a_allele);
+    }
+    if (a_allele instanceof Short || a_allele instanceof Byte) {
+      return ( (Number) a_allele).longValue();
+    }
+    if (a_allele instanceof Character) {
+      return ( (Character) a_allele).charValue();
+    }
+    if (a_allele instanceof int[]) {
+      int[] values = (int[]) a_allele;
+      long hash = a_seed + values.length;
+      for (int i = 0; i < values.length; i++) {
+        hash = mix64(hash ^ values[i]);
+      }
+      return hash;
+    }
+    if (a_allele instanceof double[]) {
+      double[] values = (double[]) a_allele;
+      long hash = a_seed + values.length;
+      for (int i = 0; i < values.length; i++) {
+        hash = mix64(hash + Double.doubleToLongBits(values[i]));
+      }
+      return hash;
+    }
+    if (a_allele instanceof long[]) {
+      long[] values = (long[]) a_allele;
+      long hash = a_seed + values.length;
+      for (int i = 0; i < values.length; i++) {
+        hash = mix64(hash ^ values[i]);
+      }
+      return hash;
+    }
+    if (a_allele instanceof boolean[]) {
+      boolean[] values = (boolean[]) a_allele;
+      long hash = a_seed + values.length;
+      for (int i = 0; i < values.length; i++) {
+        hash = mix64(hash ^ (values[i] ? 1231 : 1237));
+      }
+      return hash;
+    }
+    if (a_allele instanceof List) {
+      List values = (List) a_allele;
+      int size = values.size();
+      long hash = a_seed + size;
+      for (int i = 0; i < size; i++) {
+        hash = mix64(hash ^ independentBits(values.get(i), a_seed));
+      }
+      return hash;
+    }
+    CharSequence chars;
+    if (a_allele instanceof CharSequence) {
+      chars = (CharSequence) a_allele;
+    }
+    else {
+      // Last resort for alleles of unknown types.
+      // -----------------------------------------
+      chars = a_allele.toString();
+    }
+    long hash = a_seed + chars.length();
+    for (int i = 0; i < chars.length(); i++) {
+      hash = mix64(hash ^ chars.charAt(i));
+    }
+    return hash;
+  }
+
+  /**
+   * @param a_allele the allele to convert, may be null
+   * @return 64 bits representing the value of the allele
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public static long alleleBits(Object a_allele) {
+    if (a_allele == null) {
+      return NULL_ALLELE;
+    }
+    if (a_allele instanceof Double) {
+      return Double.doubleToLongBits( ( (Double) a_allele).doubleValue());
+    }
+    if (a_allele instanceof Integer) {
+      return ( (Integer) a_allele).intValue();
+    }
+    if (a_allele instanceof Long) {
+      return ( (Long) a_allele).longValue();
+    }
+    if (a_allele instanceof Float) {
+      return Float.floatToIntBits( ( (Float) a_allele).floatValue());
+    }
+    if (a_allele instanceof Boolean) {
+      return ( (Boolean) a_allele).booleanValue() ? 1231 : 1237;
+    }
+    // Arrays, as used by FixedBinaryGene, only offer an identity hash code.
+    // ---------------------------------------------------------------------
+    if (a_allele instanceof int[]) {
+      int[] values = (int[]) a_allele;
+      long hash = values.length;
+      for (int i = 0; i < values.length; i++) {
+        hash = 31 * hash + values[i];
+      }
+      return hash;
+    }
+    if (a_allele instanceof double[]) {
+      double[] values = (double[]) a_allele;
+      long hash = values.length;
+      for (int i = 0; i < values.length; i++) {
+        hash = mix64(hash ^ Double.doubleToLongBits(values[i]));
+      }
+      return hash;
+    }
+    return a_allele.hashCode();
+  }
+
+  /**
+   * Finalization step of MurmurHash3, spreading every input bit over the
+   * whole result.
+   *
+   * @param a_value the value to mix
+   * @return mixed value
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public static long mix64(long a_value) {
+    long z = a_value;
+    z = (z ^ (z >>> 33)) * 0xFF51AFD7ED558CCDL;
+    z = (z ^ (z >>> 33)) * 0xC4CEB9FE1A85EC53L;
+    return z ^ (z >>> 33);
+  }
+}
@@ -0,0 +1,210 @@
+/*
+ * This file is part of JGAP.
+ *
+ * JGAP offers a dual license model containing the LGPL as well as the MPL.
+ *
+ * For licensing information please see the file license.txt included with JGAP
+ * or have a look at the top of class org.jgap.Chromosome which representatively
+ * includes the JGAP license policy applicable for any file delivered with JGAP.
+ */
+package org.jgap.util;
+
+import java.util.*;
+import org.jgap.*;
+
+/**
+ * Partial selection on fitness values: Determines the k fittest entries of a
+ * list in expected linear time, without sorting the whole list. Sorting only
+ * these k entries afterwards gives the top k in order in O(n + k log k)
+ * instead of O(n log n).
+ *
+ * @author agent
+ * @since 3.7
+ */
+public class PartialSelectionKit {
+  /** String containing the CVS revision. Read out via reflection!*/
+  private final static String CVS_REVISION = "$Revision: 1.1 $";
+
+  /**
+   * Rearranges the given indices so that the first a_k of them refer to the
+   * fittest values. Neither the first a_k nor the remaining indices are
+   * sorted afterwards.
+   *
+   * @param a_fitness fitness values, addressed by the indices
+   * @param a_indices indices into a_fitness, rearranged in place
+   * @param a_k number of fittest entries to move to the front
+   * @param a_evaluator decides which fitness value is the better one
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public static void selectFittest(double[] a_fitness, int[] a_indices,
+                                   int a_k, FitnessEvaluator a_evaluator) {
+    int left = 0;
+    int right = a_indices.length - 1;
+    if (a_k <= 0 || a_k > right) {
+      return;
+    }
+    // Quickselect: narrow down the range containing position a_k - 1.
+    // ----------------------------------------------------------------
+    while (right > left) {
+      int mid = (left + right) >>> 1;
+      double pivot = medianOf3(a_fitness[a_indices[left]],
+                               a_fitness[a_indices[mid]],
+                               a_fitness[a_indices[right]], a_evaluator);
+      int i = left;
+      int j = right;
+      while (i <= j) {
+        while (a_evaluator.isFitter(a_fitness[a_indices[i]], pivot)) {
+          i++;
+        }
+        while (a_evaluator.isFitter(pivot, a_fitness[a_indices[j]])) {
+          j--;
+        }
+        if (i <= j) {
+          int tmp = a_indices[i];
+          a_indices[i] = a_indices[j];
+          a_indices[j] = tmp;
+          i++;
+          j--;
+        }
+      }
+      if (a_k - 1 <= j) {
+        right = j;
+      }
+      else if (a_k - 1 >= i) {
+        left = i;
+      }
+      else {
+        return;
+      }
+    }
+  }
+
+  /**
+   * Rearranges the given list so that its first a_k elements are those
+   * coming first according to the comparator, in the order of the
+   * comparator. The order of the remaining elements is undefined. If a_k is
+   * not less than the size of the list, the whole list is sorted (stable).
+   *
+   * @param a_list the list to rearrange in place
+   * @param a_k number of elements to move to the front in order
+   * @param a_comparator the order to use, e.g. fittest first
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public static void sortFirst(List a_list, int a_k, Comparator a_comparator) {
+    int size = a_list.size();
+    if (a_k <= 0) {
+      return;
+    }
+    if (a_k >= size) {
+      Collections.sort(a_list, a_comparator);
+      return;
+    }
+    Object[] elements = a_list.toArray();
+    selectFirst(elements, a_k, a_comparator);
+    Arrays.sort(elements, 0, a_k, a_comparator);
+    ListIterator it = a_list.listIterator();
+    for (int i = 0; i < size; i++) {
+      it.next();
+      it.set(elements[i]);
+    }
+  }
+
+  /**
+   * Rearranges the given elements so that the first a_k of them are those
+   * coming first according to the comparator. Neither the first a_k nor the
+   * remaining elements are sorted afterwards.
+   *
+   * @param a_elements the elements to rearrange in place
+   * @param a_k number of elements to move to the front
+   * @param a_comparator the order to use
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public static void selectFirst(Object[] a_elements, int a_k,
+                                 Comparator a_comparator) {
+    int left = 0;
+    int right = a_elements.length - 1;
+    if (a_k <= 0 || a_k > right) {
+      return;
+    }
+    while (right > left) {
+      int mid = (left + right) >>> 1;
+      Object pivot = medianOf3(a_elements[left], a_elements[mid],
+                               a_elements[right], a_comparator);
+      int i = left;
+      int j = right;
+      while (i <= j) {
+        while (a_comparator.compare(a_elements[i], pivot) < 0) {
+          i++;
+        }
+        while (a_comparator.compare(pivot, a_elements[j]) < 0) {
+          j--;
+        }
+        if (i <= j) {
+          Object tmp = a_elements[i];
+          a_elements[i] = a_elements[j];
+          a_elements[j] = tmp;
+          i++;
+          j--;
+        }
+      }
+      if (a_k - 1 <= j) {
+        right = j;
+      }
+      else if (a_k - 1 >= i) {
+        left = i;
+      }
+      else {
+        return;
+      }
+    }
+  }
+
+  /**
+   * @param a_count number of indices
+   * @return array containing 0 .. a_count - 1
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public static int[] identity(int a_count) {
+    int[] result = new int[a_count];
+    for (int i = 0; i < a_count; i++) {
+      result[i] = i;
+    }
+    return result;
+  }
+
+  private static double medianOf3(double a_a, double a_b, double a_c,
+                                  FitnessEvaluator a_evaluator) {
+    if (a_evaluator.isFitter(a_a, a_b)) {
+      if (a_evaluator.isFitter(a_b, a_c)) {
+        return a_b;
+      }
+      return a_evaluator.isFitter(a_a, a_c) ? a_c : a_a;
+    }
+    if (a_evaluator.isFitter(a_a, a_c)) {
+      return a_a;
+    }
+    return a_evaluator.isFitter(a_b, a_c) ? a_c : a_b;
+  }
+
+  private static Object medianOf3(Object a_a, Object a_b, Object a_c,
+                                  Comparator a_comparator) {
+    if (a_comparator.compare(a_a, a_b) < 0) {
+      if (a_comparator.compare(a_b, a_c) < 0) {
+        return a_b;
+      }
+      return a_comparator.compare(a_a, a_c) < 0 ? a_c : a_a;
+    }
+    if (a_comparator.compare(a_a, a_c) < 0) {
+      return a_a;
+    }
+    return a_comparator.compare(a_b, a_c) < 0 ? a_c : a_b;
+  }
+}
@@ -31,6 +31,7 @@ public class AllBaseTests
     suite.addTest(ConfigurationTest.suite());
     suite.addTest(DefaultFitnessEvaluatorTest.suite());
     suite.addTest(DeltaFitnessEvaluatorTest.suite());
+    suite.addTest(FitnessDeltaTest.suite());
     suite.addTest(FitnessFunctionTest.suite());
     suite.addTest(GenotypeTest.suite());
     suite.addTest(PopulationTest.suite());
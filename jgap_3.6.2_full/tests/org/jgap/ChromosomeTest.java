@@ -629,6 +629,112 @@ public class ChromosomeTest
     assertEquals(copy, chrom);
   }
 
+  /**
+   * Copy-on-write cloning: the genes are shared until obtained for writing.
+   *
+   * @throws Exception
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public void testClone_9()
+      throws Exception {
+    conf.setFitnessFunction(new RandomFitnessFunction());
+    conf.setCopyOnWriteCloning(true);
+    Chromosome chrom = new Chromosome(conf, new IntegerGene(conf, 0, 100), 5);
+    for (int i = 0; i < 5; i++) {
+      chrom.getGene(i).setAllele(new Integer(i));
+    }
+    chrom.setFitnessValue(10.0d);
+    Chromosome copy = (Chromosome) chrom.clone();
+    assertEquals(chrom, copy);
+    assertEquals(10.0d, copy.getFitnessValueDirectly(), DELTA);
+    assertNotSame(chrom.getGenes(), copy.getGenes());
+    for (int i = 0; i < 5; i++) {
+      assertSame(chrom.getGene(i), copy.getGene(i));
+      assertTrue(copy.isGeneShared(i));
+    }
+    Gene gene = copy.getWritableGene(3);
+    assertNotSame(chrom.getGene(3), gene);
+    assertSame(gene, copy.getGene(3));
+    assertFalse(copy.isGeneShared(3));
+    assertSame(gene, copy.getWritableGene(3));
+    gene.setAllele(new Integer(50));
+    assertEquals(new Integer(3), chrom.getGene(3).getAllele());
+    // The original copies on write as well.
+    // -------------------------------------
+    assertTrue(chrom.isGeneShared(1));
+    chrom.getWritableGene(1).setAllele(new Integer(60));
+    assertEquals(new Integer(1), copy.getGene(1).getAllele());
+    // Rearranged genes are still known as shared.
+    // -------------------------------------------
+    Gene[] genes = copy.getGenes();
+    Gene t = genes[0];
+    genes[0] = genes[4];
+    genes[4] = t;
+    assertTrue(copy.isGeneShared(0));
+    assertFalse(copy.getWritableGene(0) == chrom.getGene(4));
+  }
+
+  /**
+   * Copy-on-write cloning: a chromosome no longer sharing its genes, because
+   * the other holders copied or released them, modifies them in place and
+   * is released to the pool again.
+   *
+   * @throws Exception
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public void testClone_11()
+      throws Exception {
+    conf.setFitnessFunction(new RandomFitnessFunction());
+    conf.setCopyOnWriteCloning(true);
+    ChromosomePool pool = new ChromosomePool();
+    conf.setChromosomePool(pool);
+    Chromosome chrom = new Chromosome(conf, new IntegerGene(conf, 0, 100), 3);
+    Chromosome copy1 = (Chromosome) chrom.clone();
+    Chromosome copy2 = (Chromosome) chrom.clone();
+    // The original still knows the genes shared with the first clone.
+    // ---------------------------------------------------------------
+    copy2.getWritableGene(0);
+    assertTrue(chrom.isGeneShared(0));
+    copy1.getWritableGene(0);
+    assertFalse(chrom.isGeneShared(0));
+    Gene gene = chrom.getGene(0);
+    assertSame(gene, chrom.getWritableGene(0));
+    // A chromosome still sharing genes is not pooled.
+    // -----------------------------------------------
+    chrom.cleanup();
+    assertNull(pool.acquireChromosome());
+    assertTrue(copy1.isGeneShared(1));
+    copy2.cleanup();
+    assertFalse(copy1.isGeneShared(1));
+    copy1.cleanup();
+    assertSame(copy1, pool.acquireChromosome());
+  }
+
+  /**
+   * Without copy-on-write cloning, all genes are copied.
+   *
+   * @throws Exception
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public void testClone_10()
+      throws Exception {
+    conf.setFitnessFunction(new RandomFitnessFunction());
+    Chromosome chrom = new Chromosome(conf, new IntegerGene(conf, 0, 100), 3);
+    Chromosome copy = (Chromosome) chrom.clone();
+    for (int i = 0; i < 3; i++) {
+      assertNotSame(chrom.getGene(i), copy.getGene(i));
+      assertFalse(copy.isGeneShared(i));
+      assertFalse(chrom.isGeneShared(i));
+      assertSame(copy.getGene(i), copy.getWritableGene(i));
+    }
+  }
+
   private final static int MAX_CHROMOSOME_TO_TEST = 1000;
 
   private final static int MAX_GENES_TO_TEST = 25;
@@ -0,0 +1,152 @@
+/*
+ * This file is part of JGAP.
+ *
+ * JGAP offers a dual license model containing the LGPL as well as the MPL.
+ *
+ * For licensing information please see the file license.txt included with JGAP
+ * or have a look at the top of class org.jgap.Chromosome which representatively
+ * includes the JGAP license policy applicable for any file delivered with JGAP.
+ */
+package org.jgap;
+
+import org.jgap.impl.*;
+import junit.framework.*;
+
+/**
+ * Tests the FitnessDelta class.
+ *
+ * @author agent
+ * @since 3.7
+ */
+public class FitnessDeltaTest
+    extends JGAPTestCase {
+  /** String containing the CVS revision. Read out via reflection!*/
+  private final static String CVS_REVISION = "$Revision: 1.1 $";
+
+  public static Test suite() {
+    TestSuite suite = new TestSuite(FitnessDeltaTest.class);
+    return suite;
+  }
+
+  public void setUp() {
+    super.setUp();
+    Configuration.reset();
+  }
+
+  /**
+   * Only the first allele recorded per locus is kept.
+   *
+   * @throws Exception
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public void testRecordChange_0()
+      throws Exception {
+    Object state = new Object();
+    FitnessDelta delta = new FitnessDelta(12.5d, state);
+    assertEquals(12.5d, delta.getParentFitness(), DELTA);
+    assertSame(state, delta.getParentState());
+    assertEquals(0, delta.size());
+    for (int i = 0; i < 10; i++) {
+      delta.recordChange(i * 3, new Integer(i));
+    }
+    delta.recordChange(3, new Integer(99));
+    assertEquals(10, delta.size());
+    assertEquals(3, delta.getLocus(1));
+    assertEquals(new Integer(1), delta.getOldAllele(1));
+    assertTrue(delta.isChanged(27));
+    assertFalse(delta.isChanged(28));
+    try {
+      delta.getLocus(10);
+      fail();
+    } catch (IndexOutOfBoundsException iex) {
+      ; //this is OK
+    }
+  }
+
+  /**
+   * Copies are independent of the original.
+   *
+   * @throws Exception
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public void testCopy_0()
+      throws Exception {
+    FitnessDelta delta = new FitnessDelta(1.0d, null);
+    delta.recordChange(2, "a");
+    FitnessDelta copy = delta.copy();
+    copy.recordChange(5, "b");
+    assertEquals(1, delta.size());
+    assertEquals(2, copy.size());
+    assertEquals("a", copy.getOldAllele(0));
+    assertEquals(1.0d, copy.getParentFitness(), DELTA);
+    assertTrue(isSerializable(copy));
+  }
+
+  /**
+   * Chromosomes with a delta are evaluated incrementally, afterwards they
+   * serve as the starting point of further deltas.
+   *
+   * @throws Exception
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public void testEvaluate_0()
+      throws Exception {
+    IncrementalSumFitnessFunction func = new IncrementalSumFitnessFunction();
+    conf.setFitnessFunction(func);
+    Chromosome chrom = new Chromosome(conf, new IntegerGene(conf, 0, 100), 3);
+    for (int i = 0; i < 3; i++) {
+      chrom.getGene(i).setAllele(new Integer(i + 1));
+    }
+    assertFalse(chrom.isFitnessEvaluated());
+    double fitness = chrom.getFitnessValue();
+    assertEquals(IncrementalSumFitnessFunction.OFFSET + 14, fitness, DELTA);
+    assertTrue(chrom.isFitnessEvaluated());
+    Chromosome child = (Chromosome) chrom.clone();
+    assertFalse(child.isFitnessEvaluated());
+    FitnessDelta delta = new FitnessDelta(fitness, null);
+    delta.recordChange(2, child.getGene(2).getAllele());
+    child.getGene(2).setAllele(new Integer(10));
+    child.setFitnessDelta(delta);
+    child.setFitnessValueDirectly(FitnessFunction.NO_FITNESS_VALUE);
+    assertEquals(IncrementalSumFitnessFunction.OFFSET + 35,
+                 child.getFitnessValue(), DELTA);
+    assertEquals(1, func.m_fullEvaluations);
+    assertEquals(1, func.m_incrementalEvaluations);
+    assertNull(child.getFitnessDelta());
+    assertTrue(child.isFitnessEvaluated());
+    // Fitness value set from outside: no starting point.
+    // --------------------------------------------------
+    child.setFitnessValueDirectly(1.0d);
+    assertFalse(child.isFitnessEvaluated());
+  }
+
+  /**
+   * A fitness function refusing to evaluate incrementally falls back to full
+   * evaluation.
+   *
+   * @throws Exception
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public void testEvaluate_1()
+      throws Exception {
+    IncrementalSumFitnessFunction func = new IncrementalSumFitnessFunction();
+    func.m_refuse = true;
+    conf.setFitnessFunction(func);
+    Chromosome chrom = new Chromosome(conf, new IntegerGene(conf, 0, 100), 2);
+    chrom.getGene(0).setAllele(new Integer(4));
+    chrom.getGene(1).setAllele(new Integer(5));
+    chrom.setFitnessDelta(new FitnessDelta(0.0d, null));
+    assertEquals(IncrementalSumFitnessFunction.OFFSET + 14,
+                 chrom.getFitnessValue(), DELTA);
+    assertEquals(1, func.m_fullEvaluations);
+    assertEquals(0, func.m_incrementalEvaluations);
+  }
+}
@@ -11,6 +11,7 @@ package org.jgap;
 
 import java.util.*;
 
+import org.jgap.audit.*;
 import org.jgap.impl.*;
 
 import junit.framework.*;
@@ -492,6 +493,98 @@ public class PopulationTest
     }
   }
 
+  /**
+   * Partial selection leaves the population unsorted. Appended chromosomes
+   * are merged into the elite, removed ones discard it.
+   *
+   * @throws Exception
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public void testDetermineFittestChromosomes_4()
+      throws Exception {
+    Population population = new Population(conf);
+    Gene g = new DoubleGene(conf);
+    double[] fitness = new double[] {5, 17, 3, 11, 2, 13, 19, 7};
+    for (int i = 0; i < fitness.length; i++) {
+      Chromosome c = new Chromosome(conf, g, 2);
+      c.setFitnessValueDirectly(fitness[i]);
+      population.addChromosome(c);
+    }
+    List top = population.determineFittestChromosomes(3);
+    assertEquals(3, top.size());
+    assertEquals(19, ( (IChromosome) top.get(0)).getFitnessValue(), DELTA);
+    assertEquals(17, ( (IChromosome) top.get(1)).getFitnessValue(), DELTA);
+    assertEquals(13, ( (IChromosome) top.get(2)).getFitnessValue(), DELTA);
+    assertFalse(population.isChanged());
+    assertFalse(population.isSorted());
+    assertEquals(5, population.getChromosome(0).getFitnessValue(), DELTA);
+    assertSame(top.get(0), population.determineFittestChromosome());
+    top = population.determineFittestChromosomes(2);
+    assertEquals(17, ( (IChromosome) top.get(1)).getFitnessValue(), DELTA);
+    // Appended chromosomes are merged in.
+    // -----------------------------------
+    Chromosome c = new Chromosome(conf, g, 2);
+    c.setFitnessValueDirectly(18);
+    population.addChromosome(c);
+    assertTrue(population.isChanged());
+    top = population.determineFittestChromosomes(3);
+    assertEquals(19, ( (IChromosome) top.get(0)).getFitnessValue(), DELTA);
+    assertSame(c, top.get(1));
+    assertEquals(17, ( (IChromosome) top.get(2)).getFitnessValue(), DELTA);
+    // Removing the fittest one requires selecting anew.
+    // -------------------------------------------------
+    population.removeChromosome(6);
+    top = population.determineFittestChromosomes(4);
+    assertSame(c, top.get(0));
+    assertEquals(17, ( (IChromosome) top.get(1)).getFitnessValue(), DELTA);
+    assertEquals(13, ( (IChromosome) top.get(2)).getFitnessValue(), DELTA);
+    assertEquals(11, ( (IChromosome) top.get(3)).getFitnessValue(), DELTA);
+  }
+
+  /**
+   * Changes made directly on the list of chromosomes discard the elite.
+   *
+   * @throws Exception
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public void testDetermineFittestChromosomes_5()
+      throws Exception {
+    Population population = new Population(conf);
+    Gene g = new DoubleGene(conf);
+    double[] fitness = new double[] {5, 17, 3, 11, 2, 13, 19, 7};
+    for (int i = 0; i < fitness.length; i++) {
+      Chromosome c = new Chromosome(conf, g, 2);
+      c.setFitnessValueDirectly(fitness[i]);
+      population.addChromosome(c);
+    }
+    List top = population.determineFittestChromosomes(3);
+    assertEquals(19, ( (IChromosome) top.get(0)).getFitnessValue(), DELTA);
+    // Replacement of the same size through the list.
+    // ----------------------------------------------
+    Chromosome c = new Chromosome(conf, g, 2);
+    c.setFitnessValueDirectly(23);
+    population.getChromosomes().set(2, c);
+    top = population.determineFittestChromosomes(3);
+    assertSame(c, top.get(0));
+    assertEquals(19, ( (IChromosome) top.get(1)).getFitnessValue(), DELTA);
+    // Cleared through the list and filled up again.
+    // ---------------------------------------------
+    population.getChromosomes().clear();
+    for (int i = 0; i < fitness.length; i++) {
+      Chromosome d = new Chromosome(conf, g, 2);
+      d.setFitnessValueDirectly(fitness[i] / 10);
+      population.addChromosome(d);
+    }
+    top = population.determineFittestChromosomes(3);
+    assertEquals(1.9d, ( (IChromosome) top.get(0)).getFitnessValue(), DELTA);
+    assertEquals(1.7d, ( (IChromosome) top.get(1)).getFitnessValue(), DELTA);
+    assertEquals(1.3d, ( (IChromosome) top.get(2)).getFitnessValue(), DELTA);
+  }
+
   private static Population getNewPopulation(Configuration a_conf)
       throws InvalidConfigurationException {
     Population population = new Population(a_conf);
@@ -999,6 +1092,136 @@ public class PopulationTest
     }
   }
 
+  private Population createPopulation(double[] a_fitness)
+      throws Exception {
+    Population pop = new Population(conf);
+    Gene g = new IntegerGene(conf);
+    for (int i = 0; i < a_fitness.length; i++) {
+      Chromosome c = new Chromosome(conf, g, 2);
+      c.setFitnessValueDirectly(a_fitness[i]);
+      pop.addChromosome(c);
+    }
+    return pop;
+  }
+
+  /**
+   * Default trimmer removes the head of the list, order of the remaining
+   * chromosomes is kept.
+   *
+   * @throws Exception
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public void testKeepPopSizeConstant_0()
+      throws Exception {
+    conf.setPopulationSize(3);
+    Population pop = createPopulation(new double[] {1, 2, 3, 4, 5, 6});
+    pop.keepPopSizeConstant();
+    assertEquals(3, pop.size());
+    assertEquals(4.0d, pop.getChromosome(0).getFitnessValueDirectly(), DELTA);
+    assertEquals(6.0d, pop.getChromosome(2).getFitnessValueDirectly(), DELTA);
+  }
+
+  /**
+   * Weakest chromosomes are removed.
+   *
+   * @throws Exception
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public void testKeepPopSizeConstant_1()
+      throws Exception {
+    conf.setPopulationSize(4);
+    conf.setPopulationTrimmer(new WeakestChromosomesTrimmer());
+    Population pop = createPopulation(new double[] {7, 2, 9, 1, 8, 3, 5});
+    pop.keepPopSizeConstant();
+    assertEquals(4, pop.size());
+    double[] expected = new double[] {7, 9, 8, 5};
+    for (int i = 0; i < expected.length; i++) {
+      assertEquals(expected[i], pop.getChromosome(i).getFitnessValueDirectly(),
+                   DELTA);
+    }
+  }
+
+  /**
+   * Weakest chromosomes are removed, lower fitness value is better.
+   *
+   * @throws Exception
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public void testKeepPopSizeConstant_2()
+      throws Exception {
+    conf.reset();
+    conf.setPopulationSize(2);
+    conf.setFitnessEvaluator(new MyFitnessEvaluator());
+    conf.setPopulationTrimmer(new WeakestChromosomesTrimmer());
+    Population pop = createPopulation(new double[] {7, 2, 9, 1, 8});
+    pop.keepPopSizeConstant();
+    assertEquals(2, pop.size());
+    assertEquals(2.0d, pop.getChromosome(0).getFitnessValueDirectly(), DELTA);
+    assertEquals(1.0d, pop.getChromosome(1).getFitnessValueDirectly(), DELTA);
+  }
+
+  /**
+   * Random trimmer removes distinct chromosomes.
+   *
+   * @throws Exception
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public void testKeepPopSizeConstant_3()
+      throws Exception {
+    conf.setPopulationSize(10);
+    conf.setRandomGenerator(new SeededRandomGenerator(17));
+    conf.setPopulationTrimmer(new RandomChromosomesTrimmer());
+    double[] fitness = new double[50];
+    for (int i = 0; i < fitness.length; i++) {
+      fitness[i] = i;
+    }
+    Population pop = createPopulation(fitness);
+    pop.keepPopSizeConstant();
+    assertEquals(10, pop.size());
+    for (int i = 1; i < pop.size(); i++) {
+      assertTrue(pop.getChromosome(i - 1).getFitnessValueDirectly()
+                 < pop.getChromosome(i).getFitnessValueDirectly());
+    }
+  }
+
+  /**
+   * Monitor receives one event per removed chromosome, indices refer to the
+   * untrimmed population.
+   *
+   * @throws Exception
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public void testKeepPopSizeConstant_4()
+      throws Exception {
+    conf.setPopulationSize(2);
+    conf.setPopulationTrimmer(new WeakestChromosomesTrimmer());
+    final List<Integer> removed = new ArrayList<Integer>();
+    conf.setMonitor(new EvolutionMonitor() {
+      public void event(String a_monitorEvent, int a_evolutionNo,
+                        Object[] a_information) {
+        if (IEvolutionMonitor.MONITOR_EVENT_REMOVE_CHROMOSOME.equals(
+            a_monitorEvent)) {
+          removed.add( (Integer) a_information[1]);
+        }
+      }
+    });
+    Population pop = createPopulation(new double[] {5, 1, 4, 2});
+    pop.keepPopSizeConstant();
+    assertEquals(2, removed.size());
+    assertEquals(1, removed.get(0).intValue());
+    assertEquals(3, removed.get(1).intValue());
+  }
+
   class MyFitnessEvaluator
       implements FitnessEvaluator {
     public boolean isFitter(final double a_fitness_value1,
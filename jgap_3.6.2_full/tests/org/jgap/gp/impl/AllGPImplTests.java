@@ -26,12 +26,15 @@ public class AllGPImplTests
   public static Test suite() {
     TestSuite suite = new TestSuite("AllGPImplTests");
     suite.addTest(BranchTypingCrossTest.suite());
+    suite.addTest(CompiledProgramTest.suite());
     suite.addTest(DefaultGPFitnessEvaluatorTest.suite());
     suite.addTest(DeltaGPFitnessEvaluatorTest.suite());
     suite.addTest(GPConfigurationTest.suite());
+    suite.addTest(GPExecutionContextTest.suite());
     suite.addTest(GPGenotypeTest.suite());
     suite.addTest(GPPopulationTest.suite());
     suite.addTest(GPProgramTest.suite());
+    suite.addTest(ParallelGPFitnessEvaluationTest.suite());
     suite.addTest(ProgramChromosomeTest.suite());
     return suite;
   }
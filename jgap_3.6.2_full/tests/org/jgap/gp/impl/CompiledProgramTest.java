@@ -0,0 +1,390 @@
+/*
+ * This file is part of JGAP.
+ *
+ * JGAP offers a dual license model containing the LGPL as well as the MPL.
+ *
+ * For licensing information please see the file license.txt included with JGAP
+ * or have a look at the top of class org.jgap.Chromosome which representatively
+ * includes the JGAP license policy applicable for any file delivered with JGAP.
+ */
+package org.jgap.gp.impl;
+
+import org.jgap.gp.*;
+import org.jgap.gp.function.*;
+import org.jgap.gp.terminal.*;
+import junit.framework.*;
+
+/**
+ * Tests the CompiledProgram class.
+ *
+ * @author agent
+ * @since 3.7
+ */
+public class CompiledProgramTest
+    extends GPTestCase {
+  /** String containing the CVS revision. Read out via reflection!*/
+  private final static String CVS_REVISION = "$Revision: 1.1 $";
+
+  public static Test suite() {
+    TestSuite suite = new TestSuite(CompiledProgramTest.class);
+    return suite;
+  }
+
+  /**
+   * (X * 3) + (sine(X) - exp(X / 2)), compared with the interpreter.
+   *
+   * @throws Exception
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public void testExecute_0()
+      throws Exception {
+    Class type = CommandGene.DoubleClass;
+    Variable vx = new Variable(m_gpconf, "X", type);
+    ProgramChromosome pc = new ProgramChromosome(m_gpconf);
+    pc.setGene(0, new Add(m_gpconf, type));
+    pc.setGene(1, new Multiply(m_gpconf, type));
+    pc.setGene(2, vx);
+    pc.setGene(3, new Constant(m_gpconf, type, new Double(3)));
+    pc.setGene(4, new Subtract(m_gpconf, type));
+    pc.setGene(5, new Sine(m_gpconf, type));
+    pc.setGene(6, vx);
+    pc.setGene(7, new Exp(m_gpconf, type));
+    pc.setGene(8, new Divide(m_gpconf, type));
+    pc.setGene(9, vx);
+    pc.setGene(10, new Constant(m_gpconf, type, new Double(2)));
+    pc.redepth();
+    CompiledProgram prog = new CompiledProgram(pc);
+    // Constant and variable operands are read by the operations directly.
+    // ------------------------------------------------------------------
+    assertEquals(9, prog.size());
+    assertFalse(prog.isInterpreting());
+    for (int i = -20; i < 20; i++) {
+      vx.set(new Double(i / 3.0d));
+      assertEquals(pc.execute_double(null), prog.execute_double(null), 0.0d);
+    }
+  }
+
+  /**
+   * Float program, results equal those of the interpreter exactly.
+   *
+   * @throws Exception
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public void testExecute_1()
+      throws Exception {
+    Class type = CommandGene.FloatClass;
+    Variable vx = new Variable(m_gpconf, "X", type);
+    ProgramChromosome pc = new ProgramChromosome(m_gpconf);
+    pc.setGene(0, new Add3(m_gpconf, type));
+    pc.setGene(1, new Pow(m_gpconf, type));
+    pc.setGene(2, vx);
+    pc.setGene(3, new Constant(m_gpconf, type, new Float(1.7f)));
+    pc.setGene(4, new Modulo(m_gpconf, type));
+    pc.setGene(5, vx);
+    pc.setGene(6, new Constant(m_gpconf, type, new Float(0.3f)));
+    pc.setGene(7, new Round(m_gpconf, type));
+    pc.setGene(8, new Multiply(m_gpconf, type));
+    pc.setGene(9, vx);
+    pc.setGene(10, new Constant(m_gpconf, type, new Float(0.1f)));
+    pc.redepth();
+    CompiledProgram prog = new CompiledProgram(pc);
+    for (int i = 0; i < 50; i++) {
+      vx.set(new Float(i * 0.37f));
+      assertEquals(pc.execute_float(null), prog.execute_float(null), 0.0f);
+    }
+  }
+
+  /**
+   * Commands without a compiled form are interpreted.
+   *
+   * @throws Exception
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public void testExecute_2()
+      throws Exception {
+    Class type = CommandGene.DoubleClass;
+    Variable vx = new Variable(m_gpconf, "X", type);
+    ProgramChromosome pc = new ProgramChromosome(m_gpconf);
+    pc.setGene(0, new Multiply(m_gpconf, type));
+    pc.setGene(1, new Increment(m_gpconf, type, 5));
+    pc.setGene(2, new Add(m_gpconf, type));
+    pc.setGene(3, vx);
+    pc.setGene(4, vx);
+    pc.setGene(5, vx);
+    pc.redepth();
+    CompiledProgram prog = new CompiledProgram(pc);
+    assertTrue(prog.isInterpreting());
+    assertEquals(2, prog.size());
+    vx.set(new Double(2.0d));
+    assertEquals(18.0d, prog.execute_double(null), DELTA);
+    vx.set(new Double(3.0d));
+    assertEquals(33.0d, prog.execute_double(null), DELTA);
+  }
+
+  /**
+   * Integer program, executed by the interpreter with integer division.
+   *
+   * @throws Exception
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public void testExecute_3()
+      throws Exception {
+    Class type = CommandGene.IntegerClass;
+    Variable vx = new Variable(m_gpconf, "X", type);
+    ProgramChromosome pc = new ProgramChromosome(m_gpconf);
+    pc.setGene(0, new Add(m_gpconf, type));
+    pc.setGene(1, new Divide(m_gpconf, type));
+    pc.setGene(2, vx);
+    pc.setGene(3, new Constant(m_gpconf, type, new Integer(3)));
+    pc.setGene(4, vx);
+    pc.redepth();
+    CompiledProgram prog = new CompiledProgram(pc);
+    assertTrue(prog.isInterpreting());
+    assertEquals(1, prog.size());
+    vx.set(new Integer(7));
+    assertEquals(9.0d, prog.execute_double(null), 0.0d);
+    double[] results = new double[3];
+    prog.execute_double(new Variable[] {vx}, new double[][] { {7, 8, 9}
+    }, results);
+    assertEquals(9.0d, results[0], 0.0d);
+    assertEquals(10.0d, results[1], 0.0d);
+    assertEquals(12.0d, results[2], 0.0d);
+    assertEquals(new Integer(7), vx.getValue());
+  }
+
+  /**
+   * Programs returning boolean cannot be compiled.
+   *
+   * @throws Exception
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public void testExecute_4()
+      throws Exception {
+    ProgramChromosome pc = new ProgramChromosome(m_gpconf);
+    pc.setGene(0, new Variable(m_gpconf, "B", CommandGene.BooleanClass));
+    pc.redepth();
+    try {
+      new CompiledProgram(pc);
+      fail();
+    } catch (IllegalArgumentException iex) {
+      ; //this is OK
+    }
+  }
+
+  /**
+   * Batch execution, compared with the scalar execution row by row.
+   *
+   * @throws Exception
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public void testExecuteBatch_0()
+      throws Exception {
+    Class type = CommandGene.DoubleClass;
+    Variable vx = new Variable(m_gpconf, "X", type);
+    Variable vy = new Variable(m_gpconf, "Y", type);
+    ProgramChromosome pc = new ProgramChromosome(m_gpconf);
+    pc.setGene(0, new Subtract(m_gpconf, type));
+    pc.setGene(1, new Multiply(m_gpconf, type));
+    pc.setGene(2, new Constant(m_gpconf, type, new Double(3)));
+    pc.setGene(3, vx);
+    pc.setGene(4, new Divide(m_gpconf, type));
+    pc.setGene(5, new Sine(m_gpconf, type));
+    pc.setGene(6, vy);
+    pc.setGene(7, vx);
+    pc.redepth();
+    double[][] inputs = new double[2][30];
+    for (int i = 0; i < 30; i++) {
+      inputs[0][i] = i / 7.0d - 2;
+      inputs[1][i] = i * 1.3d;
+    }
+    double[] results = new double[30];
+    CompiledProgram prog = new CompiledProgram(pc);
+    prog.execute_double(new Variable[] {vx, vy}, inputs, results);
+    for (int i = 0; i < 30; i++) {
+      vx.set(new Double(inputs[0][i]));
+      vy.set(new Double(inputs[1][i]));
+      assertEquals(pc.execute_double(null), results[i], 0.0d);
+    }
+    // Same via the chromosome.
+    // ------------------------
+    double[] results2 = new double[30];
+    pc.execute_double(new Variable[] {vx, vy}, inputs, results2);
+    for (int i = 0; i < 30; i++) {
+      assertEquals(results[i], results2[i], 0.0d);
+    }
+  }
+
+  /**
+   * Batch execution of a float program rounds like the interpreter.
+   *
+   * @throws Exception
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public void testExecuteBatch_1()
+      throws Exception {
+    Class type = CommandGene.FloatClass;
+    Variable vx = new Variable(m_gpconf, "X", type);
+    ProgramChromosome pc = new ProgramChromosome(m_gpconf);
+    pc.setGene(0, new Add(m_gpconf, type));
+    pc.setGene(1, new Multiply(m_gpconf, type));
+    pc.setGene(2, vx);
+    pc.setGene(3, new Constant(m_gpconf, type, new Float(0.1f)));
+    pc.setGene(4, new Exp(m_gpconf, type));
+    pc.setGene(5, vx);
+    pc.redepth();
+    double[][] inputs = new double[1][25];
+    for (int i = 0; i < 25; i++) {
+      inputs[0][i] = i * 0.37d;
+    }
+    double[] results = new double[25];
+    new CompiledProgram(pc).execute_double(new Variable[] {vx}, inputs,
+        results);
+    for (int i = 0; i < 25; i++) {
+      vx.set(new Float( (float) inputs[0][i]));
+      assertEquals(pc.execute_float(null), results[i], 0.0d);
+    }
+  }
+
+  /**
+   * Interpreted commands are executed row by row, the variable is restored
+   * afterwards.
+   *
+   * @throws Exception
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public void testExecuteBatch_2()
+      throws Exception {
+    Class type = CommandGene.DoubleClass;
+    Variable vx = new Variable(m_gpconf, "X", type);
+    ProgramChromosome pc = new ProgramChromosome(m_gpconf);
+    pc.setGene(0, new Multiply(m_gpconf, type));
+    pc.setGene(1, new Increment(m_gpconf, type, 5));
+    pc.setGene(2, new Add(m_gpconf, type));
+    pc.setGene(3, vx);
+    pc.setGene(4, vx);
+    pc.setGene(5, vx);
+    pc.redepth();
+    vx.set(new Double(7.0d));
+    double[] results = new double[3];
+    new CompiledProgram(pc).execute_double(new Variable[] {vx},
+        new double[][] { {2.0d, 3.0d, 0.0d}
+    }, results);
+    assertEquals(18.0d, results[0], DELTA);
+    assertEquals(33.0d, results[1], DELTA);
+    assertEquals(0.0d, results[2], DELTA);
+    assertEquals(7.0d, ( (Double) vx.getValue()).doubleValue(), DELTA);
+  }
+
+  /**
+   * Each variable needs an input column.
+   *
+   * @throws Exception
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public void testExecuteBatch_3()
+      throws Exception {
+    Class type = CommandGene.DoubleClass;
+    Variable vx = new Variable(m_gpconf, "X", type);
+    ProgramChromosome pc = new ProgramChromosome(m_gpconf);
+    pc.setGene(0, vx);
+    pc.redepth();
+    try {
+      new CompiledProgram(pc).execute_double(new Variable[] {vx},
+          new double[0][], new double[1]);
+      fail();
+    } catch (IllegalArgumentException iex) {
+      ; //this is OK
+    }
+  }
+
+  /**
+   * The program compiled for batch execution follows changes of the
+   * chromosome.
+   *
+   * @throws Exception
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public void testExecuteBatch_4()
+      throws Exception {
+    Class type = CommandGene.DoubleClass;
+    Variable vx = new Variable(m_gpconf, "X", type);
+    Terminal term = new Terminal(m_gpconf, type, 0.0d, 10.0d);
+    term.setValue(2.0d);
+    ProgramChromosome pc = new ProgramChromosome(m_gpconf);
+    pc.setGene(0, new Multiply(m_gpconf, type));
+    pc.setGene(1, vx);
+    pc.setGene(2, term);
+    pc.redepth();
+    Variable[] vars = new Variable[] {vx};
+    double[][] inputs = new double[][] { {1.5d, 3.0d}
+    };
+    double[] results = new double[2];
+    pc.execute_double(vars, inputs, results);
+    assertEquals(3.0d, results[0], DELTA);
+    assertEquals(6.0d, results[1], DELTA);
+    // Terminal mutated in place.
+    // --------------------------
+    term.setValue(4.0d);
+    pc.execute_double(vars, inputs, results);
+    assertEquals(6.0d, results[0], DELTA);
+    assertEquals(12.0d, results[1], DELTA);
+    // Node replaced.
+    // --------------
+    pc.setGene(0, new Add(m_gpconf, type));
+    pc.redepth();
+    pc.execute_double(vars, inputs, results);
+    assertEquals(5.5d, results[0], DELTA);
+    assertEquals(7.0d, results[1], DELTA);
+  }
+
+  /**
+   * A compiled program detects changes of its chromosome.
+   *
+   * @throws Exception
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public void testIsUpToDate_0()
+      throws Exception {
+    Class type = CommandGene.DoubleClass;
+    Variable vx = new Variable(m_gpconf, "X", type);
+    Terminal term = new Terminal(m_gpconf, type, 0.0d, 10.0d);
+    term.setValue(2.0d);
+    ProgramChromosome pc = new ProgramChromosome(m_gpconf);
+    pc.setGene(0, new Subtract(m_gpconf, type));
+    pc.setGene(1, vx);
+    pc.setGene(2, term);
+    pc.redepth();
+    CompiledProgram prog = new CompiledProgram(pc);
+    assertTrue(prog.isUpToDate());
+    vx.set(new Double(5.0d));
+    assertTrue(prog.isUpToDate());
+    term.setValue(3.0d);
+    assertFalse(prog.isUpToDate());
+    prog = new CompiledProgram(pc);
+    assertTrue(prog.isUpToDate());
+    pc.setGene(1, new Variable(m_gpconf, "Y", type));
+    assertFalse(prog.isUpToDate());
+  }
+}
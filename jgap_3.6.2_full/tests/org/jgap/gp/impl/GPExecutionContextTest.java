@@ -0,0 +1,151 @@
+/*
+ * This file is part of JGAP.
+ *
+ * JGAP offers a dual license model containing the LGPL as well as the MPL.
+ *
+ * For licensing information please see the file license.txt included with JGAP
+ * or have a look at the top of class org.jgap.Chromosome which representatively
+ * includes the JGAP license policy applicable for any file delivered with JGAP.
+ */
+package org.jgap.gp.impl;
+
+import java.util.*;
+import org.jgap.gp.*;
+import junit.framework.*;
+
+/**
+ * Tests the GPExecutionContext class.
+ *
+ * @author agent
+ * @since 3.7
+ */
+public class GPExecutionContextTest
+    extends GPTestCase {
+  /** String containing the CVS revision. Read out via reflection!*/
+  private final static String CVS_REVISION = "$Revision: 1.1 $";
+
+  public static Test suite() {
+    TestSuite suite = new TestSuite(GPExecutionContextTest.class);
+    return suite;
+  }
+
+  /**
+   * Stack and memory.
+   *
+   * @throws Exception
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public void testStackAndMemory_0()
+      throws Exception {
+    GPExecutionContext context = new GPExecutionContext();
+    assertEquals(GPExecutionContext.DEFAULT_MEMORY_SIZE,
+                 context.getMemorySize());
+    context.pushToStack("a");
+    context.pushToStack("b");
+    assertEquals(2, context.stackSize());
+    assertEquals("b", context.popFromStack());
+    context.storeInMemory("m1", "v1");
+    context.storeIndexedMemory(3, "v3");
+    assertEquals("v1", context.readFromMemory("m1"));
+    assertEquals("v3", context.readIndexedMemory(3));
+    assertNull(context.readFromMemoryIfExists("m2"));
+    context.clear();
+    assertEquals(0, context.stackSize());
+    assertNull(context.readFromMemoryIfExists("m1"));
+    try {
+      context.popFromStack();
+      fail();
+    } catch (EmptyStackException eex) {
+      ; //this is OK
+    }
+  }
+
+  /**
+   * A new instance has copies of the matrices but an empty stack.
+   *
+   * @throws Exception
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public void testNewInstance_0()
+      throws Exception {
+    GPExecutionContext context = new GPExecutionContext(10);
+    context.createMatrix("M", 3, 2);
+    context.resetMatrix("M", '.');
+    context.setMatrix("M", 1, 1, 'x');
+    context.pushToStack("a");
+    GPExecutionContext copy = context.newInstance();
+    assertEquals(10, copy.getMemorySize());
+    assertEquals(0, copy.stackSize());
+    assertEquals('x', copy.readMatrix("M", 1, 1));
+    assertEquals('.', copy.readMatrix("M", 2, 0));
+    copy.setMatrix("M", 1, 1, 'o');
+    assertEquals('x', context.readMatrix("M", 1, 1));
+    try {
+      copy.readMatrix("N", 0, 0);
+      fail();
+    } catch (IllegalArgumentException iex) {
+      ; //this is OK
+    }
+  }
+
+  /**
+   * Threads with a context of their own do not see the state of other
+   * threads.
+   *
+   * @throws Exception
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public void testBind_0()
+      throws Exception {
+    final GPConfiguration conf = m_gpconf;
+    conf.createMatrix("M", 2, 2);
+    conf.pushToStack("main");
+    final Object[] seen = new Object[3];
+    Thread worker = new Thread() {
+      public void run() {
+        conf.setExecutionContext(conf.newExecutionContext());
+        seen[0] = new Integer(conf.stackSize());
+        conf.pushToStack("worker");
+        conf.setMatrix("M", 0, 0, 'w');
+        seen[1] = conf.peekStack();
+        seen[2] = conf.getMatrix("M");
+        conf.setExecutionContext(null);
+      }
+    };
+    worker.start();
+    worker.join();
+    assertEquals(new Integer(0), seen[0]);
+    assertEquals("worker", seen[1]);
+    assertEquals('w', ( (char[][]) seen[2])[0][0]);
+    assertEquals(1, conf.stackSize());
+    assertEquals("main", conf.popFromStack());
+    assertEquals(0, conf.readMatrix("M", 0, 0));
+  }
+
+  /**
+   * Unbinding a context falls back to the default context.
+   *
+   * @throws Exception
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public void testBind_1()
+      throws Exception {
+    GPExecutionContext defaultContext = m_gpconf.getExecutionContext();
+    GPExecutionContext context = new GPExecutionContext();
+    m_gpconf.setExecutionContext(context);
+    assertSame(context, m_gpconf.getExecutionContext());
+    m_gpconf.storeInMemory("m", "v");
+    assertEquals("v", context.readFromMemory("m"));
+    m_gpconf.setExecutionContext(null);
+    assertSame(defaultContext, m_gpconf.getExecutionContext());
+    assertNull(m_gpconf.readFromMemoryIfExists("m"));
+  }
+}
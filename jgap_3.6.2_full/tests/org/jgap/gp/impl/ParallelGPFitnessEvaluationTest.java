@@ -0,0 +1,198 @@
+/*
+ * This file is part of JGAP.
+ *
+ * JGAP offers a dual license model containing the LGPL as well as the MPL.
+ *
+ * For licensing information please see the file license.txt included with JGAP
+ * or have a look at the top of class org.jgap.Chromosome which representatively
+ * includes the JGAP license policy applicable for any file delivered with JGAP.
+ */
+package org.jgap.gp.impl;
+
+import java.util.concurrent.*;
+import org.jgap.*;
+import org.jgap.gp.*;
+import org.jgap.gp.terminal.*;
+import junit.framework.*;
+
+/**
+ * Tests the ParallelGPFitnessEvaluation class.
+ *
+ * @author agent
+ * @since 3.7
+ */
+public class ParallelGPFitnessEvaluationTest
+    extends GPTestCase {
+  /** String containing the CVS revision. Read out via reflection!*/
+  private final static String CVS_REVISION = "$Revision: 1.1 $";
+
+  private ExecutorService m_executor;
+
+  public static Test suite() {
+    TestSuite suite = new TestSuite(ParallelGPFitnessEvaluationTest.class);
+    return suite;
+  }
+
+  public void setUp() {
+    super.setUp();
+    m_executor = Executors.newFixedThreadPool(3);
+  }
+
+  public void tearDown()
+      throws Exception {
+    m_executor.shutdownNow();
+    super.tearDown();
+  }
+
+  /**
+   * Creates a population of programs consisting of a single constant.
+   *
+   * @param a_size number of programs
+   * @return the population
+   * @throws Exception
+   */
+  private GPPopulation createPopulation(int a_size)
+      throws Exception {
+    GPPopulation pop = new GPPopulation(m_gpconf, a_size);
+    for (int i = 0; i < a_size; i++) {
+      CommandGene constant = new Constant(m_gpconf, CommandGene.DoubleClass,
+                                          new Double(i + 1));
+      GPProgram prog = new GPProgram(m_gpconf,
+                                     new Class[] {CommandGene.DoubleClass},
+                                     new Class[][] { {}
+      }, new CommandGene[][] { {constant}
+      }, null, null, 1);
+      ProgramChromosome chrom = new ProgramChromosome(m_gpconf, 1,
+          new CommandGene[] {constant}, new Class[0], prog);
+      chrom.setGene(0, constant);
+      chrom.redepth();
+      prog.setChromosome(0, chrom);
+      pop.setGPProgram(i, prog);
+    }
+    return pop;
+  }
+
+  /**
+   * All programs get the same fitness values as with sequential evaluation.
+   * Each worker has a stack of its own.
+   *
+   * @throws Exception
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public void testEvaluate_0()
+      throws Exception {
+    m_gpconf.setFitnessFunction(new ConcurrentFitnessFunction(true));
+    GPPopulation pop = createPopulation(50);
+    pop.getGPProgram(7).setFitnessValue(3.5d);
+    ParallelGPFitnessEvaluation eval = new ParallelGPFitnessEvaluation(
+        m_executor, 3);
+    assertEquals(49, eval.evaluate(m_gpconf, pop));
+    for (int i = 0; i < 50; i++) {
+      if (i == 7) {
+        assertEquals(3.5d, pop.getGPProgram(i).getFitnessValueDirectly(),
+                     DELTA);
+      }
+      else {
+        assertEquals(i + 1.0d, pop.getGPProgram(i).getFitnessValueDirectly(),
+                     DELTA);
+      }
+    }
+    assertEquals(0, m_gpconf.stackSize());
+  }
+
+  /**
+   * Fitness functions not thread-safe get a worker instance per task.
+   *
+   * @throws Exception
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public void testEvaluate_1()
+      throws Exception {
+    ConcurrentFitnessFunction func = new ConcurrentFitnessFunction(false);
+    m_gpconf.setFitnessFunction(func);
+    GPPopulation pop = createPopulation(20);
+    assertEquals(20, new ParallelGPFitnessEvaluation(m_executor, 4).
+                 evaluate(m_gpconf, pop));
+    assertEquals(4, func.m_workers);
+    assertEquals(20.0d, pop.getGPProgram(19).getFitnessValueDirectly(), DELTA);
+  }
+
+  /**
+   * Fitness functions not implementing IConcurrentFitnessFunction are not
+   * evaluated.
+   *
+   * @throws Exception
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public void testEvaluate_2()
+      throws Exception {
+    m_gpconf.setFitnessFunction(new GPFitnessFunction() {
+      protected double evaluate(IGPProgram a_subject) {
+        return 1.0d;
+      }
+    });
+    GPPopulation pop = createPopulation(10);
+    assertEquals(0, new ParallelGPFitnessEvaluation(m_executor, 2).
+                 evaluate(m_gpconf, pop));
+    assertTrue(pop.getGPProgram(0).getFitnessValueDirectly() < 0);
+  }
+
+  /**
+   * GPGenotype.calcFitness uses the fitness executor of the configuration.
+   *
+   * @throws Exception
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public void testCalcFitness_0()
+      throws Exception {
+    m_gpconf.setFitnessFunction(new ConcurrentFitnessFunction(true));
+    m_gpconf.setFitnessExecutor(m_executor, 2);
+    GPPopulation pop = createPopulation(10);
+    GPGenotype gen = new GPGenotype(m_gpconf, pop, null, null, null, null, null,
+                                    1);
+    gen.calcFitness();
+    assertEquals(55.0d, gen.getTotalFitness(), DELTA);
+  }
+
+  /**
+   * Returns the value of the program, after checking that the stack is not
+   * shared with other threads.
+   */
+  class ConcurrentFitnessFunction
+      extends GPFitnessFunction implements IConcurrentFitnessFunction {
+    private boolean m_threadSafe;
+
+    int m_workers;
+
+    ConcurrentFitnessFunction(boolean a_threadSafe) {
+      m_threadSafe = a_threadSafe;
+    }
+
+    protected double evaluate(IGPProgram a_subject) {
+      GPConfiguration conf = a_subject.getGPConfiguration();
+      conf.pushToStack(a_subject);
+      Thread.yield();
+      if (conf.stackSize() != 1 || conf.popFromStack() != a_subject) {
+        throw new IllegalStateException("Stack is shared!");
+      }
+      return a_subject.execute_double(0, new Object[0]);
+    }
+
+    public boolean isThreadSafe() {
+      return m_threadSafe;
+    }
+
+    public synchronized Object newWorkerInstance() {
+      m_workers++;
+      return new ConcurrentFitnessFunction(true);
+    }
+  }
+}
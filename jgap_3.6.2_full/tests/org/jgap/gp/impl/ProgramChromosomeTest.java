@@ -727,6 +727,63 @@ public class ProgramChromosomeTest
     assertEquals(0, pc.getDepth(5));
   }
 
+  /**
+   * Children looked up via the index equal those found by scanning.
+   *
+   * @throws Exception
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public void testGetChild_0()
+      throws Exception {
+    ProgramChromosome pc = new ProgramChromosome(m_gpconf);
+    pc.setGene(0, new IfElse(m_gpconf, CommandGene.IntegerClass)); //Node 0
+    pc.setGene(1, new Variable(m_gpconf, "Y", CommandGene.IntegerClass));
+    pc.setGene(2, new Add(m_gpconf, CommandGene.IntegerClass)); // Node 2
+    pc.setGene(3, new Variable(m_gpconf, "X", CommandGene.IntegerClass));
+    pc.setGene(4,
+               new Constant(m_gpconf, CommandGene.IntegerClass, new Integer(3)));
+    pc.setGene(5, new Variable(m_gpconf, "Z", CommandGene.IntegerClass));
+    pc.redepth();
+    assertEquals(1, pc.getChild(0, 0));
+    assertEquals(2, pc.getChild(0, 1));
+    assertEquals(5, pc.getChild(0, 2));
+    assertEquals(3, pc.getChild(2, 0));
+    assertEquals(4, pc.getChild(2, 1));
+    for (int i = 0; i < 6; i++) {
+      for (int j = 0; j < 3; j++) {
+        assertEquals(pc.findChild(i, j), pc.getChild(i, j));
+      }
+    }
+  }
+
+  /**
+   * Index is rebuilt after modification of the program.
+   *
+   * @throws Exception
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public void testGetChild_1()
+      throws Exception {
+    ProgramChromosome pc = new ProgramChromosome(m_gpconf);
+    pc.setGene(0, new Add(m_gpconf, CommandGene.IntegerClass));
+    pc.setGene(1, new Variable(m_gpconf, "Y", CommandGene.IntegerClass));
+    pc.setGene(2, new Variable(m_gpconf, "Z", CommandGene.IntegerClass));
+    pc.redepth();
+    assertEquals(2, pc.getChild(0, 1));
+    pc.setGene(1, new Add(m_gpconf, CommandGene.IntegerClass));
+    pc.setGene(3, new Variable(m_gpconf, "X", CommandGene.IntegerClass));
+    pc.setGene(4, new Variable(m_gpconf, "Y", CommandGene.IntegerClass));
+    pc.redepth();
+    assertEquals(4, pc.getChild(0, 1));
+    assertEquals(2, pc.getChild(1, 0));
+    assertEquals(3, pc.getChild(1, 1));
+    assertEquals(-1, pc.getChild(2, 0));
+  }
+
   /**
    * @throws Exception
    *
@@ -46,6 +46,8 @@ public class AllImplTests
     suite.addTest(DefaultInitializerTest.suite());
     suite.addTest(DefaultMutationRateCalculatorTest.suite());
     suite.addTest(DoubleGeneTest.suite());
+    suite.addTest(EvaluatedChromosomeStoreTest.suite());
+    suite.addTest(FitnessProportionateSelectorTest.suite());
     suite.addTest(FixedBinaryGeneTest.suite());
     suite.addTest(FittestPopulationMergerTest.suite());
     suite.addTest(GaussianMutationOperatorTest.suite());
@@ -58,11 +60,18 @@ public class AllImplTests
     suite.addTest(MutationOperatorTest.suite());
     suite.addTest(SwappingMutationOperatorTest.suite());
     suite.addTest(NumberGeneTest.suite());
+    suite.addTest(NumericChromosomeTest.suite());
+    suite.addTest(NumericPopulationStoreTest.suite());
+    suite.addTest(ParallelFitnessEvaluationTest.suite());
+    suite.addTest(ParallelGeneticOperationTest.suite());
     suite.addTest(PoolTest.suite());
     suite.addTest(SeededRandomGeneratorTest.suite());
     suite.addTest(SetGeneTest.suite());
+    suite.addTest(SplittableRandomGeneratorTest.suite());
+    suite.addTest(SteadyStateBreederTest.suite());
     suite.addTest(StockRandomGeneratorTest.suite());
     suite.addTest(StringGeneTest.suite());
+    suite.addTest(ThreadLocalChromosomePoolTest.suite());
     suite.addTest(ThresholdSelectorTest.suite());
     suite.addTest(TournamentSelectorTest.suite());
     suite.addTest(TwoWayMutationOperatorTest.suite());
@@ -339,6 +339,42 @@ public class BestChromosomesSelectorTest
     assertEquals(bestChrom, bestChroms[3]);
   }
 
+  /**
+   * Only the chromosomes selected are sorted.
+   *
+   * @throws Exception
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public void testSelect_5()
+      throws Exception {
+    BestChromosomesSelector selector = new BestChromosomesSelector(conf);
+    selector.setDoubletteChromosomesAllowed(false);
+    Gene gene = new IntegerGene(conf, 0, 100);
+    for (int i = 0; i < 20; i++) {
+      Chromosome chrom = new Chromosome(conf, gene, 1);
+      chrom.setFitnessValueDirectly( (i * 7) % 20);
+      selector.add(chrom);
+    }
+    Population pop = new Population(conf);
+    selector.select(3, null, pop);
+    assertEquals(3, pop.size());
+    assertEquals(19, pop.getChromosome(0).getFitnessValue(), DELTA);
+    assertEquals(18, pop.getChromosome(1).getFitnessValue(), DELTA);
+    assertEquals(17, pop.getChromosome(2).getFitnessValue(), DELTA);
+    assertEquals(new Integer(3), privateAccessor.getField(selector,
+        "m_sortedCount"));
+    // Selecting more sorts more.
+    // --------------------------
+    pop = new Population(conf);
+    selector.select(5, null, pop);
+    assertEquals(5, pop.size());
+    for (int i = 0; i < 5; i++) {
+      assertEquals(19 - i, pop.getChromosome(i).getFitnessValue(), DELTA);
+    }
+  }
+
   /**
    * @throws Exception
    *
@@ -569,4 +569,56 @@ public class CrossoverOperatorTest
     op2 = new CrossoverOperator(conf, new DefaultCrossoverRateCalculator(conf));
     assertEquals(0, op.compareTo(op2));
   }
+
+  /**
+   * Copy-on-write cloning: only the crossed over genes are copied, the
+   * parents stay unchanged.
+   *
+   * @throws Exception
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public void testOperate_4()
+      throws Exception {
+    DefaultConfiguration conf = new DefaultConfiguration();
+    conf.setCopyOnWriteCloning(true);
+    RandomGeneratorForTesting rand = new RandomGeneratorForTesting();
+    rand.setNextIntSequence(new int[] {
+                            0, 1, 2});
+    conf.setRandomGenerator(rand);
+    conf.setFitnessFunction(new TestFitnessFunction());
+    Gene sampleGene = new IntegerGene(conf, 1, 10);
+    conf.setSampleChromosome(new Chromosome(conf, sampleGene, 4));
+    conf.setPopulationSize(2);
+    Chromosome[] chroms = new Chromosome[2];
+    for (int i = 0; i < 2; i++) {
+      chroms[i] = new Chromosome(conf, sampleGene, 4);
+      for (int j = 0; j < 4; j++) {
+        chroms[i].getGene(j).setAllele(new Integer(i * 4 + j + 1));
+      }
+      chroms[i].increaseAge();
+    }
+    List result = new Vector();
+    new CrossoverOperator(conf, 2).operate(new Population(conf, chroms),
+        result);
+    assertEquals(2, result.size());
+    Chromosome first = (Chromosome) result.get(0);
+    Chromosome second = (Chromosome) result.get(1);
+    int[] firstAlleles = new int[] {1, 2, 7, 8};
+    int[] secondAlleles = new int[] {5, 6, 3, 4};
+    for (int j = 0; j < 4; j++) {
+      assertEquals(firstAlleles[j],
+                   ( (Integer) first.getGene(j).getAllele()).intValue());
+      assertEquals(secondAlleles[j],
+                   ( (Integer) second.getGene(j).getAllele()).intValue());
+      assertEquals(j + 1,
+                   ( (Integer) chroms[0].getGene(j).getAllele()).intValue());
+      assertEquals(j + 5,
+                   ( (Integer) chroms[1].getGene(j).getAllele()).intValue());
+    }
+    assertSame(chroms[0].getGene(1), first.getGene(1));
+    assertSame(chroms[1].getGene(0), second.getGene(0));
+    assertNotSame(chroms[0].getGene(2), first.getGene(2));
+  }
 }
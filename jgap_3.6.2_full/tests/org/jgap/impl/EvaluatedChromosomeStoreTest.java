@@ -0,0 +1,137 @@
+/*
+ * This file is part of JGAP.
+ *
+ * JGAP offers a dual license model containing the LGPL as well as the MPL.
+ *
+ * For licensing information please see the file license.txt included with JGAP
+ * or have a look at the top of class org.jgap.Chromosome which representatively
+ * includes the JGAP license policy applicable for any file delivered with JGAP.
+ */
+package org.jgap.impl;
+
+import org.jgap.*;
+import junit.framework.*;
+
+/**
+ * Tests the EvaluatedChromosomeStore class.
+ *
+ * @author agent
+ * @since 3.7
+ */
+public class EvaluatedChromosomeStoreTest
+    extends JGAPTestCase {
+  /** String containing the CVS revision. Read out via reflection!*/
+  private final static String CVS_REVISION = "$Revision: 1.1 $";
+
+  public static Test suite() {
+    TestSuite suite = new TestSuite(EvaluatedChromosomeStoreTest.class);
+    return suite;
+  }
+
+  private IChromosome createChromosome(int a_value)
+      throws Exception {
+    IChromosome chrom = new Chromosome(conf, new IntegerGene(conf, 0, 1000),
+                                       3);
+    for (int i = 0; i < 3; i++) {
+      chrom.getGene(i).setAllele(new Integer(a_value + i));
+    }
+    return chrom;
+  }
+
+  /**
+   * @throws Exception
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public void testContains_0()
+      throws Exception {
+    EvaluatedChromosomeStore store = new EvaluatedChromosomeStore();
+    assertTrue(store.isEmpty());
+    store.add(createChromosome(1), 0);
+    assertEquals(1, store.size());
+    assertTrue(store.contains(createChromosome(1)));
+    assertFalse(store.contains(createChromosome(2)));
+    assertEquals(1, store.getHits());
+    assertEquals(1, store.getMisses());
+    store.resetCounters();
+    assertEquals(0, store.getHits());
+    assertEquals(0, store.getMisses());
+  }
+
+  /**
+   * Chromosomes with different fitness values are not equal.
+   *
+   * @throws Exception
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public void testContains_1()
+      throws Exception {
+    EvaluatedChromosomeStore store = new EvaluatedChromosomeStore();
+    store.add(createChromosome(1), 0);
+    IChromosome chrom = createChromosome(1);
+    chrom.setFitnessValueDirectly(20.0d);
+    assertFalse(store.contains(chrom));
+  }
+
+  /**
+   * Size limit evicts the oldest entries.
+   *
+   * @throws Exception
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public void testAdd_0()
+      throws Exception {
+    EvaluatedChromosomeStore store = new EvaluatedChromosomeStore(3, 0);
+    for (int i = 0; i < 5; i++) {
+      store.add(createChromosome(i * 10), i);
+    }
+    assertEquals(3, store.size());
+    assertEquals(2, store.getEvictions());
+    assertFalse(store.contains(createChromosome(0)));
+    assertFalse(store.contains(createChromosome(10)));
+    assertTrue(store.contains(createChromosome(20)));
+    assertTrue(store.contains(createChromosome(40)));
+  }
+
+  /**
+   * Re-adding an entry makes it the youngest one.
+   *
+   * @throws Exception
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public void testAdd_1()
+      throws Exception {
+    EvaluatedChromosomeStore store = new EvaluatedChromosomeStore(2, 0);
+    store.add(createChromosome(0), 0);
+    store.add(createChromosome(10), 0);
+    store.add(createChromosome(0), 1);
+    store.add(createChromosome(20), 1);
+    assertTrue(store.contains(createChromosome(0)));
+    assertFalse(store.contains(createChromosome(10)));
+  }
+
+  /**
+   * @throws Exception
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public void testEvictOld_0()
+      throws Exception {
+    EvaluatedChromosomeStore store = new EvaluatedChromosomeStore(0, 2);
+    for (int i = 0; i < 5; i++) {
+      store.add(createChromosome(i * 10), i);
+    }
+    store.evictOld(5);
+    assertEquals(2, store.size());
+    assertFalse(store.contains(createChromosome(20)));
+    assertTrue(store.contains(createChromosome(30)));
+  }
+}
@@ -0,0 +1,233 @@
+/*
+ * This file is part of JGAP.
+ *
+ * JGAP offers a dual license model containing the LGPL as well as the MPL.
+ *
+ * For licensing information please see the file license.txt included with JGAP
+ * or have a look at the top of class org.jgap.Chromosome which representatively
+ * includes the JGAP license policy applicable for any file delivered with JGAP.
+ */
+package org.jgap.impl;
+
+import java.util.*;
+import org.jgap.*;
+import junit.framework.*;
+
+/**
+ * Tests the FitnessProportionateSelector class.
+ *
+ * @author agent
+ * @since 3.7
+ */
+public class FitnessProportionateSelectorTest
+    extends JGAPTestCase {
+  /** String containing the CVS revision. Read out via reflection!*/
+  private final static String CVS_REVISION = "$Revision: 1.1 $";
+
+  public static Test suite() {
+    TestSuite suite = new TestSuite(FitnessProportionateSelectorTest.class);
+    return suite;
+  }
+
+  public void setUp() {
+    super.setUp();
+    Configuration.reset();
+  }
+
+  /**
+   * The probabilities of the table are proportional to the weights.
+   *
+   * @throws Exception
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public void testAliasTable_0()
+      throws Exception {
+    double[] weights = new double[] {1.0d, 4.0d, 0.0d, 2.5d, 2.5d, -3.0d};
+    FitnessProportionateSelector.AliasTable table = new
+        FitnessProportionateSelector.AliasTable(weights, 6);
+    assertEquals(6, table.size());
+    assertEquals(0.1d, table.getProbability(0), DELTA);
+    assertEquals(0.4d, table.getProbability(1), DELTA);
+    assertEquals(0.0d, table.getProbability(2), DELTA);
+    assertEquals(0.25d, table.getProbability(3), DELTA);
+    assertEquals(0.25d, table.getProbability(4), DELTA);
+    assertEquals(0.0d, table.getProbability(5), DELTA);
+  }
+
+  /**
+   * Without positive weights, all indices are equally likely.
+   *
+   * @throws Exception
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public void testAliasTable_1()
+      throws Exception {
+    FitnessProportionateSelector.AliasTable table = new
+        FitnessProportionateSelector.AliasTable(new double[] {0.0d, 0.0d,
+        0.0d, 0.0d}, 4);
+    for (int i = 0; i < 4; i++) {
+      assertEquals(0.25d, table.getProbability(i), DELTA);
+    }
+    try {
+      new FitnessProportionateSelector.AliasTable(new double[0], 0);
+      fail();
+    } catch (IllegalArgumentException iex) {
+      ; //this is OK
+    }
+  }
+
+  /**
+   * Spinning follows the weights.
+   *
+   * @throws Exception
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public void testAliasTable_2()
+      throws Exception {
+    FitnessProportionateSelector.AliasTable table = new
+        FitnessProportionateSelector.AliasTable(new double[] {1.0d, 3.0d,
+        0.0d, 6.0d}, 4);
+    RandomGenerator rn = new StockRandomGenerator();
+    ( (StockRandomGenerator) rn).setSeed(4711);
+    int[] counts = new int[4];
+    int spins = 100000;
+    for (int i = 0; i < spins; i++) {
+      counts[table.spin(rn)]++;
+    }
+    assertEquals(0.1d, counts[0] / (double) spins, 0.01d);
+    assertEquals(0.3d, counts[1] / (double) spins, 0.01d);
+    assertEquals(0, counts[2]);
+    assertEquals(0.6d, counts[3] / (double) spins, 0.01d);
+  }
+
+  /**
+   * Selection adds the requested number of chromosomes, repeated ones as
+   * copies.
+   *
+   * @throws Exception
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public void testSelect_0()
+      throws Exception {
+    conf.setFitnessFunction(new TestFitnessFunction());
+    Gene gene = new IntegerGene(conf, 0, 10);
+    conf.setSampleChromosome(new Chromosome(conf, gene, 1));
+    FitnessProportionateSelector selector = new FitnessProportionateSelector(
+        conf);
+    IChromosome zero = new Chromosome(conf, gene, 1);
+    zero.setFitnessValueDirectly(0.0d);
+    IChromosome best = new Chromosome(conf, gene, 1);
+    best.setFitnessValueDirectly(5.0d);
+    Population pop = new Population(conf);
+    pop.addChromosome(zero);
+    pop.addChromosome(best);
+    Population toPop = new Population(conf);
+    selector.select(3, pop, toPop);
+    assertEquals(3, toPop.size());
+    assertSame(best, toPop.getChromosome(0));
+    assertNotSame(best, toPop.getChromosome(1));
+    assertEquals(best, toPop.getChromosome(1));
+    assertTrue(best.isSelectedForNextGeneration());
+    assertFalse(zero.isSelectedForNextGeneration());
+    assertSame(best, selector.getChromosome(1));
+    assertFalse(selector.returnsUniqueChromosomes());
+    selector.empty();
+    toPop = new Population(conf);
+    selector.select(2, null, toPop);
+    assertEquals(0, toPop.size());
+  }
+
+  /**
+   * Without doublettes, each chromosome is selected at most once, also if
+   * it has been added twice.
+   *
+   * @throws Exception
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public void testSelect_1()
+      throws Exception {
+    conf.setFitnessFunction(new TestFitnessFunction());
+    Gene gene = new IntegerGene(conf, 0, 10);
+    conf.setSampleChromosome(new Chromosome(conf, gene, 1));
+    FitnessProportionateSelector selector = new FitnessProportionateSelector(
+        conf);
+    selector.setDoubletteChromosomesAllowed(false);
+    assertTrue(selector.returnsUniqueChromosomes());
+    Population pop = new Population(conf);
+    for (int i = 0; i < 4; i++) {
+      IChromosome chrom = new Chromosome(conf, gene, 1);
+      chrom.setFitnessValueDirectly(i * i);
+      pop.addChromosome(chrom);
+    }
+    pop.addChromosome(pop.getChromosome(3));
+    for (int n = 1; n <= 5; n++) {
+      Population toPop = new Population(conf);
+      selector.select(n, pop, toPop);
+      selector.empty();
+      assertEquals(Math.min(n, 4), toPop.size());
+      Map distinct = new IdentityHashMap();
+      for (int i = 0; i < toPop.size(); i++) {
+        assertNull(distinct.put(toPop.getChromosome(i), toPop));
+      }
+      if (n < 4) {
+        // Zero fitness is only selected when nothing else is left.
+        // --------------------------------------------------------
+        assertFalse(distinct.containsKey(pop.getChromosome(0)));
+      }
+    }
+  }
+
+  /**
+   * Several threads may spin the same wheel with their own generators.
+   *
+   * @throws Exception
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public void testGetWheel_0()
+      throws Exception {
+    conf.setFitnessFunction(new TestFitnessFunction());
+    Gene gene = new IntegerGene(conf, 0, 10);
+    FitnessProportionateSelector selector = new FitnessProportionateSelector(
+        conf);
+    Population pop = new Population(conf);
+    for (int i = 0; i < 50; i++) {
+      IChromosome chrom = new Chromosome(conf, gene, 1);
+      chrom.setFitnessValueDirectly(i % 2);
+      pop.addChromosome(chrom);
+    }
+    selector.select(0, pop, new Population(conf));
+    final FitnessProportionateSelector.AliasTable wheel = selector.getWheel();
+    assertSame(wheel, selector.getWheel());
+    final int[][] counts = new int[4][2];
+    Thread[] threads = new Thread[4];
+    for (int t = 0; t < threads.length; t++) {
+      final int thread = t;
+      threads[t] = new Thread() {
+        public void run() {
+          RandomGenerator rn = new StockRandomGenerator();
+          for (int i = 0; i < 1000; i++) {
+            counts[thread][wheel.spin(rn) % 2]++;
+          }
+        }
+      };
+      threads[t].start();
+    }
+    for (int t = 0; t < threads.length; t++) {
+      threads[t].join();
+      assertEquals(0, counts[t][0]);
+      assertEquals(1000, counts[t][1]);
+    }
+  }
+}
@@ -0,0 +1,68 @@
+/*
+ * This file is part of JGAP.
+ *
+ * JGAP offers a dual license model containing the LGPL as well as the MPL.
+ *
+ * For licensing information please see the file license.txt included with JGAP
+ * or have a look at the top of class org.jgap.Chromosome which representatively
+ * includes the JGAP license policy applicable for any file delivered with JGAP.
+ */
+package org.jgap.impl;
+
+import org.jgap.*;
+
+/**
+ * Fitness function summing up the integer alleles weighted by their locus,
+ * supporting incremental evaluation. Counts the evaluations.
+ * Only for testing purpose!
+ *
+ * @author agent
+ * @since 3.7
+ */
+public class IncrementalSumFitnessFunction
+    extends FitnessFunction implements IIncrementalFitnessFunction {
+  /** String containing the CVS revision. Read out via reflection!*/
+  private final static String CVS_REVISION = "$Revision: 1.1 $";
+
+  /**
+   * Added to the sum to keep fitness values positive.
+   */
+  public final static double OFFSET = 1000000.0d;
+
+  public int m_fullEvaluations;
+
+  public int m_incrementalEvaluations;
+
+  public boolean m_refuse;
+
+  protected double evaluate(IChromosome a_subject) {
+    m_fullEvaluations++;
+    double sum = OFFSET;
+    for (int i = 0; i < a_subject.size(); i++) {
+      sum += (i + 1) * value(a_subject.getGene(i).getAllele());
+    }
+    return sum;
+  }
+
+  public double evaluateIncrementally(IChromosome a_subject,
+                                      FitnessDelta a_delta) {
+    if (m_refuse) {
+      return NO_FITNESS_VALUE;
+    }
+    m_incrementalEvaluations++;
+    double sum = a_delta.getParentFitness();
+    for (int i = 0; i < a_delta.size(); i++) {
+      int locus = a_delta.getLocus(i);
+      sum += (locus + 1) * (value(a_subject.getGene(locus).getAllele())
+                            - value(a_delta.getOldAllele(i)));
+    }
+    return sum;
+  }
+
+  private int value(Object a_allele) {
+    if (a_allele == null) {
+      return 0;
+    }
+    return ( (Integer) a_allele).intValue();
+  }
+}
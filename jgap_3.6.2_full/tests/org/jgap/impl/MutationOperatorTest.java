@@ -504,6 +504,57 @@ public class MutationOperatorTest
                  ( (IntegerGene) pop.getChromosome(2).getGene(0)).intValue());
   }
 
+  /**
+   * Mutated chromosomes carry the changes relative to their evaluated
+   * parents, also if mutated twice, and are evaluated incrementally.
+   *
+   * @throws Exception
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public void testOperate_9()
+      throws Exception {
+    Configuration conf = new DefaultConfiguration();
+    IncrementalSumFitnessFunction func = new IncrementalSumFitnessFunction();
+    conf.setFitnessFunction(func);
+    conf.setPopulationSize(10);
+    Population pop = new Population(conf);
+    for (int i = 0; i < 10; i++) {
+      Chromosome chrom = new Chromosome(conf, new IntegerGene(conf, 0, 100),
+                                        5);
+      for (int j = 0; j < 5; j++) {
+        chrom.getGene(j).setAllele(new Integer(i + j));
+      }
+      chrom.getFitnessValue();
+      pop.addChromosome(chrom);
+    }
+    new MutationOperator(conf, 1).operate(pop, pop.getChromosomes());
+    assertEquals(20, pop.size());
+    for (int i = 0; i < 10; i++) {
+      Chromosome child = (Chromosome) pop.getChromosome(10 + i);
+      FitnessDelta delta = child.getFitnessDelta();
+      assertEquals(5, delta.size());
+      assertEquals(pop.getChromosome(i).getFitnessValueDirectly(),
+                   delta.getParentFitness(), DELTA);
+      assertEquals(new Integer(i), delta.getOldAllele(0));
+    }
+    new MutationOperator(conf, 2).operate(pop, pop.getChromosomes());
+    assertEquals(10, func.m_fullEvaluations);
+    for (int i = 10; i < pop.size(); i++) {
+      IChromosome child = pop.getChromosome(i);
+      child.setFitnessValueDirectly(FitnessFunction.NO_FITNESS_VALUE);
+      child.getFitnessValue();
+    }
+    assertEquals(10, func.m_fullEvaluations);
+    assertEquals(pop.size() - 10, func.m_incrementalEvaluations);
+    for (int i = 10; i < pop.size(); i++) {
+      IChromosome child = pop.getChromosome(i);
+      assertEquals(func.evaluate(child), child.getFitnessValueDirectly(),
+                   DELTA);
+    }
+  }
+
   /**
    * Ensures operator is implementing Serializable
    * @throws Exception
@@ -577,4 +628,49 @@ public class MutationOperatorTest
     assertEquals( -1, op.compareTo(op2));
     assertEquals(1, op2.compareTo(op));
   }
+
+  /**
+   * Copy-on-write cloning: mutated genes are copied, the parents stay
+   * unchanged and share the other genes with their children.
+   *
+   * @throws Exception
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public void testOperate_10()
+      throws Exception {
+    Configuration conf = new DefaultConfiguration();
+    conf.setFitnessFunction(new TestFitnessFunction());
+    conf.setCopyOnWriteCloning(true);
+    conf.setPopulationSize(10);
+    Population pop = new Population(conf);
+    for (int i = 0; i < 10; i++) {
+      Chromosome chrom = new Chromosome(conf, new IntegerGene(conf, 0, 1000),
+                                        20);
+      for (int j = 0; j < 20; j++) {
+        chrom.getGene(j).setAllele(new Integer(i * 20 + j));
+      }
+      pop.addChromosome(chrom);
+    }
+    new MutationOperator(conf, 4).operate(pop, pop.getChromosomes());
+    assertTrue(pop.size() > 10);
+    for (int i = 0; i < 10; i++) {
+      for (int j = 0; j < 20; j++) {
+        assertEquals(new Integer(i * 20 + j),
+                     pop.getChromosome(i).getGene(j).getAllele());
+      }
+    }
+    int shared = 0;
+    for (int i = 10; i < pop.size(); i++) {
+      Chromosome child = (Chromosome) pop.getChromosome(i);
+      for (int j = 0; j < 20; j++) {
+        if (child.isGeneShared(j)) {
+          shared++;
+        }
+      }
+    }
+    assertTrue(shared > 0);
+    assertTrue(shared < (pop.size() - 10) * 20);
+  }
 }
@@ -0,0 +1,346 @@
+/*
+ * This file is part of JGAP.
+ *
+ * JGAP offers a dual license model containing the LGPL as well as the MPL.
+ *
+ * For licensing information please see the file license.txt included with JGAP
+ * or have a look at the top of class org.jgap.Chromosome which representatively
+ * includes the JGAP license policy applicable for any file delivered with JGAP.
+ */
+package org.jgap.impl;
+
+import org.jgap.*;
+import junit.framework.*;
+
+/**
+ * Tests the NumericChromosome class.
+ *
+ * @author agent
+ * @since 3.7
+ */
+public class NumericChromosomeTest
+    extends JGAPTestCase {
+  /** String containing the CVS revision. Read out via reflection!*/
+  private final static String CVS_REVISION = "$Revision: 1.1 $";
+
+  public static Test suite() {
+    TestSuite suite = new TestSuite(NumericChromosomeTest.class);
+    return suite;
+  }
+
+  public void setUp() {
+    super.setUp();
+    Configuration.reset();
+  }
+
+  private Gene[] createGenes()
+      throws Exception {
+    Gene[] genes = new Gene[3];
+    genes[0] = new DoubleGene(conf, -1.0d, 1.0d);
+    genes[0].setAllele(new Double(0.5d));
+    genes[1] = new IntegerGene(conf, 0, 10);
+    genes[1].setAllele(new Integer(7));
+    genes[2] = new DoubleGene(conf, 2.0d, 4.0d);
+    genes[2].setAllele(new Double(3.0d));
+    return genes;
+  }
+
+  /**
+   * Bounds, types and alleles are taken from the genes.
+   *
+   * @throws Exception
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public void testConstruct_0()
+      throws Exception {
+    NumericChromosome chrom = new NumericChromosome(conf, createGenes());
+    assertEquals(3, chrom.size());
+    assertEquals(0.5d, chrom.getDouble(0), DELTA);
+    assertEquals(7, chrom.getInt(1));
+    assertEquals(3.0d, chrom.getDouble(2), DELTA);
+    assertFalse(chrom.isInteger(0));
+    assertTrue(chrom.isInteger(1));
+    assertEquals(2.0d, chrom.getLowerBound(2), DELTA);
+    assertEquals(10.0d, chrom.getUpperBound(1), DELTA);
+  }
+
+  /**
+   * Invalid setups are rejected.
+   *
+   * @throws Exception
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public void testConstruct_1()
+      throws Exception {
+    try {
+      new NumericChromosome(conf, new double[] {2.0d},
+                            new double[] {1.0d}, null);
+      fail();
+    } catch (IllegalArgumentException iex) {
+      ; //this is OK
+    }
+    try {
+      new NumericChromosome(conf, new double[] {0.5d},
+                            new double[] {1.0d}, new boolean[] {true});
+      fail();
+    } catch (IllegalArgumentException iex) {
+      ; //this is OK
+    }
+    try {
+      new NumericChromosome(conf, new Gene[] {new BooleanGene(conf)});
+      fail();
+    } catch (IllegalArgumentException iex) {
+      ; //this is OK
+    }
+  }
+
+  /**
+   * Values out of bounds are mapped like the genes do, integer values are
+   * rounded.
+   *
+   * @throws Exception
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public void testSetDouble_0()
+      throws Exception {
+    RandomGeneratorForTesting generator = new RandomGeneratorForTesting(0.25d);
+    generator.setNextInt(3);
+    conf.setRandomGenerator(generator);
+    NumericChromosome chrom = new NumericChromosome(conf, createGenes());
+    chrom.setDouble(0, 5.0d);
+    assertEquals(-0.5d, chrom.getDouble(0), DELTA);
+    chrom.setDouble(1, 3.6d);
+    assertEquals(4, chrom.getInt(1));
+    chrom.setInt(1, 11);
+    assertEquals(3, chrom.getInt(1));
+    chrom.setDouble(2, 3.5d);
+    assertEquals(3.5d, chrom.getDouble(2), DELTA);
+  }
+
+  /**
+   * Random integer values cover the bounds with the same probability as the
+   * values in between.
+   *
+   * @throws Exception
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public void testSetToRandomValue_0()
+      throws Exception {
+    NumericChromosome chrom = new NumericChromosome(conf, createGenes());
+    RandomGeneratorForTesting generator = new RandomGeneratorForTesting(0.5d);
+    generator.setNextIntSequence(new int[] {0, 10});
+    chrom.setToRandomValue(1, generator);
+    assertEquals(0, chrom.getInt(1));
+    chrom.setToRandomValue(1, generator);
+    assertEquals(10, chrom.getInt(1));
+    chrom.setToRandomValue(0, generator);
+    assertEquals(0.0d, chrom.getDouble(0), DELTA);
+  }
+
+  /**
+   * Mutation has the same effect as with the genes.
+   *
+   * @throws Exception
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public void testMutate_0()
+      throws Exception {
+    Gene[] genes = createGenes();
+    NumericChromosome chrom = new NumericChromosome(conf, genes);
+    for (int i = 0; i < genes.length; i++) {
+      genes[i].applyMutation(0, 0.13d);
+      chrom.mutate(i, 0.13d);
+      assertEquals( ( (Number) genes[i].getAllele()).doubleValue(),
+                   chrom.getDouble(i), DELTA);
+    }
+  }
+
+  /**
+   * The views read and write the alleles of the chromosome.
+   *
+   * @throws Exception
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public void testGetGenes_0()
+      throws Exception {
+    NumericChromosome chrom = new NumericChromosome(conf, createGenes());
+    Gene[] genes = chrom.getGenes();
+    assertSame(genes, chrom.getGenes());
+    assertTrue(genes[0] instanceof DoubleGene);
+    assertTrue(genes[1] instanceof IntegerGene);
+    assertEquals(new Integer(7), genes[1].getAllele());
+    assertEquals(0.5d, ( (DoubleGene) genes[0]).doubleValue(), DELTA);
+    genes[2].setAllele(new Double(2.5d));
+    assertEquals(2.5d, chrom.getDouble(2), DELTA);
+    chrom.setInt(1, 2);
+    assertEquals(2, ( (IntegerGene) genes[1]).intValue());
+    Gene detached = genes[0].newGene();
+    assertEquals(DoubleGene.class, detached.getClass());
+    assertEquals(1.0d, ( (DoubleGene) detached).getUpperBound(), DELTA);
+    assertEquals(0, genes[0].compareTo(genes[0]));
+    assertTrue(genes[2].compareTo(chrom.getGene(0)) > 0);
+  }
+
+  /**
+   * Copies are independent of the original.
+   *
+   * @throws Exception
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public void testClone_0()
+      throws Exception {
+    NumericChromosome chrom = new NumericChromosome(conf, createGenes());
+    chrom.setFitnessValue(5.0d);
+    NumericChromosome copy = (NumericChromosome) chrom.clone();
+    assertEquals(chrom, copy);
+    assertEquals(chrom.hashCode(), copy.hashCode());
+    assertEquals(5.0d, copy.getFitnessValueDirectly(), DELTA);
+    copy.setDouble(0, -0.5d);
+    assertEquals(0.5d, chrom.getDouble(0), DELTA);
+    assertTrue(chrom.compareTo(copy) > 0);
+  }
+
+  /**
+   * Pooled chromosomes with other bounds are handed back to the pool, not
+   * counted as hits.
+   *
+   * @throws Exception
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public void testClone_1()
+      throws Exception {
+    ThreadLocalChromosomePool pool = new ThreadLocalChromosomePool();
+    conf.setChromosomePool(pool);
+    NumericChromosome chrom = new NumericChromosome(conf, createGenes());
+    NumericChromosome other = new NumericChromosome(conf, createGenes());
+    other.cleanup();
+    NumericChromosome copy = (NumericChromosome) chrom.clone();
+    assertNotSame(other, copy);
+    assertEquals(chrom, copy);
+    assertEquals(0, pool.getHitCount());
+    assertEquals(1, pool.getSharedSize());
+    // A chromosome sharing the bounds is reused.
+    // ------------------------------------------
+    pool.clear();
+    NumericChromosome copy2 = (NumericChromosome) copy.clone();
+    copy2.cleanup();
+    assertSame(copy2, chrom.clone());
+    assertEquals(1, pool.getHitCount());
+  }
+
+  /**
+   * A pooled chromosome forgets the state of incremental fitness evaluation.
+   *
+   * @throws Exception
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public void testCleanup_0()
+      throws Exception {
+    ThreadLocalChromosomePool pool = new ThreadLocalChromosomePool();
+    conf.setChromosomePool(pool);
+    NumericChromosome chrom = new NumericChromosome(conf, createGenes());
+    NumericChromosome other = (NumericChromosome) chrom.clone();
+    other.setFitnessState("state");
+    other.setFitnessDelta(new FitnessDelta(1.0d, "state"));
+    other.cleanup();
+    assertNull(other.getFitnessState());
+    assertNull(other.getFitnessDelta());
+    assertFalse(other.isFitnessEvaluated());
+    // Released to the pool without cleanup.
+    // -------------------------------------
+    pool.clear();
+    other.setFitnessState("state");
+    other.setFitnessDelta(new FitnessDelta(1.0d, "state"));
+    pool.releaseChromosome(other);
+    NumericChromosome copy = (NumericChromosome) chrom.clone();
+    assertSame(other, copy);
+    assertNull(copy.getFitnessState());
+    assertNull(copy.getFitnessDelta());
+  }
+
+  /**
+   * The hash code equals the one of a Chromosome with the same genes.
+   *
+   * @throws Exception
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public void testHashCode_0()
+      throws Exception {
+    Gene[] genes = createGenes();
+    NumericChromosome chrom = new NumericChromosome(conf, genes);
+    Chromosome other = new Chromosome(conf, genes);
+    assertEquals(other.hashCode(), chrom.hashCode());
+  }
+
+  /**
+   * Exchanging a range of alleles.
+   *
+   * @throws Exception
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public void testCrossover_0()
+      throws Exception {
+    NumericChromosome chrom1 = new NumericChromosome(conf, createGenes());
+    NumericChromosome chrom2 = new NumericChromosome(conf, createGenes());
+    chrom2.setDouble(0, -1.0d);
+    chrom2.setInt(1, 1);
+    chrom2.setDouble(2, 4.0d);
+    chrom1.crossover(chrom2, 1, 3);
+    assertEquals(0.5d, chrom1.getDouble(0), DELTA);
+    assertEquals(1, chrom1.getInt(1));
+    assertEquals(4.0d, chrom1.getDouble(2), DELTA);
+    assertEquals(-1.0d, chrom2.getDouble(0), DELTA);
+    assertEquals(7, chrom2.getInt(1));
+    assertEquals(3.0d, chrom2.getDouble(2), DELTA);
+  }
+
+  /**
+   * A genotype with a NumericChromosome as sample evolves a population of
+   * NumericChromosomes.
+   *
+   * @throws Exception
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public void testEvolve_0()
+      throws Exception {
+    conf.setFitnessFunction(new TestFitnessFunction());
+    conf.setSampleChromosome(new NumericChromosome(conf, createGenes()));
+    conf.setPopulationSize(20);
+    Genotype genotype = Genotype.randomInitialGenotype(conf);
+    genotype.evolve(3);
+    Population pop = genotype.getPopulation();
+    assertTrue(pop.size() > 0);
+    for (int i = 0; i < pop.size(); i++) {
+      NumericChromosome chrom = (NumericChromosome) pop.getChromosome(i);
+      for (int j = 0; j < chrom.size(); j++) {
+        assertTrue(chrom.getDouble(j) >= chrom.getLowerBound(j));
+        assertTrue(chrom.getDouble(j) <= chrom.getUpperBound(j));
+      }
+      assertEquals(Math.round(chrom.getDouble(1)), chrom.getDouble(1), 0.0d);
+    }
+  }
+}
@@ -0,0 +1,247 @@
+/*
+ * This file is part of JGAP.
+ *
+ * JGAP offers a dual license model containing the LGPL as well as the MPL.
+ *
+ * For licensing information please see the file license.txt included with JGAP
+ * or have a look at the top of class org.jgap.Chromosome which representatively
+ * includes the JGAP license policy applicable for any file delivered with JGAP.
+ */
+package org.jgap.impl;
+
+import java.util.*;
+import org.jgap.*;
+import junit.framework.*;
+
+/**
+ * Tests the NumericPopulationStore class.
+ *
+ * @author agent
+ * @since 3.7
+ */
+public class NumericPopulationStoreTest
+    extends JGAPTestCase {
+  /** String containing the CVS revision. Read out via reflection!*/
+  private final static String CVS_REVISION = "$Revision: 1.1 $";
+
+  public static Test suite() {
+    TestSuite suite = new TestSuite(NumericPopulationStoreTest.class);
+    return suite;
+  }
+
+  public void setUp() {
+    super.setUp();
+    Configuration.reset();
+  }
+
+  private NumericChromosome createLayout()
+      throws Exception {
+    return new NumericChromosome(conf, new double[] {0.0d, 0.0d, -5.0d},
+                                 new double[] {1.0d, 10.0d, 5.0d},
+                                 new boolean[] {false, true, false});
+  }
+
+  private NumericChromosome createChromosome(NumericChromosome a_layout,
+      double a_value, double a_fitness) {
+    NumericChromosome chrom = (NumericChromosome) a_layout.clone();
+    chrom.setDouble(0, a_value);
+    chrom.setDouble(1, 3.0d);
+    chrom.setDouble(2, -a_value);
+    chrom.setFitnessValueDirectly(a_fitness);
+    return chrom;
+  }
+
+  /**
+   * Chromosomes are copied into rows, the store grows as needed.
+   *
+   * @throws Exception
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public void testAdd_0()
+      throws Exception {
+    NumericChromosome layout = createLayout();
+    NumericPopulationStore store = new NumericPopulationStore(layout, 2, false);
+    for (int i = 0; i < 5; i++) {
+      assertEquals(i, store.add(createChromosome(layout, i / 10.0d, i)));
+    }
+    assertEquals(5, store.size());
+    assertTrue(store.getCapacity() >= 5);
+    assertEquals(3, store.getChromosomeLength());
+    assertEquals(0.4d, store.getAllele(4, 0), DELTA);
+    assertEquals(3.0d, store.getAllele(4, 1), DELTA);
+    assertEquals(-0.2d, store.getAllele(2, 2), DELTA);
+    assertEquals(3.0d, store.getFitnessValue(3), DELTA);
+    Gene[] genes = new Gene[] {new DoubleGene(conf, 0, 1),
+        new IntegerGene(conf, 0, 10), new DoubleGene(conf, -5, 5)};
+    genes[0].setAllele(new Double(0.7d));
+    genes[1].setAllele(new Integer(9));
+    genes[2].setAllele(new Double(1.5d));
+    int row = store.add(new Chromosome(conf, genes));
+    assertEquals(9.0d, store.getAllele(row, 1), DELTA);
+    try {
+      store.add(new Chromosome(conf, new Gene[] {genes[0]}));
+      fail();
+    } catch (IllegalArgumentException iex) {
+      ; //this is OK
+    }
+  }
+
+  /**
+   * The same with the alleles outside the Java heap.
+   *
+   * @throws Exception
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public void testAdd_1()
+      throws Exception {
+    NumericChromosome layout = createLayout();
+    NumericPopulationStore store = new NumericPopulationStore(layout, 1, true);
+    assertTrue(store.isOffHeap());
+    for (int i = 0; i < 10; i++) {
+      store.add(createChromosome(layout, i / 10.0d, i));
+    }
+    for (int i = 0; i < 10; i++) {
+      assertEquals(i / 10.0d, store.getAllele(i, 0), DELTA);
+      assertEquals( -i / 10.0d, store.getAllele(i, 2), DELTA);
+    }
+    assertEquals(9, store.getFittest());
+  }
+
+  /**
+   * Removing a row moves the last row into its place.
+   *
+   * @throws Exception
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public void testRemove_0()
+      throws Exception {
+    NumericChromosome layout = createLayout();
+    NumericPopulationStore store = new NumericPopulationStore(layout, 4, false);
+    for (int i = 0; i < 4; i++) {
+      store.add(createChromosome(layout, i / 10.0d, i));
+    }
+    store.setAge(3, 7);
+    store.remove(1);
+    assertEquals(3, store.size());
+    assertEquals(0.3d, store.getAllele(1, 0), DELTA);
+    assertEquals(7, store.getAge(1));
+    store.truncate(1);
+    assertEquals(1, store.size());
+    try {
+      store.getChromosome(1);
+      fail();
+    } catch (IndexOutOfBoundsException iex) {
+      ; //this is OK
+    }
+  }
+
+  /**
+   * Views read and write the store.
+   *
+   * @throws Exception
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public void testGetChromosome_0()
+      throws Exception {
+    NumericChromosome layout = createLayout();
+    NumericPopulationStore store = new NumericPopulationStore(layout, 4, true);
+    store.add(createChromosome(layout, 0.5d, 2.0d));
+    NumericChromosome view = store.getChromosome(0);
+    assertSame(view, store.getChromosome(0));
+    assertNull(view.getValues());
+    assertEquals(0.5d, view.getDouble(0), DELTA);
+    assertEquals(3, view.getInt(1));
+    view.setDouble(2, 4.0d);
+    assertEquals(4.0d, store.getAllele(0, 2), DELTA);
+    view.getGene(0).setAllele(new Double(0.25d));
+    assertEquals(0.25d, store.getAllele(0, 0), DELTA);
+    assertEquals(2.0d, view.getFitnessValue(), DELTA);
+    store.setFitnessValue(0, 4.0d);
+    assertEquals(4.0d, view.getFitnessValueDirectly(), DELTA);
+    view.setFitnessValue(6.0d);
+    assertEquals(6.0d, store.getFitnessValue(0), DELTA);
+    view.increaseAge();
+    assertEquals(1, store.getAge(0));
+    NumericChromosome copy = (NumericChromosome) view.clone();
+    assertNotNull(copy.getValues());
+    assertEquals(view, copy);
+    copy.setDouble(0, 0.75d);
+    assertEquals(0.25d, store.getAllele(0, 0), DELTA);
+  }
+
+  /**
+   * Fitness values are computed for rows without one.
+   *
+   * @throws Exception
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public void testEvaluate_0()
+      throws Exception {
+    conf.setFitnessFunction(new FitnessFunction() {
+      protected double evaluate(IChromosome a_subject) {
+        return ( (NumericChromosome) a_subject).getDouble(0) * 10;
+      }
+    });
+    NumericChromosome layout = createLayout();
+    NumericPopulationStore store = new NumericPopulationStore(layout, 4, false);
+    store.add(createChromosome(layout, 0.5d, -1));
+    store.add(createChromosome(layout, 0.2d, 7.0d));
+    store.add(createChromosome(layout, 0.9d, -1));
+    assertEquals(2, store.evaluate());
+    assertEquals(5.0d, store.getFitnessValue(0), DELTA);
+    assertEquals(7.0d, store.getFitnessValue(1), DELTA);
+    assertEquals(2, store.getFittest());
+  }
+
+  /**
+   * Existing selectors and operators work on the views.
+   *
+   * @throws Exception
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public void testToPopulation_0()
+      throws Exception {
+    NumericChromosome layout = createLayout();
+    conf.setSampleChromosome(layout);
+    conf.setFitnessFunction(new TestFitnessFunction());
+    conf.setPopulationSize(10);
+    NumericPopulationStore store = new NumericPopulationStore(layout, 10, false);
+    for (int i = 0; i < 10; i++) {
+      store.add(createChromosome(layout, i / 10.0d, i));
+    }
+    Population pop = store.toPopulation();
+    assertEquals(10, pop.size());
+    BestChromosomesSelector selector = new BestChromosomesSelector(conf);
+    selector.add(pop.getChromosome(2));
+    selector.add(pop.getChromosome(8));
+    selector.add(pop.getChromosome(5));
+    Population selected = new Population(conf, 1);
+    selector.select(1, null, selected);
+    assertEquals(store.getChromosome(8), selected.getChromosome(0));
+    List candidates = new Vector();
+    new MutationOperator(conf, 1).operate(pop, candidates);
+    assertEquals(10, candidates.size());
+    for (int i = 0; i < candidates.size(); i++) {
+      store.add( (IChromosome) candidates.get(i));
+    }
+    assertEquals(20, store.size());
+    for (int i = 0; i < store.size(); i++) {
+      for (int j = 0; j < 3; j++) {
+        assertTrue(store.getAllele(i, j) >= layout.getLowerBound(j));
+        assertTrue(store.getAllele(i, j) <= layout.getUpperBound(j));
+      }
+    }
+  }
+}
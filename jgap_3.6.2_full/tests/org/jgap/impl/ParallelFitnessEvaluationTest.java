@@ -0,0 +1,266 @@
+/*
+ * This file is part of JGAP.
+ *
+ * JGAP offers a dual license model containing the LGPL as well as the MPL.
+ *
+ * For licensing information please see the file license.txt included with JGAP
+ * or have a look at the top of class org.jgap.Chromosome which representatively
+ * includes the JGAP license policy applicable for any file delivered with JGAP.
+ */
+package org.jgap.impl;
+
+import java.util.*;
+import java.util.concurrent.*;
+import org.jgap.*;
+import junit.framework.*;
+
+/**
+ * Tests the ParallelFitnessEvaluation class.
+ *
+ * @author agent
+ * @since 3.7
+ */
+public class ParallelFitnessEvaluationTest
+    extends JGAPTestCase {
+  /** String containing the CVS revision. Read out via reflection!*/
+  private final static String CVS_REVISION = "$Revision: 1.1 $";
+
+  private ExecutorService m_executor;
+
+  public static Test suite() {
+    TestSuite suite = new TestSuite(ParallelFitnessEvaluationTest.class);
+    return suite;
+  }
+
+  public void setUp() {
+    super.setUp();
+    Configuration.reset();
+    m_executor = ParallelFitnessEvaluation.createDefaultExecutor(4);
+  }
+
+  public void tearDown() {
+    m_executor.shutdownNow();
+  }
+
+  private List<IChromosome> createChromosomes(int a_count)
+      throws Exception {
+    return createChromosomes(conf, a_count);
+  }
+
+  /**
+   * Creates chromosomes of four integer genes, chromosome i having the
+   * alleles i to i + 3. Also used by ParallelGeneticOperationTest.
+   *
+   * @param a_conf the configuration to use, the sample chromosome and the
+   * population size are set
+   * @param a_count number of chromosomes to create
+   * @return the chromosomes
+   * @throws Exception
+   *
+   * @author agent
+   * @since 3.7
+   */
+  static List<IChromosome> createChromosomes(Configuration a_conf,
+                                             int a_count)
+      throws Exception {
+    a_conf.setPopulationSize(a_count);
+    Gene sampleGene = new IntegerGene(a_conf, 0, 100);
+    a_conf.setSampleChromosome(new Chromosome(a_conf, sampleGene, 4));
+    List<IChromosome> result = new ArrayList<IChromosome>();
+    for (int i = 0; i < a_count; i++) {
+      IChromosome chrom = new Chromosome(a_conf, sampleGene, 4);
+      for (int j = 0; j < 4; j++) {
+        chrom.getGene(j).setAllele(new Integer(i + j));
+      }
+      result.add(chrom);
+    }
+    return result;
+  }
+
+  /**
+   * Thread-safe fitness function: all chromosomes evaluated with the shared
+   * instance.
+   *
+   * @throws Exception
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public void testEvaluate_0()
+      throws Exception {
+    SumFitnessFunction func = new SumFitnessFunction(true);
+    conf.setFitnessFunction(func);
+    List<IChromosome> chroms = createChromosomes(50);
+    ParallelFitnessEvaluation eval = new ParallelFitnessEvaluation(
+        m_executor, 4);
+    assertEquals(50, eval.evaluate(conf, chroms));
+    for (int i = 0; i < 50; i++) {
+      assertEquals(4 * i + 6, chroms.get(i).getFitnessValueDirectly(), DELTA);
+    }
+    assertEquals(0, func.m_instancesCreated);
+  }
+
+  /**
+   * Fitness function requesting one instance per worker.
+   *
+   * @throws Exception
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public void testEvaluate_1()
+      throws Exception {
+    SumFitnessFunction func = new SumFitnessFunction(false);
+    conf.setFitnessFunction(func);
+    List<IChromosome> chroms = createChromosomes(50);
+    ParallelFitnessEvaluation eval = new ParallelFitnessEvaluation(
+        m_executor, 3);
+    assertEquals(50, eval.evaluate(conf, chroms));
+    for (int i = 0; i < 50; i++) {
+      assertEquals(4 * i + 6, chroms.get(i).getFitnessValueDirectly(), DELTA);
+    }
+    assertEquals(3, func.m_instancesCreated);
+  }
+
+  /**
+   * Fitness function not supporting concurrency: nothing evaluated.
+   *
+   * @throws Exception
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public void testEvaluate_2()
+      throws Exception {
+    conf.setFitnessFunction(new StaticFitnessFunction(2.0d));
+    List<IChromosome> chroms = createChromosomes(10);
+    ParallelFitnessEvaluation eval = new ParallelFitnessEvaluation(
+        m_executor, 4);
+    assertEquals(0, eval.evaluate(conf, chroms));
+    assertEquals(FitnessFunction.NO_FITNESS_VALUE,
+                 chroms.get(0).getFitnessValueDirectly(), DELTA);
+  }
+
+  /**
+   * Chromosomes with a fitness value are not evaluated again.
+   *
+   * @throws Exception
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public void testEvaluate_3()
+      throws Exception {
+    conf.setFitnessFunction(new SumFitnessFunction(true));
+    List<IChromosome> chroms = createChromosomes(10);
+    chroms.get(3).setFitnessValueDirectly(1234.0d);
+    ParallelFitnessEvaluation eval = new ParallelFitnessEvaluation(
+        m_executor, 4);
+    assertEquals(9, eval.evaluate(conf, chroms));
+    assertEquals(1234.0d, chroms.get(3).getFitnessValueDirectly(), DELTA);
+    assertEquals(14.0d, chroms.get(2).getFitnessValueDirectly(), DELTA);
+  }
+
+  /**
+   * Failure within a worker is propagated to the caller.
+   *
+   * @throws Exception
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public void testEvaluate_4()
+      throws Exception {
+    SumFitnessFunction func = new SumFitnessFunction(true);
+    func.m_fail = true;
+    conf.setFitnessFunction(func);
+    List<IChromosome> chroms = createChromosomes(10);
+    ParallelFitnessEvaluation eval = new ParallelFitnessEvaluation(
+        m_executor, 4);
+    try {
+      eval.evaluate(conf, chroms);
+      fail();
+    } catch (IllegalStateException iex) {
+      ; //this is OK
+    }
+  }
+
+  /**
+   * Evolution with a concurrent fitness stage leads to the same result as the
+   * sequential one.
+   *
+   * @throws Exception
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public void testEvolve_0()
+      throws Exception {
+    double[] sequential = evolve(null);
+    double[] parallel = evolve(m_executor);
+    assertEquals(sequential.length, parallel.length);
+    for (int i = 0; i < sequential.length; i++) {
+      assertEquals(sequential[i], parallel[i], DELTA);
+    }
+  }
+
+  private double[] evolve(ExecutorService a_executor)
+      throws Exception {
+    Configuration.reset();
+    Configuration gaConf = new DefaultConfiguration();
+    gaConf.setRandomGenerator(new SeededRandomGenerator(42));
+    gaConf.setFitnessFunction(new SumFitnessFunction(false));
+    gaConf.setFitnessExecutor(a_executor, 4);
+    gaConf.setPopulationSize(30);
+    gaConf.setSampleChromosome(new Chromosome(gaConf,
+        new IntegerGene(gaConf, 0, 100), 4));
+    Genotype genotype = Genotype.randomInitialGenotype(gaConf);
+    genotype.evolve(5);
+    List<IChromosome> chroms = genotype.getPopulation().getChromosomes();
+    double[] result = new double[chroms.size()];
+    for (int i = 0; i < result.length; i++) {
+      result[i] = chroms.get(i).getFitnessValueDirectly();
+    }
+    return result;
+  }
+
+  /**
+   * Sums up the integer alleles.
+   *
+   * @author agent
+   * @since 3.7
+   */
+  private static class SumFitnessFunction
+      extends FitnessFunction
+      implements IConcurrentFitnessFunction {
+    private boolean m_threadSafe;
+
+    int m_instancesCreated;
+
+    boolean m_fail;
+
+    public SumFitnessFunction(boolean a_threadSafe) {
+      m_threadSafe = a_threadSafe;
+    }
+
+    protected double evaluate(IChromosome a_subject) {
+      if (m_fail) {
+        throw new IllegalStateException("failure");
+      }
+      double result = 0;
+      for (int i = 0; i < a_subject.size(); i++) {
+        result += ( (Integer) a_subject.getGene(i).getAllele()).intValue();
+      }
+      return result;
+    }
+
+    public boolean isThreadSafe() {
+      return m_threadSafe;
+    }
+
+    public synchronized Object newWorkerInstance() {
+      m_instancesCreated++;
+      return new SumFitnessFunction(m_threadSafe);
+    }
+  }
+}
@@ -0,0 +1,253 @@
+/*
+ * This file is part of JGAP.
+ *
+ * JGAP offers a dual license model containing the LGPL as well as the MPL.
+ *
+ * For licensing information please see the file license.txt included with JGAP
+ * or have a look at the top of class org.jgap.Chromosome which representatively
+ * includes the JGAP license policy applicable for any file delivered with JGAP.
+ */
+package org.jgap.impl;
+
+import java.util.*;
+import java.util.concurrent.*;
+import org.jgap.*;
+import junit.framework.*;
+
+/**
+ * Tests the ParallelGeneticOperation class.
+ *
+ * @author agent
+ * @since 3.7
+ */
+public class ParallelGeneticOperationTest
+    extends JGAPTestCase {
+  /** String containing the CVS revision. Read out via reflection!*/
+  private final static String CVS_REVISION = "$Revision: 1.1 $";
+
+  private ExecutorService m_executor;
+
+  public static Test suite() {
+    TestSuite suite = new TestSuite(ParallelGeneticOperationTest.class);
+    return suite;
+  }
+
+  public void setUp() {
+    super.setUp();
+    Configuration.reset();
+    m_executor = ParallelFitnessEvaluation.createDefaultExecutor(4);
+  }
+
+  public void tearDown() {
+    m_executor.shutdownNow();
+  }
+
+  private Population createPopulation(int a_count)
+      throws Exception {
+    List<IChromosome> chroms = ParallelFitnessEvaluationTest.
+        createChromosomes(conf, a_count);
+    Population pop = new Population(conf);
+    for (int i = 0; i < a_count; i++) {
+      IChromosome chrom = chroms.get(i);
+      chrom.setAge(1);
+      pop.addChromosome(chrom);
+    }
+    return pop;
+  }
+
+  private List<Object> alleles(List a_chromosomes) {
+    List<Object> result = new ArrayList<Object>();
+    for (int i = 0; i < a_chromosomes.size(); i++) {
+      IChromosome chrom = (IChromosome) a_chromosomes.get(i);
+      for (int j = 0; j < chrom.size(); j++) {
+        result.add(chrom.getGene(j).getAllele());
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Results only depend on the seed, not on the scheduling of the tasks.
+   * Boolean genes are used as mutating them draws random numbers from the
+   * generator passed by the operator only.
+   *
+   * @throws Exception
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public void testOperate_0()
+      throws Exception {
+    conf.setPopulationSize(40);
+    Gene sampleGene = new BooleanGene(conf);
+    conf.setSampleChromosome(new Chromosome(conf, sampleGene, 8));
+    Population pop = new Population(conf);
+    for (int i = 0; i < 40; i++) {
+      IChromosome chrom = new Chromosome(conf, sampleGene, 8);
+      for (int j = 0; j < 8; j++) {
+        chrom.getGene(j).setAllele(Boolean.valueOf( (i + j) % 2 == 0));
+      }
+      pop.addChromosome(chrom);
+    }
+    GeneticOperator op = new MutationOperator(conf, 3);
+    ParallelGeneticOperation parallel = new ParallelGeneticOperation(
+        m_executor, 4);
+    List<Object> first = null;
+    for (int run = 0; run < 3; run++) {
+      conf.setRandomGenerator(new SplittableRandomGenerator(4711));
+      List candidates = new ArrayList();
+      assertEquals(4, parallel.operate(conf, op, pop, candidates));
+      List<Object> result = alleles(candidates);
+      if (first == null) {
+        first = result;
+        assertFalse(first.isEmpty());
+      }
+      else {
+        assertEquals(first, result);
+      }
+    }
+  }
+
+  /**
+   * Every gene mutated: one candidate per chromosome.
+   *
+   * @throws Exception
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public void testOperate_1()
+      throws Exception {
+    Population pop = createPopulation(30);
+    ParallelGeneticOperation parallel = new ParallelGeneticOperation(
+        m_executor, 4);
+    List candidates = new ArrayList();
+    parallel.operate(conf, new MutationOperator(conf, 1), pop, candidates);
+    assertEquals(30, candidates.size());
+    for (int i = 0; i < 30; i++) {
+      IChromosome candidate = (IChromosome) candidates.get(i);
+      assertFalse(pop.contains(candidate));
+      assertEquals(4, candidate.size());
+    }
+    assertEquals(30, pop.size());
+  }
+
+  /**
+   * The crossovers are divided between the partitions.
+   *
+   * @throws Exception
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public void testOperate_2()
+      throws Exception {
+    Population pop = createPopulation(20);
+    CrossoverOperator op = new CrossoverOperator(conf, 2);
+    List sequential = new ArrayList();
+    op.operate(pop, sequential);
+    List candidates = new ArrayList();
+    new ParallelGeneticOperation(m_executor, 3).operate(conf, op, pop,
+        candidates);
+    assertEquals(sequential.size(), candidates.size());
+    assertEquals(20, candidates.size());
+  }
+
+  /**
+   * Operators not supporting partitions as well as small populations are
+   * handled sequentially.
+   *
+   * @throws Exception
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public void testOperate_3()
+      throws Exception {
+    Population pop = createPopulation(1);
+    ParallelGeneticOperation parallel = new ParallelGeneticOperation(
+        m_executor, 4);
+    List candidates = new ArrayList();
+    assertEquals(1, parallel.operate(conf, new MutationOperator(conf, 1),
+                                     pop, candidates));
+    assertEquals(1, candidates.size());
+    pop = createPopulation(10);
+    candidates = new ArrayList();
+    assertEquals(1, parallel.operate(conf,
+        new RangedSwappingMutationOperator(conf, 2), pop, candidates));
+  }
+
+  /**
+   * @throws Exception
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public void testIsPartitioned_0()
+      throws Exception {
+    assertTrue(ParallelGeneticOperation.isPartitioned(
+        new MutationOperator(conf)));
+    assertTrue(ParallelGeneticOperation.isPartitioned(
+        new CrossoverOperator(conf)));
+    assertTrue(ParallelGeneticOperation.isPartitioned(
+        new SwappingMutationOperator(conf)));
+    assertTrue(ParallelGeneticOperation.isPartitioned(
+        new GreedyCrossover(conf)));
+    assertTrue(ParallelGeneticOperation.isPartitioned(
+        new GaussianMutationOperator(conf)));
+    // Overrides operate(Population, List) only.
+    // -----------------------------------------
+    assertFalse(ParallelGeneticOperation.isPartitioned(
+        new RangedSwappingMutationOperator(conf, 2)));
+    assertFalse(ParallelGeneticOperation.isPartitioned(
+        new AveragingCrossoverOperator(conf)));
+  }
+
+  /**
+   * @throws Exception
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public void testConstruct_0()
+      throws Exception {
+    try {
+      new ParallelGeneticOperation(null, 2);
+      fail();
+    } catch (IllegalArgumentException iex) {
+      ; //this is OK
+    }
+    ParallelGeneticOperation parallel = new ParallelGeneticOperation(
+        m_executor, 0);
+    assertEquals(Runtime.getRuntime().availableProcessors(),
+                 parallel.getParallelism());
+    assertSame(m_executor, parallel.getExecutor());
+  }
+
+  /**
+   * Evolution with genetic operators applied concurrently.
+   *
+   * @throws Exception
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public void testEvolve_0()
+      throws Exception {
+    Configuration config = new DefaultConfiguration();
+    config.setRandomGenerator(new SplittableRandomGenerator(13));
+    config.setFitnessFunction(new StaticFitnessFunction(2.0d));
+    config.setSampleChromosome(new Chromosome(config,
+        new IntegerGene(config, 0, 100), 5));
+    config.setPopulationSize(40);
+    config.setOperatorExecutor(m_executor, 4);
+    assertSame(m_executor, config.getOperatorExecutor());
+    assertEquals(4, config.getOperatorParallelism());
+    Genotype genotype = Genotype.randomInitialGenotype(config);
+    for (int i = 0; i < 5; i++) {
+      genotype.evolve();
+    }
+    assertEquals(40, genotype.getPopulation().size());
+    assertNotNull(genotype.getFittestChromosome());
+  }
+}
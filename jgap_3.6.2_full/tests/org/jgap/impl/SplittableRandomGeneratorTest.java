@@ -0,0 +1,229 @@
+/*
+ * This file is part of JGAP.
+ *
+ * JGAP offers a dual license model containing the LGPL as well as the MPL.
+ *
+ * For licensing information please see the file license.txt included with JGAP
+ * or have a look at the top of class org.jgap.Chromosome which representatively
+ * includes the JGAP license policy applicable for any file delivered with JGAP.
+ */
+package org.jgap.impl;
+
+import java.util.*;
+import org.jgap.*;
+import junit.framework.*;
+
+/**
+ * Tests the SplittableRandomGenerator class.
+ *
+ * @author agent
+ * @since 3.7
+ */
+public class SplittableRandomGeneratorTest
+    extends JGAPTestCase {
+  /** String containing the CVS revision. Read out via reflection!*/
+  private final static String CVS_REVISION = "$Revision: 1.1 $";
+
+  public static Test suite() {
+    TestSuite suite = new TestSuite(SplittableRandomGeneratorTest.class);
+    return suite;
+  }
+
+  /**
+   * Equal seeds give equal sequences, different ones different sequences.
+   *
+   * @throws Exception
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public void testConstruct_0()
+      throws Exception {
+    SplittableRandomGenerator rn1 = new SplittableRandomGenerator(4711);
+    SplittableRandomGenerator rn2 = new SplittableRandomGenerator(4711);
+    SplittableRandomGenerator rn3 = new SplittableRandomGenerator(4712);
+    assertEquals(4711, rn1.getSeed());
+    boolean different = false;
+    for (int i = 0; i < 100; i++) {
+      long value = rn1.nextLong();
+      assertEquals(value, rn2.nextLong());
+      different |= value != rn3.nextLong();
+    }
+    assertTrue(different);
+  }
+
+  /**
+   * @throws Exception
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public void testNextInt_0()
+      throws Exception {
+    SplittableRandomGenerator rn = new SplittableRandomGenerator(1);
+    int[] counts = new int[5];
+    for (int i = 0; i < 50000; i++) {
+      counts[rn.nextInt(5)]++;
+    }
+    for (int i = 0; i < counts.length; i++) {
+      assertEquals(10000, counts[i], 500);
+    }
+    for (int i = 0; i < 100; i++) {
+      int value = rn.nextInt(8);
+      assertTrue(value >= 0 && value < 8);
+    }
+    try {
+      rn.nextInt(0);
+      fail();
+    } catch (IllegalArgumentException iex) {
+      ; //this is OK
+    }
+  }
+
+  /**
+   * @throws Exception
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public void testNextDouble_0()
+      throws Exception {
+    SplittableRandomGenerator rn = new SplittableRandomGenerator( -1);
+    double sum = 0.0d;
+    int trueCount = 0;
+    for (int i = 0; i < 10000; i++) {
+      double value = rn.nextDouble();
+      assertTrue(value >= 0.0d && value < 1.0d);
+      float f = rn.nextFloat();
+      assertTrue(f >= 0.0f && f < 1.0f);
+      sum += value;
+      if (rn.nextBoolean()) {
+        trueCount++;
+      }
+    }
+    assertEquals(0.5d, sum / 10000, 0.02d);
+    assertEquals(5000, trueCount, 300);
+  }
+
+  /**
+   * Streams depend on the seed and the index only.
+   *
+   * @throws Exception
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public void testStream_0()
+      throws Exception {
+    SplittableRandomGenerator rn = new SplittableRandomGenerator(88);
+    SplittableRandomGenerator stream1 = rn.stream(1);
+    rn.nextLong();
+    SplittableRandomGenerator stream1b = rn.stream(1);
+    SplittableRandomGenerator stream2 = rn.stream(2);
+    SplittableRandomGenerator split = rn.split();
+    Set values = new HashSet();
+    for (int i = 0; i < 100; i++) {
+      long value = stream1.nextLong();
+      assertEquals(value, stream1b.nextLong());
+      values.add(new Long(value));
+      values.add(new Long(stream2.nextLong()));
+      values.add(new Long(split.nextLong()));
+    }
+    assertEquals(300, values.size());
+    SplittableRandomGenerator other = new SplittableRandomGenerator(88);
+    other.nextLong();
+    assertEquals(split.getSeed(), other.split().getSeed());
+  }
+
+  /**
+   * Each thread gets a stream of its own.
+   *
+   * @throws Exception
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public void testPerThread_0()
+      throws Exception {
+    SplittableRandomGenerator master = new SplittableRandomGenerator(7);
+    final RandomGenerator rn = master.perThread();
+    final long[][] values = new long[3][10];
+    Thread[] threads = new Thread[values.length];
+    for (int t = 0; t < threads.length; t++) {
+      final int thread = t;
+      threads[t] = new Thread() {
+        public void run() {
+          for (int i = 0; i < values[thread].length; i++) {
+            values[thread][i] = rn.nextLong();
+          }
+        }
+      };
+      threads[t].start();
+      threads[t].join();
+    }
+    for (int t = 0; t < threads.length; t++) {
+      SplittableRandomGenerator stream = master.stream(t);
+      for (int i = 0; i < values[t].length; i++) {
+        assertEquals(stream.nextLong(), values[t][i]);
+      }
+    }
+  }
+
+  /**
+   * Gaussian and Cauchy generators on top are reproducible.
+   *
+   * @throws Exception
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public void testLayered_0()
+      throws Exception {
+    GaussianRandomGenerator gauss1 = new GaussianRandomGenerator(1.0d,
+        new SplittableRandomGenerator(3));
+    GaussianRandomGenerator gauss2 = new GaussianRandomGenerator(1.0d,
+        new SplittableRandomGenerator(3));
+    CauchyRandomGenerator cauchy1 = new CauchyRandomGenerator(0.0d, 1.0d,
+        new SplittableRandomGenerator(3));
+    CauchyRandomGenerator cauchy2 = new CauchyRandomGenerator(0.0d, 1.0d,
+        new SplittableRandomGenerator(3));
+    double sum = 0.0d;
+    for (int i = 0; i < 10000; i++) {
+      double value = gauss1.nextDouble();
+      assertEquals(value, gauss2.nextDouble(), 0.0d);
+      sum += value;
+      assertEquals(cauchy1.nextDouble(), cauchy2.nextDouble(), 0.0d);
+    }
+    // Mean of the scaled gaussian is 0.5.
+    // -----------------------------------
+    assertEquals(0.5d, sum / 10000, 0.01d);
+    try {
+      new GaussianRandomGenerator(1.0d, null);
+      fail();
+    } catch (IllegalArgumentException iex) {
+      ; //this is OK
+    }
+  }
+
+  /**
+   * Clones and deserialized instances continue the sequence.
+   *
+   * @throws Exception
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public void testClone_0()
+      throws Exception {
+    SplittableRandomGenerator rn = new SplittableRandomGenerator(5);
+    rn.nextLong();
+    SplittableRandomGenerator copy = (SplittableRandomGenerator) rn.clone();
+    SplittableRandomGenerator deserialized = (SplittableRandomGenerator)
+        doSerialize(rn);
+    long value = rn.nextLong();
+    assertEquals(value, copy.nextLong());
+    assertEquals(value, deserialized.nextLong());
+    assertEquals(0, rn.compareTo(copy));
+    assertTrue(isSerializable(rn.perThread()));
+  }
+}
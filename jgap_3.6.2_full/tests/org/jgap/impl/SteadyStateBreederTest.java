@@ -0,0 +1,362 @@
+/*
+ * This file is part of JGAP.
+ *
+ * JGAP offers a dual license model containing the LGPL as well as the MPL.
+ *
+ * For licensing information please see the file license.txt included with JGAP
+ * or have a look at the top of class org.jgap.Chromosome which representatively
+ * includes the JGAP license policy applicable for any file delivered with JGAP.
+ */
+package org.jgap.impl;
+
+import java.util.*;
+import java.util.concurrent.*;
+import org.jgap.*;
+import org.jgap.audit.*;
+import org.jgap.eval.*;
+import org.jgap.event.*;
+import junit.framework.*;
+
+/**
+ * Tests the SteadyStateBreeder class.
+ *
+ * @author agent
+ * @since 3.7
+ */
+public class SteadyStateBreederTest
+    extends JGAPTestCase {
+  /** String containing the CVS revision. Read out via reflection!*/
+  private final static String CVS_REVISION = "$Revision: 1.1 $";
+
+  private ExecutorService m_executor;
+
+  private int m_evolvedEvents;
+
+  public static Test suite() {
+    TestSuite suite = new TestSuite(SteadyStateBreederTest.class);
+    return suite;
+  }
+
+  public void setUp() {
+    super.setUp();
+    Configuration.reset();
+    m_executor = ParallelFitnessEvaluation.createDefaultExecutor(4);
+  }
+
+  public void tearDown() {
+    m_executor.shutdownNow();
+  }
+
+  private Genotype createGenotype(FitnessFunction a_func, IBreeder a_breeder)
+      throws Exception {
+    conf.setFitnessFunction(a_func);
+    conf.setBreeder(a_breeder);
+    conf.setPopulationSize(20);
+    conf.setSampleChromosome(new Chromosome(conf, new IntegerGene(conf, 0, 50),
+        6));
+    conf.getEventManager().addEventListener(GeneticEvent.
+        GENOTYPE_EVOLVED_EVENT, new GeneticEventListener() {
+      public void geneticEventFired(GeneticEvent a_firedEvent) {
+        m_evolvedEvents++;
+      }
+    });
+    return Genotype.randomInitialGenotype(conf);
+  }
+
+  /**
+   * Evaluations kept in flight on the executor with a thread-safe fitness
+   * function. Each call to evolve() counts as one generation.
+   *
+   * @throws Exception
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public void testEvolve_0()
+      throws Exception {
+    SumFitnessFunction func = new SumFitnessFunction(true);
+    SteadyStateBreeder breeder = new SteadyStateBreeder(m_executor, 3, 0, 0);
+    Genotype genotype = createGenotype(func, breeder);
+    genotype.evolve(5);
+    assertEquals(5, conf.getGenerationNr());
+    assertEquals(5, m_evolvedEvents);
+    Population pop = genotype.getPopulation();
+    assertEquals(20, pop.size());
+    for (int i = 0; i < pop.size(); i++) {
+      assertTrue(pop.getChromosome(i).getFitnessValueDirectly() >= 0.0d);
+    }
+    // Evaluations keep running between generations.
+    // ---------------------------------------------
+    assertEquals(3, breeder.getPendingEvaluations());
+    assertEquals(0, func.m_instancesCreated);
+    assertSame(pop, breeder.getLastPopulation());
+    assertSame(conf, breeder.getLastConfiguration());
+  }
+
+  /**
+   * Fitness function requesting one instance per evaluation slot.
+   *
+   * @throws Exception
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public void testEvolve_1()
+      throws Exception {
+    SumFitnessFunction func = new SumFitnessFunction(false);
+    SteadyStateBreeder breeder = new SteadyStateBreeder(m_executor, 4, 3, 5);
+    Genotype genotype = createGenotype(func, breeder);
+    genotype.evolve(3);
+    assertEquals(3, conf.getGenerationNr());
+    assertEquals(20, genotype.getPopulation().size());
+    assertEquals(4, func.m_instancesCreated);
+  }
+
+  /**
+   * Fitness function not supporting concurrency: evaluated within the calling
+   * thread. The fittest individual survives tournament replacement.
+   *
+   * @throws Exception
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public void testEvolve_2()
+      throws Exception {
+    conf.setPreservFittestIndividual(true);
+    SteadyStateBreeder breeder = new SteadyStateBreeder(m_executor, 4, 4, 0);
+    Genotype genotype = createGenotype(new PlainSumFitnessFunction(),
+                                       breeder);
+    double best = genotype.getFittestChromosome().getFitnessValue();
+    for (int i = 0; i < 5; i++) {
+      genotype.evolve();
+      double fitness = genotype.getFittestChromosome().getFitnessValue();
+      assertTrue(fitness >= best);
+      best = fitness;
+    }
+    assertEquals(20, genotype.getPopulation().size());
+    assertEquals(0, breeder.getPendingEvaluations());
+  }
+
+  /**
+   * Bulk fitness functions are not supported.
+   *
+   * @throws Exception
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public void testEvolve_3()
+      throws Exception {
+    conf.setBulkFitnessFunction(new BulkFitnessFunction() {
+      public void evaluate(Population a_chromosomes) {
+      }
+    });
+    try {
+      new SteadyStateBreeder().evolve(new Population(conf), conf);
+      fail();
+    } catch (IllegalStateException iex) {
+      ; //this is OK
+    }
+  }
+
+  /**
+   * Replace-worst: a candidate less fit than the least fit member is
+   * discarded, otherwise the least fit member is replaced and cleaned up.
+   *
+   * @throws Exception
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public void testInsert_0()
+      throws Exception {
+    conf.setFitnessFunction(new PlainSumFitnessFunction());
+    Population pop = new Population(conf, 3);
+    for (int i = 0; i < 3; i++) {
+      pop.addChromosome(createChromosome(10 + i));
+    }
+    IChromosome worst = pop.getChromosome(0);
+    SteadyStateBreeder breeder = new SteadyStateBreeder(m_executor, 1, 0, 0);
+    IChromosome candidate = createChromosome(5);
+    breeder.insert(pop, conf, candidate);
+    assertSame(worst, pop.getChromosome(0));
+    assertEquals(FitnessFunction.NO_FITNESS_VALUE,
+                 candidate.getFitnessValueDirectly(), DELTA);
+    // A candidate as fit as the least fit member replaces it.
+    // -------------------------------------------------------
+    candidate = createChromosome(10);
+    breeder.insert(pop, conf, candidate);
+    assertSame(candidate, pop.getChromosome(0));
+    assertEquals(FitnessFunction.NO_FITNESS_VALUE,
+                 worst.getFitnessValueDirectly(), DELTA);
+    assertEquals(3, pop.size());
+  }
+
+  /**
+   * Replace-worst over many insertions: always the least fit member is
+   * replaced, a monitor is told about each replacement.
+   *
+   * @throws Exception
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public void testInsert_1()
+      throws Exception {
+    conf.setFitnessFunction(new PlainSumFitnessFunction());
+    final List<String> events = new ArrayList<String>();
+    conf.setMonitor(new IEvolutionMonitor() {
+      public void start(Configuration a_config) {
+      }
+
+      public boolean nextCycle(Population a_pop, List<String> a_messages) {
+        return true;
+      }
+
+      public void event(String a_monitorEvent, int a_evolutionNo,
+                        Object[] a_information) {
+        events.add(a_monitorEvent);
+      }
+
+      public PopulationHistoryIndexed getPopulations() {
+        return null;
+      }
+    });
+    Population pop = new Population(conf, 50);
+    for (int i = 0; i < 50; i++) {
+      pop.addChromosome(createChromosome( (i * 37) % 50));
+    }
+    SteadyStateBreeder breeder = new SteadyStateBreeder(m_executor, 1, 0, 0);
+    int replaced = 0;
+    for (int i = 0; i < 200; i++) {
+      double least = Double.MAX_VALUE;
+      for (int j = 0; j < 50; j++) {
+        least = Math.min(least, pop.getChromosome(j).getFitnessValueDirectly());
+      }
+      double fitness = (i * 13) % 120;
+      breeder.insert(pop, conf, createChromosome(fitness));
+      double newLeast = Double.MAX_VALUE;
+      boolean found = false;
+      for (int j = 0; j < 50; j++) {
+        double value = pop.getChromosome(j).getFitnessValueDirectly();
+        newLeast = Math.min(newLeast, value);
+        found |= value == fitness;
+      }
+      if (fitness >= least) {
+        assertTrue(found);
+        replaced++;
+      }
+      assertTrue(newLeast >= least);
+    }
+    assertEquals(50, pop.size());
+    assertEquals(2 * replaced, events.size());
+    assertEquals(IEvolutionMonitor.MONITOR_EVENT_REMOVE_CHROMOSOME,
+                 events.get(0));
+    assertEquals(IEvolutionMonitor.MONITOR_EVENT_BEFORE_ADD_CHROMOSOME,
+                 events.get(1));
+  }
+
+  /**
+   * Tournament replacement keeps the fittest member if it is to be
+   * preserved.
+   *
+   * @throws Exception
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public void testInsert_2()
+      throws Exception {
+    conf.setFitnessFunction(new PlainSumFitnessFunction());
+    conf.setPreservFittestIndividual(true);
+    Population pop = new Population(conf, 4);
+    for (int i = 0; i < 4; i++) {
+      pop.addChromosome(createChromosome(10 + i));
+    }
+    IChromosome fittest = pop.getChromosome(3);
+    SteadyStateBreeder breeder = new SteadyStateBreeder(m_executor, 1, 2, 0);
+    for (int i = 0; i < 30; i++) {
+      breeder.insert(pop, conf, createChromosome(i % 12));
+      assertSame(fittest, pop.getChromosome(3));
+    }
+    // A fitter candidate becomes the preserved member.
+    // ------------------------------------------------
+    int index;
+    IChromosome fitter;
+    do {
+      fitter = createChromosome(20);
+      breeder.insert(pop, conf, fitter);
+      index = indexOf(pop, fitter);
+    } while (index < 0);
+    for (int i = 0; i < 30; i++) {
+      breeder.insert(pop, conf, createChromosome(i % 12));
+      assertSame(fitter, pop.getChromosome(index));
+    }
+  }
+
+  private int indexOf(Population a_pop, IChromosome a_chrom) {
+    for (int i = 0; i < a_pop.size(); i++) {
+      if (a_pop.getChromosome(i) == a_chrom) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  private IChromosome createChromosome(double a_fitness)
+      throws Exception {
+    IChromosome chrom = new Chromosome(conf, new IntegerGene(conf, 0, 50), 2);
+    chrom.setFitnessValueDirectly(a_fitness);
+    return chrom;
+  }
+
+  /**
+   * @throws Exception
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public void testClone_0()
+      throws Exception {
+    SteadyStateBreeder breeder = new SteadyStateBreeder(m_executor, 2, 3, 4);
+    SteadyStateBreeder clone = (SteadyStateBreeder) breeder.clone();
+    assertEquals(2, clone.getEvaluations());
+    assertEquals(3, clone.getReplacementTournamentSize());
+    assertEquals(4, clone.getMatingPoolSize());
+    assertEquals(0, breeder.compareTo(clone));
+    assertTrue(isSerializable(breeder));
+  }
+
+  private static class PlainSumFitnessFunction
+      extends FitnessFunction {
+    protected double evaluate(IChromosome a_subject) {
+      double result = 0;
+      for (int i = 0; i < a_subject.size(); i++) {
+        result += ( (Integer) a_subject.getGene(i).getAllele()).intValue();
+      }
+      return result;
+    }
+  }
+
+  private static class SumFitnessFunction
+      extends PlainSumFitnessFunction
+      implements IConcurrentFitnessFunction {
+    private boolean m_threadSafe;
+
+    int m_instancesCreated;
+
+    public SumFitnessFunction(boolean a_threadSafe) {
+      m_threadSafe = a_threadSafe;
+    }
+
+    public boolean isThreadSafe() {
+      return m_threadSafe;
+    }
+
+    public synchronized Object newWorkerInstance() {
+      m_instancesCreated++;
+      return new SumFitnessFunction(m_threadSafe);
+    }
+  }
+}
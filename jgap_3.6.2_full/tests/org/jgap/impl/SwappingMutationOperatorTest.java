@@ -303,6 +303,51 @@ public class SwappingMutationOperatorTest
     assertEquals(chrom2, candChroms.get(1));
   }
 
+  /**
+   * Swapped chromosomes carry both swapped loci relative to their evaluated
+   * parents and are evaluated incrementally.
+   *
+   * @throws Exception
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public void testOperate_6()
+      throws Exception {
+    Configuration conf = new DefaultConfiguration();
+    IncrementalSumFitnessFunction func = new IncrementalSumFitnessFunction();
+    conf.setFitnessFunction(func);
+    conf.setPopulationSize(10);
+    Population pop = new Population(conf);
+    for (int i = 0; i < 10; i++) {
+      Chromosome chrom = new Chromosome(conf, new IntegerGene(conf, 0, 100),
+                                        20);
+      for (int j = 0; j < 20; j++) {
+        chrom.getGene(j).setAllele(new Integer(i * j));
+      }
+      chrom.getFitnessValue();
+      pop.addChromosome(chrom);
+    }
+    SwappingMutationOperator mutOp = new SwappingMutationOperator(conf, 10);
+    mutOp.operate(pop, pop.getChromosomes());
+    assertTrue(pop.size() > 10);
+    for (int i = 10; i < pop.size(); i++) {
+      Chromosome child = (Chromosome) pop.getChromosome(i);
+      FitnessDelta delta = child.getFitnessDelta();
+      assertNotNull(delta);
+      assertFalse(delta.isChanged(0));
+      child.setFitnessValueDirectly(FitnessFunction.NO_FITNESS_VALUE);
+      child.getFitnessValue();
+    }
+    assertEquals(10, func.m_fullEvaluations);
+    assertEquals(pop.size() - 10, func.m_incrementalEvaluations);
+    for (int i = 10; i < pop.size(); i++) {
+      IChromosome child = pop.getChromosome(i);
+      assertEquals(func.evaluate(child), child.getFitnessValueDirectly(),
+                   DELTA);
+    }
+  }
+
   private long checksum(Gene[] a_genes) {
     long s = 0;
     for (int i = 0; i < a_genes.length; i++) {
@@ -0,0 +1,193 @@
+/*
+ * This file is part of JGAP.
+ *
+ * JGAP offers a dual license model containing the LGPL as well as the MPL.
+ *
+ * For licensing information please see the file license.txt included with JGAP
+ * or have a look at the top of class org.jgap.Chromosome which representatively
+ * includes the JGAP license policy applicable for any file delivered with JGAP.
+ */
+package org.jgap.impl;
+
+import java.util.*;
+import org.jgap.*;
+import junit.framework.*;
+
+/**
+ * Tests the ThreadLocalChromosomePool class.
+ *
+ * @author agent
+ * @since 3.7
+ */
+public class ThreadLocalChromosomePoolTest
+    extends JGAPTestCase {
+  /** String containing the CVS revision. Read out via reflection!*/
+  private final static String CVS_REVISION = "$Revision: 1.1 $";
+
+  public static Test suite() {
+    TestSuite suite = new TestSuite(ThreadLocalChromosomePoolTest.class);
+    return suite;
+  }
+
+  public void setUp() {
+    super.setUp();
+    Configuration.reset();
+  }
+
+  private IChromosome createChromosome()
+      throws Exception {
+    return new Chromosome(conf, new IntegerGene(conf, 0, 10), 3);
+  }
+
+  /**
+   * @throws Exception
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public void testAcquireChromosome_0()
+      throws Exception {
+    ThreadLocalChromosomePool pool = new ThreadLocalChromosomePool();
+    assertNull(pool.acquireChromosome());
+    assertEquals(1, pool.getAcquireCount());
+    assertEquals(0, pool.getHitCount());
+    assertEquals(0.0d, pool.getReuseRate(), DELTA);
+    try {
+      pool.releaseChromosome(null);
+      fail();
+    } catch (IllegalArgumentException iex) {
+      ; //this is OK
+    }
+  }
+
+  /**
+   * Released chromosomes are acquired again, cleaned up.
+   *
+   * @throws Exception
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public void testReleaseChromosome_0()
+      throws Exception {
+    ThreadLocalChromosomePool pool = new ThreadLocalChromosomePool();
+    IChromosome chrom = createChromosome();
+    chrom.increaseAge();
+    chrom.increaseOperatedOn();
+    pool.releaseChromosome(chrom);
+    assertEquals(1, pool.getReleaseCount());
+    assertSame(chrom, pool.acquireChromosome());
+    assertEquals(0, chrom.getAge());
+    assertEquals(0, chrom.operatedOn());
+    assertNull(pool.acquireChromosome());
+    assertEquals(0.5d, pool.getReuseRate(), DELTA);
+  }
+
+  /**
+   * Chromosomes beyond the capacities are passed to the shared queue resp.
+   * dropped.
+   *
+   * @throws Exception
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public void testReleaseChromosome_1()
+      throws Exception {
+    ThreadLocalChromosomePool pool = new ThreadLocalChromosomePool(2, 1);
+    for (int i = 0; i < 5; i++) {
+      pool.releaseChromosome(createChromosome());
+    }
+    assertEquals(1, pool.getSharedSize());
+    assertEquals(2, pool.getDropCount());
+    for (int i = 0; i < 3; i++) {
+      assertNotNull(pool.acquireChromosome());
+    }
+    assertEquals(0, pool.getSharedSize());
+    assertNull(pool.acquireChromosome());
+  }
+
+  /**
+   * Other threads take over the chromosomes of the shared queue.
+   *
+   * @throws Exception
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public void testConcurrent_0()
+      throws Exception {
+    final ThreadLocalChromosomePool pool = new ThreadLocalChromosomePool(0,
+        100);
+    for (int i = 0; i < 10; i++) {
+      pool.releaseChromosome(createChromosome());
+    }
+    final List acquired = Collections.synchronizedList(new ArrayList());
+    Thread[] threads = new Thread[4];
+    for (int t = 0; t < threads.length; t++) {
+      threads[t] = new Thread() {
+        public void run() {
+          IChromosome chrom;
+          while ( (chrom = pool.acquireChromosome()) != null) {
+            acquired.add(chrom);
+          }
+        }
+      };
+      threads[t].start();
+    }
+    for (int t = 0; t < threads.length; t++) {
+      threads[t].join();
+    }
+    assertEquals(10, acquired.size());
+    Map distinct = new IdentityHashMap();
+    for (int i = 0; i < acquired.size(); i++) {
+      distinct.put(acquired.get(i), acquired.get(i));
+    }
+    assertEquals(10, distinct.size());
+    assertEquals(10, pool.getHitCount());
+    assertEquals(0, pool.getSharedSize());
+    // The counters of the terminated threads are kept in the sums when a new
+    // thread folds them.
+    // ----------------------------------------------------------------------
+    Thread thread = new Thread() {
+      public void run() {
+        pool.acquireChromosome();
+      }
+    };
+    thread.start();
+    thread.join();
+    assertEquals(10, pool.getHitCount());
+    assertEquals(15, pool.getAcquireCount());
+    assertEquals(10, pool.getReleaseCount());
+  }
+
+  /**
+   * Cloning uses chromosomes released by cleanup, but only compatible ones.
+   *
+   * @throws Exception
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public void testClone_0()
+      throws Exception {
+    ThreadLocalChromosomePool pool = new ThreadLocalChromosomePool();
+    conf.setChromosomePool(pool);
+    IChromosome chrom = createChromosome();
+    chrom.getGene(1).setAllele(new Integer(8));
+    IChromosome released = createChromosome();
+    released.cleanup();
+    IChromosome copy = (IChromosome) chrom.clone();
+    assertSame(released, copy);
+    assertEquals(chrom, copy);
+    new Chromosome(conf, new IntegerGene(conf, 0, 10), 2).cleanup();
+    copy = (IChromosome) chrom.clone();
+    assertNotSame(released, copy);
+    assertEquals(chrom, copy);
+    // The chromosome of another size is handed back, not counted as a hit.
+    // --------------------------------------------------------------------
+    assertEquals(2, pool.getAcquireCount());
+    assertEquals(1, pool.getHitCount());
+    assertEquals(1, pool.getSharedSize());
+  }
+}
@@ -226,10 +226,10 @@ public class ThresholdSelectorTest
    */
   public void testSelect_3()
       throws Exception {
-    //Set index of chromosome to be selected by ThresholdSelector to 1.
-    //1 because the best chromosome will be index 0 and the other one has
-    // index 1.
-    conf.setRandomGenerator(new RandomGeneratorForTesting(1));
+    //Set index of chromosome to be selected by ThresholdSelector to 0.
+    //0 because no chromosome is sorted with threshold 0.0d, and the other
+    // one has been added first.
+    conf.setRandomGenerator(new RandomGeneratorForTesting(0));
     ThresholdSelector selector = new ThresholdSelector(conf, 0.0d);
     // add first chromosome
     // --------------------
@@ -329,6 +329,33 @@ public class ThresholdSelectorTest
     assertTrue(bestChrom == bestChroms[0]);
   }
 
+  /**
+   * Chromosomes not selected for granted are drawn at random from the others.
+   * @throws Exception
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public void testSelect_6()
+      throws Exception {
+    conf.setRandomGenerator(new RandomGeneratorForTesting(0));
+    ThresholdSelector selector = new ThresholdSelector(conf, 0.5d);
+    Gene gene = new BooleanGene(conf);
+    for (int i = 0; i < 4; i++) {
+      Chromosome chrom = new Chromosome(conf, gene, 1);
+      chrom.setFitnessValue(10 + i);
+      selector.add(chrom);
+    }
+    Population pop = new Population(conf);
+    selector.select(4, null, pop);
+    assertEquals(4, pop.size());
+    assertEquals(13.0d, pop.getChromosome(0).getFitnessValue(), DELTA);
+    assertEquals(12.0d, pop.getChromosome(1).getFitnessValue(), DELTA);
+    for (int i = 2; i < 4; i++) {
+      assertTrue(pop.getChromosome(i).getFitnessValue() < 12.0d);
+    }
+  }
+
   /**
    * @throws Exception
    *
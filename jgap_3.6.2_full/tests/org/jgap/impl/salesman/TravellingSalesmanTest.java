@@ -78,6 +78,63 @@ public class TravellingSalesmanTest
     assertEquals(47, t.getStartOffset());
   }
 
+  /**
+   * Incremental evaluation of swapped tours equals full evaluation.
+   *
+   * @throws Exception
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public void testEvaluateIncrementally_0()
+      throws Exception {
+    final int cities = 30;
+    Salesman salesman = new Salesman() {
+      public IChromosome createSampleChromosome(Object a_initial_data) {
+        return null;
+      }
+
+      public double distance(Gene a_from, Gene a_to) {
+        int a = ( (IntegerGene) a_from).intValue();
+        int b = ( (IntegerGene) a_to).intValue();
+        return (a * 7 + b * 3) % 11 + 1;
+      }
+    };
+    SalesmanFitnessFunction func = new SalesmanFitnessFunction(salesman);
+    Gene[] genes = new Gene[cities];
+    for (int i = 0; i < cities; i++) {
+      genes[i] = new IntegerGene(conf, 0, cities - 1);
+      genes[i].setAllele(new Integer(i));
+    }
+    Chromosome chrom = new Chromosome(conf, genes);
+    double fitness = func.evaluate(chrom);
+    RandomGenerator rn = new StockRandomGenerator();
+    for (int run = 0; run < 100; run++) {
+      Chromosome child = (Chromosome) chrom.clone();
+      Gene[] childGenes = child.getGenes();
+      FitnessDelta delta = new FitnessDelta(fitness, null);
+      for (int swap = 0; swap < 3; swap++) {
+        int i = rn.nextInt(cities);
+        int j = rn.nextInt(cities);
+        delta.recordChange(i, childGenes[i].getAllele());
+        delta.recordChange(j, childGenes[j].getAllele());
+        Object allele = childGenes[i].getAllele();
+        childGenes[i].setAllele(childGenes[j].getAllele());
+        childGenes[j].setAllele(allele);
+      }
+      assertEquals(func.evaluate(child),
+                   func.evaluateIncrementally(child, delta), DELTA);
+    }
+    // Too many changes: full evaluation requested.
+    // --------------------------------------------
+    FitnessDelta delta = new FitnessDelta(fitness, null);
+    for (int i = 0; i < cities / 4 + 1; i++) {
+      delta.recordChange(i, genes[i].getAllele());
+    }
+    assertEquals(FitnessFunction.NO_FITNESS_VALUE,
+                 func.evaluateIncrementally(chrom, delta), DELTA);
+  }
+
   /**
    * Explains how to use JGap extensions, needed to solve the task group,
    * known as the <i>Problem of the travelling salesman</i>. The extensions are
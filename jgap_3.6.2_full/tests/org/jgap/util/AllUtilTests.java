@@ -26,6 +26,7 @@ public class AllUtilTests
   public static Test suite() {
     TestSuite suite = new TestSuite("AllUtilTests");
     suite.addTest(FileKitTest.suite());
+    suite.addTest(FingerprintFitnessCacheTest.suite());
     suite.addTest(NumberKitTest.suite());
     suite.addTest(PluginDiscovererTest.suite());
     return suite;
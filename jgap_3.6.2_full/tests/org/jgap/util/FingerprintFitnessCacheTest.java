@@ -0,0 +1,186 @@
+/*
+ * This file is part of JGAP.
+ *
+ * JGAP offers a dual license model containing the LGPL as well as the MPL.
+ *
+ * For licensing information please see the file license.txt included with JGAP
+ * or have a look at the top of class org.jgap.Chromosome which representatively
+ * includes the JGAP license policy applicable for any file delivered with JGAP.
+ */
+package org.jgap.util;
+
+import java.util.*;
+import org.jgap.*;
+import org.jgap.impl.*;
+
+import junit.framework.*;
+
+/**
+ * Tests the FingerprintFitnessCache class and its use by
+ * FingerprintCachedFitnessFunction.
+ *
+ * @author agent
+ * @since 3.7
+ */
+public class FingerprintFitnessCacheTest
+    extends JGAPTestCase {
+  /** String containing the CVS revision. Read out via reflection!*/
+  private final static String CVS_REVISION = "$Revision: 1.1 $";
+
+  public static Test suite() {
+    return new TestSuite(FingerprintFitnessCacheTest.class);
+  }
+
+  /**
+   * @throws Exception
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public void testGet_0()
+      throws Exception {
+    FingerprintFitnessCache cache = new FingerprintFitnessCache(100);
+    assertEquals(128, cache.getCapacity());
+    assertEquals(-1.0d, cache.get(17, 4, -1.0d), DELTA);
+    cache.put(17, 4, 3.5d);
+    assertEquals(3.5d, cache.get(17, 4, -1.0d), DELTA);
+    // Same first half, different second half.
+    // ---------------------------------------
+    assertEquals(-1.0d, cache.get(17, 5, -1.0d), DELTA);
+    cache.put(17, 4, 4.5d);
+    assertEquals(4.5d, cache.get(17, 4, -1.0d), DELTA);
+    assertEquals(1, cache.size());
+    assertEquals(2, cache.getHits());
+    assertEquals(2, cache.getMisses());
+  }
+
+  /**
+   * Fingerprint zero is a valid key.
+   *
+   * @throws Exception
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public void testGet_1()
+      throws Exception {
+    FingerprintFitnessCache cache = new FingerprintFitnessCache();
+    cache.put(0, 0, 2.0d);
+    assertEquals(2.0d, cache.get(0, 0, -1.0d), DELTA);
+  }
+
+  /**
+   * Size never exceeds the capacity, entries written longest ago are evicted.
+   *
+   * @throws Exception
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public void testPut_0()
+      throws Exception {
+    FingerprintFitnessCache cache = new FingerprintFitnessCache(8);
+    for (int i = 1; i <= 20; i++) {
+      cache.put(i * 8, i, i);
+    }
+    assertEquals(8, cache.size());
+    assertEquals(12, cache.getEvictions());
+    assertEquals(-1.0d, cache.get(8, 1, -1.0d), DELTA);
+    assertEquals(20.0d, cache.get(160, 20, -1.0d), DELTA);
+    cache.clear();
+    assertEquals(0, cache.size());
+    assertEquals(-1.0d, cache.get(160, 20, -1.0d), DELTA);
+  }
+
+  /**
+   * Equal chromosomes are only evaluated once, a shared cache is used by all
+   * instances.
+   *
+   * @throws Exception
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public void testGetFitnessValue_0()
+      throws Exception {
+    FingerprintFitnessCache cache = new FingerprintFitnessCache();
+    CountingFitnessFunction func1 = new CountingFitnessFunction(cache);
+    CountingFitnessFunction func2 = new CountingFitnessFunction(cache);
+    Gene gene = new DoubleGene(conf, 0, 10);
+    IChromosome chrom1 = new Chromosome(conf, gene, 148);
+    IChromosome chrom2 = new Chromosome(conf, gene, 148);
+    for (int i = 0; i < 148; i++) {
+      chrom1.getGene(i).setAllele(new Double(i / 100.0d));
+      chrom2.getGene(i).setAllele(new Double(i / 100.0d));
+    }
+    assertEquals(148 * 147 / 200.0d, func1.getFitnessValue(chrom1), DELTA);
+    assertEquals(148 * 147 / 200.0d, func2.getFitnessValue(chrom2), DELTA);
+    assertEquals(1, func1.m_evaluations);
+    assertEquals(0, func2.m_evaluations);
+    chrom2.getGene(147).setAllele(new Double(0.0d));
+    func2.getFitnessValue(chrom2);
+    assertEquals(1, func2.m_evaluations);
+    assertEquals(2, cache.size());
+  }
+
+  /**
+   * Alleles with equal hash codes ("Aa" and "BB") must not share a cache
+   * entry.
+   *
+   * @throws Exception
+   *
+   * @author agent
+   * @since 3.7
+   */
+  public void testGetFitnessValue_1()
+      throws Exception {
+    assertEquals("Aa".hashCode(), "BB".hashCode());
+    FingerprintCachedFitnessFunction func =
+        new FingerprintCachedFitnessFunction() {
+      protected double evaluate(IChromosome a_subject) {
+        return ( (String) a_subject.getGene(0).getAllele()).charAt(0);
+      }
+    };
+    IChromosome chrom1 = new Chromosome(conf, new StringGene(conf, 2, 2), 1);
+    IChromosome chrom2 = new Chromosome(conf, new StringGene(conf, 2, 2), 1);
+    chrom1.getGene(0).setAllele("Aa");
+    chrom2.getGene(0).setAllele("BB");
+    assertEquals(FingerprintKit.fingerprint(chrom1),
+                 FingerprintKit.fingerprint(chrom2));
+    assertFalse(FingerprintKit.secondFingerprint(chrom1)
+                == FingerprintKit.secondFingerprint(chrom2));
+    assertEquals('A', func.getFitnessValue(chrom1), DELTA);
+    assertEquals('B', func.getFitnessValue(chrom2), DELTA);
+    // Same for int arrays colliding in 31 * h + v.
+    // --------------------------------------------
+    assertEquals(FingerprintKit.alleleBits(new int[] {0, 31}),
+                 FingerprintKit.alleleBits(new int[] {1, 0}));
+    assertFalse(FingerprintKit.independentBits(new int[] {0, 31}, 1)
+                == FingerprintKit.independentBits(new int[] {1, 0}, 1));
+    // And for the alleles of composite genes, hashed element by element.
+    // ------------------------------------------------------------------
+    assertFalse(FingerprintKit.independentBits(Arrays.asList(new Object[] {
+        new Integer(1), "Aa"}), 1)
+                == FingerprintKit.independentBits(Arrays.asList(new Object[] {
+        new Integer(1), "BB"}), 1));
+    assertEquals('x', FingerprintKit.independentBits(new Character('x'), 1));
+  }
+
+  private static class CountingFitnessFunction
+      extends FingerprintCachedFitnessFunction {
+    int m_evaluations;
+
+    public CountingFitnessFunction(FingerprintFitnessCache a_cache) {
+      super(a_cache);
+    }
+
+    protected double evaluate(IChromosome a_subject) {
+      m_evaluations++;
+      double result = 0;
+      for (int i = 0; i < a_subject.size(); i++) {
+        result += ( (Double) a_subject.getGene(i).getAllele()).doubleValue();
+      }
+      return result;
+    }
+  }
+}
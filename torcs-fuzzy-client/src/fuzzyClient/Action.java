@@ -1,5 +1,7 @@
 package fuzzyClient;
 
+import java.nio.ByteBuffer;
+
 /**
  * Created by IntelliJ IDEA.
  * User: Administrator
@@ -28,6 +30,70 @@ public class Action {
                + ")";
     }
 
+    /*
+     * Writes the same values as toString() into the buffer without
+     * allocating, rounded to at most 6 decimals. The text differs, as the
+     * values are written in fixed point: 1 instead of 1.0, 0.000001 instead
+     * of 1.0E-6.
+     */
+    public void encode (ByteBuffer buffer) {
+        limitValues ();
+        putLabel (buffer, "(accel ");
+        putDouble (buffer, accelerate);
+        putLabel (buffer, ") (brake ");
+        putDouble (buffer, brake);
+        putLabel (buffer, ") (clutch ");
+        putDouble (buffer, clutch);
+        putLabel (buffer, ") (gear ");
+        putLong (buffer, gear);
+        putLabel (buffer, ") (steer ");
+        putDouble (buffer, steering);
+        putLabel (buffer, ") (meta ");
+        buffer.put ((byte) (restartRace ? '1' : '0'));
+        putLabel (buffer, ") (focus ");
+        putLong (buffer, focus);
+        buffer.put ((byte) ')');
+    }
+
+    private static void putLabel (ByteBuffer buffer, String label) {
+        for (int i = 0; i < label.length (); i++)
+            buffer.put ((byte) label.charAt (i));
+    }
+
+    private static void putLong (ByteBuffer buffer, long value) {
+        if (value < 0) {
+            buffer.put ((byte) '-');
+            value = -value;
+        }
+        long div = 1;
+        while (div <= value / 10)
+            div *= 10;
+        for (; div > 0; div /= 10)
+            buffer.put ((byte) ('0' + (value / div) % 10));
+    }
+
+    private static void putDouble (ByteBuffer buffer, double value) {
+        if (value != value) {
+            putLabel (buffer, "NaN");
+            return;
+        }
+        long scaled = Math.round (Math.abs (value) * 1e6);
+        if (value < 0 && scaled != 0)
+            buffer.put ((byte) '-');
+        putLong (buffer, scaled / 1000000);
+        long decimals = scaled % 1000000;
+        if (decimals == 0)
+            return;
+        buffer.put ((byte) '.');
+        int digits = 6;
+        while (decimals % 10 == 0) {
+            decimals /= 10;
+            digits--;
+        }
+        for (long div = (long) Math.pow (10, digits - 1); div > 0; div /= 10)
+            buffer.put ((byte) ('0' + (decimals / div) % 10));
+    }
+
     public void limitValues () {
         accelerate = Math.max (0, Math.min (1, accelerate));
         brake = Math.max (0, Math.min (1, brake));
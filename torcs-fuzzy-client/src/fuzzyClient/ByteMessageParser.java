@@ -0,0 +1,213 @@
+package fuzzyClient;
+
+/*
+ * Parses the messages of the TORCS server, like MessageParser, but straight
+ * from the bytes of the datagram into a reused SensorState. Allocates nothing
+ * per message: readings are recognized by comparing their name bytes and
+ * numbers are decoded without creating Strings.
+ * Readings missing from a message keep their previous value, unknown
+ * readings are skipped, surplus values of the array readings are ignored.
+ */
+public class ByteMessageParser {
+
+	private static final String[] NAMES = { "angle", "curLapTime", "damage",
+			"distFromStart", "distRaced", "fuel", "gear", "lastLapTime",
+			"racePos", "rpm", "speedX", "speedY", "speedZ", "trackPos", "z",
+			"track", "focus", "opponents", "wheelSpinVel" };
+
+	private static final int ANGLE = 0, CUR_LAP_TIME = 1, DAMAGE = 2,
+			DIST_FROM_START = 3, DIST_RACED = 4, FUEL = 5, GEAR = 6,
+			LAST_LAP_TIME = 7, RACE_POS = 8, RPM = 9, SPEED_X = 10,
+			SPEED_Y = 11, SPEED_Z = 12, TRACK_POS = 13, Z = 14, TRACK = 15,
+			FOCUS = 16, OPPONENTS = 17, WHEEL_SPIN_VEL = 18;
+
+	private static final byte[][] NAME_BYTES = new byte[NAMES.length][];
+
+	// Exactly representable powers of ten
+	private static final double[] POW10 = new double[23];
+
+	static {
+		for (int i = 0; i < NAMES.length; i++) {
+			NAME_BYTES[i] = new byte[NAMES[i].length()];
+			for (int j = 0; j < NAMES[i].length(); j++)
+				NAME_BYTES[i][j] = (byte) NAMES[i].charAt(j);
+		}
+		POW10[0] = 1;
+		for (int i = 1; i < POW10.length; i++)
+			POW10[i] = POW10[i - 1] * 10;
+	}
+
+	// Position reached by the last call of parseNumber
+	private int pos;
+
+	// Scratch buffer for parsing Strings
+	private byte[] scratch = new byte[1024];
+
+	/*
+	 * Parses a message already received as a String. Only allocates if the
+	 * message is longer than all messages before.
+	 */
+	public void parse(String message, SensorState state) {
+		int length = message.length();
+		if (scratch.length < length)
+			scratch = new byte[Math.max(length, 2 * scratch.length)];
+		for (int i = 0; i < length; i++)
+			scratch[i] = (byte) message.charAt(i);
+		parse(scratch, 0, length, state);
+		state.setMessage(message);
+	}
+
+	public void parse(byte[] data, int offset, int length, SensorState state) {
+		state.setRaw(data, offset, length);
+		int end = offset + length;
+		int i = offset;
+		while (i < end) {
+			// Find the next reading
+			while (i < end && data[i] != '(')
+				i++;
+			i++;
+			int nameStart = i;
+			while (i < end && data[i] != ' ' && data[i] != ')')
+				i++;
+			int slot = findName(data, nameStart, i - nameStart);
+			if (slot < 0)
+				continue;
+			double[] values = arrayFor(slot, state);
+			int count = 0;
+			while (i < end && data[i] != ')') {
+				if (data[i] == ' ') {
+					i++;
+					continue;
+				}
+				double value = parseNumber(data, i, end, slot);
+				i = pos;
+				if (values == null) {
+					setValue(slot, state, value);
+					break;
+				}
+				if (count < values.length)
+					values[count++] = value;
+			}
+		}
+	}
+
+	private static int findName(byte[] data, int start, int length) {
+		for (int n = 0; n < NAME_BYTES.length; n++) {
+			byte[] name = NAME_BYTES[n];
+			if (name.length != length)
+				continue;
+			int j = 0;
+			while (j < length && data[start + j] == name[j])
+				j++;
+			if (j == length)
+				return n;
+		}
+		return -1;
+	}
+
+	private static double[] arrayFor(int slot, SensorState state) {
+		switch (slot) {
+		case TRACK:
+			return state.track;
+		case FOCUS:
+			return state.focus;
+		case OPPONENTS:
+			return state.opponents;
+		case WHEEL_SPIN_VEL:
+			return state.wheelSpinVel;
+		default:
+			return null;
+		}
+	}
+
+	private static void setValue(int slot, SensorState state, double value) {
+		switch (slot) {
+		case ANGLE: state.angle = value; break;
+		case CUR_LAP_TIME: state.curLapTime = value; break;
+		case DAMAGE: state.damage = value; break;
+		case DIST_FROM_START: state.distFromStart = value; break;
+		case DIST_RACED: state.distRaced = value; break;
+		case FUEL: state.fuel = value; break;
+		case GEAR: state.gear = value; break;
+		case LAST_LAP_TIME: state.lastLapTime = value; break;
+		case RACE_POS: state.racePos = value; break;
+		case RPM: state.rpm = value; break;
+		case SPEED_X: state.speedX = value; break;
+		case SPEED_Y: state.speedY = value; break;
+		case SPEED_Z: state.speedZ = value; break;
+		case TRACK_POS: state.trackPos = value; break;
+		case Z: state.z = value; break;
+		}
+	}
+
+	/*
+	 * Decodes a decimal number like -12.345e-2 starting at start. Gives the
+	 * same result as Double.parseDouble for up to 15 significant digits.
+	 * Sets pos after the number; 0.0 is returned for malformed numbers.
+	 */
+	private double parseNumber(byte[] data, int start, int end, int slot) {
+		int i = start;
+		boolean negative = false;
+		if (data[i] == '-' || data[i] == '+') {
+			negative = data[i] == '-';
+			i++;
+		}
+		long mantissa = 0;
+		int digits = 0;
+		int exponent = 0;
+		boolean valid = false;
+		boolean fraction = false;
+		for (; i < end; i++) {
+			byte b = data[i];
+			if (b >= '0' && b <= '9') {
+				valid = true;
+				if (digits < 18) {
+					mantissa = mantissa * 10 + (b - '0');
+					if (mantissa > 0)
+						digits++;
+					if (fraction)
+						exponent--;
+				} else if (!fraction)
+					exponent++;
+			} else if (b == '.' && !fraction)
+				fraction = true;
+			else
+				break;
+		}
+		if (valid && i < end && (data[i] == 'e' || data[i] == 'E')) {
+			i++;
+			boolean negativeExp = false;
+			if (i < end && (data[i] == '-' || data[i] == '+')) {
+				negativeExp = data[i] == '-';
+				i++;
+			}
+			int exp = 0;
+			boolean validExp = false;
+			for (; i < end && data[i] >= '0' && data[i] <= '9'; i++) {
+				validExp = true;
+				if (exp < 10000)
+					exp = exp * 10 + (data[i] - '0');
+			}
+			valid = validExp;
+			exponent += negativeExp ? -exp : exp;
+		}
+		// Skip the rest of a malformed value
+		boolean malformed = !valid;
+		for (; i < end && data[i] != ' ' && data[i] != ')'; i++)
+			malformed = true;
+		pos = i;
+		if (malformed) {
+			System.out.println("Error parsing value '" + new String(data, start, i - start)
+					+ "' for " + NAMES[slot] + " using 0.0");
+			return 0.0;
+		}
+		double value = mantissa;
+		if (exponent < 0 && exponent >= -22)
+			value /= POW10[-exponent];
+		else if (exponent > 0 && exponent <= 22)
+			value *= POW10[exponent];
+		else if (exponent != 0)
+			value *= Math.pow(10, exponent);
+		return negative ? -value : value;
+	}
+}
@@ -5,6 +5,7 @@
  */
 package fuzzyClient;
 
+import java.io.IOException;
 import java.util.StringTokenizer;
 import fuzzyClient.CarController.Stage;
 
@@ -24,6 +25,13 @@ public class Client {
     private static int maxSteps;
     private static Stage stage;
     private static String trackName;
+    private static boolean latency;
+    private static String latencyCsv;
+    private static int deadline;
+    private static String recordFile;
+
+    private static final byte[] SHUTDOWN = bytes("***shutdown***");
+    private static final byte[] RESTART = bytes("***restart***");
 
     /**
      * @param args
@@ -36,6 +44,10 @@ public class Client {
      *            <maxSteps:N> is used to set the max number of steps for each episode (0 is default value, that means unlimited number of steps)
      *            <stage:N> is used to set the current stage: 0 is WARMUP, 1 is QUALIFYING, 2 is RACE, others value means UNKNOWN (default is UNKNOWN)
      *            <trackName:name> is used to set the name of current track
+     *            <latency:on> is used to print the timing of the control loop after each episode (default is off)
+     *            <latencyCsv:file> is used to append the timing of the control loop after each episode to a CSV file
+     *            <deadline:N> is used to set the time in ms within which the client must answer the server (default is 20)
+     *            <record:file> is used to record the messages of the server in a telemetry log, see TelemetryReplayServer
      */
     public static void main(String[] args) {
         parseParameters(args);
@@ -54,6 +66,23 @@ public class Client {
         }
         initStr = initStr + ")";
 
+        /* Sensor readings, reused on every step */
+        ByteMessageParser parser = new ByteMessageParser();
+        SensorState sensors = new SensorState();
+        byte[] inData = mySocket.getReceived();
+        Action restart = new Action();
+        restart.restartRace = true;
+        LatencyMonitor monitor = new LatencyMonitor(deadline);
+        TelemetryRecorder recorder = null;
+        if (recordFile != null) {
+            try {
+                recorder = new TelemetryRecorder(recordFile);
+            } catch (IOException e) {
+                System.out.println("Cannot record to " + recordFile + ": " + e);
+                System.exit(0);
+            }
+        }
+
         long curEpisode = 0;
         boolean shutdownOccurred = false;
         do {
@@ -75,14 +104,18 @@ public class Client {
                 /*
                  * Receives from TORCS the game state
                  */
-                inMsg = mySocket.receive(UDP_TIMEOUT);
+                monitor.startStep();
+                int inLength = mySocket.receiveBytes(UDP_TIMEOUT);
 
-                if (inMsg != null) {
+                if (inLength >= 0) {
+                    monitor.mark(LatencyMonitor.RECEIVE);
+                    if (recorder != null)
+                        recorder.record(inData, inLength);
 
                     /*
                      * Check if race is ended (shutdown)
                      */
-                    if (inMsg.indexOf("***shutdown***") >= 0) {
+                    if (contains(inData, inLength, SHUTDOWN)) {
                         shutdownOccurred = true;
                         System.out.println("Server shutdown!");
                         break;
@@ -91,26 +124,37 @@ public class Client {
                     /*
                      * Check if race is restarted
                      */
-                    if (inMsg.indexOf("***restart***") >= 0) {
+                    if (contains(inData, inLength, RESTART)) {
                         driver.reset();
                         if (verbose)
                             System.out.println("Server restarting!");
                         break;
                     }
 
-                    Action action = new Action();
-                    if (currStep < maxSteps || maxSteps == 0)
-                        action = driver.control(new MessageBasedSensorModel(inMsg));
-                    else
-                        action.restartRace = true;
+                    Action action = restart;
+                    if (currStep < maxSteps || maxSteps == 0) {
+                        parser.parse(inData, 0, inLength, sensors);
+                        monitor.mark(LatencyMonitor.PARSE);
+                        action = driver.control(sensors);
+                        monitor.mark(LatencyMonitor.CONTROL);
+                    }
 
                     currStep++;
-                    mySocket.send(action.toString());
+                    mySocket.encode(action);
+                    monitor.mark(LatencyMonitor.ENCODE);
+                    mySocket.flush();
+                    monitor.mark(LatencyMonitor.SEND);
                 }
                 else
                     System.out.println("Server did not respond within the timeout");
             }
 
+            if (latency)
+                monitor.printSummary(System.out, curEpisode);
+            if (latencyCsv != null)
+                monitor.appendCsv(latencyCsv, curEpisode);
+            monitor.reset();
+
         }
         while (++curEpisode < maxEpisodes && !shutdownOccurred);
 
@@ -119,11 +163,34 @@ public class Client {
          */
         driver.shutdown();
         mySocket.close();
+        if (recorder != null)
+            recorder.close();
         System.out.println("Client shutdown.");
         System.out.println("Bye, bye!");
 
     }
 
+    static byte[] bytes(String s) {
+        byte[] b = new byte[s.length()];
+        for (int i = 0; i < b.length; i++)
+            b[i] = (byte) s.charAt(i);
+        return b;
+    }
+
+    /*
+     * Looks for pattern in the first length bytes of data
+     */
+    static boolean contains(byte[] data, int length, byte[] pattern) {
+        for (int i = 0; i + pattern.length <= length; i++) {
+            int j = 0;
+            while (j < pattern.length && data[i + j] == pattern[j])
+                j++;
+            if (j == pattern.length)
+                return true;
+        }
+        return false;
+    }
+
     private static void parseParameters(String[] args) {
         /*
          * Set default values for the options
@@ -136,6 +203,10 @@ public class Client {
         maxSteps = 0;
         stage = Stage.UNKNOWN;
         trackName = "unknown";
+        latency = false;
+        latencyCsv = null;
+        deadline = 20;
+        recordFile = null;
 
         for (int i = 1; i < args.length; i++) {
             StringTokenizer st = new StringTokenizer(args[i], ":");
@@ -169,6 +240,29 @@ public class Client {
             if (entity.equals("trackName")) {
                 trackName = value;
             }
+            if (entity.equals("latency")) {
+                if (value.equals("on"))
+                    latency = true;
+                else if (value.equals("off"))
+                    latency = false;
+                else {
+                    System.out.println(entity + ":" + value + " is not a valid option");
+                    System.exit(0);
+                }
+            }
+            if (entity.equals("latencyCsv")) {
+                latencyCsv = value;
+            }
+            if (entity.equals("deadline")) {
+                deadline = Integer.parseInt(value);
+                if (deadline <= 0) {
+                    System.out.println(entity + ":" + value + " is not a valid option");
+                    System.exit(0);
+                }
+            }
+            if (entity.equals("record")) {
+                recordFile = value;
+            }
             if (entity.equals("maxEpisodes")) {
                 maxEpisodes = Integer.parseInt(value);
                 if (maxEpisodes <= 0) {
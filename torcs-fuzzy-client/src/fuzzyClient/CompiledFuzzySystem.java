@@ -0,0 +1,158 @@
+package fuzzyClient;
+
+import java.util.Arrays;
+
+import org.jgap.Gene;
+import org.jgap.IChromosome;
+
+/*
+ * Evaluates the fuzzy system encoded by a chromosome without building a
+ * jFuzzyLogic FIS. It computes the same result as the FIS returned by
+ * TorcsFitnessFunction.constructFCL:
+ *  - inputs  : trapezoidal / triangular terms on the sorted breakpoints
+ *  - rules   : AND = MIN, ACT = MIN, ACCU = MAX
+ *  - outputs : center of gravity of the singletons, default value if no
+ *              rule fires
+ * The chromosome is decoded into flat arrays by decode(), evaluate() does
+ * not allocate anything. An instance is reused for many chromosomes and must
+ * not be shared between threads.
+ */
+public class CompiledFuzzySystem implements ChromosomeDefinition {
+
+	// Sorted breakpoints of the input terms, NB_FA_IN per input
+	private final double[] breakpoints = new double[NB_INPUT * NB_FA_IN];
+
+	// Input term of each condition, NB_R_IN per rule
+	private final int[] conditions = new int[NB_REGLE * NB_R_IN];
+
+	// Output term of each result, NB_R_OUT per rule
+	private final int[] results = new int[NB_REGLE * NB_R_OUT];
+
+	// Position of the singletons, NB_FA_OUT per output
+	private final double[] singletons = new double[NB_OUTPUT * NB_FA_OUT];
+
+	// Singletons at the same position are merged like jFuzzyLogic does:
+	// index of the first output term with the same position
+	private final int[] singletonSlot = new int[NB_OUTPUT * NB_FA_OUT];
+
+	private final double[] defaults = new double[NB_OUTPUT];
+
+	// Working memory of evaluate()
+	private final double[] activation = new double[NB_OUTPUT * NB_FA_OUT];
+
+	private final double[] outputs = new double[NB_OUTPUT];
+
+	// Decode the chromosome, using the same gene layout as constructFCL
+	public void decode(IChromosome a_potentialSolution) {
+		Gene[] genes = a_potentialSolution.getGenes();
+
+		for(int i = 0; i < NB_OUTPUT; i++)
+			defaults[i] = (Double)genes[i].getAllele();
+
+		// Input breakpoints, sorted per input
+		for(int i = 0; i < NB_INPUT * NB_FA_IN; i++)
+			breakpoints[i] = (Double)genes[i + NB_DEFAULT].getAllele();
+		for(int i = 0; i < NB_INPUT; i++)
+			Arrays.sort(breakpoints, i * NB_FA_IN, (i + 1) * NB_FA_IN);
+
+		// Output singletons
+		int offset = NB_INPUT * NB_FA_IN + NB_DEFAULT;
+		for(int i = 0; i < NB_OUTPUT; i++){
+			for(int j = 0; j < NB_FA_OUT; j++){
+				int term = j + i * NB_FA_OUT;
+				singletons[term] = (Double)genes[term + offset].getAllele();
+				singletonSlot[term] = term;
+				for(int k = i * NB_FA_OUT; k < term; k++)
+					if(singletons[k] == singletons[term]){
+						singletonSlot[term] = k;
+						break;
+					}
+			}
+		}
+
+		// Rules
+		offset = NB_OUTPUT * NB_FA_OUT + NB_INPUT * NB_FA_IN + NB_DEFAULT;
+		for(int i = 0; i < NB_REGLE; i++){
+			for(int j = 0; j < NB_R_IN; j++)
+				conditions[j + i * NB_R_IN] = (Integer)genes[j + i * NB_R_IN + offset].getAllele();
+			for(int j = 0; j < NB_R_OUT; j++)
+				results[j + i * NB_R_OUT] = (Integer)genes[j + NB_R_IN + i * (NB_R_IN + NB_R_OUT) + offset].getAllele();
+		}
+	}
+
+	// Evaluate the system for the given inputs (NB_INPUT values starting at
+	// a_offset), the results are read with getOutput()
+	public void evaluate(double[] a_inputs, int a_offset) {
+		Arrays.fill(activation, 0.);
+
+		for(int i = 0; i < NB_REGLE; i++){
+			// AND : MIN
+			double degree = 1.;
+			for(int j = 0; j < NB_R_IN; j++){
+				int term = conditions[j + i * NB_R_IN];
+				degree = Math.min(degree, membership(term, a_inputs[a_offset + term / NB_FA_IN]));
+			}
+
+			// ACT : MIN with a singleton of height 1, ACCU : MAX
+			for(int j = 0; j < NB_R_OUT; j++){
+				int slot = singletonSlot[results[j + i * NB_R_OUT]];
+				if(degree > activation[slot])
+					activation[slot] = degree;
+			}
+		}
+
+		// METHOD : COG on the singletons
+		for(int i = 0; i < NB_OUTPUT; i++){
+			double sum = 0.;
+			double sumWeight = 0.;
+			for(int term = i * NB_FA_OUT; term < (i + 1) * NB_FA_OUT; term++){
+				if(singletonSlot[term] != term)
+					continue;
+				sum += singletons[term] * activation[term];
+				sumWeight += activation[term];
+			}
+			if(sumWeight != 0.)
+				outputs[i] = sum / sumWeight;
+			else
+				outputs[i] = defaults[i];
+		}
+	}
+
+	public double getOutput(int a_output) {
+		return outputs[a_output];
+	}
+
+	// Membership of a value in the given input term:
+	//   first term  : (INPUT_MIN, 0) (INPUT_MIN, 1) (b0, 1) (b1, 0)
+	//   middle term : (bj-1, 0) (bj, 1) (bj+1, 0)
+	//   last term   : (bj-1, 0) (bj, 1) (INPUT_MAX, 1) (INPUT_MAX, 0)
+	private double membership(int a_term, double a_x) {
+		int j = a_term % NB_FA_IN;
+		int base = a_term - j;
+		if(j == 0)
+			return trapezoid(a_x, INPUT_MIN, INPUT_MIN, breakpoints[base], breakpoints[base + 1]);
+		if(j == NB_FA_IN - 1)
+			return trapezoid(a_x, breakpoints[base + j - 1], breakpoints[base + j], INPUT_MAX, INPUT_MAX);
+		return triangle(a_x, breakpoints[base + j - 1], breakpoints[base + j], breakpoints[base + j + 1]);
+	}
+
+	private static double trapezoid(double x, double a, double b, double c, double d) {
+		if(x < a || x > d)
+			return 0.;
+		if(x >= b && x <= c)
+			return 1.;
+		if(x < b)
+			return (x - a) / (b - a);
+		return 1. - (x - c) / (d - c);
+	}
+
+	private static double triangle(double x, double a, double b, double c) {
+		if(x < a || x > c)
+			return 0.;
+		if(x == b)
+			return 1.;
+		if(x < b)
+			return (x - a) / (b - a);
+		return 1. - (x - b) / (c - b);
+	}
+}
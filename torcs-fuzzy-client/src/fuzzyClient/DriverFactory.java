@@ -0,0 +1,11 @@
+package fuzzyClient;
+
+import org.jgap.IChromosome;
+
+/*
+ * Builds the controller to race for a chromosome, see RaceFitnessFunction
+ */
+public interface DriverFactory {
+
+	public CarController createDriver(IChromosome a_subject);
+}
@@ -30,6 +30,41 @@ public class EvoAlgo implements ChromosomeDefinition {
 	 */
 	public static IChromosome launchEvo(boolean accel) throws InvalidConfigurationException {
 		
+		Configuration conf = createConfiguration();
+
+		// Set the fitness function we want to use, which is our
+		// TorcsFitnessFunction.
+		// ---------------------------------------------------------
+		TorcsFitnessFunction fitnessFunction = new TorcsFitnessFunction(accel);
+		FitnessFunction myFunc = fitnessFunction;
+		conf.setFitnessFunction(myFunc);
+
+		return evolve(conf, accel);
+	}
+
+	/**
+	 * Executes the genetic algorithm, racing the chromosomes on the TORCS
+	 * servers listening on firstPort .. firstPort + count - 1. The system
+	 * not evolved is loaded from otherFclFile, see FuzzyDriverFactory.
+	 * @throws InvalidConfigurationException 
+	 */
+	public static IChromosome launchRaceEvo(boolean accel, String otherFclFile,
+			int firstPort, int count, int maxSteps) throws InvalidConfigurationException {
+
+		Configuration conf = createConfiguration();
+		RaceFitnessFunction fitnessFunction = new RaceFitnessFunction(
+				new FuzzyDriverFactory(accel, otherFclFile), "localhost",
+				firstPort, count, maxSteps);
+		conf.setBulkFitnessFunction(fitnessFunction);
+		try {
+			return evolve(conf, accel);
+		} finally {
+			fitnessFunction.close();
+		}
+	}
+
+	private static Configuration createConfiguration() throws InvalidConfigurationException {
+
 		// Start with a DefaultConfiguration, which comes setup with the
 		// most common settings.
 		Configuration.reset();
@@ -43,18 +78,52 @@ public class EvoAlgo implements ChromosomeDefinition {
 		// -------------------------------------------------------------
 		conf.setPreservFittestIndividual(true);
 		conf.setKeepPopulationSizeConstant(false);
+		return conf;
+	}
 
-		// Set the fitness function we want to use, which is our
-		// TorcsFitnessFunction.
-		// ---------------------------------------------------------
-		TorcsFitnessFunction fitnessFunction = new TorcsFitnessFunction(accel);
-		FitnessFunction myFunc = fitnessFunction;
-		conf.setFitnessFunction(myFunc);
+	private static IChromosome evolve(Configuration conf, boolean accel) throws InvalidConfigurationException {
 
 		// Now we need to tell the Configuration object how we want our
 		// Chromosomes to be setup. We do that by actually creating a
 		// sample Chromosome and then setting it on the Configuration
 		// object.
+		Gene[] genes = createGenes(conf, accel);
+        
+		IChromosome chromosome = new Chromosome(conf, genes);
+		conf.setSampleChromosome(chromosome);
+		// Finally, we need to tell the Configuration object how many
+		// Chromosomes we want in our population. The more Chromosomes,
+		// the larger number of potential solutions (which is good for
+		// finding the answer), but the longer it will take to evolve
+		// the population (which could be seen as bad).
+		// ------------------------------------------------------------
+		conf.setPopulationSize(POPULATION);
+		Genotype population;
+		population = Genotype.randomInitialGenotype(conf);
+
+		// Evolve the population. Since we don't know what the best answer
+		// is going to be, we just evolve the max number of times.
+		// ---------------------------------------------------------------
+		long startTime = System.currentTimeMillis();
+		for (int i = 0; i < MAX_ALLOWED_EVOLUTIONS; i++) {
+			population.evolve();
+			IChromosome bestSolutionSoFar = population.getFittestChromosome();
+			System.out.println("GEN : " + (i+1) + " / " + MAX_ALLOWED_EVOLUTIONS + "  (Meilleur solution : " + bestSolutionSoFar.getFitnessValue() + " / 1'000'000)");
+		}
+		long endTime = System.currentTimeMillis();
+		System.out.println("Total evolution time: " + (( endTime - startTime ) / 60000. > 1. ? ( endTime - startTime ) / 60000. + " min" : ( endTime - startTime ) + " ms"));
+
+		IChromosome bestSolutionSoFar = population.getFittestChromosome();
+		System.out.println("Meilleure solution (fitness : " + bestSolutionSoFar.getFitnessValue() + " / 1'000'000) : ");
+		
+		return bestSolutionSoFar;
+	}
+	
+	/**
+	 * Creates the genes of a chromosome, see ChromosomeDefinition
+	 * @throws InvalidConfigurationException 
+	 */
+	public static Gene[] createGenes(Configuration conf, boolean accel) throws InvalidConfigurationException {
 		Gene[] genes = new Gene[ NB_DEFAULT + 
 	                             NB_INPUT * NB_FA_IN + 
 	                             NB_OUTPUT * NB_FA_OUT + 
@@ -95,35 +164,8 @@ public class EvoAlgo implements ChromosomeDefinition {
         	genes[i * (NB_R_IN + NB_R_OUT) + NB_R_IN + NB_OUTPUT * NB_FA_OUT + NB_INPUT * NB_FA_IN + NB_DEFAULT] = new IntegerGene(conf, REGLE_OUT_MIN, REGLE_OUT_MAX);
         		
         }
-        
-		IChromosome chromosome = new Chromosome(conf, genes);
-		conf.setSampleChromosome(chromosome);
-		// Finally, we need to tell the Configuration object how many
-		// Chromosomes we want in our population. The more Chromosomes,
-		// the larger number of potential solutions (which is good for
-		// finding the answer), but the longer it will take to evolve
-		// the population (which could be seen as bad).
-		// ------------------------------------------------------------
-		conf.setPopulationSize(POPULATION);
-		Genotype population;
-		population = Genotype.randomInitialGenotype(conf);
-
-		// Evolve the population. Since we don't know what the best answer
-		// is going to be, we just evolve the max number of times.
-		// ---------------------------------------------------------------
-		long startTime = System.currentTimeMillis();
-		for (int i = 0; i < MAX_ALLOWED_EVOLUTIONS; i++) {
-			population.evolve();
-			IChromosome bestSolutionSoFar = population.getFittestChromosome();
-			System.out.println("GEN : " + (i+1) + " / " + MAX_ALLOWED_EVOLUTIONS + "  (Meilleur solution : " + bestSolutionSoFar.getFitnessValue() + " / 1'000'000)");
-		}
-		long endTime = System.currentTimeMillis();
-		System.out.println("Total evolution time: " + (( endTime - startTime ) / 60000. > 1. ? ( endTime - startTime ) / 60000. + " min" : ( endTime - startTime ) + " ms"));
-
-		IChromosome bestSolutionSoFar = population.getFittestChromosome();
-		System.out.println("Meilleure solution (fitness : " + bestSolutionSoFar.getFitnessValue() + " / 1'000'000) : ");
 		
-		return bestSolutionSoFar;
+		return genes;
 	}
 	
 	/**
@@ -85,6 +85,14 @@ public class FuzzyDriver extends CarController implements ChromosomeDefinition{
 		}
 	}
 
+	/*
+	 * Drives with the given fuzzy systems, see FuzzyDriverFactory
+	 */
+	public FuzzyDriver(FIS fisSteer, FIS fisAccel) {
+		this.fisSteer = fisSteer;
+		this.fisAccel = fisAccel;
+	}
+
 	public void reset() {
 		System.out.println("Restarting the race!");
 	}
@@ -117,8 +125,9 @@ public class FuzzyDriver extends CarController implements ChromosomeDefinition{
 		// Set inputs
 		fisSteer.setVariable("input0", sensors.getSpeed()/100.);
 		fisSteer.setVariable("input1", sensors.getAngleToTrackAxis());
+		double[] track = sensors.getTrackEdgeSensors();
 		for(int i = 2; i < NB_INPUT; i++)
-			fisSteer.setVariable("input"+i, sensors.getTrackEdgeSensors()[i-2] / 100.);
+			fisSteer.setVariable("input"+i, track[i-2] / 100.);
 
 		// Evaluate the fuzzy system
 		fisSteer.evaluate();
@@ -131,8 +140,9 @@ public class FuzzyDriver extends CarController implements ChromosomeDefinition{
 		// Set inputs
 		fisAccel.setVariable("input0", sensors.getSpeed());
 		fisAccel.setVariable("input1", sensors.getAngleToTrackAxis());
+		double[] track = sensors.getTrackEdgeSensors();
 		for(int i = 2; i < NB_INPUT; i++)
-			fisAccel.setVariable("input"+i, sensors.getTrackEdgeSensors()[i-2]);
+			fisAccel.setVariable("input"+i, track[i-2]);
 
 		// Evaluate the fuzzy system
 		fisAccel.evaluate();
@@ -0,0 +1,35 @@
+package fuzzyClient;
+
+import net.sourceforge.jFuzzyLogic.FIS;
+
+import org.jgap.IChromosome;
+
+/*
+ * Builds the FuzzyDriver to race for a chromosome in RaceFitnessFunction.
+ * Like EvoAlgo, the steering and the acceleration systems are evolved
+ * separately: the chromosome gives one of them, the other one is loaded
+ * from a FCL file. It is loaded for each driver, as drivers race
+ * concurrently and a FIS holds the values of its variables.
+ */
+public class FuzzyDriverFactory implements DriverFactory {
+
+	private final boolean accel;
+	private final String otherFclFile;
+
+	/*
+	 * accel: the chromosomes give the acceleration system, otherwise the
+	 * steering system
+	 */
+	public FuzzyDriverFactory(boolean accel, String otherFclFile) {
+		this.accel = accel;
+		this.otherFclFile = otherFclFile;
+	}
+
+	public CarController createDriver(IChromosome a_subject) {
+		FIS evolved = TorcsFitnessFunction.constructFCL(a_subject);
+		FIS other = FIS.load(otherFclFile, false);
+		if (other == null)
+			throw new IllegalStateException("Can't load file: '" + otherFclFile + "'");
+		return accel ? new FuzzyDriver(other, evolved) : new FuzzyDriver(evolved, other);
+	}
+}
@@ -0,0 +1,112 @@
+package fuzzyClient;
+
+import java.util.Arrays;
+
+/*
+ * Histogram of durations in nanoseconds with log-linear buckets, in the
+ * spirit of HdrHistogram: each power of two is split into 64 buckets, so a
+ * recorded value is known within 1/64 (1.6%). Recording is a few shifts and
+ * an array increment and never allocates. Values above about 137 s are
+ * counted in the last bucket.
+ */
+public class LatencyHistogram {
+
+	private static final int SUB_BUCKET_BITS = 7;
+	private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+	private static final int HALF = SUB_BUCKETS / 2;
+	private static final int MAX_SHIFT = 30;
+
+	private final long[] counts = new long[SUB_BUCKETS + MAX_SHIFT * HALF];
+	private long count;
+	private long total;
+	private long min = Long.MAX_VALUE;
+	private long max;
+
+	public void record(long nanos) {
+		if (nanos < 0)
+			nanos = 0;
+		counts[indexOf(nanos)]++;
+		count++;
+		total += nanos;
+		if (nanos < min)
+			min = nanos;
+		if (nanos > max)
+			max = nanos;
+	}
+
+	static int indexOf(long value) {
+		if (value < SUB_BUCKETS)
+			return (int) value;
+		int shift = 64 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+		if (shift > MAX_SHIFT)
+			return SUB_BUCKETS + MAX_SHIFT * HALF - 1;
+		return SUB_BUCKETS + (shift - 1) * HALF + (int) (value >>> shift) - HALF;
+	}
+
+	/*
+	 * Highest value counted in the bucket
+	 */
+	static long highestOf(int index) {
+		if (index < SUB_BUCKETS)
+			return index;
+		int shift = (index - SUB_BUCKETS) / HALF + 1;
+		long sub = (index - SUB_BUCKETS) % HALF + HALF;
+		return ((sub + 1) << shift) - 1;
+	}
+
+	public long getCount() {
+		return count;
+	}
+
+	public long getMin() {
+		return count == 0 ? 0 : min;
+	}
+
+	public long getMax() {
+		return max;
+	}
+
+	public double getMean() {
+		return count == 0 ? 0 : (double) total / count;
+	}
+
+	/*
+	 * Smallest value such that percentile % of the recorded values are not
+	 * above it, up to the bucket resolution and never above the max.
+	 */
+	public long getValueAtPercentile(double percentile) {
+		if (count == 0)
+			return 0;
+		long rank = (long) Math.ceil(percentile / 100 * count);
+		if (rank < 1)
+			rank = 1;
+		long seen = 0;
+		for (int i = 0; i < counts.length; i++) {
+			seen += counts[i];
+			if (seen >= rank)
+				return Math.min(highestOf(i), max);
+		}
+		return max;
+	}
+
+	/*
+	 * Independent copy of the recorded values
+	 */
+	public LatencyHistogram copy() {
+		LatencyHistogram copy = new LatencyHistogram();
+		System.arraycopy(counts, 0, copy.counts, 0, counts.length);
+		copy.count = count;
+		copy.total = total;
+		copy.min = min;
+		copy.max = max;
+		return copy;
+	}
+
+	public void reset() {
+		Arrays.fill(counts, 0);
+		count = 0;
+		total = 0;
+		min = Long.MAX_VALUE;
+		max = 0;
+	}
+}
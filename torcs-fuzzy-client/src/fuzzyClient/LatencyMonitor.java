@@ -0,0 +1,126 @@
+package fuzzyClient;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.util.Locale;
+
+/*
+ * Times the phases of each step of the control loop into histograms and
+ * counts the steps whose response took longer than the deadline, i.e. the
+ * steps for which the server repeated the previous action.
+ * A step is timed by calling mark(phase) at the end of each phase, in the
+ * order of the phase constants, after startStep() just before receiving.
+ */
+public class LatencyMonitor {
+
+	public static final int RECEIVE = 0, PARSE = 1, CONTROL = 2, ENCODE = 3,
+			SEND = 4;
+
+	private static final String[] PHASES = { "receive", "parse", "control",
+			"encode", "send", "response" };
+
+	// Time from the end of the receive to the end of the send
+	private static final int RESPONSE = 5;
+
+	private final LatencyHistogram[] histograms = new LatencyHistogram[PHASES.length];
+	private final long deadline;
+	private long deadlineMisses;
+	private long last;
+	private long received;
+
+	/*
+	 * deadline in milliseconds
+	 */
+	public LatencyMonitor(int deadline) {
+		this.deadline = deadline * 1000000L;
+		for (int i = 0; i < histograms.length; i++)
+			histograms[i] = new LatencyHistogram();
+	}
+
+	public void startStep() {
+		last = System.nanoTime();
+	}
+
+	public void mark(int phase) {
+		long now = System.nanoTime();
+		histograms[phase].record(now - last);
+		last = now;
+		if (phase == RECEIVE)
+			received = now;
+		else if (phase == SEND) {
+			long response = now - received;
+			histograms[RESPONSE].record(response);
+			if (response > deadline)
+				deadlineMisses++;
+		}
+	}
+
+	public LatencyHistogram getHistogram(int phase) {
+		return histograms[phase];
+	}
+
+	public long getDeadlineMisses() {
+		return deadlineMisses;
+	}
+
+	public long getSteps() {
+		return histograms[RESPONSE].getCount();
+	}
+
+	public void reset() {
+		for (int i = 0; i < histograms.length; i++)
+			histograms[i].reset();
+		deadlineMisses = 0;
+	}
+
+	/*
+	 * Prints one line per phase, times in microseconds
+	 */
+	public void printSummary(PrintStream out, long episode) {
+		out.println("Episode " + episode + ": " + getSteps() + " steps, "
+				+ deadlineMisses + " over the " + deadline / 1000000 + " ms deadline");
+		out.println(String.format(Locale.ROOT, "%-9s %9s %9s %9s %9s %9s %9s",
+				"phase(us)", "mean", "p50", "p90", "p99", "p99.9", "max"));
+		for (int i = 0; i < PHASES.length; i++) {
+			LatencyHistogram h = histograms[i];
+			out.println(String.format(Locale.ROOT, "%-9s %9.1f %9.1f %9.1f %9.1f %9.1f %9.1f",
+					PHASES[i], h.getMean() / 1000, micros(h.getValueAtPercentile(50)),
+					micros(h.getValueAtPercentile(90)), micros(h.getValueAtPercentile(99)),
+					micros(h.getValueAtPercentile(99.9)), micros(h.getMax())));
+		}
+	}
+
+	/*
+	 * Appends one row per phase to the file, times in microseconds. The
+	 * header is written when the file is empty.
+	 */
+	public void appendCsv(String fileName, long episode) {
+		PrintWriter out = null;
+		try {
+			boolean empty = new File(fileName).length() == 0;
+			out = new PrintWriter(new FileWriter(fileName, true));
+			if (empty)
+				out.println("episode,phase,count,min,mean,p50,p90,p99,p99.9,max,deadlineMisses");
+			for (int i = 0; i < PHASES.length; i++) {
+				LatencyHistogram h = histograms[i];
+				out.println(String.format(Locale.ROOT, "%d,%s,%d,%.1f,%.1f,%.1f,%.1f,%.1f,%.1f,%.1f,%d",
+						episode, PHASES[i], h.getCount(), micros(h.getMin()), h.getMean() / 1000,
+						micros(h.getValueAtPercentile(50)), micros(h.getValueAtPercentile(90)),
+						micros(h.getValueAtPercentile(99)), micros(h.getValueAtPercentile(99.9)),
+						micros(h.getMax()), deadlineMisses));
+			}
+		} catch (IOException e) {
+			e.printStackTrace();
+		} finally {
+			if (out != null)
+				out.close();
+		}
+	}
+
+	private static double micros(long nanos) {
+		return nanos / 1000.0;
+	}
+}
@@ -0,0 +1,109 @@
+package fuzzyClient;
+
+/*
+ * One simulator endpoint, i.e. a TORCS server (or a StandInServer) listening
+ * on its own UDP port. Races one controller at a time with the same protocol
+ * as Client: identification, then one action per sensor message until the
+ * lap is completed or maxSteps are driven, then a restart request.
+ */
+public class RaceEndpoint {
+
+	private static final String CLIENT_ID = "championship2011";
+	private static final byte[] IDENTIFIED = Client.bytes("***identified***");
+	private static final byte[] SHUTDOWN = Client.bytes("***shutdown***");
+	private static final byte[] RESTART = Client.bytes("***restart***");
+
+	// Timeouts in a row after which the server is taken as gone
+	private static final int MAX_TIMEOUTS = 3;
+
+	private final SocketHandler socket;
+	private final int timeout;
+	private final ByteMessageParser parser = new ByteMessageParser();
+	private final SensorState sensors = new SensorState();
+	private final Action restart = new Action();
+	private boolean shutdown;
+
+	/*
+	 * timeout in ms for each answer of the server
+	 */
+	public RaceEndpoint(String host, int port, int timeout) {
+		socket = new SocketHandler(host, port, false);
+		this.timeout = timeout;
+		restart.restartRace = true;
+	}
+
+	/*
+	 * Races the driver for one lap or maxSteps steps (0: no limit). Returns
+	 * the last sensor readings, overwritten by the next race, or null if the
+	 * server did not identify the client or is shut down.
+	 */
+	public SensorModel race(CarController driver, int maxSteps) {
+		if (shutdown || !identify(driver.initAngles()))
+			return null;
+		byte[] inData = socket.getReceived();
+		int timeouts = 0;
+		long currStep = 0;
+		while (true) {
+			int inLength = socket.receiveBytes(timeout);
+			if (inLength < 0) {
+				if (++timeouts >= MAX_TIMEOUTS)
+					return null;
+				continue;
+			}
+			timeouts = 0;
+			if (Client.contains(inData, inLength, SHUTDOWN)) {
+				shutdown = true;
+				return sensors;
+			}
+			if (Client.contains(inData, inLength, RESTART))
+				return sensors;
+			parser.parse(inData, 0, inLength, sensors);
+			if ((maxSteps > 0 && currStep >= maxSteps) || sensors.getLastLapTime() > 0) {
+				socket.send(restart);
+				awaitRestart();
+				return sensors;
+			}
+			socket.send(driver.control(sensors));
+			currStep++;
+		}
+	}
+
+	private boolean identify(float[] angles) {
+		StringBuilder init = new StringBuilder(CLIENT_ID).append("(init");
+		for (int i = 0; i < angles.length; i++)
+			init.append(' ').append(angles[i]);
+		String initStr = init.append(')').toString();
+		byte[] inData = socket.getReceived();
+		for (int i = 0; i < MAX_TIMEOUTS; i++) {
+			socket.send(initStr);
+			int inLength = socket.receiveBytes(timeout);
+			if (inLength >= 0 && Client.contains(inData, inLength, IDENTIFIED))
+				return true;
+		}
+		return false;
+	}
+
+	/*
+	 * Drops the sensor messages still in flight until the server restarts
+	 */
+	private void awaitRestart() {
+		byte[] inData = socket.getReceived();
+		int inLength;
+		while ((inLength = socket.receiveBytes(timeout)) >= 0) {
+			if (Client.contains(inData, inLength, RESTART))
+				return;
+			if (Client.contains(inData, inLength, SHUTDOWN)) {
+				shutdown = true;
+				return;
+			}
+		}
+	}
+
+	public int getPort() {
+		return socket.getPort();
+	}
+
+	public void close() {
+		socket.close();
+	}
+}
@@ -0,0 +1,135 @@
+package fuzzyClient;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jgap.BulkFitnessFunction;
+import org.jgap.FitnessFunction;
+import org.jgap.IChromosome;
+import org.jgap.Population;
+
+/*
+ * Scores the chromosomes by racing them: the controller built for each
+ * chromosome drives one lap (or maxSteps steps) on a simulator. The
+ * simulators listen on distinct local UDP ports, one thread per endpoint
+ * races the chromosomes of the population one after the other, so that
+ * the endpoints are all busy at the same time.
+ * Chromosomes which already have a fitness value are not raced again.
+ * The threads are daemons, close() stops them and closes the sockets.
+ */
+public class RaceFitnessFunction extends BulkFitnessFunction {
+
+	// Weight of one point of damage, in meters raced
+	private static final double DAMAGE_WEIGHT = 0.1;
+	// Bonus for completing the lap, divided by the lap time in seconds
+	private static final double LAP_BONUS = 100000;
+
+	private final DriverFactory factory;
+	private final RaceEndpoint[] endpoints;
+	private final int maxSteps;
+	private final ExecutorService executor;
+
+	/*
+	 * Races on the servers at host listening on firstPort .. firstPort +
+	 * count - 1, like TORCS servers started with ports 3001, 3002...
+	 */
+	public RaceFitnessFunction(DriverFactory factory, String host, int firstPort,
+			int count, int maxSteps) {
+		this(factory, host, ports(firstPort, count), maxSteps);
+	}
+
+	public RaceFitnessFunction(DriverFactory factory, String host, int[] ports,
+			int maxSteps) {
+		this.factory = factory;
+		this.maxSteps = maxSteps;
+		endpoints = new RaceEndpoint[ports.length];
+		for (int i = 0; i < ports.length; i++)
+			endpoints[i] = new RaceEndpoint(host, ports[i], 10000);
+		executor = Executors.newFixedThreadPool(ports.length, new ThreadFactory() {
+			private int count;
+
+			public synchronized Thread newThread(Runnable task) {
+				Thread thread = new Thread(task, "race-" + count++);
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+	}
+
+	private static int[] ports(int firstPort, int count) {
+		int[] ports = new int[count];
+		for (int i = 0; i < count; i++)
+			ports[i] = firstPort + i;
+		return ports;
+	}
+
+	@Override
+	public void evaluate(Population a_chromosomes) {
+		final List<IChromosome> chromosomes = new ArrayList<IChromosome>();
+		for (int i = 0; i < a_chromosomes.size(); i++) {
+			IChromosome chromosome = a_chromosomes.getChromosome(i);
+			if (chromosome.getFitnessValueDirectly() == FitnessFunction.NO_FITNESS_VALUE)
+				chromosomes.add(chromosome);
+		}
+		final AtomicInteger next = new AtomicInteger();
+		List<Future<?>> races = new ArrayList<Future<?>>();
+		for (final RaceEndpoint endpoint : endpoints) {
+			races.add(executor.submit(new Runnable() {
+				public void run() {
+					int i;
+					while ((i = next.getAndIncrement()) < chromosomes.size()) {
+						IChromosome chromosome = chromosomes.get(i);
+						chromosome.setFitnessValue(race(endpoint, chromosome));
+					}
+				}
+			}));
+		}
+		try {
+			for (Future<?> race : races)
+				race.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new RuntimeException(e);
+		} catch (ExecutionException e) {
+			throw new RuntimeException(e.getCause());
+		}
+	}
+
+	private double race(RaceEndpoint endpoint, IChromosome a_subject) {
+		CarController driver = factory.createDriver(a_subject);
+		SensorModel result = endpoint.race(driver, maxSteps);
+		driver.shutdown();
+		if (result == null) {
+			System.out.println("Race on port " + endpoint.getPort()
+					+ " failed, the server did not answer: fitness 0");
+			return 0;
+		}
+		return calculateFitness(result);
+	}
+
+	/*
+	 * The greater the better: the distance raced minus the damage, plus a
+	 * bonus inversely proportional to the lap time if the lap is completed.
+	 */
+	protected double calculateFitness(SensorModel lastState) {
+		double fitness = lastState.getDistanceRaced() - DAMAGE_WEIGHT * lastState.getDamage();
+		if (lastState.getLastLapTime() > 0)
+			fitness += LAP_BONUS / lastState.getLastLapTime();
+		return Math.max(0, fitness);
+	}
+
+	/*
+	 * Stops the threads and closes the sockets
+	 */
+	public void close() {
+		executor.shutdown();
+		for (RaceEndpoint endpoint : endpoints)
+			endpoint.close();
+	}
+}
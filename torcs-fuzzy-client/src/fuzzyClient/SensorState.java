@@ -0,0 +1,143 @@
+package fuzzyClient;
+
+import java.nio.charset.Charset;
+
+/*
+ * Sensor readings of one game tick, stored in primitive fields and fixed
+ * arrays so that a single instance can be filled by ByteMessageParser on
+ * every tick without allocating.
+ * The arrays returned by the getters are the internal ones: they are
+ * overwritten by the next parse, copy them to keep the values.
+ */
+public class SensorState implements SensorModel {
+
+	public static final int NB_TRACK = 19;
+	public static final int NB_FOCUS = 5;
+	public static final int NB_OPPONENTS = 36;
+	public static final int NB_WHEELS = 4;
+
+	private static final Charset ASCII = Charset.forName("US-ASCII");
+
+	double angle;
+	double curLapTime;
+	double damage;
+	double distFromStart;
+	double distRaced;
+	double fuel;
+	double gear;
+	double lastLapTime;
+	double racePos;
+	double rpm;
+	double speedX;
+	double speedY;
+	double speedZ;
+	double trackPos;
+	double z;
+
+	final double[] track = new double[NB_TRACK];
+	final double[] focus = new double[NB_FOCUS];
+	final double[] opponents = new double[NB_OPPONENTS];
+	final double[] wheelSpinVel = new double[NB_WHEELS];
+
+	// Raw message, only turned into a String if asked for
+	private byte[] raw = new byte[1024];
+	private int rawLength;
+	private String message;
+
+	void setRaw(byte[] data, int offset, int length) {
+		if (raw.length < length)
+			raw = new byte[Math.max(length, 2 * raw.length)];
+		System.arraycopy(data, offset, raw, 0, length);
+		rawLength = length;
+		message = null;
+	}
+
+	void setMessage(String message) {
+		this.message = message;
+	}
+
+	public double getSpeed() {
+		return speedX;
+	}
+
+	public double getAngleToTrackAxis() {
+		return angle;
+	}
+
+	public double[] getTrackEdgeSensors() {
+		return track;
+	}
+
+	public double[] getFocusSensors() {
+		return focus;
+	}
+
+	public double getTrackPosition() {
+		return trackPos;
+	}
+
+	public int getGear() {
+		return (int) gear;
+	}
+
+	public double[] getOpponentSensors() {
+		return opponents;
+	}
+
+	public int getRacePosition() {
+		return (int) racePos;
+	}
+
+	public double getLateralSpeed() {
+		return speedY;
+	}
+
+	public double getCurrentLapTime() {
+		return curLapTime;
+	}
+
+	public double getDamage() {
+		return damage;
+	}
+
+	public double getDistanceFromStartLine() {
+		return distFromStart;
+	}
+
+	public double getDistanceRaced() {
+		return distRaced;
+	}
+
+	public double getFuelLevel() {
+		return fuel;
+	}
+
+	public double getLastLapTime() {
+		return lastLapTime;
+	}
+
+	public double getRPM() {
+		return rpm;
+	}
+
+	public double[] getWheelSpinVelocity() {
+		return wheelSpinVel;
+	}
+
+	public double getZSpeed() {
+		return speedZ;
+	}
+
+	public double getZ() {
+		return z;
+	}
+
+	/*
+	 * Allocates the String on the first call after each parse
+	 */
+	public String getMessage() {
+		if (message == null)
+			message = new String(raw, 0, rawLength, ASCII);
+		return message;
+	}
+}
@@ -1,27 +1,40 @@
 /**
- * 
+ *
  */
 package fuzzyClient;
 
 import java.io.IOException;
-import java.net.DatagramPacket;
-import java.net.DatagramSocket;
 import java.net.InetAddress;
-import java.net.SocketException;
-import java.net.SocketTimeoutException;
+import java.net.InetSocketAddress;
 import java.net.UnknownHostException;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
 
 /**
  * @author Daniele Loiacono
- * 
+ *
+ * Sends and receives through a non-blocking DatagramChannel. Timeouts are
+ * handled by a Selector and the buffers are allocated once, so that
+ * receiveBytes(int) and send(Action) do not allocate.
  */
 public class SocketHandler {
 
+	private static final int BUFFER_SIZE = 1024;
+
 	private InetAddress address;
+	private InetSocketAddress target;
 	private int port;
-	private DatagramSocket socket;
+	private DatagramChannel channel;
+	private Selector selector;
 	private boolean verbose;
 
+	private final ByteBuffer receiveBuffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+	private final ByteBuffer sendBuffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+	// Last message received, copied out of the direct buffer
+	private final byte[] received = new byte[BUFFER_SIZE];
+
 	public SocketHandler(String host, int port, boolean verbose) {
 
 		// set remote address
@@ -31,10 +44,14 @@ public class SocketHandler {
 			e.printStackTrace();
 		}
 		this.port = port;
-		// init the socket
+		// init the channel
 		try {
-			socket = new DatagramSocket();
-		} catch (SocketException e) {
+			channel = DatagramChannel.open();
+			channel.configureBlocking(false);
+			target = new InetSocketAddress(address, port);
+			selector = Selector.open();
+			channel.register(selector, SelectionKey.OP_READ);
+		} catch (IOException e) {
 			e.printStackTrace();
 		}
 		this.verbose = verbose;
@@ -44,53 +61,104 @@ public class SocketHandler {
 
 		if (verbose)
 			System.out.println("Sending: " + msg);
+		// A message too long for the send buffer, e.g. a long init string,
+		// gets a buffer of its own
+		ByteBuffer buffer = sendBuffer;
+		if (msg.length() > buffer.capacity())
+			buffer = ByteBuffer.allocate(msg.length());
+		buffer.clear();
+		for (int i = 0; i < msg.length(); i++)
+			buffer.put((byte) msg.charAt(i));
+		buffer.flip();
+		send(buffer);
+	}
+
+	public void send(Action action) {
+		encode(action);
+		flush();
+	}
+
+	/*
+	 * Writes the action into the send buffer, flush() sends it
+	 */
+	public void encode(Action action) {
+
+		if (verbose)
+			System.out.println("Sending: " + action);
+		sendBuffer.clear();
+		action.encode(sendBuffer);
+	}
+
+	public void flush() {
+		sendBuffer.flip();
+		send(sendBuffer);
+	}
+
+	private void send(ByteBuffer buffer) {
 		try {
-			byte[] buffer = msg.getBytes();
-			socket
-					.send(new DatagramPacket(buffer, buffer.length, address,
-							port));
+			channel.send(buffer, target);
 		} catch (IOException e) {
 			e.printStackTrace();
 		}
 	}
 
-	public String receive() {
+	/*
+	 * Waits at most timeout ms (0: forever) for a message. Returns its length,
+	 * the message itself is in getReceived(). Returns -1 on timeout or error.
+	 */
+	public int receiveBytes(int timeout) {
 		try {
-			byte[] buffer = new byte[1024];
-			DatagramPacket packet = new DatagramPacket(buffer, buffer.length);
-			socket.receive(packet);
-			String received = new String(packet.getData(), 0, packet
-					.getLength());
-			if (verbose)
-				System.out.println("Received: " + received);
-			return received;
-		} catch(SocketTimeoutException se){			
+			receiveBuffer.clear();
+			// The server may have answered already
+			while (channel.receive(receiveBuffer) == null) {
+				if (selector.select(timeout) == 0) {
+					if (verbose)
+						System.out.println("Socket Timeout!");
+					return -1;
+				}
+				selector.selectedKeys().clear();
+			}
+			receiveBuffer.flip();
+			int length = receiveBuffer.remaining();
+			receiveBuffer.get(received, 0, length);
 			if (verbose)
-				System.out.println("Socket Timeout!");
-		} catch (Exception e) {
+				System.out.println("Received: " + new String(received, 0, length));
+			return length;
+		} catch (IOException e) {
 			e.printStackTrace();
 		}
-		return null;
+		return -1;
+	}
+
+	/*
+	 * Buffer holding the last message received, overwritten by the next one
+	 */
+	public byte[] getReceived() {
+		return received;
+	}
+
+	public String receive() {
+		return receive(0);
 	}
 
 	public String receive(int timeout) {
-		try {
-			socket.setSoTimeout(timeout);
-			String received = receive();
-			socket.setSoTimeout(0);
-			return received;
-		} catch (SocketException e) {
-			// TODO Auto-generated catch block
-			e.printStackTrace();
-		}		
-		return null;
+		int length = receiveBytes(timeout);
+		if (length < 0)
+			return null;
+		return new String(received, 0, length);
 	}
-	
+
+	public int getPort() {
+		return port;
+	}
+
 	public void close() {
-		socket.close();
+		try {
+			selector.close();
+			channel.close();
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
 	}
-	
-	
-	
 
 }
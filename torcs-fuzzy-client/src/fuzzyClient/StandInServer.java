@@ -0,0 +1,241 @@
+package fuzzyClient;
+
+import java.io.IOException;
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.SocketException;
+import java.net.SocketTimeoutException;
+import java.util.Locale;
+
+/*
+ * Stand-in for a TORCS server, speaking the same UDP protocol so that
+ * Client, RaceEndpoint and RaceFitnessFunction can be run without TORCS:
+ * it answers "(init ...)" with ***identified***, then sends a sensor
+ * message and waits for the action, and answers "(meta 1)" with
+ * ***restart***.
+ * The car drives on a straight track, loops of trackLength meters, with a
+ * crude model of speed, steering and damage taken off the track. The
+ * server is not paced: the next tick starts as soon as the action arrives.
+ */
+public class StandInServer implements Runnable {
+
+	private static final double TICK = 0.02; // s
+	private static final double HALF_WIDTH = 5; // m
+	private static final double MAX_RANGE = 200; // m
+	private static final double STEER_LOCK = 0.785398; // rad
+	private static final double ACCEL = 20, BRAKE = 60, DRAG = 0.0005; // km/h/s
+	private static final int TIMEOUT = 1000; // ms
+
+	private final DatagramSocket socket;
+	private final double trackLength;
+	private final double[] angles = new double[SensorState.NB_TRACK];
+	private volatile boolean running = true;
+	private SocketAddress client;
+
+	// State of the car
+	private double speed, angle, trackPos, damage, distRaced, distFromStart;
+	private double curLapTime, lastLapTime;
+	private int gear;
+
+	// Last action received
+	private double accel, brake, steer;
+	private int actionGear;
+
+	/*
+	 * port 0 takes any free port, see getPort()
+	 */
+	public StandInServer(int port, double trackLength) throws SocketException {
+		socket = new DatagramSocket(new InetSocketAddress("127.0.0.1", port));
+		socket.setSoTimeout(TIMEOUT);
+		this.trackLength = trackLength;
+		float[] init = new SimpleDriver().initAngles();
+		for (int i = 0; i < angles.length; i++)
+			angles[i] = Math.toRadians(init[i]);
+		reset();
+	}
+
+	public int getPort() {
+		return socket.getLocalPort();
+	}
+
+	/*
+	 * Starts serving in a daemon thread
+	 */
+	public StandInServer start() {
+		Thread thread = new Thread(this, "StandInServer:" + getPort());
+		thread.setDaemon(true);
+		thread.start();
+		return this;
+	}
+
+	public void close() {
+		running = false;
+		socket.close();
+	}
+
+	public void run() {
+		byte[] buffer = new byte[1024];
+		DatagramPacket packet = new DatagramPacket(buffer, buffer.length);
+		boolean racing = false;
+		while (running) {
+			if (racing)
+				send(sensors());
+			try {
+				socket.receive(packet);
+			} catch (SocketTimeoutException e) {
+				// Like TORCS, go on with the last action
+				if (racing)
+					step();
+				continue;
+			} catch (IOException e) {
+				if (running)
+					e.printStackTrace();
+				return;
+			}
+			String msg = new String(buffer, 0, packet.getLength());
+			if (msg.indexOf("(init") >= 0) {
+				client = packet.getSocketAddress();
+				reset();
+				send("***identified***");
+				racing = true;
+			} else if (racing && packet.getSocketAddress().equals(client)) {
+				if (value(msg, "meta") == 1) {
+					reset();
+					send("***restart***");
+					racing = false;
+				} else {
+					accel = value(msg, "accel");
+					brake = value(msg, "brake");
+					steer = value(msg, "steer");
+					actionGear = (int) value(msg, "gear");
+					step();
+				}
+			}
+		}
+	}
+
+	private void reset() {
+		speed = angle = trackPos = damage = distRaced = distFromStart = 0;
+		curLapTime = lastLapTime = 0;
+		accel = brake = steer = 0;
+		gear = actionGear = 0;
+	}
+
+	private void step() {
+		gear = actionGear;
+		double thrust = gear > 0 ? ACCEL * accel : gear < 0 ? -ACCEL * accel : 0;
+		double resistance = BRAKE * brake + DRAG * speed * speed;
+		double newSpeed = speed + (thrust - Math.signum(speed) * resistance) * TICK;
+		if (brake > 0 && newSpeed * speed < 0)
+			newSpeed = 0;
+		speed = newSpeed;
+		double v = speed / 3.6; // m/s
+		// Positive steer turns left, positive angle points the track axis left
+		angle -= steer * STEER_LOCK * Math.min(1, Math.abs(v) / 10) * TICK * 2;
+		trackPos -= Math.sin(angle) * v * TICK / HALF_WIDTH;
+		double forward = Math.cos(angle) * v * TICK;
+		if (Math.abs(trackPos) > 1) {
+			damage += Math.abs(speed) * TICK * 10;
+			speed *= 0.95;
+		}
+		distRaced += forward;
+		distFromStart += forward;
+		curLapTime += TICK;
+		if (distFromStart >= trackLength) {
+			distFromStart -= trackLength;
+			lastLapTime = curLapTime;
+			curLapTime = 0;
+		} else if (distFromStart < 0)
+			distFromStart += trackLength;
+	}
+
+	/*
+	 * Distance to the track edge along each range finder, -1 off the track
+	 */
+	private double range(double sensorAngle) {
+		if (Math.abs(trackPos) > 1)
+			return -1;
+		// Positive to the right of the track axis
+		double lateral = Math.sin(angle + sensorAngle);
+		double range = MAX_RANGE;
+		if (lateral > 0)
+			range = HALF_WIDTH * (1 + trackPos) / lateral;
+		else if (lateral < 0)
+			range = HALF_WIDTH * (1 - trackPos) / -lateral;
+		return Math.min(range, MAX_RANGE);
+	}
+
+	private String sensors() {
+		StringBuilder msg = new StringBuilder();
+		append(msg, "angle", angle);
+		append(msg, "curLapTime", curLapTime);
+		append(msg, "damage", damage);
+		append(msg, "distFromStart", distFromStart);
+		append(msg, "distRaced", distRaced);
+		append(msg, "fuel", 94);
+		append(msg, "gear", gear);
+		append(msg, "lastLapTime", lastLapTime);
+		msg.append("(opponents");
+		for (int i = 0; i < SensorState.NB_OPPONENTS; i++)
+			msg.append(" 200");
+		msg.append(')');
+		append(msg, "racePos", 1);
+		append(msg, "rpm", Math.min(9000, 1000 + Math.abs(speed) * 40));
+		append(msg, "speedX", speed);
+		append(msg, "speedY", 0);
+		append(msg, "speedZ", 0);
+		msg.append("(track");
+		for (int i = 0; i < angles.length; i++)
+			msg.append(String.format(Locale.ROOT, " %.4f", range(angles[i])));
+		msg.append(')');
+		append(msg, "trackPos", trackPos);
+		double spin = speed / 3.6 / 0.32;
+		msg.append(String.format(Locale.ROOT, "(wheelSpinVel %.4f %.4f %.4f %.4f)", spin, spin, spin, spin));
+		append(msg, "z", 0.345);
+		msg.append("(focus -1 -1 -1 -1 -1)");
+		return msg.toString();
+	}
+
+	private static void append(StringBuilder msg, String name, double value) {
+		msg.append('(').append(name).append(' ')
+				.append(String.format(Locale.ROOT, "%.6f", value)).append(')');
+	}
+
+	/*
+	 * Value of the reading name in an action message, 0 if missing
+	 */
+	private static double value(String msg, String name) {
+		int start = msg.indexOf("(" + name + " ");
+		if (start < 0)
+			return 0;
+		start += name.length() + 2;
+		int end = msg.indexOf(')', start);
+		try {
+			return Double.parseDouble(msg.substring(start, end).trim());
+		} catch (RuntimeException e) {
+			return 0;
+		}
+	}
+
+	private void send(String msg) {
+		byte[] data = msg.getBytes();
+		try {
+			socket.send(new DatagramPacket(data, data.length, client));
+		} catch (IOException e) {
+			if (running)
+				e.printStackTrace();
+		}
+	}
+
+	/*
+	 * Serves on the given port (default 3001) until killed
+	 */
+	public static void main(String[] args) throws SocketException {
+		int port = args.length > 0 ? Integer.parseInt(args[0]) : 3001;
+		double trackLength = args.length > 1 ? Double.parseDouble(args[1]) : 1000;
+		System.out.println("Stand-in server listening on port " + port);
+		new StandInServer(port, trackLength).run();
+	}
+}
@@ -0,0 +1,48 @@
+package fuzzyClient;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.zip.GZIPOutputStream;
+
+/*
+ * Records the messages received from the server into a compact binary log,
+ * to be replayed by TelemetryReplayServer. The log is gzipped and holds
+ * the int MAGIC, then for each message the microseconds elapsed since the
+ * previous one (int), its length (short) and its bytes.
+ */
+public class TelemetryRecorder {
+
+	static final int MAGIC = 0x544c4f47; // "TLOG"
+
+	private final DataOutputStream out;
+	private long last;
+
+	public TelemetryRecorder(String fileName) throws IOException {
+		out = new DataOutputStream(new BufferedOutputStream(
+				new GZIPOutputStream(new FileOutputStream(fileName))));
+		out.writeInt(MAGIC);
+	}
+
+	public void record(byte[] data, int length) {
+		long now = System.nanoTime();
+		long gap = last == 0 ? 0 : (now - last) / 1000;
+		last = now;
+		try {
+			out.writeInt((int) Math.min(gap, Integer.MAX_VALUE));
+			out.writeShort(length);
+			out.write(data, 0, length);
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+	}
+
+	public void close() {
+		try {
+			out.close();
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+	}
+}
@@ -0,0 +1,258 @@
+package fuzzyClient;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetSocketAddress;
+import java.net.SocketTimeoutException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.zip.GZIPInputStream;
+
+/*
+ * Replays a log of TelemetryRecorder to a client, speaking the server side
+ * of the protocol like StandInServer: ***identified*** on "(init ...)",
+ * then one recorded message per action received. The recorded
+ * ***restart*** and ***shutdown*** are replayed as they come, ***restart***
+ * also answers "(meta 1)" and ***shutdown*** is sent at the end of the log.
+ * Messages are sent as soon as the action arrives, or in real time with
+ * the recorded gaps between them. The round trip of each step, from the
+ * send of a message to the receive of the action, is timed to give the
+ * latency and throughput of the client.
+ */
+public class TelemetryReplayServer implements Runnable {
+
+	private static final byte[] IDENTIFIED = Client.bytes("***identified***");
+	private static final byte[] RESTART = Client.bytes("***restart***");
+	private static final byte[] SHUTDOWN = Client.bytes("***shutdown***");
+	private static final byte[] INIT = Client.bytes("(init");
+	private static final byte[] META = Client.bytes("(meta 1)");
+
+	private static final int TIMEOUT = 1000; // ms
+	// Time without a new identification after which the replay stops
+	private static final int IDLE_TIMEOUT = 5000; // ms
+
+	private final DatagramSocket socket;
+	private final byte[][] messages;
+	private final int[] gaps;
+	private final boolean realTime;
+	private final byte[] buffer = new byte[1024];
+	private final DatagramPacket in = new DatagramPacket(buffer, buffer.length);
+	private final DatagramPacket out = new DatagramPacket(buffer, 0);
+
+	// Written by the replay thread while the results may be read by another
+	// one: the histogram is guarded by its own lock, the counters are
+	// volatile with the replay thread as their only writer
+	private final LatencyHistogram roundTrip = new LatencyHistogram();
+	private volatile long missed;
+	// From the first send to the last action received
+	private volatile long duration;
+	private volatile boolean running = true;
+
+	/*
+	 * port 0 takes any free port, see getPort()
+	 */
+	public TelemetryReplayServer(String fileName, int port, boolean realTime)
+			throws IOException {
+		List<byte[]> messages = new ArrayList<byte[]>();
+		List<Integer> gaps = new ArrayList<Integer>();
+		DataInputStream log = new DataInputStream(new BufferedInputStream(
+				new GZIPInputStream(new FileInputStream(fileName))));
+		try {
+			if (log.readInt() != TelemetryRecorder.MAGIC)
+				throw new IOException(fileName + " is not a telemetry log");
+			while (true) {
+				int gap;
+				try {
+					gap = log.readInt();
+				} catch (EOFException e) {
+					break;
+				}
+				byte[] message = new byte[log.readUnsignedShort()];
+				log.readFully(message);
+				gaps.add(gap);
+				messages.add(message);
+			}
+		} finally {
+			log.close();
+		}
+		this.messages = messages.toArray(new byte[messages.size()][]);
+		this.gaps = new int[gaps.size()];
+		for (int i = 0; i < this.gaps.length; i++)
+			this.gaps[i] = gaps.get(i);
+		this.realTime = realTime;
+		socket = new DatagramSocket(new InetSocketAddress("127.0.0.1", port));
+		socket.setSoTimeout(TIMEOUT);
+	}
+
+	public int getPort() {
+		return socket.getLocalPort();
+	}
+
+	/*
+	 * Starts the replay in a daemon thread
+	 */
+	public Thread start() {
+		Thread thread = new Thread(this, "TelemetryReplayServer:" + getPort());
+		thread.setDaemon(true);
+		thread.start();
+		return thread;
+	}
+
+	public void close() {
+		running = false;
+		socket.close();
+	}
+
+	public void run() {
+		if (!awaitInit())
+			return;
+		long start = System.nanoTime();
+		long lastSend = start;
+		int index = 0;
+		while (running) {
+			if (index == messages.length) {
+				send(SHUTDOWN, SHUTDOWN.length);
+				break;
+			}
+			byte[] message = messages[index++];
+			if (realTime)
+				lastSend = pace(lastSend, gaps[index - 1]);
+			long sent = send(message, message.length);
+			if (Client.contains(message, message.length, SHUTDOWN))
+				break;
+			if (Client.contains(message, message.length, RESTART)) {
+				if (!awaitInit())
+					break;
+				continue;
+			}
+			if (!receive()) {
+				missed++;
+				continue;
+			}
+			long received = System.nanoTime();
+			synchronized (roundTrip) {
+				roundTrip.record(received - sent);
+			}
+			duration = received - start;
+			if (Client.contains(buffer, in.getLength(), META)) {
+				send(RESTART, RESTART.length);
+				// Go on with the next recorded race
+				while (index < messages.length
+						&& !Client.contains(messages[index], messages[index].length, RESTART))
+					index++;
+				if (index < messages.length)
+					index++;
+				if (!awaitInit())
+					break;
+			}
+		}
+		socket.close();
+	}
+
+	private boolean awaitInit() {
+		long end = System.currentTimeMillis() + IDLE_TIMEOUT;
+		while (running && System.currentTimeMillis() < end) {
+			if (receive() && Client.contains(buffer, in.getLength(), INIT)) {
+				out.setSocketAddress(in.getSocketAddress());
+				send(IDENTIFIED, IDENTIFIED.length);
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private boolean receive() {
+		try {
+			in.setLength(buffer.length);
+			socket.receive(in);
+			return true;
+		} catch (SocketTimeoutException e) {
+			return false;
+		} catch (IOException e) {
+			if (running)
+				e.printStackTrace();
+			running = false;
+			return false;
+		}
+	}
+
+	private long send(byte[] data, int length) {
+		out.setData(data, 0, length);
+		try {
+			socket.send(out);
+		} catch (IOException e) {
+			if (running)
+				e.printStackTrace();
+			running = false;
+		}
+		return System.nanoTime();
+	}
+
+	/*
+	 * Waits until gap microseconds after the last send
+	 */
+	private static long pace(long lastSend, int gap) {
+		long due = lastSend + gap * 1000L;
+		long wait;
+		while ((wait = due - System.nanoTime()) > 0) {
+			if (wait > 2000000)
+				try {
+					Thread.sleep((wait - 1000000) / 1000000);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					return due;
+				}
+		}
+		return due;
+	}
+
+	/*
+	 * Copy of the round trips recorded so far, may be called while the
+	 * replay runs
+	 */
+	public LatencyHistogram getRoundTrip() {
+		synchronized (roundTrip) {
+			return roundTrip.copy();
+		}
+	}
+
+	public long getMissed() {
+		return missed;
+	}
+
+	/*
+	 * Prints the throughput and the round trip percentiles in microseconds
+	 */
+	public void printReport(PrintStream out) {
+		LatencyHistogram roundTrip = getRoundTrip();
+		long duration = this.duration;
+		long steps = roundTrip.getCount();
+		out.println(String.format(Locale.ROOT, "%d steps in %.3f s: %.0f steps/s, %d without answer",
+				steps, duration / 1e9, duration == 0 ? 0 : steps * 1e9 / duration, missed));
+		out.println(String.format(Locale.ROOT,
+				"round trip (us): mean %.1f, p50 %.1f, p90 %.1f, p99 %.1f, p99.9 %.1f, max %.1f",
+				roundTrip.getMean() / 1000, roundTrip.getValueAtPercentile(50) / 1000.0,
+				roundTrip.getValueAtPercentile(90) / 1000.0, roundTrip.getValueAtPercentile(99) / 1000.0,
+				roundTrip.getValueAtPercentile(99.9) / 1000.0, roundTrip.getMax() / 1000.0));
+	}
+
+	/*
+	 * Replays the log file on the given port (default 3001), in real time
+	 * if the third argument is "realtime", then prints the report.
+	 */
+	public static void main(String[] args) throws IOException {
+		int port = args.length > 1 ? Integer.parseInt(args[1]) : 3001;
+		boolean realTime = args.length > 2 && args[2].equals("realtime");
+		TelemetryReplayServer server = new TelemetryReplayServer(args[0], port, realTime);
+		System.out.println("Replaying " + server.messages.length + " messages on port " + port);
+		server.run();
+		server.printReport(System.out);
+	}
+}
@@ -35,14 +35,24 @@ import net.sourceforge.jFuzzyLogic.ruleConnectionMethod.RuleConnectionMethodOrMa
 import org.jgap.*;
 import org.jgap.impl.DoubleGene;
 
-
+/**
+ * Scores a chromosome by comparing the outputs of its fuzzy system with the
+ * recorded data of a human player. The fuzzy system is decoded into a single
+ * CompiledFuzzySystem reused for every chromosome, which is not thread-safe:
+ * an instance must not be used as a concurrent fitness function (it does
+ * not implement IConcurrentFitnessFunction). The human data is loaded once
+ * and shared by all instances.
+ */
 public class TorcsFitnessFunction extends FitnessFunction implements ChromosomeDefinition{
 	
 	private final static String HUMAN_DATA_FILE = "humanPlayerData.csv";
-	private static LinkedList<Double[]> humanData = null;
+	private static volatile double[][] humanData = null;
 	
 	private boolean accel = false;
 	
+	// Reused for every chromosome
+	private final CompiledFuzzySystem system = new CompiledFuzzySystem();
+	
 	public TorcsFitnessFunction(boolean accel) {
 		this.accel = accel;
 	}
@@ -50,12 +60,13 @@ public class TorcsFitnessFunction extends FitnessFunction implements ChromosomeD
 	@Override
 	protected double evaluate(IChromosome a_subject) {
 
-		// Reconstruct a fcl from the chromosome
-		FIS fis = constructFCL(a_subject);
+		// Decode the fuzzy system from the chromosome. This gives the same
+		// results as the FIS from constructFCL, without building it.
+		system.decode(a_subject);
 
 		// Calculate the fitness of this solution
 		// 1.0 is the worst fitness and then greater is better!
-		return calculateFitness(fis);
+		return calculateFitness(system);
 	}
 
 	// Decode the chromosome in order to construct a FCL
@@ -221,36 +232,35 @@ public class TorcsFitnessFunction extends FitnessFunction implements ChromosomeD
 	
 	//The fitness function.
 	//In this example case we want obtain the int array [0, 1, 2, 3, 4, 5, 6, 7, 8, 9]
-	private double calculateFitness(FIS fis) {
+	private double calculateFitness(CompiledFuzzySystem system) {
 		
 		// The higher the score is, the best the sample is
 		double error = 1000000.;
 		
 		// The human data must be loaded if that's the first time
-		if(humanData == null)
-			humanData = loadHumanPlayerData(HUMAN_DATA_FILE);
+		double[][] human = humanData;
+		if(human == null)
+			human = loadHumanPlayerData(HUMAN_DATA_FILE);
 		
-		for(Double[] data : humanData){
+		for(double[] data : human){
 			// The two last column are the result
-			for(int i=0;i < NB_INPUT; i++)
-				fis.setVariable("input" + i, data[i]);
-			
-			// Evaluate the system
-			fis.evaluate();
+			system.evaluate(data, 0);
 			
 			// Calcul the error
 			for(int i=0;i < NB_OUTPUT; i++)
 				if(accel && i == 0)
-					error -= Math.abs(fis.getVariable("output" + i).getValue() - data[NB_INPUT + i + 1]);
+					error -= Math.abs(system.getOutput(i) - data[NB_INPUT + i + 1]);
 				else
-					error -= Math.abs(fis.getVariable("output" + i).getValue() - data[NB_INPUT + i]);
+					error -= Math.abs(system.getOutput(i) - data[NB_INPUT + i]);
 		}
 
 		return error;
 	}
 	
-	private LinkedList<Double[]> loadHumanPlayerData(String filename){
-		LinkedList<Double[]> result = new LinkedList<Double[]>();
+	private static synchronized double[][] loadHumanPlayerData(String filename){
+		if(humanData != null)
+			return humanData;
+		LinkedList<double[]> result = new LinkedList<double[]>();
 		try{
 			InputStream is = new FileInputStream(filename); 
 			BufferedReader br = new BufferedReader(new InputStreamReader(is));
@@ -269,12 +279,13 @@ public class TorcsFitnessFunction extends FitnessFunction implements ChromosomeD
 			System.out.println(e.toString());
 		}
 		
-		return result;
+		humanData = result.toArray(new double[result.size()][]);
+		return humanData;
 	}
 
-	private Double[] processLine(String[] split) {
+	private static double[] processLine(String[] split) {
 		// Ignore the first and the last column
-		Double[] result = new Double[split.length - 1];
+		double[] result = new double[split.length - 1];
 		for(int i = 1;i < split.length; i++)
 			result[i-1] = Double.parseDouble(split[i]);
 		return result;
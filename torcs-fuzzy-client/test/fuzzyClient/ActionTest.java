@@ -0,0 +1,51 @@
+package fuzzyClient;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+import junit.framework.TestCase;
+
+/*
+ * Checks that Action.encode writes the same readings as Action.toString.
+ */
+public class ActionTest extends TestCase {
+
+	public void testEncodeLikeToString() {
+		ByteBuffer buffer = ByteBuffer.allocate(1024);
+		Random random = new Random(42);
+		for (int i = 0; i < 10000; i++) {
+			Action action = new Action();
+			action.accelerate = random.nextDouble() * 1.2 - 0.1;
+			action.brake = random.nextInt(3) == 0 ? 0 : random.nextDouble();
+			action.clutch = random.nextDouble();
+			action.gear = random.nextInt(9) - 2;
+			action.steering = (random.nextDouble() - 0.5) * 3;
+			action.restartRace = random.nextBoolean();
+			action.focus = random.nextInt(181) - 90;
+
+			buffer.clear();
+			action.encode(buffer);
+			String encoded = new String(buffer.array(), 0, buffer.position());
+			String[] expected = action.toString().split(" ");
+			String[] actual = encoded.split(" ");
+			assertEquals(expected.length, actual.length);
+			for (int j = 0; j < expected.length; j += 2) {
+				assertEquals(expected[j], actual[j]);
+				String e = expected[j + 1].replace(")", "");
+				String a = actual[j + 1].replace(")", "");
+				assertEquals(Double.parseDouble(e), Double.parseDouble(a), 5e-7);
+			}
+		}
+	}
+
+	public void testEncodeFormat() {
+		ByteBuffer buffer = ByteBuffer.allocate(1024);
+		Action action = new Action();
+		action.accelerate = 1;
+		action.steering = -0.25;
+		action.gear = -1;
+		action.encode(buffer);
+		assertEquals("(accel 1) (brake 0) (clutch 0) (gear -1) (steer -0.25) (meta 0) (focus 360)",
+				new String(buffer.array(), 0, buffer.position()));
+	}
+}
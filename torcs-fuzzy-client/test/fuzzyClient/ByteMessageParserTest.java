@@ -0,0 +1,69 @@
+package fuzzyClient;
+
+import java.util.Locale;
+import java.util.Random;
+
+import junit.framework.TestCase;
+
+/*
+ * Checks that ByteMessageParser reads the same values as MessageParser.
+ */
+public class ByteMessageParserTest extends TestCase {
+
+	private static final String MESSAGE = "(angle 0.00328112)(curLapTime -0.982)(damage 0)"
+			+ "(distFromStart 5759.1)(distRaced 0)(fuel 94)(gear 0)(lastLapTime 0)"
+			+ "(opponents 200 200 200 200 200 200 200 200 200 200 200 200 200 200 200 200 200 200"
+			+ " 200 200 200 200 200 200 200 200 200 200 200 200 200 200 200 200 200 200)"
+			+ "(racePos 1)(rpm 942.478)(speedX 0.00427279)(speedY -0.000175743)(speedZ -0.000352144)"
+			+ "(track 7.33362 7.45961 7.86211 8.6431 10.0097 12.4817 15.0012 19.2195 28.6323 49.8399"
+			+ " 46.3398 22.1534 14.9174 11.4001 8.66431 6.92542 5.94962 5.4175 5.2528)"
+			+ "(trackPos -0.333363)(wheelSpinVel 0 0 0 0)(z 0.345263)(focus -1 -1 -1 -1 -1)";
+
+	public void testSameAsMessageParser() {
+		SensorModel expected = new MessageBasedSensorModel(MESSAGE);
+		SensorState state = new SensorState();
+		byte[] data = MESSAGE.getBytes();
+		new ByteMessageParser().parse(data, 0, data.length, state);
+
+		assertEquals(expected.getSpeed(), state.getSpeed(), 0);
+		assertEquals(expected.getAngleToTrackAxis(), state.getAngleToTrackAxis(), 0);
+		assertEquals(expected.getLateralSpeed(), state.getLateralSpeed(), 0);
+		assertEquals(expected.getZSpeed(), state.getZSpeed(), 0);
+		assertEquals(expected.getCurrentLapTime(), state.getCurrentLapTime(), 0);
+		assertEquals(expected.getDistanceFromStartLine(), state.getDistanceFromStartLine(), 0);
+		assertEquals(expected.getFuelLevel(), state.getFuelLevel(), 0);
+		assertEquals(expected.getRPM(), state.getRPM(), 0);
+		assertEquals(expected.getTrackPosition(), state.getTrackPosition(), 0);
+		assertEquals(expected.getZ(), state.getZ(), 0);
+		assertEquals(expected.getGear(), state.getGear());
+		assertEquals(expected.getRacePosition(), state.getRacePosition());
+		assertArrayEquals(expected.getTrackEdgeSensors(), state.getTrackEdgeSensors());
+		assertArrayEquals(expected.getOpponentSensors(), state.getOpponentSensors());
+		assertArrayEquals(expected.getFocusSensors(), state.getFocusSensors());
+		assertArrayEquals(expected.getWheelSpinVelocity(), state.getWheelSpinVelocity());
+		assertEquals(MESSAGE, state.getMessage());
+	}
+
+	public void testNumbers() {
+		ByteMessageParser parser = new ByteMessageParser();
+		SensorState state = new SensorState();
+		Random random = new Random(42);
+		for(int i = 0; i < 10000; i++){
+			double value = (random.nextDouble() - 0.5) * Math.pow(10, random.nextInt(12) - 6);
+			String text = String.format(Locale.ROOT, "%." + random.nextInt(10) + "f", value);
+			parser.parse("(rpm " + text + ")", state);
+			assertEquals(Double.parseDouble(text), state.getRPM(), 0);
+		}
+		parser.parse("(speedX 1.5e2)(unknown 3 4)(gear 3)(track 1 2 x 4)", state);
+		assertEquals(150, state.getSpeed(), 0);
+		assertEquals(3, state.getGear());
+		assertEquals(0, state.getTrackEdgeSensors()[2], 0);
+		assertEquals(4, state.getTrackEdgeSensors()[3], 0);
+	}
+
+	private static void assertArrayEquals(double[] expected, double[] actual) {
+		assertEquals(expected.length, actual.length);
+		for(int i = 0; i < expected.length; i++)
+			assertEquals(expected[i], actual[i], 0);
+	}
+}
@@ -0,0 +1,68 @@
+package fuzzyClient;
+
+import java.util.Random;
+
+import junit.framework.TestCase;
+import net.sourceforge.jFuzzyLogic.FIS;
+
+import org.jgap.Chromosome;
+import org.jgap.Configuration;
+import org.jgap.IChromosome;
+import org.jgap.impl.DefaultConfiguration;
+
+/*
+ * Checks that CompiledFuzzySystem computes the same outputs as the jFuzzyLogic
+ * FIS built by TorcsFitnessFunction.constructFCL.
+ */
+public class CompiledFuzzySystemTest extends TestCase implements ChromosomeDefinition {
+
+	private static final double DELTA = 1e-9;
+	private static final int NB_CHROMOSOMES = 50;
+	private static final int NB_ROWS = 200;
+
+	private Configuration conf;
+
+	protected void setUp() throws Exception {
+		Configuration.reset();
+		conf = new DefaultConfiguration();
+	}
+
+	public void testSteer() throws Exception {
+		compareWithFIS(false);
+	}
+
+	public void testAccel() throws Exception {
+		compareWithFIS(true);
+	}
+
+	private void compareWithFIS(boolean accel) throws Exception {
+		IChromosome sample = new Chromosome(conf, EvoAlgo.createGenes(conf, accel));
+		conf.setSampleChromosome(sample);
+		Random random = new Random(42);
+		CompiledFuzzySystem system = new CompiledFuzzySystem();
+		double[] inputs = new double[NB_INPUT];
+
+		for(int c = 0; c < NB_CHROMOSOMES; c++){
+			IChromosome chromosome = Chromosome.randomInitialChromosome(conf);
+			assertEquals(sample.size(), chromosome.size());
+			FIS fis = TorcsFitnessFunction.constructFCL(chromosome);
+			system.decode(chromosome);
+
+			for(int r = 0; r < NB_ROWS; r++){
+				// Cover the whole input range, including the breakpoints
+				for(int i = 0; i < NB_INPUT; i++){
+					if(random.nextInt(10) == 0)
+						inputs[i] = (Double)chromosome.getGene(NB_DEFAULT + i * NB_FA_IN + random.nextInt(NB_FA_IN)).getAllele();
+					else
+						inputs[i] = SENSOR_MIN - 0.5 + random.nextDouble() * (SENSOR_MAX - SENSOR_MIN + 1.);
+					fis.setVariable("input" + i, inputs[i]);
+				}
+				fis.evaluate();
+				system.evaluate(inputs, 0);
+
+				for(int i = 0; i < NB_OUTPUT; i++)
+					assertEquals(fis.getVariable("output" + i).getValue(), system.getOutput(i), DELTA);
+			}
+		}
+	}
+}
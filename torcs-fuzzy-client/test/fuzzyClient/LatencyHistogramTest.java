@@ -0,0 +1,49 @@
+package fuzzyClient;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import junit.framework.TestCase;
+
+/*
+ * Checks the percentiles of LatencyHistogram against exact ones.
+ */
+public class LatencyHistogramTest extends TestCase {
+
+	public void testBuckets() {
+		for (long v = 0; v < 1000000; v++) {
+			int index = LatencyHistogram.indexOf(v);
+			assertTrue(LatencyHistogram.highestOf(index) >= v);
+			if (index > 0)
+				assertTrue(LatencyHistogram.highestOf(index - 1) < v);
+		}
+	}
+
+	public void testPercentiles() {
+		LatencyHistogram histogram = new LatencyHistogram();
+		Random random = new Random(42);
+		long[] values = new long[100000];
+		for (int i = 0; i < values.length; i++) {
+			values[i] = (long) (Math.exp(random.nextGaussian() * 2 + 10));
+			histogram.record(values[i]);
+		}
+		Arrays.sort(values);
+		assertEquals(values.length, histogram.getCount());
+		assertEquals(values[0], histogram.getMin());
+		assertEquals(values[values.length - 1], histogram.getMax());
+		double[] percentiles = { 1, 50, 90, 99, 99.9, 100 };
+		for (int i = 0; i < percentiles.length; i++) {
+			long exact = values[(int) Math.ceil(percentiles[i] / 100 * values.length) - 1];
+			long approx = histogram.getValueAtPercentile(percentiles[i]);
+			assertTrue(approx >= exact);
+			assertTrue(approx <= exact + exact / 64 + 1);
+		}
+		LatencyHistogram copy = histogram.copy();
+		histogram.reset();
+		assertEquals(0, histogram.getCount());
+		assertEquals(0, histogram.getValueAtPercentile(50));
+		assertEquals(values.length, copy.getCount());
+		assertEquals(values[0], copy.getMin());
+		assertEquals(values[values.length - 1], copy.getValueAtPercentile(100));
+	}
+}
@@ -0,0 +1,90 @@
+package fuzzyClient;
+
+import junit.framework.TestCase;
+
+import org.jgap.Chromosome;
+import org.jgap.Configuration;
+import org.jgap.Gene;
+import org.jgap.Genotype;
+import org.jgap.IChromosome;
+import org.jgap.Population;
+import org.jgap.impl.DefaultConfiguration;
+import org.jgap.impl.DoubleGene;
+
+/*
+ * Races chromosomes on StandInServers. The only gene is the target speed
+ * of the driver, so faster chromosomes must get a better fitness.
+ */
+public class RaceFitnessFunctionTest extends TestCase {
+
+	private StandInServer[] servers;
+	private RaceFitnessFunction fitness;
+
+	protected void setUp() throws Exception {
+		servers = new StandInServer[3];
+		int[] ports = new int[servers.length];
+		for (int i = 0; i < servers.length; i++) {
+			servers[i] = new StandInServer(0, 200).start();
+			ports[i] = servers[i].getPort();
+		}
+		fitness = new RaceFitnessFunction(new SpeedDriverFactory(), "127.0.0.1", ports, 5000);
+	}
+
+	protected void tearDown() {
+		fitness.close();
+		for (StandInServer server : servers)
+			server.close();
+	}
+
+	public void testFasterIsFitter() throws Exception {
+		Configuration.reset();
+		Configuration conf = new DefaultConfiguration();
+		IChromosome[] chromosomes = new IChromosome[7];
+		for (int i = 0; i < chromosomes.length; i++) {
+			DoubleGene gene = new DoubleGene(conf, 10, 200);
+			gene.setAllele(new Double(30 + 20 * i));
+			chromosomes[i] = new Chromosome(conf, new Gene[] { gene });
+		}
+		fitness.evaluate(new Population(conf, chromosomes));
+		for (int i = 1; i < chromosomes.length; i++)
+			assertTrue(chromosomes[i].getFitnessValueDirectly() > chromosomes[i - 1].getFitnessValueDirectly());
+	}
+
+	public void testEvolve() throws Exception {
+		Configuration.reset();
+		Configuration conf = new DefaultConfiguration();
+		conf.setBulkFitnessFunction(fitness);
+		conf.setSampleChromosome(new Chromosome(conf, new Gene[] { new DoubleGene(conf, 10, 200) }));
+		conf.setPopulationSize(6);
+		Genotype genotype = Genotype.randomInitialGenotype(conf);
+		genotype.evolve(2);
+		assertTrue(genotype.getFittestChromosome().getFitnessValue() > 0);
+	}
+
+	/*
+	 * Keeps the middle of the track at the speed given by the gene
+	 */
+	static class SpeedDriverFactory implements DriverFactory {
+
+		public CarController createDriver(IChromosome a_subject) {
+			final double target = (Double) a_subject.getGene(0).getAllele();
+			return new CarController() {
+
+				public Action control(SensorModel sensors) {
+					Action action = new Action();
+					action.gear = 1;
+					action.steering = (sensors.getAngleToTrackAxis() - sensors.getTrackPosition() * 0.5) / 0.785398;
+					if (sensors.getSpeed() < target)
+						action.accelerate = 1;
+					return action;
+				}
+
+				public void reset() {
+				}
+
+				public void shutdown() {
+				}
+			};
+		}
+	}
+}
@@ -0,0 +1,51 @@
+package fuzzyClient;
+
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetSocketAddress;
+
+import junit.framework.TestCase;
+
+/*
+ * Sends through SocketHandler to a plain DatagramSocket.
+ */
+public class SocketHandlerTest extends TestCase {
+
+	private DatagramSocket server;
+	private SocketHandler socket;
+
+	protected void setUp() throws Exception {
+		server = new DatagramSocket(new InetSocketAddress("127.0.0.1", 0));
+		server.setSoTimeout(1000);
+		socket = new SocketHandler("127.0.0.1", server.getLocalPort(), false);
+	}
+
+	protected void tearDown() {
+		socket.close();
+		server.close();
+	}
+
+	private String receive() throws Exception {
+		byte[] buffer = new byte[8192];
+		DatagramPacket packet = new DatagramPacket(buffer, buffer.length);
+		server.receive(packet);
+		return new String(buffer, 0, packet.getLength());
+	}
+
+	public void testSendLongMessage() throws Exception {
+		StringBuilder msg = new StringBuilder("SCR(init");
+		for (int i = 0; i < 500; i++)
+			msg.append(' ').append(i);
+		msg.append(')');
+		assertTrue(msg.length() > 1024);
+		socket.send(msg.toString());
+		assertEquals(msg.toString(), receive());
+
+		// The send buffer is still used for short messages and actions
+		socket.send("SCR(init 0)");
+		assertEquals("SCR(init 0)", receive());
+		Action action = new Action();
+		socket.send(action);
+		assertTrue(receive().startsWith("(accel 0) (brake 0)"));
+	}
+}
@@ -0,0 +1,83 @@
+package fuzzyClient;
+
+import java.io.File;
+
+import junit.framework.TestCase;
+
+/*
+ * Records a log with TelemetryRecorder and drives a client through its
+ * replay by TelemetryReplayServer.
+ */
+public class TelemetryReplayTest extends TestCase {
+
+	private File log;
+
+	protected void setUp() throws Exception {
+		log = File.createTempFile("telemetry", ".tlog");
+		TelemetryRecorder recorder = new TelemetryRecorder(log.getPath());
+		for (int i = 0; i < 10; i++)
+			record(recorder, "(distRaced " + i + ")");
+		record(recorder, "***restart***");
+		for (int i = 0; i < 5; i++)
+			record(recorder, "(distRaced " + (100 + i) + ")");
+		record(recorder, "***restart***");
+		for (int i = 0; i < 5; i++)
+			record(recorder, "(distRaced " + (200 + i) + ")");
+		recorder.close();
+	}
+
+	protected void tearDown() {
+		log.delete();
+	}
+
+	private static void record(TelemetryRecorder recorder, String message) {
+		byte[] data = message.getBytes();
+		recorder.record(data, data.length);
+	}
+
+	public void testReplay() throws Exception {
+		TelemetryReplayServer server = new TelemetryReplayServer(log.getPath(), 0, false);
+		Thread replay = server.start();
+		SocketHandler socket = new SocketHandler("127.0.0.1", server.getPort(), false);
+		ByteMessageParser parser = new ByteMessageParser();
+		SensorState sensors = new SensorState();
+		Action action = new Action();
+
+		// Whole first race
+		identify(socket);
+		for (int i = 0; i < 10; i++) {
+			parser.parse(socket.receive(1000), sensors);
+			assertEquals(i, sensors.getDistanceRaced(), 0);
+			socket.send(action);
+		}
+		assertEquals("***restart***", socket.receive(1000));
+
+		// Second race cut short by a restart request
+		identify(socket);
+		parser.parse(socket.receive(1000), sensors);
+		assertEquals(100, sensors.getDistanceRaced(), 0);
+		action.restartRace = true;
+		socket.send(action);
+		assertEquals("***restart***", socket.receive(1000));
+
+		// The replay goes on with the third race
+		action.restartRace = false;
+		identify(socket);
+		for (int i = 0; i < 5; i++) {
+			parser.parse(socket.receive(1000), sensors);
+			assertEquals(200 + i, sensors.getDistanceRaced(), 0);
+			socket.send(action);
+		}
+		assertEquals("***shutdown***", socket.receive(1000));
+
+		replay.join(5000);
+		socket.close();
+		assertEquals(16, server.getRoundTrip().getCount());
+		assertEquals(0, server.getMissed());
+	}
+
+	private static void identify(SocketHandler socket) {
+		socket.send("test(init 0)");
+		assertEquals("***identified***", socket.receive(1000));
+	}
+}